@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+/**
+ * The {@link BenchmarkRunner} executes the benchmarks that match the given
+ * (JMH) command line options. In contrast to the default JMH main class, the
+ * results are written as JSON (to <code>jmh-result.json</code>) by default,
+ * so that they can be compared between builds.
+ *
+ * @author agent
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The default file to which the results are written.
+	 */
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args
+	 *            JMH command line options, e.g. <code>-rf csv</code> to
+	 *            change the result format, or a regular expression to select
+	 *            the benchmarks to run.
+	 * @throws CommandLineOptionException
+	 *             if the command line options cannot be parsed.
+	 * @throws RunnerException
+	 *             if running the benchmarks fails.
+	 */
+	public static void main(String[] args)
+			throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		// explicitly given command line options take precedence
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			builder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			builder.result(DEFAULT_RESULT_FILE);
+		}
+		Options options = builder.parent(commandLineOptions).build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.dot.internal.DotImport;
+import org.eclipse.gef.graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the import of DOT graphs (i.e. parsing and transformation
+ * into a {@link Graph}) via {@link DotImport#importDot(String)}.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DotImportBenchmarks {
+
+	/**
+	 * The number of nodes of the generated DOT graph.
+	 */
+	@Param({ "100", "1000", "5000" })
+	public int size;
+
+	private DotImport dotImport;
+	private String dot;
+
+	/**
+	 * Generates the (reproducible) DOT input and initializes the
+	 * {@link DotImport}, including the (standalone) DOT parser.
+	 */
+	@Setup
+	public void setUp() {
+		dot = SyntheticGraphs.createDot(size, 2 * size, 0);
+		dotImport = new DotImport();
+		// parse once, so that the injector of the parser is created up-front
+		dotImport.importDot("digraph {}");
+	}
+
+	/**
+	 * Imports the generated DOT input.
+	 *
+	 * @return The imported graphs.
+	 */
+	@Benchmark
+	public List<Graph> importDot() {
+		return dotImport.importDot(dot);
+	}
+}
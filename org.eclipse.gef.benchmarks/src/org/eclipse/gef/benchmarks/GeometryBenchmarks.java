@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.geometry.euclidean.Angle;
+import org.eclipse.gef.geometry.planar.AffineTransform;
+import org.eclipse.gef.geometry.planar.BezierCurve;
+import org.eclipse.gef.geometry.planar.CurveIntersector;
+import org.eclipse.gef.geometry.planar.CurveIntersector.Intersection;
+import org.eclipse.gef.geometry.planar.Ellipse;
+import org.eclipse.gef.geometry.planar.ICurve;
+import org.eclipse.gef.geometry.planar.Line;
+import org.eclipse.gef.geometry.planar.Path;
+import org.eclipse.gef.geometry.planar.PolyBezier;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Polygon;
+import org.eclipse.gef.geometry.planar.Polyline;
+import org.eclipse.gef.geometry.planar.PreparedGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the hot paths of the planar geometry API, i.e. curve
+ * intersection and offsetting, point containment, boolean operations, and
+ * transformations.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmarks {
+
+	private static final int POINT_COUNT = 1024;
+
+	/**
+	 * The number of vertices of the polygon, the number of segments of the
+	 * interpolated curve, and the number of connections.
+	 */
+	@Param({ "16", "64", "256" })
+	public int complexity;
+
+	private BezierCurve cubic1;
+	private BezierCurve cubic2;
+	private BezierCurve highDegree;
+	private PolyBezier interpolated;
+	private Ellipse ellipse;
+	private List<ICurve> connections;
+	private double[] coordinates;
+	private double[] transformedCoordinates;
+	private Line line;
+	private Polygon polygon;
+	private Path polygonPath;
+	private PreparedGeometry preparedPolygon;
+	private Path rotatedPolygonPath;
+	private Point[] points;
+	private AffineTransform[] transforms;
+
+	/**
+	 * Determines the (reproducible) inputs of the benchmarks.
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(0);
+		cubic1 = new BezierCurve(0, 0, 100, 400, 300, -200, 400, 200);
+		cubic2 = new BezierCurve(0, 200, 150, -300, 250, 500, 400, 0);
+		double[] controlPoints = new double[16];
+		for (int i = 0; i < controlPoints.length; i++) {
+			controlPoints[i] = random.nextDouble() * 400;
+		}
+		highDegree = new BezierCurve(controlPoints);
+
+		// zig-zag interpolation through the given number of points
+		Point[] interpolationPoints = new Point[complexity + 1];
+		for (int i = 0; i < interpolationPoints.length; i++) {
+			interpolationPoints[i] = new Point(i * 400d / complexity,
+					i % 2 == 0 ? 0 : 400);
+		}
+		interpolated = PolyBezier.interpolateCubic(interpolationPoints);
+		ellipse = new Ellipse(50, 50, 300, 300);
+		line = new Line(0, 200, 400, 200);
+
+		// star-shaped (non-convex) polygon with the given number of vertices
+		Point[] vertices = new Point[complexity];
+		for (int i = 0; i < complexity; i++) {
+			double angle = 2 * Math.PI * i / complexity;
+			double radius = i % 2 == 0 ? 200 : 100;
+			vertices[i] = new Point(200 + radius * Math.cos(angle),
+					200 + radius * Math.sin(angle));
+		}
+		polygon = new Polygon(vertices);
+		polygonPath = polygon.toPath();
+		preparedPolygon = polygon.prepare();
+		rotatedPolygonPath = polygon.getRotatedCCW(Angle.fromDeg(10))
+				.toPath();
+		points = new Point[POINT_COUNT];
+		coordinates = new double[2 * POINT_COUNT];
+		for (int i = 0; i < POINT_COUNT; i++) {
+			points[i] = new Point(random.nextDouble() * 400,
+					random.nextDouble() * 400);
+			coordinates[2 * i] = points[i].x;
+			coordinates[2 * i + 1] = points[i].y;
+		}
+		transformedCoordinates = new double[coordinates.length];
+		transforms = new AffineTransform[] {
+				new AffineTransform().translate(10, 20),
+				new AffineTransform().rotate(Math.PI / 7),
+				new AffineTransform().scale(1.5, 0.75),
+				new AffineTransform().rotate(-Math.PI / 3, 200, 200),
+				new AffineTransform().translate(-5, 3) };
+
+		// connections between random points, routed with a single bend point
+		connections = new ArrayList<>();
+		for (int i = 0; i < complexity; i++) {
+			connections.add(new Polyline(random.nextDouble() * 400,
+					random.nextDouble() * 400, random.nextDouble() * 400,
+					random.nextDouble() * 400, random.nextDouble() * 400,
+					random.nextDouble() * 400));
+		}
+	}
+
+	/**
+	 * Concatenates a chain of transformations and applies the result to a
+	 * number of points.
+	 *
+	 * @return The transformed points.
+	 */
+	@Benchmark
+	public Point[] affineTransformChain() {
+		AffineTransform chain = new AffineTransform();
+		for (AffineTransform tx : transforms) {
+			chain.concatenate(tx);
+		}
+		return chain.getTransformed(points);
+	}
+
+	/**
+	 * Concatenates a chain of transformations and applies the result to the
+	 * coordinates of a number of points, without allocating.
+	 *
+	 * @return The transformed coordinates.
+	 */
+	@Benchmark
+	public double[] affineTransformChainCoordinates() {
+		AffineTransform chain = new AffineTransform();
+		for (AffineTransform tx : transforms) {
+			chain.concatenate(tx);
+		}
+		chain.transform(coordinates, 0, transformedCoordinates, 0,
+				POINT_COUNT);
+		return transformedCoordinates;
+	}
+
+	/**
+	 * Computes the intersections of two cubic Bézier curves.
+	 *
+	 * @return The intersection points.
+	 */
+	@Benchmark
+	public Point[] bezierCurveGetIntersectionsCubic() {
+		return cubic1.getIntersections(cubic2);
+	}
+
+	/**
+	 * Computes the intersections of a cubic Bézier curve and a Bézier curve of
+	 * higher degree.
+	 *
+	 * @return The intersection points.
+	 */
+	@Benchmark
+	public Point[] bezierCurveGetIntersectionsHighDegree() {
+		return cubic1.getIntersections(highDegree);
+	}
+
+	/**
+	 * Computes an offset approximation of a cubic Bézier curve.
+	 *
+	 * @return The offset curve.
+	 */
+	@Benchmark
+	public PolyBezier bezierCurveGetOffset() {
+		return cubic1.getOffset(25);
+	}
+
+	/**
+	 * Computes the crossings between all pairs of a number of connections.
+	 *
+	 * @return The intersections per pair of connections.
+	 */
+	@Benchmark
+	public List<Intersection> curveIntersectorGetIntersections() {
+		return CurveIntersector.getIntersections(connections);
+	}
+
+	/**
+	 * Computes the intersections of an ellipse and an interpolated curve
+	 * (which is delegated to the curve/shape intersection of CurveUtils).
+	 *
+	 * @return The intersection points.
+	 */
+	@Benchmark
+	public Point[] curveUtilsGetIntersectionsEllipse() {
+		return ellipse.getIntersections(interpolated);
+	}
+
+	/**
+	 * Computes the intersections of an interpolated curve and a line (which is
+	 * delegated to the curve/curve intersection of CurveUtils).
+	 *
+	 * @return The intersection points.
+	 */
+	@Benchmark
+	public Point[] curveUtilsGetIntersectionsLine() {
+		return interpolated.getIntersections(line);
+	}
+
+	/**
+	 * Computes the union of a polygon and a rotated copy of it.
+	 *
+	 * @return The union of both polygons.
+	 */
+	@Benchmark
+	public Path pathAdd() {
+		return Path.add(polygonPath, rotatedPolygonPath);
+	}
+
+	/**
+	 * Hit-tests a number of points against an interpolated curve, as done for
+	 * connections.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void polyBezierContains(Blackhole blackhole) {
+		for (Point p : points) {
+			blackhole.consume(interpolated.contains(p));
+		}
+	}
+
+	/**
+	 * Projects a number of points onto an interpolated curve, as done for
+	 * anchoring connections.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void polyBezierGetProjection(Blackhole blackhole) {
+		for (Point p : points) {
+			blackhole.consume(interpolated.getProjection(p));
+		}
+	}
+
+	/**
+	 * Tests a number of points for containment within a polygon.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void polygonContains(Blackhole blackhole) {
+		for (Point p : points) {
+			blackhole.consume(polygon.contains(p));
+		}
+	}
+
+	/**
+	 * Tests a number of points for containment within a prepared polygon.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void preparedPolygonContains(Blackhole blackhole) {
+		for (Point p : points) {
+			blackhole.consume(preparedPolygon.contains(p));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the construction of {@link Graph}s and for adjacency queries
+ * on {@link Node}s.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphBenchmarks {
+
+	/**
+	 * The number of nodes of the graph.
+	 */
+	@Param({ "100", "1000", "10000" })
+	public int size;
+
+	private Graph graph;
+	private int[] sources;
+	private int[] targets;
+
+	/**
+	 * Determines the (reproducible) inputs of the benchmarks.
+	 */
+	@Setup
+	public void setUp() {
+		graph = SyntheticGraphs.createGraph(size, size, 0);
+		Random random = new Random(0);
+		sources = new int[2 * size];
+		targets = new int[2 * size];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(size);
+			targets[i] = random.nextInt(size);
+		}
+	}
+
+	/**
+	 * Builds a graph by passing all nodes and edges to the constructor.
+	 *
+	 * @return The constructed graph.
+	 */
+	@Benchmark
+	public Graph graphConstructionBulk() {
+		List<Node> nodes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			nodes.add(new Node());
+		}
+		List<Edge> edges = new ArrayList<>(sources.length);
+		for (int i = 0; i < sources.length; i++) {
+			edges.add(new Edge(nodes.get(sources[i]), nodes.get(targets[i])));
+		}
+		return new Graph(nodes, edges);
+	}
+
+	/**
+	 * Builds a graph by adding nodes and edges one by one (as done when
+	 * editing or importing a graph).
+	 *
+	 * @return The constructed graph.
+	 */
+	@Benchmark
+	public Graph graphConstructionIncremental() {
+		Graph g = new Graph();
+		List<Node> nodes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Node node = new Node();
+			nodes.add(node);
+			g.getNodes().add(node);
+		}
+		for (int i = 0; i < sources.length; i++) {
+			g.getEdges().add(
+					new Edge(nodes.get(sources[i]), nodes.get(targets[i])));
+		}
+		return g;
+	}
+
+	/**
+	 * Queries the incoming and outgoing edges of all nodes.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void nodeAdjacentEdges(Blackhole blackhole) {
+		for (Node node : graph.getNodes()) {
+			blackhole.consume(node.getIncomingEdges().size());
+			blackhole.consume(node.getOutgoingEdges().size());
+		}
+	}
+
+	/**
+	 * Queries the neighbors, predecessors and successors of all nodes.
+	 *
+	 * @param blackhole
+	 *            The {@link Blackhole} consuming the results.
+	 */
+	@Benchmark
+	public void nodeAdjacentNodes(Blackhole blackhole) {
+		for (Node node : graph.getNodes()) {
+			blackhole.consume(node.getNeighbors().size());
+			blackhole.consume(node.getPredecessorNodes().size());
+			blackhole.consume(node.getSuccessorNodes().size());
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.algorithms.GridLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.RadialLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpaceTreeLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.TreeLayoutAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the {@link ILayoutAlgorithm}s, which are applied to synthetic
+ * (acyclic) graphs of parameterized size.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LayoutBenchmarks {
+
+	private static final long SEED = 0;
+
+	/**
+	 * The simple name of the {@link ILayoutAlgorithm} to apply.
+	 */
+	@Param({ "Spring", "Sugiyama", "Tree", "SpaceTree", "Radial", "Grid" })
+	public String algorithm;
+
+	/**
+	 * The number of nodes of the graph.
+	 */
+	@Param({ "100", "500", "2000" })
+	public int size;
+
+	/**
+	 * The number of edges that are added to the spanning tree of the graph,
+	 * relative to the number of nodes.
+	 */
+	@Param({ "0.0", "0.5" })
+	public double edgeDensity;
+
+	private LayoutContext context;
+
+	private ILayoutAlgorithm createLayoutAlgorithm() {
+		switch (algorithm) {
+		case "Spring":
+			SpringLayoutAlgorithm spring = new SpringLayoutAlgorithm();
+			// ensure the same amount of work is done in each invocation
+			spring.setRandom(false);
+			spring.setSpringTimeout(0);
+			spring.setIterations(50);
+			return spring;
+		case "Sugiyama":
+			return new SugiyamaLayoutAlgorithm();
+		case "Tree":
+			return new TreeLayoutAlgorithm();
+		case "SpaceTree":
+			return new SpaceTreeLayoutAlgorithm();
+		case "Radial":
+			return new RadialLayoutAlgorithm();
+		case "Grid":
+			return new GridLayoutAlgorithm();
+		default:
+			throw new IllegalArgumentException(
+					"Unknown layout algorithm <" + algorithm + ">.");
+		}
+	}
+
+	/**
+	 * Creates the (reproducible) graph and the {@link LayoutContext} to which
+	 * the layout algorithm is applied.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Graph graph = SyntheticGraphs.createGraph(size,
+				(int) (edgeDensity * size), SEED);
+		context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(createLayoutAlgorithm());
+	}
+
+	/**
+	 * Restores the initial node locations, so that each invocation starts
+	 * from the same state.
+	 */
+	@Setup(Level.Invocation)
+	public void resetLocations() {
+		SyntheticGraphs.resetLocations(context.getGraph(), SEED);
+	}
+
+	/**
+	 * Applies the layout algorithm.
+	 *
+	 * @return The graph that was laid out.
+	 */
+	@Benchmark
+	public Graph applyLayout() {
+		context.applyLayout(true);
+		return context.getGraph();
+	}
+}
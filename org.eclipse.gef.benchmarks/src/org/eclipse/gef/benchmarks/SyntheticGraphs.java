@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * Utility class to create reproducible synthetic inputs for the benchmarks.
+ *
+ * @author agent
+ *
+ */
+class SyntheticGraphs {
+
+	// branching factor of the generated trees, which determines their depth
+	private static final int BRANCHING = 4;
+
+	/**
+	 * Creates a reproducible tree with the given number of nodes and adds the
+	 * given number of additional random edges, each of which leads from a node
+	 * to a node of a deeper tree level, so that the resulting graph is acyclic
+	 * and its longest path is not longer than the depth of the tree. All nodes
+	 * are randomly placed within the bounds of the graph, which are set as a
+	 * layout property.
+	 *
+	 * @param size
+	 *            The number of nodes.
+	 * @param additionalEdges
+	 *            The number of edges to add to the tree.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 * @return The generated {@link Graph}.
+	 */
+	static Graph createGraph(int size, int additionalEdges, long seed) {
+		Random random = new Random(seed);
+		List<Node> nodes = new ArrayList<>(size);
+		List<Edge> edges = new ArrayList<>(size + additionalEdges);
+		int[] depths = new int[size];
+		for (int i = 0; i < size; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(40, 20));
+			nodes.add(node);
+			if (i > 0) {
+				int parent = (i - 1) / BRANCHING;
+				depths[i] = depths[parent] + 1;
+				edges.add(new Edge(nodes.get(parent), node));
+			}
+		}
+		for (int i = 0; i < additionalEdges && size > 1; i++) {
+			int source = random.nextInt(size);
+			int target = random.nextInt(size);
+			if (depths[source] == depths[target]) {
+				// skip edges within a tree level
+				continue;
+			} else if (depths[source] > depths[target]) {
+				int tmp = source;
+				source = target;
+				target = tmp;
+			}
+			edges.add(new Edge(nodes.get(source), nodes.get(target)));
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 1000, 800));
+		resetLocations(graph, seed);
+		return graph;
+	}
+
+	/**
+	 * Creates a random (but reproducible) DOT representation of a directed
+	 * graph with the given number of nodes and edges, which uses node and edge
+	 * attributes.
+	 *
+	 * @param size
+	 *            The number of nodes.
+	 * @param edgeCount
+	 *            The number of edges.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 * @return The DOT representation of the generated graph.
+	 */
+	static String createDot(int size, int edgeCount, long seed) {
+		Random random = new Random(seed);
+		StringBuilder dot = new StringBuilder();
+		dot.append("digraph G {\n");
+		dot.append("\tgraph [rankdir=LR];\n");
+		dot.append("\tnode [shape=box, style=filled];\n");
+		for (int i = 0; i < size; i++) {
+			String color = Integer
+					.toHexString(0x808080 + random.nextInt(0x7f7f7f));
+			dot.append("\tn").append(i).append(" [label=\"Node ").append(i)
+					.append("\", fillcolor=\"#").append(color)
+					.append("\"];\n");
+		}
+		for (int i = 0; i < edgeCount && size > 0; i++) {
+			dot.append("\tn").append(random.nextInt(size)).append(" -> n")
+					.append(random.nextInt(size)).append(" [weight=")
+					.append(1 + random.nextInt(10)).append("];\n");
+		}
+		dot.append("}\n");
+		return dot.toString();
+	}
+
+	/**
+	 * Randomly (but reproducibly) places the nodes of the given {@link Graph}
+	 * within the bounds of the graph.
+	 *
+	 * @param graph
+	 *            The {@link Graph} whose nodes to place.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 */
+	static void resetLocations(Graph graph, long seed) {
+		Random random = new Random(seed);
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		for (Node node : graph.getNodes()) {
+			LayoutProperties.setLocation(node,
+					new Point(random.nextDouble() * bounds.getWidth(),
+							random.nextDouble() * bounds.getHeight()));
+		}
+	}
+
+	private SyntheticGraphs() {
+		// not to be instantiated
+	}
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+/**
+ * This package provides JMH benchmarks for the hot paths of the GEF geometry,
+ * graph, layout, and DOT components. The benchmarks can be built (after the
+ * bundles have been installed) and executed headless via:
+ *
+ * <pre>
+ * mvn -f org.eclipse.gef.releng/pom.xml install -Pbenchmarks -DskipTests
+ * java -jar org.eclipse.gef.benchmarks/target/benchmarks.jar
+ * </pre>
+ *
+ * Results are written as JSON to <code>jmh-result.json</code> (see
+ * {@link org.eclipse.gef.benchmarks.BenchmarkRunner}).
+ */
+package org.eclipse.gef.benchmarks;
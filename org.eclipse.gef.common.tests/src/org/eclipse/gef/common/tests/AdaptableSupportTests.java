@@ -278,6 +278,38 @@ public class AdaptableSupportTests {
 		}).size());
 	}
 
+	@Test
+	public void resolutionCache() {
+		AdaptableSupportWrapper td = new AdaptableSupportWrapper();
+		ParameterType1 adapter1 = new ParameterType1();
+		td.setAdapter(adapter1);
+
+		// first retrieval resolves, subsequent ones are served from cache
+		assertEquals(adapter1, td.getAdapter(ParameterType1.class));
+		assertEquals(adapter1, td.getAdapter(ParameterType1.class));
+		assertNull(td.getAdapter(ParameterType2.class));
+		assertNull(td.getAdapter(ParameterType2.class));
+		assertEquals(adapter1,
+				td.getAdapter(AdapterKey.get(ParameterType1.class)));
+		assertEquals(adapter1,
+				td.getAdapter(AdapterKey.get(ParameterType1.class)));
+		assertEquals(3, td.ads.getResolutionCacheMisses());
+		assertEquals(3, td.ads.getResolutionCacheHits());
+
+		// registering an adapter invalidates the cache
+		ParameterType2 adapter2 = new ParameterType2();
+		td.setAdapter(adapter2);
+		assertEquals(adapter2, td.getAdapter(ParameterType2.class));
+		assertEquals(4, td.ads.getResolutionCacheMisses());
+
+		// unregistering an adapter invalidates the cache
+		td.unsetAdapter(adapter1);
+		assertNull(td.getAdapter(ParameterType1.class));
+		assertNull(td.getAdapter(AdapterKey.get(ParameterType1.class)));
+		assertEquals(6, td.ads.getResolutionCacheMisses());
+		assertEquals(3, td.ads.getResolutionCacheHits());
+	}
+
 	@SuppressWarnings("serial")
 	@Test
 	public void retrievalOfParameterizedType() {
@@ -14,6 +14,7 @@ package org.eclipse.gef.common.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.InvocationTargetException;
@@ -408,6 +409,54 @@ public class AdapterInjectorTests {
 				}, "a3")));
 	}
 
+	/**
+	 * Tests that adapters, which are bound to an adaptable of a certain role,
+	 * are not injected to an adaptable of the same type that is bound with
+	 * another role, even if an injection plan was already compiled for the
+	 * first role.
+	 */
+	@Test
+	public void injectAdaptersToBoundAdaptableOfOtherRole() {
+		final String firstRole = "firstRole";
+		final String secondRole = "secondRole";
+
+		Module module = new AbstractModule() {
+			@Override
+			protected void configure() {
+				install(new AdapterInjectionSupport());
+
+				MapBinder<AdapterKey<?>, Object> adapterMapBinder = AdapterMaps
+						.getAdapterMapBinder(binder(), AdapterStore.class);
+				adapterMapBinder.addBinding(AdapterKey.role(firstRole))
+						.to(AdapterStoreBoundAdaptable.class);
+				adapterMapBinder.addBinding(AdapterKey.role(secondRole))
+						.to(AdapterStoreBoundAdaptable.class);
+
+				// only register adapters for the first role
+				MapBinder<AdapterKey<?>, Object> firstRoleBinder = AdapterMaps
+						.getAdapterMapBinder(binder(),
+								AdapterStoreBoundAdaptable.class,
+								AdapterKey.get(AdapterStoreBoundAdaptable.class,
+										firstRole));
+				firstRoleBinder.addBinding(AdapterKey.role("a1"))
+						.to(RawType.class);
+			}
+		};
+		Injector injector = Guice.createInjector(module);
+		for (int i = 0; i < 2; i++) {
+			AdapterStore adapterStore = new AdapterStore();
+			injector.injectMembers(adapterStore);
+			AdapterStoreBoundAdaptable first = adapterStore.getAdapter(
+					AdapterKey.get(AdapterStoreBoundAdaptable.class, firstRole));
+			AdapterStoreBoundAdaptable second = adapterStore
+					.getAdapter(AdapterKey.get(AdapterStoreBoundAdaptable.class,
+							secondRole));
+			assertNotNull(
+					first.getAdapter(AdapterKey.get(RawType.class, "a1")));
+			assertTrue(second.getAdapters().isEmpty());
+		}
+	}
+
 	/**
 	 * Tests that adapters, which are bound to an adaptable of a certain role
 	 * are injected to an adaptable, that is itself bound as an adapter with the
@@ -538,6 +587,58 @@ public class AdapterInjectorTests {
 				}, role3)));
 	}
 
+	/**
+	 * Tests that the injection plan is compiled only once for adaptables of
+	 * the same type (and context), and reused for subsequent injections.
+	 */
+	@Test
+	public void injectionPlanCache() throws Exception {
+		Module module = new AbstractModule() {
+			@Override
+			protected void configure() {
+				install(new AdapterInjectionSupport());
+
+				MapBinder<AdapterKey<?>, Object> adapterMapBinder = AdapterMaps
+						.getAdapterMapBinder(binder(), AdapterStore.class);
+				adapterMapBinder.addBinding(AdapterKey.role("a1"))
+						.to(RawType.class);
+				adapterMapBinder.addBinding(AdapterKey.role("a2"))
+						.to(RawType.class);
+			}
+		};
+		Injector injector = Guice.createInjector(module);
+		AdapterInjector adapterInjector = new AdapterInjector(
+				AdapterStore.class.getMethod("setAdapter", TypeToken.class,
+						Object.class, String.class),
+				LoggingMode.PRODUCTION);
+		adapterInjector.setInjector(injector);
+		Method injectAdaptersMethod = AdapterInjector.class.getDeclaredMethod(
+				"performAdapterInjection", IAdaptable.class, List.class);
+		injectAdaptersMethod.setAccessible(true);
+
+		List<AdapterStore> adaptables = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			AdapterStore adaptable = new AdapterStore();
+			injectAdaptersMethod.invoke(adapterInjector, adaptable,
+					new ArrayList<>());
+			adaptables.add(adaptable);
+		}
+		assertEquals(1, adapterInjector.getPlanCacheMisses());
+		assertEquals(2, adapterInjector.getPlanCacheHits());
+		for (AdapterStore adaptable : adaptables) {
+			assertEquals(2, adaptable.getAdapters(RawType.class).size());
+		}
+		// new adapter instances are injected each time
+		AdapterKey<RawType> a1Key = AdapterKey.get(RawType.class, "a1");
+		assertNotSame(adaptables.get(0).getAdapter(a1Key),
+				adaptables.get(1).getAdapter(a1Key));
+
+		// a sub type requires another plan
+		injectAdaptersMethod.invoke(adapterInjector,
+				new AdapterStoreExtension(), new ArrayList<>());
+		assertEquals(2, adapterInjector.getPlanCacheMisses());
+	}
+
 	protected List<String> performInjection(AdapterStore adaptable,
 			Module module) throws NoSuchMethodException, IllegalAccessException,
 			InvocationTargetException {
@@ -25,6 +25,7 @@ import org.junit.runners.Suite.SuiteClasses;
 		ObservableSetMultimapTests.class, ObservableMultisetTests.class,
 		SetMultimapPropertyTests.class, MultisetPropertyTests.class,
 		TypesTests.class, ReadOnlyListWrapperExTests.class,
-		ReadOnlyMapWrapperExTests.class, ReadOnlySetWrapperExTests.class })
+		ReadOnlyMapWrapperExTests.class, ReadOnlySetWrapperExTests.class,
+		MethodHandleCacheTests.class })
 public class AllTests {
 }
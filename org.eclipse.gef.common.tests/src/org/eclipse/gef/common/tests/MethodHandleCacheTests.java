@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.common.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import org.eclipse.gef.common.reflect.MethodHandleCache;
+import org.eclipse.gef.common.reflect.ReflectionUtils;
+import org.junit.Test;
+
+import com.google.common.reflect.TypeToken;
+
+public class MethodHandleCacheTests {
+
+	private static class Base {
+
+		private static String prefix = "base";
+
+		private static String format(String value) {
+			return prefix + ":" + value;
+		}
+
+		private String name = "base";
+
+		private int count;
+
+		private String getName(int suffix) {
+			return name + suffix;
+		}
+
+		private void increment() {
+			count++;
+			throw new IllegalStateException("incremented");
+		}
+	}
+
+	private static class Sub extends Base {
+
+		private double value = 0.5;
+	}
+
+	@Test
+	public void caching() throws NoSuchMethodException {
+		MethodHandle m = MethodHandleCache.getMethod(Sub.class, "getName",
+				int.class);
+		Class<?>[] parameterTypes = new Class<?>[] { int.class };
+		assertSame(m, MethodHandleCache.getMethod(Sub.class, "getName",
+				parameterTypes));
+		// modifying the passed-in parameter types does not affect the cache
+		parameterTypes[0] = long.class;
+		assertSame(m,
+				MethodHandleCache.getMethod(Sub.class, "getName", int.class));
+	}
+
+	@Test
+	public void fields() throws Throwable {
+		Sub sub = new Sub();
+		MethodHandle getter = MethodHandleCache.getGetter(Sub.class, "name");
+		assertEquals(MethodType.methodType(Object.class, Object.class),
+				getter.type());
+		assertEquals("base", (Object) getter.invokeExact((Object) sub));
+		MethodHandleCache.getSetter(Sub.class, "name")
+				.invokeExact((Object) sub, (Object) "sub");
+		assertEquals("sub", ((Base) sub).name);
+
+		// primitive values are boxed
+		MethodHandleCache.getSetter(Sub.class, "value")
+				.invokeExact((Object) sub, (Object) 2.5);
+		assertEquals(2.5, (Object) MethodHandleCache
+				.getGetter(Sub.class, "value").invokeExact((Object) sub));
+
+		// access via ReflectionUtils
+		ReflectionUtils.setPrivateFieldValue(sub, "count", 3);
+		assertEquals(3, ((Base) sub).count);
+		assertEquals(Double.valueOf(2.5),
+				ReflectionUtils.getPrivateFieldValue(sub, "value"));
+	}
+
+	@Test
+	public void staticFields() throws Throwable {
+		Sub sub = new Sub();
+		// the receiver is ignored
+		MethodHandle getter = MethodHandleCache.getGetter(Base.class,
+				"prefix");
+		assertEquals(MethodType.methodType(Object.class, Object.class),
+				getter.type());
+		assertEquals("base", (Object) getter.invokeExact((Object) null));
+		MethodHandleCache.getSetter(Base.class, "prefix")
+				.invokeExact((Object) null, (Object) "static");
+		assertEquals("static", Base.prefix);
+
+		// access via ReflectionUtils
+		ReflectionUtils.setPrivateFieldValue(sub, "prefix", "base");
+		assertEquals("base", Base.prefix);
+		assertEquals("base",
+				ReflectionUtils.getPrivateFieldValue(sub, "prefix"));
+	}
+
+	@Test
+	public void methods() throws Throwable {
+		Sub sub = new Sub();
+		// inherited private method, with erased receiver type
+		MethodHandle m = MethodHandleCache.getMethod(Sub.class, "getName",
+				int.class);
+		assertEquals(MethodType.methodType(Object.class, Object.class,
+				int.class), m.type());
+		assertEquals("base1", (Object) m.invokeExact((Object) sub, 1));
+
+		// static method
+		assertEquals("base:value",
+				(Object) MethodHandleCache
+						.getMethod(Base.class, "format", String.class)
+						.invokeExact((Object) "value"));
+
+		// exceptions are thrown directly
+		try {
+			MethodHandleCache.getMethod(Base.class, "increment")
+					.invokeExact((Object) sub);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("incremented", e.getMessage());
+		}
+		assertEquals(1, ((Base) sub).count);
+
+		// public methods of library classes
+		assertTrue((boolean) MethodHandleCache
+				.getMethod(TypeToken.class, "isSupertypeOf", TypeToken.class)
+				.invokeExact((Object) TypeToken.of(Number.class),
+						(Object) TypeToken.of(Integer.class)));
+	}
+
+	@Test(expected = NoSuchFieldException.class)
+	public void missingField() throws NoSuchFieldException {
+		MethodHandleCache.getGetter(Sub.class, "missing");
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void missingMethod() throws NoSuchMethodException {
+		// the parameter types have to match
+		MethodHandleCache.getMethod(Sub.class, "getName", long.class);
+	}
+
+}
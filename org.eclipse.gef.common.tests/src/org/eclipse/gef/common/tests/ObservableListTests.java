@@ -247,11 +247,9 @@ public class ObservableListTests {
 				assertEquals(expectedString.toString(), change.toString());
 			}
 
-			// check previous value of change (only in case of JavaFX change)
-			if (!(change instanceof AtomicChange)) {
-				assertEquals(previousValue,
-						CollectionUtils.getPreviousContents(change));
-			}
+			// check previous value of change
+			assertEquals(previousValue,
+					CollectionUtils.getPreviousContents(change));
 		}
 	}
 
@@ -1026,6 +1024,50 @@ public class ObservableListTests {
 		observable.addListener(listChangeListener);
 	}
 
+	@Test
+	public void previousContentsOfRetainedChanges() {
+		observable.addAll(5, 3, 4);
+		final List<ListChangeListener.Change<? extends Integer>> changes = new ArrayList<>();
+		observable.addListener(new ListChangeListener<Integer>() {
+			@Override
+			public void onChanged(
+					ListChangeListener.Change<? extends Integer> change) {
+				changes.add(change);
+			}
+		});
+
+		// perform several changes, retaining the change objects
+		List<List<Integer>> previousContents = new ArrayList<>();
+		previousContents.add(new ArrayList<>(observable));
+		observable.add(1);
+		previousContents.add(new ArrayList<>(observable));
+		observable.add(0, 2);
+		previousContents.add(new ArrayList<>(observable));
+		observable.set(2, 7);
+		previousContents.add(new ArrayList<>(observable));
+		observable.remove(1);
+		previousContents.add(new ArrayList<>(observable));
+		observable.remove(Integer.valueOf(4));
+		previousContents.add(new ArrayList<>(observable));
+		observable.addAll(1, Arrays.asList(8, 9));
+		previousContents.add(new ArrayList<>(observable));
+		FXCollections.sort(observable);
+		previousContents.add(new ArrayList<>(observable));
+		observable.remove(1, 3);
+		previousContents.add(new ArrayList<>(observable));
+		observable.clear();
+		assertEquals(previousContents.size(), changes.size());
+
+		// query previous contents in reverse order (for atomic changes, which
+		// are immutable)
+		for (int i = changes.size() - 1; i >= 0; i--) {
+			if (changes.get(i) instanceof AtomicChange) {
+				assertEquals(previousContents.get(i), CollectionUtils
+						.getPreviousContents(changes.get(i)));
+			}
+		}
+	}
+
 	@Test
 	public void remove() {
 		// initialize list with some values
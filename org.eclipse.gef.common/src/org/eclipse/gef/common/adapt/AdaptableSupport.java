@@ -26,6 +26,7 @@ import com.google.common.reflect.TypeToken;
 
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 
 /**
@@ -51,6 +52,14 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	private ReadOnlyMapWrapperEx<AdapterKey<?>, Object> adaptersUnmodifiableProperty;
 	private A source;
 
+	// XXX: As adapters are retrieved frequently (while being registered or
+	// unregistered only seldom), the (reflective) adapter resolution is cached;
+	// the caches are invalidated whenever the adapters change
+	private Map<AdapterKey<?>, Object> resolvedAdaptersByKey = new HashMap<>();
+	private Map<TypeToken<?>, Object> resolvedAdaptersByType = new HashMap<>();
+	private long resolutionCacheHits = 0;
+	private long resolutionCacheMisses = 0;
+
 	/**
 	 * Creates a new {@link AdaptableSupport} for the given source
 	 * {@link IAdaptable} and a related {@link PropertyChangeSupport}.
@@ -65,6 +74,15 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 			throw new IllegalArgumentException("source may not be null.");
 		}
 		this.source = source;
+		adapters.addListener(
+				new MapChangeListener<AdapterKey<?>, Object>() {
+					@Override
+					public void onChanged(
+							MapChangeListener.Change<? extends AdapterKey<?>, ? extends Object> change) {
+						resolvedAdaptersByKey.clear();
+						resolvedAdaptersByType.clear();
+					}
+				});
 	}
 
 	/**
@@ -126,11 +144,24 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	 *
 	 * @see IAdaptable#getAdapter(AdapterKey)
 	 */
+	@SuppressWarnings("unchecked")
 	public <T> T getAdapter(AdapterKey<T> key) {
 		if (adapters.isEmpty()) {
 			return null;
 		}
 
+		Object adapter = resolvedAdaptersByKey.get(key);
+		if (adapter != null || resolvedAdaptersByKey.containsKey(key)) {
+			resolutionCacheHits++;
+			return (T) adapter;
+		}
+		resolutionCacheMisses++;
+		T resolvedAdapter = resolveAdapter(key);
+		resolvedAdaptersByKey.put(key, resolvedAdapter);
+		return resolvedAdapter;
+	}
+
+	private <T> T resolveAdapter(AdapterKey<T> key) {
 		// see if we can unambiguously retrieve a matching adapter
 		Map<AdapterKey<? extends T>, T> adaptersForTypeKey = getAdapters(
 				key.getKey(), key.getRole());
@@ -182,7 +213,20 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	 *
 	 * @see IAdaptable#getAdapter(TypeToken)
 	 */
+	@SuppressWarnings("unchecked")
 	public <T> T getAdapter(TypeToken<T> key) {
+		Object adapter = resolvedAdaptersByType.get(key);
+		if (adapter != null || resolvedAdaptersByType.containsKey(key)) {
+			resolutionCacheHits++;
+			return (T) adapter;
+		}
+		resolutionCacheMisses++;
+		T resolvedAdapter = resolveAdapter(key);
+		resolvedAdaptersByType.put(key, resolvedAdapter);
+		return resolvedAdapter;
+	}
+
+	private <T> T resolveAdapter(TypeToken<T> key) {
 		// if we have only one adapter (instance) for the given type key
 		// (disregarding the
 		// role), return this one
@@ -198,7 +242,8 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 		if (adapterCount > 1) {
 			// if we have more than one adapter instance, try to retrieve one
 			// unambiguously by using the default role
-			return getAdapter(AdapterKey.get(key, AdapterKey.DEFAULT_ROLE));
+			return resolveAdapter(
+					AdapterKey.get(key, AdapterKey.DEFAULT_ROLE));
 		}
 
 		return null;
@@ -224,6 +269,35 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 		return null;
 	}
 
+	/**
+	 * Returns the number of adapter retrievals (via
+	 * {@link #getAdapter(AdapterKey)}, {@link #getAdapter(Class)}, or
+	 * {@link #getAdapter(TypeToken)}) that could be served from the resolution
+	 * cache, i.e. without having to resolve the adapter among the registered
+	 * ones.
+	 *
+	 * @return The number of resolution cache hits.
+	 * @since 5.1
+	 */
+	public long getResolutionCacheHits() {
+		return resolutionCacheHits;
+	}
+
+	/**
+	 * Returns the number of adapter retrievals (via
+	 * {@link #getAdapter(AdapterKey)}, {@link #getAdapter(Class)}, or
+	 * {@link #getAdapter(TypeToken)}) that could not be served from the
+	 * resolution cache, i.e. for which the adapter had to be resolved among
+	 * the registered ones. The resolution cache is invalidated whenever an
+	 * adapter is registered or unregistered.
+	 *
+	 * @return The number of resolution cache misses.
+	 * @since 5.1
+	 */
+	public long getResolutionCacheMisses() {
+		return resolutionCacheMisses;
+	}
+
 	/**
 	 * Retrieves all registered adapters, mapped to the respective
 	 * {@link AdapterKey}s they are registered.
@@ -17,7 +17,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.gef.common.adapt.AdapterKey;
 import org.eclipse.gef.common.adapt.IAdaptable;
@@ -72,6 +75,15 @@ import javafx.beans.value.ObservableValue;
  * infer the actual adapter type from respective bindings, or fall back to the
  * type inferred from the adapter instance (which will not be adequate for
  * generic types because of type erasure) in such a case.
+ * <p>
+ * The {@link AdapterMap} bindings are evaluated only once per {@link Injector}.
+ * The adapter bindings that are applicable to an {@link IAdaptable} are
+ * compiled into an injection plan, which is cached per adaptable type, so that
+ * subsequent injections into adaptables of the same type do not need to
+ * evaluate the bindings again. Injection plans for adaptable types to which
+ * context-sensitive {@link AdapterMap} bindings apply (i.e. whose
+ * applicability depends on the {@link IAdaptable.Bound} chain) are not
+ * cached.
  *
  * @see AdapterMap
  * @see AdaptableTypeListener
@@ -79,6 +91,27 @@ import javafx.beans.value.ObservableValue;
  */
 public class AdapterInjector implements MembersInjector<IAdaptable> {
 
+	/**
+	 * An {@link AdapterMap} binding (as obtained from the {@link Injector}),
+	 * with its adaptable context being deserialized.
+	 */
+	private static class AdapterMapBindingInfo {
+		private Class<?> adaptableType;
+		private String[] contextRoles;
+		private TypeToken<?>[] contextTypes;
+		private MapBinderBinding<?> adapterMapBinding;
+	}
+
+	/**
+	 * A step of an injection plan, i.e. an adapter binding (within an
+	 * applicable {@link AdapterMap} binding) that is to be injected.
+	 */
+	private static class InjectionStep {
+		private AdapterKey<?> adapterKey;
+		private Binding<?> binding;
+		private TypeToken<?> bindingInferredType;
+	}
+
 	private BindingTargetVisitor<Object, TypeToken<?>> ADAPTER_TYPE_INFERRER = new BindingTargetVisitor<Object, TypeToken<?>>() {
 
 		@Override
@@ -214,6 +247,15 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 
 	private LoggingMode loggingMode;
 
+	// AdapterMap bindings (lazily determined from the injector)
+	private volatile List<AdapterMapBindingInfo> adapterMapBindingInfos;
+
+	// injection plans per adaptable type (for which no context-sensitive
+	// AdapterMap bindings are applicable)
+	private final Map<Class<?>, List<InjectionStep>> injectionPlans = new ConcurrentHashMap<>();
+	private final AtomicLong planCacheHits = new AtomicLong();
+	private final AtomicLong planCacheMisses = new AtomicLong();
+
 	/**
 	 * Creates a new {@link AdapterInjector} to inject the given {@link Method},
 	 * annotated with the given {@link AdapterMap} method annotation.
@@ -231,6 +273,100 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 	public AdapterInjector(final Method method, LoggingMode loggingMode) {
 		this.method = method;
 		this.loggingMode = loggingMode;
+		method.setAccessible(true);
+	}
+
+	/**
+	 * Determines the {@link AdapterMap} bindings that can be obtained from
+	 * the {@link Injector}.
+	 *
+	 * @return A list containing an {@link AdapterMapBindingInfo} for each
+	 *         {@link AdapterMap} binding.
+	 */
+	private List<AdapterMapBindingInfo> compileAdapterMapBindings() {
+		List<AdapterMapBindingInfo> infos = new ArrayList<>();
+		for (final Entry<Key<?>, Binding<?>> entry : injector.getAllBindings()
+				.entrySet()) {
+			// only consider bindings that are qualified by an AdapterMap
+			// binding annotation.
+			Key<?> key = entry.getKey();
+			if ((key.getAnnotationType() == null)
+					|| !AdapterMap.class.equals(key.getAnnotationType())) {
+				continue;
+			}
+			// XXX: The MapBinderBindings of relevance are wrapped into
+			// ProviderInstanceBindings, so they an instance check is not
+			// sufficient to retrieve them, but a MultibindingsTargetVisitor
+			// is to be used.
+			MapBinderBinding<?> adapterMapBinding = entry.getValue()
+					.acceptTargetVisitor(ADAPTER_MAP_BINDING_FILTER);
+			if (adapterMapBinding == null) {
+				continue;
+			}
+			final AdapterMap keyAnnotation = (AdapterMap) key.getAnnotation();
+			AdapterMapBindingInfo info = new AdapterMapBindingInfo();
+			info.adaptableType = keyAnnotation.adaptableType();
+			BoundAdapter[] context = keyAnnotation.adaptableContext();
+			info.contextRoles = new String[context.length];
+			info.contextTypes = new TypeToken<?>[context.length];
+			for (int i = 0; i < context.length; i++) {
+				info.contextRoles[i] = context[i].adapterRole();
+				info.contextTypes[i] = Types
+						.deserialize(context[i].adapterType());
+			}
+			info.adapterMapBinding = adapterMapBinding;
+			infos.add(info);
+		}
+		return infos;
+	}
+
+	/**
+	 * Compiles the injection plan for the given {@link IAdaptable}, i.e.
+	 * determines the adapter bindings of all applicable {@link AdapterMap}
+	 * bindings. The plan is cached for the type of the {@link IAdaptable}, in
+	 * case no context-sensitive {@link AdapterMap} bindings are applicable to
+	 * it.
+	 *
+	 * @param adaptable
+	 *            The {@link IAdaptable} for which to compile the injection
+	 *            plan.
+	 * @return The list of {@link InjectionStep}s.
+	 */
+	private List<InjectionStep> compileInjectionPlan(IAdaptable adaptable) {
+		Class<?> adaptableType = adaptable.getClass();
+		List<InjectionStep> plan = new ArrayList<>();
+		boolean contextSensitive = false;
+		for (AdapterMapBindingInfo info : adapterMapBindingInfos) {
+			// XXX: All adapter (map) bindings that are bound to the
+			// adaptable type, or to a super type or super interface
+			// will be considered.
+			if (!info.adaptableType.isAssignableFrom(adaptableType)) {
+				continue;
+			}
+			// if the adapter map binding is targeting a specific context,
+			// consider the roles of the adaptable chain
+			if (info.contextRoles.length != 0) {
+				contextSensitive = true;
+				if (!isContextApplicable(adaptable, info)) {
+					continue;
+				}
+			}
+			for (final Entry<?, Binding<?>> adapterBinding : info.adapterMapBinding
+					.getEntries()) {
+				InjectionStep step = new InjectionStep();
+				step.adapterKey = (AdapterKey<?>) adapterBinding.getKey();
+				step.binding = adapterBinding.getValue();
+				// try to infer the actual type of the adapter from the
+				// binding
+				step.bindingInferredType = step.binding
+						.acceptTargetVisitor(ADAPTER_TYPE_INFERRER);
+				plan.add(step);
+			}
+		}
+		if (!contextSensitive) {
+			injectionPlans.put(adaptableType, plan);
+		}
+		return plan;
 	}
 
 	private void deferAdapterInjection(IAdaptable adaptable,
@@ -263,14 +399,37 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 		}
 	}
 
+	/**
+	 * Returns the number of adapter injections for which the injection plan
+	 * could be retrieved from the cache, i.e. for which the bindings did not
+	 * have to be evaluated.
+	 *
+	 * @return The number of injection plan cache hits.
+	 * @since 5.1
+	 */
+	public long getPlanCacheHits() {
+		return planCacheHits.get();
+	}
+
+	/**
+	 * Returns the number of adapter injections for which the injection plan
+	 * had to be compiled, i.e. for which the bindings had to be evaluated.
+	 *
+	 * @return The number of injection plan cache misses.
+	 * @since 5.1
+	 */
+	public long getPlanCacheMisses() {
+		return planCacheMisses.get();
+	}
+
 	/**
 	 * Infers the type of the given adapter, evaluating either the related
 	 * bindings or the runtime type of the adapter.
 	 *
-	 * @param adapterKey
-	 *            The key of the map binding, which is an {@link AdapterKey}.
-	 * @param binding
-	 *            The binding related to the {@link AdapterKey}.
+	 * @param step
+	 *            The {@link InjectionStep} providing the key of the map
+	 *            binding, the related binding, and the type inferred from
+	 *            that binding.
 	 * @param adapter
 	 *            The adapter instance.
 	 * @param issues
@@ -280,14 +439,13 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 	 * @return A {@link TypeToken} representing the type of the given adapter
 	 *         instance.
 	 */
-	private TypeToken<?> inferAdapterType(AdapterKey<?> adapterKey,
-			Binding<?> binding, Object adapter, List<String> issues) {
-		// try to infer the actual type of the adapter from the binding
-		TypeToken<?> bindingInferredType = binding
-				.acceptTargetVisitor(ADAPTER_TYPE_INFERRER);
+	private TypeToken<?> inferAdapterType(InjectionStep step, Object adapter,
+			List<String> issues) {
+		AdapterKey<?> adapterKey = step.adapterKey;
+		TypeToken<?> bindingInferredType = step.bindingInferredType;
 
 		// perform some sanity checks
-		validateAdapterBinding(adapterKey, binding, adapter,
+		validateAdapterBinding(adapterKey, step.binding, adapter,
 				bindingInferredType, issues);
 
 		// The key type always takes precedence. Otherwise, if we could
@@ -333,14 +491,10 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 	}
 
 	private boolean isContextApplicable(IAdaptable injectionTarget,
-			BoundAdapter[] injectionContext) {
+			AdapterMapBindingInfo info) {
 		// walk up the adaptable chain and see whether context elements can be
 		// found
 		int contextIndex = 0;
-		String contextRole = injectionContext[contextIndex].adapterRole();
-		TypeToken<?> contextType = Types
-				.deserialize(injectionContext[contextIndex].adapterType());
-
 		IAdaptable chainElement = injectionTarget;
 		while (chainElement instanceof IAdaptable.Bound) {
 			IAdaptable nextChainElement = ((IAdaptable.Bound<?>) chainElement)
@@ -351,22 +505,20 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 				throw new IllegalStateException(
 						"Adapter injection seems to have been performed while the adaptable chain is not complete yet. The adaptable is not yet set.");
 			}
-			if (nextChainElement.getAdapterKey(chainElement) == null) {
+			AdapterKey<?> chainElementKey = nextChainElement
+					.getAdapterKey(chainElement);
+			if (chainElementKey == null) {
 				throw new IllegalStateException(
 						"Adapter injection seems to have been performed while the adaptable chain is not complete yet. The adapter is not yet set.");
 			}
-			if (contextRole
-					.equals(nextChainElement.getAdapterKey(chainElement)
-							.getRole())
-					&& Types.isAssignable(contextType,
+			if (info.contextRoles[contextIndex]
+					.equals(chainElementKey.getRole())
+					&& Types.isAssignable(info.contextTypes[contextIndex],
 							TypeToken.of(chainElement.getClass()))) {
 				contextIndex++;
-				if (contextIndex == injectionContext.length) {
+				if (contextIndex == info.contextRoles.length) {
 					return true;
 				}
-				contextRole = injectionContext[contextIndex].adapterRole();
-				contextType = Types.deserialize(
-						injectionContext[contextIndex].adapterType());
 			}
 			chainElement = nextChainElement;
 		}
@@ -383,95 +535,42 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 	 */
 	private void performAdapterInjection(final IAdaptable adaptable,
 			List<String> issues) {
+		// determine injection plan (evaluating the bindings only if no plan
+		// has been cached for the adaptable type yet)
+		if (adapterMapBindingInfos == null) {
+			adapterMapBindingInfos = compileAdapterMapBindings();
+		}
+		List<InjectionStep> plan = injectionPlans.get(adaptable.getClass());
+		if (plan == null) {
+			planCacheMisses.incrementAndGet();
+			plan = compileInjectionPlan(adaptable);
+		} else {
+			planCacheHits.incrementAndGet();
+		}
+
 		// XXX: We have to enter the scope before retrieving adapters
 		// System.out.println("Entering scope of " + adaptable);
 		AdaptableScopes.enter(adaptable);
 
-		// check which bindings are applicable
-		for (final Entry<Key<?>, Binding<?>> entry : injector.getAllBindings()
-				.entrySet()) {
-			// keep track of the applicable adapter map binding (so it can be
-			// used for injection later)
-			MapBinderBinding<?> adapterMapBinding = null;
-
-			// only consider bindings that are qualified by an AdapterMap
-			// binding annotation.
-			Key<?> key = entry.getKey();
-			Binding<?> binding = entry.getValue();
-
-			if ((key.getAnnotationType() != null)
-					&& AdapterMap.class.equals(key.getAnnotationType())) {
-				final AdapterMap keyAnnotation = (AdapterMap) key
-						.getAnnotation();
-				if (keyAnnotation.adaptableType()
-						.isAssignableFrom(adaptable.getClass())) {
-					if (keyAnnotation.adaptableContext().length != 0) {
-						// the adapter map binding is targeting a specific
-						// context
-						// if the adaptable is itself Adaptable.Bound and uses a
-						// role for its registration, consider that role here
-						if (isContextApplicable(adaptable,
-								keyAnnotation.adaptableContext())) {
-							// XXX: The MapBinderBindings of relevance are
-							// wrapped into
-							// ProviderInstanceBindings, so they an instance
-							// check is not
-							// sufficient
-							// to retrieve them, but a
-							// MultibindingsTargetVisitor is to be used.
-							adapterMapBinding = binding.acceptTargetVisitor(
-									ADAPTER_MAP_BINDING_FILTER);
-						}
-					} else {
-						// XXX: All adapter (map) bindings that are bound to the
-						// adaptable type, or to a super type or super interface
-						// will be considered.
-
-						// System.out.println("Applying binding for " +
-						// keyAnnotation.value() + " to " + type +
-						// " as subtype of " + methodAnnotation.value());
-
-						// XXX: The MapBinderBindings of relevance are wrapped
-						// into
-						// ProviderInstanceBindings, so they an instance check
-						// is not
-						// sufficient
-						// to retrieve them, but a MultibindingsTargetVisitor is
-						// to be used.
-						adapterMapBinding = binding.acceptTargetVisitor(
-								ADAPTER_MAP_BINDING_FILTER);
-					}
-				}
-			}
-
-			if (adapterMapBinding != null) {
-				for (final Entry<?, Binding<?>> adapterBinding : adapterMapBinding
-						.getEntries()) {
-					AdapterKey<?> adapterKey = (AdapterKey<?>) adapterBinding
-							.getKey();
-					Object adapter = adapterBinding.getValue().getProvider()
-							.get();
-
-					// determine adapter type
-					TypeToken<?> adapterType = inferAdapterType(adapterKey,
-							adapterBinding.getValue(), adapter, issues);
-
-					// inject the adapter
-					try {
-						// System.out.println("Inject adapter " + adapter
-						// + " with type " + adapterType + " for key "
-						// + key + " to adaptable " + adaptable);
-						method.setAccessible(true);
-						method.invoke(adaptable, new Object[] { adapterType,
-								adapter, adapterKey.getRole() });
-					} catch (final IllegalAccessException e) {
-						throw new IllegalStateException(e);
-					} catch (final InvocationTargetException e) {
-						issues.add("*** ERROR: Cannot inject binding "
-								+ adapterBinding.getValue().getSource() + ": "
-								+ e.getCause().getMessage());
-					}
-				}
+		for (InjectionStep step : plan) {
+			Object adapter = step.binding.getProvider().get();
+
+			// determine adapter type
+			TypeToken<?> adapterType = inferAdapterType(step, adapter, issues);
+
+			// inject the adapter
+			try {
+				// System.out.println("Inject adapter " + adapter
+				// + " with type " + adapterType + " for key "
+				// + key + " to adaptable " + adaptable);
+				method.invoke(adaptable, new Object[] { adapterType, adapter,
+						step.adapterKey.getRole() });
+			} catch (final IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (final InvocationTargetException e) {
+				issues.add("*** ERROR: Cannot inject binding "
+						+ step.binding.getSource() + ": "
+						+ e.getCause().getMessage());
 			}
 		}
 
@@ -479,7 +578,7 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 		AdaptableScopes.leave(adaptable);
 
 		// System.out.println("Finished adapter injection for " + adaptable
-		// + " with bindings " + adapterMapBindings);
+		// + " with plan " + plan);
 	}
 
 	/**
@@ -491,6 +590,9 @@ public class AdapterInjector implements MembersInjector<IAdaptable> {
 	@Inject
 	public void setInjector(final Injector injector) {
 		this.injector = injector;
+		// injection plans have to be compiled from the new bindings
+		adapterMapBindingInfos = null;
+		injectionPlans.clear();
 		// perform injections for those instances that had to be exercised
 		// before the injector was available (if there have been any)
 		for (final IAdaptable instance : deferredInstances) {
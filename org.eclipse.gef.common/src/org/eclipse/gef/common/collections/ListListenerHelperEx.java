@@ -50,6 +50,13 @@ public class ListListenerHelperEx<E> {
 
 		private List<E> previousContents;
 
+		// the contents of the source list and the change succeeding this one,
+		// from which previous contents are inferred if not provided up front
+		private List<E> contents;
+		private AtomicChange<E> successor;
+		// the change a re-fired change was created from
+		private AtomicChange<? extends E> origin;
+
 		/**
 		 * Creates a new {@link ListListenerHelperEx.AtomicChange} that
 		 * represents a change comprising a single elementary sub-change.
@@ -95,6 +102,31 @@ public class ListListenerHelperEx<E> {
 					.toArray(new ElementarySubChange[] {});
 		}
 
+		/**
+		 * Creates a new {@link ListListenerHelperEx.AtomicChange} whose
+		 * previous contents are not provided up front, but inferred on demand
+		 * (i.e. when {@link #getPreviousContents()} is called) by undoing the
+		 * elementary sub-changes of this change and of all its successors (see
+		 * {@link #setSuccessor(AtomicChange)}) on the given contents.
+		 *
+		 * @param source
+		 *            The source {@link ObservableList} from which the change
+		 *            originated.
+		 * @param elementarySubChange
+		 *            The elementary sub-change that has been applied.
+		 * @param contents
+		 *            The (live) contents of the {@link ObservableList}, which
+		 *            reflect this change and all its successors.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		AtomicChange(ObservableList<E> source,
+				ElementarySubChange<E> elementarySubChange, List<E> contents) {
+			super(source);
+			this.contents = contents;
+			this.elementarySubChanges = new ElementarySubChange[] {
+					elementarySubChange };
+		}
+
 		/**
 		 * Creates a new {@link ListListenerHelperEx.AtomicChange} for the
 		 * passed in source, based on the data provided in the passed-in change.
@@ -115,9 +147,15 @@ public class ListListenerHelperEx<E> {
 				ListChangeListener.Change<? extends E> change) {
 			super(source);
 
-			// copy previous contents
-			this.previousContents = new ArrayList<>(
-					CollectionUtils.getPreviousContents(change));
+			if (change instanceof AtomicChange) {
+				// share previous contents (which may not have been inferred
+				// yet) with the change we are created from
+				this.origin = (AtomicChange<? extends E>) change;
+			} else {
+				// copy previous contents
+				this.previousContents = new ArrayList<>(
+						CollectionUtils.getPreviousContents(change));
+			}
 
 			// retrieve elementary sub-changes by iterating them
 			// TODO: we could introduce an initialized field inside Change
@@ -134,18 +172,16 @@ public class ListListenerHelperEx<E> {
 		}
 
 		private void checkCursor(String args) {
-			String methodName = Thread.currentThread().getStackTrace()[2]
-					.getMethodName();
-			if (methodName.equals("checkCursor")) {
-				methodName = Thread.currentThread().getStackTrace()[3]
-						.getMethodName();
-			}
+			// XXX: Only determine the method name in case the check fails, as
+			// retrieving the stack trace is expensive.
 			if (cursor == -1) {
 				throw new IllegalStateException("Need to call next() before "
-						+ methodName + "(" + args + ") can be called.");
+						+ getCallingMethodName() + "(" + args
+						+ ") can be called.");
 			} else if (cursor >= elementarySubChanges.length) {
-				throw new IllegalStateException("May only call " + methodName
-						+ "(" + args + ") if next() returned true.");
+				throw new IllegalStateException(
+						"May only call " + getCallingMethodName() + "(" + args
+								+ ") if next() returned true.");
 			}
 		}
 
@@ -161,6 +197,18 @@ public class ListListenerHelperEx<E> {
 			return elementarySubChanges[cursor].getAdded();
 		}
 
+		private String getCallingMethodName() {
+			StackTraceElement[] stackTrace = Thread.currentThread()
+					.getStackTrace();
+			// skip the frames of getStackTrace(), getCallingMethodName(), and
+			// checkCursor(...)
+			int i = 2;
+			while (stackTrace[i].getMethodName().equals("checkCursor")) {
+				i++;
+			}
+			return stackTrace[i].getMethodName();
+		}
+
 		@Override
 		public int getFrom() {
 			checkCursor();
@@ -187,9 +235,98 @@ public class ListListenerHelperEx<E> {
 		 *         list.
 		 */
 		public List<E> getPreviousContents() {
+			if (previousContents == null) {
+				if (origin != null) {
+					previousContents = Collections
+							.unmodifiableList(origin.getPreviousContents());
+					origin = null;
+				} else {
+					previousContents = inferPreviousContents();
+				}
+			}
 			return Collections.unmodifiableList(previousContents);
 		}
 
+		private List<E> inferPreviousContents() {
+			// collect the changes that have been applied since this one, up to
+			// the first one whose previous contents are known
+			List<AtomicChange<E>> changes = new ArrayList<>();
+			AtomicChange<E> change = this;
+			while (change != null && change.previousContents == null) {
+				changes.add(change);
+				change = change.successor;
+			}
+			List<E> list = new ArrayList<>(
+					change == null ? contents : change.previousContents);
+			// undo the changes in reverse order
+			for (int i = changes.size() - 1; i >= 0; i--) {
+				ElementarySubChange<E>[] subChanges = changes
+						.get(i).elementarySubChanges;
+				for (int j = subChanges.length - 1; j >= 0; j--) {
+					undo(list, subChanges[j]);
+				}
+			}
+			// the successors are no longer needed
+			contents = null;
+			successor = null;
+			return list;
+		}
+
+		/**
+		 * Specifies the change that has been applied to the source
+		 * {@link ObservableList} directly after this one. Only relevant in
+		 * case the previous contents of this change are inferred (and have not
+		 * been inferred yet). The successor (and transitively all later
+		 * changes) is kept reachable until the previous contents of this
+		 * change are requested, so that no copy of the list has to be created
+		 * before.
+		 *
+		 * @param successor
+		 *            The change succeeding this one.
+		 */
+		void setSuccessor(AtomicChange<E> successor) {
+			if (isInferringPreviousContents()) {
+				this.successor = successor;
+			}
+		}
+
+		/**
+		 * Returns whether the previous contents of this change still need to
+		 * be inferred, i.e. whether the succeeding change needs to be
+		 * registered via {@link #setSuccessor(AtomicChange)}.
+		 *
+		 * @return <code>true</code> if the previous contents have not been
+		 *         inferred yet, <code>false</code> otherwise.
+		 */
+		boolean isInferringPreviousContents() {
+			return previousContents == null && contents != null;
+		}
+
+		private static <E> void undo(List<E> list,
+				ElementarySubChange<E> subChange) {
+			int from = subChange.getFrom();
+			int to = subChange.getTo();
+			switch (subChange.getKind()) {
+			case ADD:
+				list.subList(from, to).clear();
+				break;
+			case REMOVE:
+				list.addAll(from, subChange.getRemoved());
+				break;
+			case REPLACE:
+				list.subList(from, to).clear();
+				list.addAll(from, subChange.getRemoved());
+				break;
+			case PERMUTATE:
+				int[] permutation = subChange.getPermutation();
+				List<E> permuted = new ArrayList<>(list.subList(from, to));
+				for (int i = from; i < to; i++) {
+					list.set(i, permuted.get(permutation[i - from] - from));
+				}
+				break;
+			}
+		}
+
 		@Override
 		public List<E> getRemoved() {
 			checkCursor();
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.gef.common.collections;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -48,6 +49,12 @@ import javafx.collections.ObservableList;
  * (https://bugs.openjdk.java.net/browse/JDK-8092504): fixed by using
  * {@link ListListenerHelperEx} as a replacement for ListListenerHelper.</li>
  * </ul>
+ * In contrast to a naive implementation, the previous contents of the list
+ * are not copied for each modification. Where they are not needed to compute
+ * the change itself, they are inferred from the current contents and the
+ * succeeding changes, in case a listener requests them. Modifications should
+ * thus only be performed via the methods of this {@link ObservableList} (and
+ * not via iterators or sub-lists).
  *
  * @author anyssen
  * @param <E>
@@ -59,6 +66,8 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 
 	private ListListenerHelperEx<E> helper = new ListListenerHelperEx<>(this);
 	private List<E> backingList;
+	// the last change whose previous contents are inferred on demand
+	private WeakReference<ListListenerHelperEx.AtomicChange<E>> lastChange;
 
 	/**
 	 * Creates a new {@link ObservableList} wrapping the given {@link List}.
@@ -73,40 +82,30 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 
 	@Override
 	public boolean add(E element) {
-		List<E> previousContents = delegateCopy();
+		int index = size();
 		boolean result = super.add(element);
 		if (result) {
-			helper.fireValueChangedEvent(
-					new ListListenerHelperEx.AtomicChange<>(this,
-							previousContents,
-							ListListenerHelperEx.ElementarySubChange.added(
-									Collections.singletonList(element),
-									previousContents.size(),
-									previousContents.size() + 1)));
+			fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange
+					.added(Collections.singletonList(element), index,
+							index + 1));
 		}
 		return result;
 	}
 
 	@Override
 	public void add(int index, E element) {
-		List<E> previousContents = delegateCopy();
 		super.add(index, element);
-		helper.fireValueChangedEvent(
-				new ListListenerHelperEx.AtomicChange<>(this, previousContents,
-						ListListenerHelperEx.ElementarySubChange.added(
-								Collections.singletonList(element), index,
-								index + 1)));
+		fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange.added(
+				Collections.singletonList(element), index, index + 1));
 	}
 
 	@Override
 	public boolean addAll(Collection<? extends E> collection) {
-		List<E> previousContents = delegateCopy();
+		int index = size();
 		boolean result = super.addAll(collection);
-		helper.fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(
-				this, previousContents,
-				ListListenerHelperEx.ElementarySubChange.added(
-						new ArrayList<>(collection), previousContents.size(),
-						previousContents.size() + collection.size())));
+		fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange.added(
+				new ArrayList<>(collection), index,
+				index + collection.size()));
 		return result;
 	}
 
@@ -118,13 +117,9 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 
 	@Override
 	public boolean addAll(int index, Collection<? extends E> elements) {
-		List<E> previousContents = delegateCopy();
 		boolean result = super.addAll(index, elements);
-		helper.fireValueChangedEvent(
-				new ListListenerHelperEx.AtomicChange<>(this, previousContents,
-						ListListenerHelperEx.ElementarySubChange.added(
-								new ArrayList<>(elements), index,
-								index + elements.size())));
+		fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange.added(
+				new ArrayList<>(elements), index, index + elements.size()));
 		return result;
 	}
 
@@ -143,7 +138,7 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 		List<E> previousContents = delegateCopy();
 		super.clear();
 		if (!previousContents.isEmpty()) {
-			helper.fireValueChangedEvent(
+			fireValueChangedEvent(
 					new ListListenerHelperEx.AtomicChange<>(this,
 							previousContents,
 							ListListenerHelperEx.ElementarySubChange
@@ -166,43 +161,70 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 		return new ArrayList<>(backingList);
 	}
 
+	/**
+	 * Notifies listeners about the given change, which has already been
+	 * applied to the backing {@link List}.
+	 *
+	 * @param change
+	 *            The change to notify listeners about.
+	 */
+	private void fireValueChangedEvent(
+			ListListenerHelperEx.AtomicChange<E> change) {
+		// the predecessor (if still referenced) has to be able to infer its
+		// previous contents, which is why it needs to know its successor
+		ListListenerHelperEx.AtomicChange<E> predecessor = lastChange == null
+				? null : lastChange.get();
+		if (predecessor != null) {
+			predecessor.setSuccessor(change);
+		}
+		lastChange = change.isInferringPreviousContents()
+				? new WeakReference<>(change) : null;
+		helper.fireValueChangedEvent(change);
+	}
+
+	/**
+	 * Notifies listeners about a change comprising the given elementary
+	 * sub-change, which has already been applied to the backing {@link List}.
+	 * The previous contents are not copied up front, but only inferred in case
+	 * a listener requests them.
+	 *
+	 * @param elementarySubChange
+	 *            The elementary sub-change that has been applied.
+	 */
+	private void fireValueChangedEvent(
+			ElementarySubChange<E> elementarySubChange) {
+		fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(this,
+				elementarySubChange, backingList));
+	}
+
 	@Override
 	public E remove(int index) {
-		List<E> previousContents = delegateCopy();
 		E result = super.remove(index);
-		helper.fireValueChangedEvent(
-				new ListListenerHelperEx.AtomicChange<>(this, previousContents,
-						ListListenerHelperEx.ElementarySubChange.removed(
-								Collections.singletonList(result), index,
-								index)));
+		fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange.removed(
+				Collections.singletonList(result), index, index));
 		return result;
 	}
 
 	@Override
 	public void remove(int from, int to) {
-		List<E> previousContents = delegateCopy();
-		List<E> removed = new ArrayList<>();
-		for (int i = to - 1; i >= from; i--) {
-			removed.add(0, super.remove(i));
-		}
-		helper.fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(
-				this, previousContents, ListListenerHelperEx.ElementarySubChange
-						.removed(removed, from, from)));
+		List<E> subList = delegate().subList(from, to);
+		List<E> removed = new ArrayList<>(subList);
+		subList.clear();
+		fireValueChangedEvent(ListListenerHelperEx.ElementarySubChange
+				.removed(removed, from, from));
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean remove(Object object) {
-		List<E> previousContents = delegateCopy();
-		if (super.remove(object)) {
-			// XXX: if remove was successful, its safe to cast here
-			int index = previousContents.indexOf(object);
-			helper.fireValueChangedEvent(
-					new ListListenerHelperEx.AtomicChange<>(this,
-							previousContents,
-							ListListenerHelperEx.ElementarySubChange.removed(
-									Collections.singletonList((E) object),
-									index, index)));
+		int index = indexOf(object);
+		if (index >= 0) {
+			// XXX: if the object is contained, its safe to cast here
+			super.remove(index);
+			fireValueChangedEvent(
+					ListListenerHelperEx.ElementarySubChange.removed(
+							Collections.singletonList((E) object), index,
+							index));
 			return true;
 		}
 		return false;
@@ -249,9 +271,8 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 			}
 			// determine lowest index that was removed (will be used as from and
 			// to index)
-			helper.fireValueChangedEvent(
-					new ListListenerHelperEx.AtomicChange<>(this,
-							previousContents, elementaryChanges));
+			fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(
+					this, previousContents, elementaryChanges));
 			return true;
 		}
 		return false;
@@ -314,9 +335,8 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 			}
 			// determine lowest index that was removed (will be used as from and
 			// to index)
-			helper.fireValueChangedEvent(
-					new ListListenerHelperEx.AtomicChange<>(this,
-							previousContents, elementaryChanges));
+			fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(
+					this, previousContents, elementaryChanges));
 			return true;
 		}
 		return false;
@@ -330,17 +350,12 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 
 	@Override
 	public E set(int index, E element) {
-		List<E> previousContents = delegateCopy();
 		if (get(index) != element) {
 			E result = super.remove(index);
 			super.add(index, element);
-			helper.fireValueChangedEvent(
-					new ListListenerHelperEx.AtomicChange<>(this,
-							previousContents,
-							ElementarySubChange.replaced(
-									Collections.singletonList(result),
-									Collections.singletonList(element), index,
-									index + 1)));
+			fireValueChangedEvent(ElementarySubChange.replaced(
+					Collections.singletonList(result),
+					Collections.singletonList(element), index, index + 1));
 			return result;
 		}
 		return element;
@@ -352,7 +367,7 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 		if (!previousContents.equals(collection)) {
 			delegate().clear();
 			delegate().addAll(collection);
-			helper.fireValueChangedEvent(
+			fireValueChangedEvent(
 					new ListListenerHelperEx.AtomicChange<>(this,
 							previousContents, ElementarySubChange.replaced(
 									previousContents, delegate(), 0, size())));
@@ -418,7 +433,7 @@ class ObservableListWrapperEx<E> extends ForwardingList<E>
 			previousIndexIterator.remove();
 		}
 		if (changed) {
-			helper.fireValueChangedEvent(
+			fireValueChangedEvent(
 					new ListListenerHelperEx.AtomicChange<>(this,
 							previousContents,
 							ListListenerHelperEx.ElementarySubChange
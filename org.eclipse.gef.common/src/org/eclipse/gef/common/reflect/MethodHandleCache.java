@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.common.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides {@link MethodHandle}s for (possibly non-accessible) methods and
+ * fields, which are looked up via reflection only once and cached afterwards.
+ * Invoking a cached {@link MethodHandle} via
+ * {@link MethodHandle#invokeExact(Object...)} avoids the costs of a
+ * reflective lookup and of {@link Method#invoke(Object, Object...)}, which is
+ * significant for methods that are called at a high rate (e.g. when
+ * forwarding input events).
+ * <p>
+ * The {@link MethodHandle}s are adapted to a type that does not depend on the
+ * declaring class, so that they can be invoked without compile-time
+ * dependencies:
+ * <ul>
+ * <li>Method handles are adapted to their {@link MethodType#erase() erased}
+ * type, i.e. all reference types (including the receiver) are replaced by
+ * {@link Object}, while primitive types are retained.</li>
+ * <li>Field getters and setters are adapted to their
+ * {@link MethodType#genericMethodType(int) generic} type, i.e. primitive field
+ * values are boxed. They always expect a receiver as their first argument,
+ * which is ignored in case of a static field.</li>
+ * </ul>
+ * As the JavaSE-1.8 execution environment does not provide VarHandles, fields
+ * are accessed via getter and setter {@link MethodHandle}s.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class MethodHandleCache {
+
+	/**
+	 * Identifies a method or field within the class it is looked up for.
+	 */
+	private static final class Key {
+
+		private static final int GETTER = 0;
+		private static final int SETTER = 1;
+		private static final int METHOD = 2;
+
+		private final int kind;
+		private final String name;
+		private final Class<?>[] parameterTypes;
+
+		public Key(int kind, String name, Class<?>[] parameterTypes) {
+			this.kind = kind;
+			this.name = name;
+			this.parameterTypes = parameterTypes;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return kind == other.kind && name.equals(other.name)
+					&& Arrays.equals(parameterTypes, other.parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * kind + name.hashCode())
+					+ Arrays.hashCode(parameterTypes);
+		}
+	}
+
+	private static final Class<?>[] NO_PARAMETERS = new Class<?>[0];
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	// XXX: Using a ClassValue (instead of a map with Class keys) ensures the
+	// cached handles do not prevent classes (and their class loaders) from
+	// being garbage collected.
+	private static final ClassValue<ConcurrentMap<Key, Optional<MethodHandle>>> CACHE = new ClassValue<ConcurrentMap<Key, Optional<MethodHandle>>>() {
+		@Override
+		protected ConcurrentMap<Key, Optional<MethodHandle>> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static Optional<MethodHandle> get(Class<?> type, Key key) {
+		ConcurrentMap<Key, Optional<MethodHandle>> handles = CACHE.get(type);
+		Optional<MethodHandle> handle = handles.get(key);
+		if (handle == null) {
+			// copy the parameter types, which may be modified by the caller
+			handle = handles.computeIfAbsent(
+					new Key(key.kind, key.name, key.parameterTypes.clone()),
+					k -> resolve(type, k));
+		}
+		return handle;
+	}
+
+	/**
+	 * Returns a {@link MethodHandle} that reads the value of the field
+	 * specified by <i>fieldName</i>, which is searched in the class hierarchy
+	 * of the given <i>type</i>. The returned handle is of type
+	 * <code>(Object)Object</code>, where the receiver argument is ignored in
+	 * case of a static field.
+	 *
+	 * @param type
+	 *            The {@link Class} in whose hierarchy the field is searched.
+	 * @param fieldName
+	 *            The name of the field.
+	 * @return A {@link MethodHandle} that reads the field value.
+	 * @throws NoSuchFieldException
+	 *             If the field cannot be found.
+	 */
+	public static MethodHandle getGetter(Class<?> type, String fieldName)
+			throws NoSuchFieldException {
+		Optional<MethodHandle> getter = get(type,
+				new Key(Key.GETTER, fieldName, NO_PARAMETERS));
+		if (!getter.isPresent()) {
+			throw new NoSuchFieldException(
+					type.getName() + "." + fieldName);
+		}
+		return getter.get();
+	}
+
+	/**
+	 * Returns a {@link MethodHandle} that invokes the method specified by
+	 * <i>methodName</i> and <i>parameterTypes</i>, which is searched in the
+	 * class hierarchy of the given <i>type</i>. The returned handle is of the
+	 * {@link MethodType#erase() erased} type of the method, where the receiver
+	 * is passed as the first argument in case of an instance method.
+	 *
+	 * @param type
+	 *            The {@link Class} in whose hierarchy the method is searched.
+	 * @param methodName
+	 *            The name of the method.
+	 * @param parameterTypes
+	 *            The parameter types of the method.
+	 * @return A {@link MethodHandle} that invokes the method.
+	 * @throws NoSuchMethodException
+	 *             If the method cannot be found.
+	 */
+	public static MethodHandle getMethod(Class<?> type, String methodName,
+			Class<?>... parameterTypes) throws NoSuchMethodException {
+		Optional<MethodHandle> method = get(type,
+				new Key(Key.METHOD, methodName, parameterTypes));
+		if (!method.isPresent()) {
+			throw new NoSuchMethodException(type.getName() + "." + methodName
+					+ Arrays.toString(parameterTypes));
+		}
+		return method.get();
+	}
+
+	/**
+	 * Returns a {@link MethodHandle} that writes the value of the field
+	 * specified by <i>fieldName</i>, which is searched in the class hierarchy
+	 * of the given <i>type</i>. The returned handle is of type
+	 * <code>(Object,Object)void</code>, where the receiver argument is ignored
+	 * in case of a static field.
+	 *
+	 * @param type
+	 *            The {@link Class} in whose hierarchy the field is searched.
+	 * @param fieldName
+	 *            The name of the field.
+	 * @return A {@link MethodHandle} that writes the field value.
+	 * @throws NoSuchFieldException
+	 *             If the field cannot be found.
+	 */
+	public static MethodHandle getSetter(Class<?> type, String fieldName)
+			throws NoSuchFieldException {
+		Optional<MethodHandle> setter = get(type,
+				new Key(Key.SETTER, fieldName, NO_PARAMETERS));
+		if (!setter.isPresent()) {
+			throw new NoSuchFieldException(
+					type.getName() + "." + fieldName);
+		}
+		return setter.get();
+	}
+
+	private static Optional<MethodHandle> resolve(Class<?> type, Key key) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			try {
+				if (key.kind == Key.METHOD) {
+					Method method = c.getDeclaredMethod(key.name,
+							key.parameterTypes);
+					method.setAccessible(true);
+					MethodHandle handle = LOOKUP.unreflect(method);
+					return Optional.of(handle.asType(handle.type().erase()));
+				}
+				Field field = c.getDeclaredField(key.name);
+				field.setAccessible(true);
+				MethodHandle handle;
+				if (key.kind == Key.GETTER) {
+					MethodHandle getter = LOOKUP.unreflectGetter(field);
+					handle = getter.asType(MethodType
+							.genericMethodType(getter.type().parameterCount()));
+				} else {
+					MethodHandle setter = LOOKUP.unreflectSetter(field);
+					handle = setter.asType(MethodType
+							.genericMethodType(setter.type().parameterCount())
+							.changeReturnType(void.class));
+				}
+				if (Modifier.isStatic(field.getModifiers())) {
+					// accept (and ignore) a receiver, so that static and
+					// instance fields can be accessed uniformly
+					handle = MethodHandles.dropArguments(handle, 0,
+							Object.class);
+				}
+				return Optional.of(handle);
+			} catch (NoSuchMethodException | NoSuchFieldException e) {
+				// continue with the super class
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return Optional.empty();
+	}
+
+	private MethodHandleCache() {
+		// this class should not be instantiated by clients
+	}
+
+}
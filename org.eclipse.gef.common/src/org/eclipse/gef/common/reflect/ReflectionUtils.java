@@ -13,10 +13,9 @@
  *******************************************************************************/
 package org.eclipse.gef.common.reflect;
 
-import java.lang.reflect.Field;
-
 /**
- * Allows to access the value of private fields.
+ * Allows to access the value of private fields. The fields are accessed via
+ * {@link MethodHandleCache}, so that they are looked up only once.
  *
  * @author Jan Koehnlein
  * @author mwienand
@@ -24,36 +23,6 @@ import java.lang.reflect.Field;
  */
 public class ReflectionUtils {
 
-	/**
-	 * Tries to find the field specified by <i>fieldName</i> in the class
-	 * hierarchy of the given <i>owner</i>. If the field can be found, it is
-	 * made accessible, so that its value can be read and written.
-	 *
-	 * @param owner
-	 *            {@link Object} from which the {@link Field} should be
-	 *            extracted.
-	 * @param fieldName
-	 *            The name of the field.
-	 * @return {@link Field} if it can be found, otherwise <code>null</code>.
-	 */
-	// TODO: Rename to getField()
-	private static Field getField(Object owner, String fieldName) {
-		Class<? extends Object> currentClass = owner.getClass();
-		Field field = null;
-		do {
-			try {
-				field = currentClass.getDeclaredField(fieldName);
-			} catch (NoSuchFieldException e) {
-				currentClass = currentClass.getSuperclass();
-				if (currentClass == null) {
-					return null;
-				}
-			}
-		} while (field == null);
-		field.setAccessible(true);
-		return field;
-	}
-
 	/**
 	 * Returns the value of the specified private field for the given
 	 * <i>owner</i>.
@@ -70,10 +39,12 @@ public class ReflectionUtils {
 	// TODO: rename to get()
 	@SuppressWarnings("unchecked")
 	public static <T> T getPrivateFieldValue(Object owner, String fieldName) {
-		Field field = getField(owner, fieldName);
 		try {
-			return (T) field.get(owner);
-		} catch (IllegalAccessException e) {
+			return (T) MethodHandleCache.getGetter(owner.getClass(), fieldName)
+					.invokeExact(owner);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
 			throw new RuntimeException(e);
 		}
 	}
@@ -95,10 +66,12 @@ public class ReflectionUtils {
 	// TODO: rename to set()
 	public static <T> void setPrivateFieldValue(Object owner, String fieldName,
 			T value) {
-		Field field = getField(owner, fieldName);
 		try {
-			field.set(owner, value);
-		} catch (IllegalAccessException e) {
+			MethodHandleCache.getSetter(owner.getClass(), fieldName)
+					.invokeExact(owner, (Object) value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
 			throw new RuntimeException(e);
 		}
 	}
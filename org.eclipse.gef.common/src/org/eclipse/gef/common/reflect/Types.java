@@ -17,8 +17,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.Base64;
 
 import com.google.common.reflect.TypeToken;
@@ -31,7 +30,7 @@ import com.google.common.reflect.TypeToken;
  */
 public class Types {
 
-	private static Method isTypeTokenAssignableMethod;
+	private static MethodHandle isTypeTokenAssignableMethod;
 
 	/**
 	 * Deserializes the given {@link String}-representation in Base64 encoding
@@ -61,6 +60,25 @@ public class Types {
 		}
 	}
 
+	private static MethodHandle getTypeTokenAssignableMethod() {
+		if (isTypeTokenAssignableMethod == null) {
+			try {
+				isTypeTokenAssignableMethod = MethodHandleCache.getMethod(
+						TypeToken.class, "isSupertypeOf", TypeToken.class);
+			} catch (NoSuchMethodException e) {
+				try {
+					isTypeTokenAssignableMethod = MethodHandleCache.getMethod(
+							TypeToken.class, "isAssignableFrom",
+							TypeToken.class);
+				} catch (NoSuchMethodException e2) {
+					throw new IllegalArgumentException(
+							"Neither TypeToken.isAssignableFrom(TypeToken), nor TypeToken.isSuperTypeOf(TypeToken) seems to be supported by the given Guava version.");
+				}
+			}
+		}
+		return isTypeTokenAssignableMethod;
+	}
+
 	/**
 	 * Returns whether the given 'candidate' superType is a super type of the
 	 * given 'candidate' subtype.
@@ -88,32 +106,12 @@ public class Types {
 		// XXX: Replace this with direct calls to
 		// TypeToken.isSuperTypeOf(TypeToken) when removing support for Guava <
 		// 19.
-		if (isTypeTokenAssignableMethod == null) {
-			try {
-				isTypeTokenAssignableMethod = TypeToken.class
-						.getDeclaredMethod("isSupertypeOf", TypeToken.class);
-			} catch (NoSuchMethodException e) {
-				// e.printStackTrace();
-			} catch (SecurityException e) {
-				e.printStackTrace();
-			}
-			if (isTypeTokenAssignableMethod == null) {
-				try {
-					isTypeTokenAssignableMethod = TypeToken.class
-							.getDeclaredMethod("isAssignableFrom",
-									TypeToken.class);
-				} catch (NoSuchMethodException e) {
-					throw new IllegalArgumentException(
-							"Neither TypeToken.isAssignableFrom(TypeToken), nor TypeToken.isSuperTypeOf(TypeToken) seems to be supported by the given Guava version.");
-				} catch (SecurityException e) {
-					e.printStackTrace();
-				}
-			}
-		}
 		try {
-			return (boolean) isTypeTokenAssignableMethod.invoke(superType,
-					subType);
-		} catch (IllegalAccessException | InvocationTargetException e) {
+			return (boolean) getTypeTokenAssignableMethod()
+					.invokeExact((Object) superType, (Object) subType);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
 			throw new IllegalArgumentException(e);
 		}
 	}
@@ -13,8 +13,7 @@
  *******************************************************************************/
 package org.eclipse.gef.fx.swt.canvas;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -24,6 +23,7 @@ import java.util.List;
 import java.util.Queue;
 import java.util.Stack;
 
+import org.eclipse.gef.common.reflect.MethodHandleCache;
 import org.eclipse.gef.common.reflect.ReflectionUtils;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.DisposeEvent;
@@ -199,14 +199,49 @@ public class FXCanvasEx extends FXCanvas {
 
 	// XXX: This class is used to wrap a com.sun.javafx.tk.TKSceneListener
 	// object, so respective methods can be called on it via reflection without
-	// introducing compile-time dependencies.
+	// introducing compile-time dependencies. As events are forwarded at input
+	// rate, the methods are invoked via method handles that are resolved
+	// once per wrapped listener.
 	// TODO: Remove when dropping support for JavaSE-1.8
 	private class TKSceneListenerWrapper {
 
 		private Object tkSceneListener;
+		private MethodHandle rotateEvent;
+		private MethodHandle scrollEvent;
+		private MethodHandle swipeEvent;
+		private MethodHandle zoomEvent;
 
 		private TKSceneListenerWrapper(Object tkSceneListener) {
 			this.tkSceneListener = tkSceneListener;
+			// resolve the method handles once, so that forwarding an event
+			// does not need to look them up
+			Class<?> type = tkSceneListener.getClass();
+			try {
+				rotateEvent = MethodHandleCache.getMethod(type, "rotateEvent",
+						EventType.class, double.class, double.class,
+						double.class, double.class, double.class, double.class,
+						boolean.class, boolean.class, boolean.class,
+						boolean.class, boolean.class, boolean.class);
+				scrollEvent = MethodHandleCache.getMethod(type, "scrollEvent",
+						EventType.class, double.class, double.class,
+						double.class, double.class, double.class, double.class,
+						int.class, int.class, int.class, int.class, int.class,
+						double.class, double.class, double.class, double.class,
+						boolean.class, boolean.class, boolean.class,
+						boolean.class, boolean.class, boolean.class);
+				swipeEvent = MethodHandleCache.getMethod(type, "swipeEvent",
+						EventType.class, int.class, double.class, double.class,
+						double.class, double.class, boolean.class,
+						boolean.class, boolean.class, boolean.class,
+						boolean.class);
+				zoomEvent = MethodHandleCache.getMethod(type, "zoomEvent",
+						EventType.class, double.class, double.class,
+						double.class, double.class, double.class, double.class,
+						boolean.class, boolean.class, boolean.class,
+						boolean.class, boolean.class, boolean.class);
+			} catch (NoSuchMethodException | SecurityException e) {
+				e.printStackTrace();
+			}
 		}
 
 		public void rotateEvent(EventType<RotateEvent> eventType, double angle,
@@ -214,26 +249,16 @@ public class FXCanvasEx extends FXCanvas {
 				double screenY, boolean _shiftDown, boolean _controlDown,
 				boolean _altDown, boolean _metaDown, boolean _direct,
 				boolean _inertia) {
+			if (rotateEvent == null) {
+				return;
+			}
 			try {
-				Method m = tkSceneListener.getClass().getDeclaredMethod(
-						"rotateEvent", EventType.class, double.class,
-						double.class, double.class, double.class, double.class,
-						double.class, boolean.class, boolean.class,
-						boolean.class, boolean.class, boolean.class,
-						boolean.class);
-				m.setAccessible(true);
-				m.invoke(tkSceneListener, eventType, angle, totalAngle, x, y,
-						screenX, screenY, _shiftDown, _controlDown, _altDown,
-						_metaDown, _direct, _inertia);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getCause();
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
-				} else {
-					targetException.printStackTrace();
-				}
-			} catch (NoSuchMethodException | SecurityException
-					| IllegalAccessException | IllegalArgumentException e) {
+				rotateEvent.invokeExact(tkSceneListener, (Object) eventType,
+						angle, totalAngle, x, y, screenX, screenY, _shiftDown,
+						_controlDown, _altDown, _metaDown, _direct, _inertia);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
 				e.printStackTrace();
 			}
 		}
@@ -246,30 +271,19 @@ public class FXCanvasEx extends FXCanvas {
 				double screenX, double screenY, boolean _shiftDown,
 				boolean _controlDown, boolean _altDown, boolean _metaDown,
 				boolean _direct, boolean _inertia) {
+			if (scrollEvent == null) {
+				return;
+			}
 			try {
-				Method m = tkSceneListener.getClass().getDeclaredMethod(
-						"scrollEvent", EventType.class, double.class,
-						double.class, double.class, double.class, double.class,
-						double.class, int.class, int.class, int.class,
-						int.class, int.class, double.class, double.class,
-						double.class, double.class, boolean.class,
-						boolean.class, boolean.class, boolean.class,
-						boolean.class, boolean.class);
-				m.setAccessible(true);
-				m.invoke(tkSceneListener, eventType, scrollX, scrollY,
-						totalScrollX, totalScrollY, xMultiplier, yMultiplier,
-						touchCount, scrollTextX, scrollTextY, defaultTextX,
-						defaultTextY, x, y, screenX, screenY, _shiftDown,
-						_controlDown, _altDown, _metaDown, _direct, _inertia);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getCause();
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
-				} else {
-					targetException.printStackTrace();
-				}
-			} catch (NoSuchMethodException | SecurityException
-					| IllegalAccessException | IllegalArgumentException e) {
+				scrollEvent.invokeExact(tkSceneListener, (Object) eventType,
+						scrollX, scrollY, totalScrollX, totalScrollY,
+						xMultiplier, yMultiplier, touchCount, scrollTextX,
+						scrollTextY, defaultTextX, defaultTextY, x, y, screenX,
+						screenY, _shiftDown, _controlDown, _altDown, _metaDown,
+						_direct, _inertia);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
 				e.printStackTrace();
 			}
 		}
@@ -278,25 +292,16 @@ public class FXCanvasEx extends FXCanvas {
 				double x, double y, double screenX, double screenY,
 				boolean _shiftDown, boolean _controlDown, boolean _altDown,
 				boolean _metaDown, boolean _direct) {
+			if (swipeEvent == null) {
+				return;
+			}
 			try {
-				Method m = tkSceneListener.getClass().getDeclaredMethod(
-						"swipeEvent", EventType.class, int.class, double.class,
-						double.class, double.class, double.class, boolean.class,
-						boolean.class, boolean.class, boolean.class,
-						boolean.class);
-				m.setAccessible(true);
-				m.invoke(tkSceneListener, eventType, touchCount, x, y, screenX,
-						screenY, _shiftDown, _controlDown, _altDown, _metaDown,
-						_direct);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getCause();
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
-				} else {
-					targetException.printStackTrace();
-				}
-			} catch (NoSuchMethodException | SecurityException
-					| IllegalAccessException | IllegalArgumentException e) {
+				swipeEvent.invokeExact(tkSceneListener, (Object) eventType,
+						touchCount, x, y, screenX, screenY, _shiftDown,
+						_controlDown, _altDown, _metaDown, _direct);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
 				e.printStackTrace();
 			}
 		}
@@ -306,26 +311,17 @@ public class FXCanvasEx extends FXCanvas {
 				double screenY, boolean _shiftDown, boolean _controlDown,
 				boolean _altDown, boolean _metaDown, boolean _direct,
 				boolean _inertia) {
+			if (zoomEvent == null) {
+				return;
+			}
 			try {
-				Method m = tkSceneListener.getClass().getDeclaredMethod(
-						"zoomEvent", EventType.class, double.class,
-						double.class, double.class, double.class, double.class,
-						double.class, boolean.class, boolean.class,
-						boolean.class, boolean.class, boolean.class,
-						boolean.class);
-				m.setAccessible(true);
-				m.invoke(tkSceneListener, eventType, zoomFactor,
-						totalZoomFactor, x, y, screenX, screenY, _shiftDown,
-						_controlDown, _altDown, _metaDown, _direct, _inertia);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getCause();
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
-				} else {
-					targetException.printStackTrace();
-				}
-			} catch (NoSuchMethodException | SecurityException
-					| IllegalAccessException | IllegalArgumentException e) {
+				zoomEvent.invokeExact(tkSceneListener, (Object) eventType,
+						zoomFactor, totalZoomFactor, x, y, screenX, screenY,
+						_shiftDown, _controlDown, _altDown, _metaDown, _direct,
+						_inertia);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
 				e.printStackTrace();
 			}
 		}
@@ -367,11 +363,10 @@ public class FXCanvasEx extends FXCanvas {
 			// TODO: Turn into an explicit call when dropping support
 			// for J2SE-1.8.
 			try {
-				Method m = FXCanvas.class.getDeclaredMethod("getFXCanvas",
-						Scene.class);
-				return (FXCanvas) m.invoke(null, scene);
-
-			} catch (Exception e) {
+				MethodHandle m = MethodHandleCache.getMethod(FXCanvas.class,
+						"getFXCanvas", Scene.class);
+				return (FXCanvas) (Object) m.invokeExact((Object) scene);
+			} catch (Throwable e) {
 				throw new IllegalStateException(
 						"Failed to call FXCanvas.getFXCanvas(Scene)", e);
 			}
@@ -398,21 +393,19 @@ public class FXCanvasEx extends FXCanvas {
 						getDisplay(), imageData, (int) hotspotX,
 						(int) hotspotY);
 				try {
-					Method currentCursorFrameAccessor = Cursor.class
-							.getDeclaredMethod("getCurrentFrame",
-									new Class[] {});
-					currentCursorFrameAccessor.setAccessible(true);
-					Object currentCursorFrame = currentCursorFrameAccessor
-							.invoke(newCursor, new Object[] {});
+					Object currentCursorFrame = (Object) MethodHandleCache
+							.getMethod(Cursor.class, "getCurrentFrame")
+							.invokeExact((Object) newCursor);
 					// there is a spelling-mistake in the internal API
 					// (setPlatformCursor -> setPlatforCursor)
-					Method platformCursorProvider = currentCursorFrame
-							.getClass().getMethod("setPlatforCursor",
-									new Class[] { Class.class, Object.class });
-					platformCursorProvider.setAccessible(true);
-					platformCursorProvider.invoke(currentCursorFrame,
-							org.eclipse.swt.graphics.Cursor.class, swtCursor);
-				} catch (Exception e) {
+					MethodHandle platformCursorProvider = MethodHandleCache
+							.getMethod(currentCursorFrame.getClass(),
+									"setPlatforCursor", Class.class,
+									Object.class);
+					platformCursorProvider.invokeExact(currentCursorFrame,
+							(Object) org.eclipse.swt.graphics.Cursor.class,
+							(Object) swtCursor);
+				} catch (Throwable e) {
 					System.err.println(
 							"Failed to set platform cursor on the current cursor frame.");
 					e.printStackTrace();
@@ -464,6 +457,9 @@ public class FXCanvasEx extends FXCanvas {
 
 	// the last gesture event that was received (may also be an inertia event)
 	private GestureEvent lastGestureEvent;
+
+	// accessed on the JavaFX application thread only
+	private TKSceneListenerWrapper tkSceneListenerWrapper;
 	private GestureListener gestureListener = new GestureListener() {
 		// used to keep track of which (atomic) gestures are enclosed
 		private Stack<Integer> nestedGestures = new Stack<>();
@@ -1122,7 +1118,15 @@ public class FXCanvasEx extends FXCanvas {
 						if (sceneListener == null) {
 							return null;
 						}
-						sr.run(new TKSceneListenerWrapper(sceneListener));
+						// reuse the wrapper (and its method handles) as long
+						// as the scene listener is not exchanged
+						if (tkSceneListenerWrapper == null
+								|| tkSceneListenerWrapper.tkSceneListener
+										!= sceneListener) {
+							tkSceneListenerWrapper = new TKSceneListenerWrapper(
+									sceneListener);
+						}
+						sr.run(tkSceneListenerWrapper);
 						return null;
 					}
 				}, (AccessControlContext) ReflectionUtils
@@ -15,7 +15,10 @@ package org.eclipse.gef.fx.utils;
 
 import java.awt.geom.NoninvertibleTransformException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 
@@ -283,6 +286,88 @@ public class NodeUtils {
 		return picked;
 	}
 
+	/**
+	 * Performs picking on the scene graph beginning at the specified root
+	 * node, only processing the given candidate nodes (and their transitive
+	 * children), as well as the nodes on the paths from the root node to the
+	 * candidate nodes. Provided that all nodes which could be picked are
+	 * contained in the transitive children of the given candidates (e.g.
+	 * because they have been determined based on their bounds by means of a
+	 * spatial index), the result is the same as that of
+	 * {@link #getNodesAt(Node, double, double)}, while the remaining parts of
+	 * the scene graph are not visited.
+	 *
+	 * @param root
+	 *            The root node at which to start with picking
+	 * @param sceneX
+	 *            The x-coordinate of the position to pick nodes at, interpreted
+	 *            in scene coordinate space.
+	 * @param sceneY
+	 *            The y-coordinate of the position to pick nodes at, interpreted
+	 *            in scene coordinate space.
+	 * @param candidates
+	 *            The candidate {@link Node}s to which picking is restricted.
+	 * @return A list of {@link Node}s which contain the the given coordinate.
+	 * @since 5.1
+	 */
+	public static List<Node> getNodesAt(Node root, double sceneX,
+			double sceneY, Collection<? extends Node> candidates) {
+		List<Node> picked = new ArrayList<>();
+		if (candidates.isEmpty()) {
+			return picked;
+		}
+
+		// determine candidates and their ancestors (up to the root)
+		Set<Node> candidateSet = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		candidateSet.addAll(candidates);
+		Set<Node> ancestors = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		for (Node candidate : candidates) {
+			Node ancestor = candidate.getParent();
+			while (ancestor != null && ancestors.add(ancestor)
+					&& ancestor != root) {
+				ancestor = ancestor.getParent();
+			}
+		}
+
+		// start with given root node (keeping track of whether the processed
+		// nodes are nested within a candidate)
+		List<Node> nodes = new ArrayList<>();
+		List<Boolean> nested = new ArrayList<>();
+		nodes.add(root);
+		nested.add(false);
+
+		while (!nodes.isEmpty()) {
+			Node current = nodes.remove(0);
+			boolean isNested = nested.remove(0)
+					|| candidateSet.contains(current);
+			if (!isNested && !ancestors.contains(current)) {
+				continue;
+			}
+			// transform to local coordinates
+			Point2D pLocal = current.sceneToLocal(sceneX, sceneY);
+			// check if bounds contains (necessary to find children in mouse
+			// transparent regions)
+			if (!current.isMouseTransparent()
+					&& current.getBoundsInLocal().contains(pLocal)) {
+				// check precisely
+				if (current.contains(pLocal)) {
+					picked.add(0, current);
+				}
+				// test all children, too
+				if (current instanceof Parent) {
+					List<Node> children = ((Parent) current)
+							.getChildrenUnmodifiable();
+					nodes.addAll(0, children);
+					nested.addAll(0,
+							Collections.nCopies(children.size(), isNested));
+				}
+			}
+		}
+		return picked;
+	}
+
 	/**
 	 * Creates a copy of the given {@link IGeometry} and resizes it to fit the
 	 * (corrected) layout-bounds (see {@link #getShapeBounds(Node)}) of the
@@ -12,16 +12,133 @@
  *******************************************************************************/
 package org.eclipse.gef.geometry.tests;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.convert.awt.AWT2Geometry;
+import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
 import org.eclipse.gef.geometry.euclidean.Angle;
 import org.eclipse.gef.geometry.planar.AffineTransform;
+import org.eclipse.gef.geometry.planar.Path;
 import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Polygon;
+import org.eclipse.gef.geometry.planar.Polyline;
 import org.junit.Test;
 
 public class AffineTransformTests {
 
+	private static final double EPSILON = 1e-9;
+
+	private static void apply(int operation, Random random,
+			AffineTransform t, java.awt.geom.AffineTransform awt) {
+		// use values that lead to exact quadrant rotations, too
+		double theta = random.nextInt(9) * Math.PI / 4
+				+ (random.nextBoolean() ? 0 : random.nextDouble());
+		double a = random.nextInt(5) - 2;
+		double b = random.nextDouble() * 4 - 2;
+		double c = random.nextInt(100) - 50;
+		double d = random.nextDouble() * 100 - 50;
+		switch (operation) {
+		case 0:
+			t.rotate(theta);
+			awt.rotate(theta);
+			break;
+		case 1:
+			t.rotate(theta, c, d);
+			awt.rotate(theta, c, d);
+			break;
+		case 2:
+			t.rotate(a, b);
+			awt.rotate(a, b);
+			break;
+		case 3:
+			t.rotate(a, b, c, d);
+			awt.rotate(a, b, c, d);
+			break;
+		case 4:
+			t.quadrantRotate((int) a, c, d);
+			awt.quadrantRotate((int) a, c, d);
+			break;
+		case 5:
+			t.scale(a, b);
+			awt.scale(a, b);
+			break;
+		case 6:
+			t.shear(a, b);
+			awt.shear(a, b);
+			break;
+		case 7:
+			t.translate(c, d);
+			awt.translate(c, d);
+			break;
+		case 8:
+			t.setToRotation(theta, c, d);
+			awt.setToRotation(theta, c, d);
+			break;
+		case 9:
+			t.setToRotation(a, b, c, d);
+			awt.setToRotation(a, b, c, d);
+			break;
+		case 10:
+			t.setToQuadrantRotation((int) a, c, d);
+			awt.setToQuadrantRotation((int) a, c, d);
+			break;
+		case 11:
+			t.setToScale(a, b);
+			awt.setToScale(a, b);
+			break;
+		case 12:
+			t.concatenate(new AffineTransform(a, b, c, d, b, a));
+			awt.concatenate(
+					new java.awt.geom.AffineTransform(a, b, c, d, b, a));
+			break;
+		case 13:
+			t.preConcatenate(new AffineTransform(a, 0, 0, b, c, d));
+			awt.preConcatenate(
+					new java.awt.geom.AffineTransform(a, 0, 0, b, c, d));
+			break;
+		default:
+			try {
+				awt.invert();
+			} catch (NoninvertibleTransformException e) {
+				return;
+			}
+			try {
+				t.invert();
+			} catch (NoninvertibleTransformException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static void assertEqualMatrix(java.awt.geom.AffineTransform awt,
+			AffineTransform t) {
+		double[] expected = new double[6];
+		awt.getMatrix(expected);
+		double[] actual = t.getMatrix();
+		double max = 1;
+		for (double value : expected) {
+			max = Math.max(max, Math.abs(value));
+		}
+		assertArrayEquals(expected, actual, EPSILON * max);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void test_clone() {
+		// clone() returns an AWT copy, as it did when being delegated to AWT
+		AffineTransform t = new AffineTransform(1, 2, 3, 4, 5, 6);
+		Object clone = t.clone();
+		assertEquals(new java.awt.geom.AffineTransform(1, 2, 3, 4, 5, 6),
+				clone);
+		assertEquals(Geometry2AWT.toAWTAffineTransform(t), clone);
+	}
+
 	@Test
 	public void test_equals() {
 		AffineTransform t0 = new AffineTransform();
@@ -44,4 +161,117 @@ public class AffineTransformTests {
 		assertEquals(new Point(0, 1), tx.getTransformed(new Point(1, 0)));
 	}
 
+	@Test
+	public void test_awtCompatibility() {
+		Random random = new Random(0);
+		for (int i = 0; i < 1000; i++) {
+			AffineTransform t = new AffineTransform();
+			java.awt.geom.AffineTransform awt = new java.awt.geom.AffineTransform();
+			for (int j = 0; j < 5; j++) {
+				apply(random.nextInt(15), random, t, awt);
+				assertEqualMatrix(awt, t);
+				// AWT caches the type of some operations (e.g. rotations),
+				// so we compare against the type it infers for exact copies
+				double[] matrix = new double[6];
+				awt.getMatrix(matrix);
+				java.awt.geom.AffineTransform awtCopy = new java.awt.geom.AffineTransform(
+						matrix);
+				AffineTransform copy = new AffineTransform(matrix);
+				assertEquals(awtCopy.getType(), copy.getType());
+				assertEquals(awtCopy.isIdentity(), copy.isIdentity());
+				assertEquals(awtCopy.toString(), copy.toString());
+			}
+		}
+	}
+
+	@Test
+	public void test_getType() {
+		for (double[] matrix : new double[][] { { 1, 0, 0, 1, 0, 0 },
+				{ 1, 0, 0, 1, 5, 0 }, { 2, 0, 0, 2, 0, 0 },
+				{ 2, 0, 0, 3, 0, 0 }, { -1, 0, 0, -1, 0, 0 },
+				{ -2, 0, 0, -2, 0, 0 }, { -1, 0, 0, 1, 0, 0 },
+				{ -2, 0, 0, 3, 0, 0 }, { 0, 1, -1, 0, 0, 0 },
+				{ 0, 2, -2, 0, 0, 0 }, { 0, 1, 1, 0, 0, 0 },
+				{ 0, 2, 3, 0, 1, 1 }, { 0.6, 0.8, -0.8, 0.6, 0, 0 },
+				{ 0.6, 0.8, 0.8, -0.6, 0, 0 }, { 1, 2, 3, 4, 5, 6 } }) {
+			assertEquals(new java.awt.geom.AffineTransform(matrix).getType(),
+					new AffineTransform(matrix).getType());
+		}
+	}
+
+	@Test
+	public void test_hashCode() {
+		AffineTransform t0 = new AffineTransform().scale(-1, 1);
+		AffineTransform t1 = new AffineTransform(-1, 0, 0, 1, 0, 0);
+		// scaling results in negative zero shear values
+		assertEquals(t0, t1);
+		assertEquals(t0.hashCode(), t1.hashCode());
+	}
+
+	@Test
+	public void test_inverseTransform() throws NoninvertibleTransformException {
+		AffineTransform t = new AffineTransform().rotate(0.3).scale(2, 3)
+				.translate(5, -7);
+		double[] coordinates = { 1, 2, 3, 4, -5, 6 };
+		double[] transformed = new double[6];
+		t.transform(coordinates, 0, transformed, 0, 3);
+		t.inverseTransform(transformed, 0, transformed, 0, 3);
+		assertArrayEquals(coordinates, transformed, EPSILON);
+		assertEquals(new Point(1, 2),
+				t.inverseTransform(t.getTransformed(new Point(1, 2))));
+		assertEquals(new Point(1, 2), t.getInverse()
+				.getTransformed(t.getTransformed(new Point(1, 2))));
+	}
+
+	@Test(expected = NoninvertibleTransformException.class)
+	public void test_invert_noninvertible()
+			throws NoninvertibleTransformException {
+		new AffineTransform().scale(0, 1).invert();
+	}
+
+	@Test
+	public void test_transform_coordinates() {
+		AffineTransform t = new AffineTransform().rotate(1).scale(2, 0.5)
+				.translate(3, 4);
+		java.awt.geom.AffineTransform awt = Geometry2AWT
+				.toAWTAffineTransform(t);
+		double[] coordinates = new double[20];
+		for (int i = 0; i < coordinates.length; i++) {
+			coordinates[i] = i * 1.5 - 7;
+		}
+		// overlapping source and destination ranges, in both directions
+		for (int srcOff : new int[] { 0, 2, 6 }) {
+			for (int dstOff : new int[] { 0, 2, 6 }) {
+				double[] expected = coordinates.clone();
+				double[] actual = coordinates.clone();
+				awt.transform(expected, srcOff, expected, dstOff, 7);
+				t.transform(actual, srcOff, actual, dstOff, 7);
+				assertArrayEquals(expected, actual, 0);
+				awt.deltaTransform(expected, srcOff, expected, dstOff, 7);
+				t.deltaTransform(actual, srcOff, actual, dstOff, 7);
+				assertArrayEquals(expected, actual, 0);
+			}
+		}
+		Point p = new Point(3, -2);
+		assertEquals(t.getTransformed(p), p.getCopy().transform(t));
+	}
+
+	@Test
+	public void test_transform_geometries() {
+		AffineTransform t = new AffineTransform().rotate(0.5).scale(2, 3);
+		Polygon polygon = new Polygon(0, 0, 10, 0, 5, 5);
+		Polygon transformedPolygon = polygon.getTransformed(t);
+		assertEquals(new Polygon(t.getTransformed(polygon.getPoints())),
+				transformedPolygon);
+		assertEquals(transformedPolygon, polygon.transform(t));
+		Polyline polyline = new Polyline(0, 0, 10, 0, 5, 5);
+		assertEquals(polyline.getTransformed(t), polyline.transform(t));
+		Path path = new Polygon(0, 0, 10, 0, 5, 5).toPath();
+		assertEquals(
+				AWT2Geometry.toPath(new Path2D.Double(
+						Geometry2AWT.toAWTPath(path),
+						Geometry2AWT.toAWTAffineTransform(t))),
+				path.getTransformed(t));
+	}
+
 }
@@ -20,11 +20,13 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ AffineTransformTests.class, AngleTests.class, ArcTests.class,
 		AWTConversionTests.class, BezierCurveTests.class, CubicCurveTests.class,
-		CurvedPolygonTests.class, CurveUtilsTests.class, DimensionTests.class,
-		EllipseTests.class, IGeometryTests.class, LineTests.class,
-		PathTests.class, PieTests.class, PointListUtilsTests.class,
-		PointTests.class, PolygonTests.class, PolylineTests.class,
-		PrecisionUtilsTests.class, QuadraticCurveTests.class,
+		CurvedPolygonTests.class, CurveIntersectorTests.class,
+		CurveUtilsTests.class, DimensionTests.class, EllipseTests.class,
+		IGeometryTests.class, LineTests.class,
+		PathClipperTests.class, PathTests.class, PieTests.class,
+		PointListUtilsTests.class, PointSetTests.class, PointTests.class,
+		PolygonTests.class, PolylineTests.class, PrecisionUtilsTests.class,
+		PreparedGeometryTests.class, QuadraticCurveTests.class,
 		RectangleTests.class, RegionTests.class, RingTests.class,
 		RoundedRectangleTests.class, StraightTests.class, VectorTests.class,
 		Vector3DTests.class })
@@ -24,6 +24,7 @@ import java.util.Arrays;
 
 import org.eclipse.gef.geometry.convert.awt.AWT2Geometry;
 import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
+import org.eclipse.gef.geometry.euclidean.Angle;
 import org.eclipse.gef.geometry.euclidean.Vector;
 import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
 import org.eclipse.gef.geometry.planar.BezierCurve;
@@ -185,6 +186,43 @@ public class BezierCurveTests {
 		assertEquals(new Point(5.5, 5.5), c0.get(0.5));
 	}
 
+	@Test
+	public void test_getArcLength() {
+		BezierCurve line = new BezierCurve(0, 0, 30, 40);
+		assertEquals(50, line.getArcLength(), 0);
+		assertEquals(25, line.getArcLength(0.5), 0);
+		assertEquals(0.2, line.getParameterAtArcLength(10), 1e-6);
+		assertEquals(new Point(24, 32), line.getPointAtArcLength(40));
+
+		// compare with the length of a dense sampling
+		for (CubicCurve c : new Ellipse(-100, -100, 200, 200)
+				.getOutlineSegments()) {
+			double length = 0;
+			for (int i = 1; i <= 10000; i++) {
+				length += c.get((i - 1) / 10000d).getDistance(c.get(i / 10000d));
+			}
+			assertEquals(length, c.getArcLength(), 0.01);
+		}
+
+		BezierCurve c0 = new BezierCurve(0, 0, 10, 100, 20, 0, -20, -300, 40,
+				0);
+		assertEquals(0, c0.getArcLength(0), 0);
+		assertEquals(c0.getArcLength(), c0.getArcLength(1), 0);
+		double previous = 0;
+		for (double t = 0.01; t <= 1; t += 0.01) {
+			double s = c0.getArcLength(t);
+			assertTrue(s > previous);
+			// the arc length is at least the distance of the end points
+			assertTrue(s >= c0.getP1().getDistance(c0.get(t)) - 1e-9);
+			assertEquals(t, c0.getParameterAtArcLength(s), 1e-6);
+			previous = s;
+		}
+
+		// arc lengths are clamped
+		assertEquals(0, c0.getParameterAtArcLength(-1), 0);
+		assertEquals(1, c0.getParameterAtArcLength(c0.getArcLength() + 1), 0);
+	}
+
 	@Test
 	public void test_getBounds() {
 		BezierCurve c0 = new BezierCurve(1, 1, 1, 10, 10, 1, 10, 10);
@@ -660,6 +698,47 @@ public class BezierCurveTests {
 		assertTrue(endMillis - startMillis < 200);
 	}
 
+	@Test
+	public void test_modification() {
+		// cached bounds, flattenings and line strips are discarded on
+		// modification
+		BezierCurve c0 = new BezierCurve(1, 1, 1, 10, 10, 1, 10, 10);
+		assertEquals(new Rectangle(1, 1, 9, 9), c0.getBounds());
+		assertTrue(c0.contains(new Point(5.5, 5.5)));
+		double length = c0.getArcLength();
+		Line[] lines = c0.toLineStrip(0.1);
+
+		c0.translate(10, 0);
+		assertEquals(new Rectangle(11, 1, 9, 9), c0.getBounds());
+		assertFalse(c0.contains(new Point(5.5, 5.5)));
+		assertTrue(c0.contains(new Point(15.5, 5.5)));
+		assertEquals(length, c0.getArcLength(), 1e-9);
+		Line[] translatedLines = c0.toLineStrip(0.1);
+		assertEquals(lines.length, translatedLines.length);
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals(lines[i].getTranslated(10, 0), translatedLines[i]);
+		}
+
+		c0.scale(2, new Point(11, 1));
+		assertEquals(new Rectangle(11, 1, 18, 18), c0.getBounds());
+		assertEquals(2 * length, c0.getArcLength(), 1e-3);
+		assertEquals(new Point(29, 19), c0.getProjection(new Point(30, 30)));
+
+		c0.setPoint(3, new Point(11, 19));
+		assertEquals(new Rectangle(11, 1, 8, 18), c0.getBounds());
+		assertEquals(new Point(11, 19), c0.getProjection(new Point(11, 30)));
+
+		BezierCurve c1 = new BezierCurve(0, 0, 10, 10, 20, 0);
+		Rectangle bounds = c1.getBounds();
+		assertTrue(c1.contains(new Point(10, 5)));
+		c1.rotateCCW(Angle.fromDeg(90), new Point(0, 0));
+		assertFalse(bounds.equals(c1.getBounds()));
+		assertEquals(new BezierCurve(c1.getPoints()).getBounds(),
+				c1.getBounds());
+		assertFalse(c1.contains(new Point(10, 5)));
+		assertTrue(c1.contains(c1.get(0.5)));
+	}
+
 	@Test
 	public void test_overlaps() {
 		BezierCurve c0 = new BezierCurve(1, 1, 1, 10, 10, 1, 10, 10);
@@ -796,7 +875,27 @@ public class BezierCurveTests {
 		assertEquals(new Line(0, 0, 1, 1), lines[0]);
 		assertEquals(linear.toLine(), lines[0]);
 
-		// TODO: check complicated curves, too
+		// the strip is connected and each point of the curve is located
+		// within the line similarity of the strip
+		BezierCurve c0 = new BezierCurve(0, 0, 10, 100, 20, 0, -20, -300, 40,
+				0);
+		for (double lineSimilarity : new double[] { 1, 0.1, 1 }) {
+			lines = c0.toLineStrip(lineSimilarity);
+			assertEquals(c0.getP1(), lines[0].getP1());
+			assertEquals(c0.getP2(), lines[lines.length - 1].getP2());
+			for (int i = 1; i < lines.length; i++) {
+				assertEquals(lines[i - 1].getP2(), lines[i].getP1());
+			}
+			for (double t = 0; t <= 1; t += 0.001) {
+				Point p = c0.get(t);
+				double distance = Double.POSITIVE_INFINITY;
+				for (Line l : lines) {
+					distance = Math.min(distance,
+							p.getDistance(l.getProjection(p)));
+				}
+				assertTrue(distance <= lineSimilarity);
+			}
+		}
 	}
 
 	@Test
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.CubicCurve;
+import org.eclipse.gef.geometry.planar.CurveIntersector;
+import org.eclipse.gef.geometry.planar.CurveIntersector.Intersection;
+import org.eclipse.gef.geometry.planar.ICurve;
+import org.eclipse.gef.geometry.planar.Line;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.PolyBezier;
+import org.eclipse.gef.geometry.planar.Polyline;
+import org.eclipse.gef.geometry.planar.QuadraticCurve;
+import org.junit.Test;
+
+public class CurveIntersectorTests {
+
+	private static void assertSamePoints(Point[] expected, Point[] actual) {
+		// the order of the intersection points (and which of several almost
+		// equal points is reported) is not deterministic
+		for (Point p : expected) {
+			assertTrue(p + " missing", contains(actual, p));
+		}
+		for (Point p : actual) {
+			assertTrue(p + " unexpected", contains(expected, p));
+		}
+	}
+
+	private static boolean contains(Point[] points, Point p) {
+		for (Point q : points) {
+			if (q.getDistance(p) < 1e-4) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void assertPairwise(List<ICurve> curves,
+			List<Intersection> intersections) {
+		int i = 0;
+		for (int index1 = 0; index1 < curves.size(); index1++) {
+			for (int index2 = index1 + 1; index2 < curves.size(); index2++) {
+				Point[] expected = curves.get(index1)
+						.getIntersections(curves.get(index2));
+				if (expected.length == 0) {
+					continue;
+				}
+				Intersection intersection = intersections.get(i++);
+				assertEquals(index1, intersection.getIndex1());
+				assertEquals(index2, intersection.getIndex2());
+				assertEquals(curves.get(index1), intersection.getCurve1());
+				assertEquals(curves.get(index2), intersection.getCurve2());
+				assertSamePoints(expected, intersection.getPoints());
+			}
+		}
+		assertEquals(i, intersections.size());
+	}
+
+	private static List<ICurve> createCurves(Random random) {
+		List<ICurve> curves = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			// horizontal waves and vertical arcs, which cross transversally
+			double y = 20 + random.nextDouble() * 160;
+			curves.add(new CubicCurve(0, y, 100, y - 40, 200, y + 40, 300, y));
+			double x = 20 + random.nextDouble() * 260;
+			curves.add(new QuadraticCurve(x, 0, x + 50, 100, x, 200));
+			curves.add(PolyBezier.interpolateCubic(randomPoint(random),
+					randomPoint(random), randomPoint(random)).toBezier()[0]);
+		}
+		return curves;
+	}
+
+	private static ICurve createLinearCurve(Random random) {
+		if (random.nextBoolean()) {
+			return new Line(randomPoint(random), randomPoint(random));
+		}
+		return new Polyline(randomPoint(random), randomPoint(random),
+				randomPoint(random), randomPoint(random));
+	}
+
+	private static Point randomPoint(Random random) {
+		// integer coordinates, so that curves share end points
+		return new Point(random.nextInt(200), random.nextInt(200));
+	}
+
+	@Test
+	public void curves() {
+		Random random = new Random(0);
+		for (int n = 0; n < 5; n++) {
+			List<ICurve> curves = createCurves(random);
+			assertPairwise(curves, CurveIntersector.getIntersections(curves));
+		}
+	}
+
+	@Test
+	public void grid() {
+		List<ICurve> curves = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			curves.add(new Line(0, i * 10 + 5, 300, i * 10 + 5));
+			curves.add(new Line(i * 10 + 5, 0, i * 10 + 5, 300));
+		}
+		List<Intersection> intersections = CurveIntersector
+				.getIntersections(curves);
+		// each horizontal line crosses each vertical line exactly once
+		assertEquals(30 * 30, intersections.size());
+		for (Intersection intersection : intersections) {
+			assertTrue((intersection.getIndex1() + intersection.getIndex2())
+					% 2 == 1);
+			Point[] points = intersection.getPoints();
+			assertEquals(1, points.length);
+		}
+		assertEquals(new Point(5, 5), intersections.get(0).getPoints()[0]);
+	}
+
+	@Test
+	public void noIntersections() {
+		assertEquals(0, CurveIntersector
+				.getIntersections(Collections.<ICurve> emptyList()).size());
+		assertEquals(0,
+				CurveIntersector
+						.getIntersections(Arrays.<ICurve> asList(
+								new Line(0, 0, 10, 10), new Line(0, 5, 10, 15)))
+						.size());
+		// segments of the same curve are not intersected with each other
+		assertEquals(0,
+				CurveIntersector.getIntersections(Arrays.<ICurve> asList(
+						new Polyline(0, 0, 10, 10, 0, 10, 10, 0))).size());
+	}
+
+	@Test
+	public void overlaps() {
+		// overlapping sections are not reported
+		List<ICurve> curves = Arrays.<ICurve> asList(new Line(0, 0, 10, 0),
+				new Line(5, 0, 15, 0), new Line(7, -5, 7, 5));
+		assertPairwise(curves, CurveIntersector.getIntersections(curves));
+	}
+
+	@Test
+	public void parallel() {
+		Random random = new Random(1);
+		List<ICurve> curves = createCurves(random);
+		for (int i = 0; i < 50; i++) {
+			curves.add(createLinearCurve(random));
+		}
+		List<Intersection> sequential = CurveIntersector
+				.getIntersections(curves, false);
+		List<Intersection> parallel = CurveIntersector
+				.getIntersections(curves, true);
+		assertEquals(sequential.size(), parallel.size());
+		for (int i = 0; i < sequential.size(); i++) {
+			assertEquals(sequential.get(i).getIndex1(),
+					parallel.get(i).getIndex1());
+			assertEquals(sequential.get(i).getIndex2(),
+					parallel.get(i).getIndex2());
+			assertSamePoints(sequential.get(i).getPoints(),
+					parallel.get(i).getPoints());
+		}
+	}
+
+	@Test
+	public void polylines() {
+		Random random = new Random(0);
+		for (int n = 0; n < 10; n++) {
+			List<ICurve> curves = new ArrayList<>();
+			for (int i = 0; i < 25; i++) {
+				curves.add(createLinearCurve(random));
+			}
+			assertPairwise(curves, CurveIntersector.getIntersections(curves));
+		}
+	}
+
+}
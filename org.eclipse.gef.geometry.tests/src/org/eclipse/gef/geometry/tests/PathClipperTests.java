@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Area;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
+import org.eclipse.gef.geometry.planar.Ellipse;
+import org.eclipse.gef.geometry.planar.Path;
+import org.eclipse.gef.geometry.planar.Path.Segment;
+import org.eclipse.gef.geometry.planar.PathClipper;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Polygon;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.junit.Test;
+
+public class PathClipperTests {
+
+	private static void assertSameArea(Area expected, Path actual,
+			Random random) {
+		for (int i = 0; i < 100; i++) {
+			double x = random.nextDouble() * 110 - 5;
+			double y = random.nextDouble() * 110 - 5;
+			// skip points close to the outline
+			boolean inside = expected.contains(x, y);
+			if (expected.contains(x - 0.05, y - 0.05) != inside
+					|| expected.contains(x + 0.05, y - 0.05) != inside
+					|| expected.contains(x - 0.05, y + 0.05) != inside
+					|| expected.contains(x + 0.05, y + 0.05) != inside) {
+				continue;
+			}
+			assertEquals("(" + x + ", " + y + ")", inside,
+					actual.contains(new Point(x, y)));
+		}
+	}
+
+	private static Area compute(Path p1, Path p2, int operation) {
+		Area a = new Area(Geometry2AWT.toAWTPath(p1));
+		Area b = new Area(Geometry2AWT.toAWTPath(p2));
+		switch (operation) {
+		case PathClipper.INTERSECTION:
+			a.intersect(b);
+			break;
+		case PathClipper.UNION:
+			a.add(b);
+			break;
+		case PathClipper.DIFFERENCE:
+			a.subtract(b);
+			break;
+		default:
+			a.exclusiveOr(b);
+		}
+		return a;
+	}
+
+	private static int count(Path path, int segmentType) {
+		int count = 0;
+		for (Segment s : path.getSegments()) {
+			if (s.getType() == segmentType) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static Path createPolygon(Random random, int windingRule) {
+		// self-intersecting polygons with integer coordinates, so that
+		// collinear and coincident edges occur
+		Path path = new Path(windingRule);
+		int n = 3 + random.nextInt(12);
+		for (int i = 0; i < n; i++) {
+			double x = random.nextInt(100);
+			double y = random.nextInt(100);
+			if (i == 0) {
+				path.moveTo(x, y);
+			} else {
+				path.lineTo(x, y);
+			}
+		}
+		return path.close();
+	}
+
+	@Test
+	public void adjacentRectangles() {
+		// the shared edge is removed, so that a single sub-path results
+		Path union = PathClipper.clip(new Rectangle(0, 0, 50, 50).toPath(),
+				new Rectangle(50, 0, 50, 50).toPath(), PathClipper.UNION);
+		assertEquals(1, count(union, Segment.MOVE_TO));
+		assertTrue(union.contains(new Point(50, 25)));
+		assertFalse(union.contains(new Point(50, 75)));
+
+		// rectangles touching in a corner result in separate sub-paths
+		union = PathClipper.clip(new Rectangle(0, 0, 50, 50).toPath(),
+				new Rectangle(50, 50, 50, 50).toPath(), PathClipper.UNION);
+		assertEquals(2, count(union, Segment.MOVE_TO));
+
+		Path intersection = PathClipper.clip(
+				new Rectangle(0, 0, 50, 50).toPath(),
+				new Rectangle(50, 0, 50, 50).toPath(),
+				PathClipper.INTERSECTION);
+		assertEquals(0, intersection.getSegments().length);
+	}
+
+	@Test
+	public void almostCollinearEdges() {
+		// triangles of a rotated ring, whose edges are collinear (within the
+		// imprecision) without sharing their end points
+		double[][] triangles = {
+				{ 25.851993354543414, 6.1715707427189415, 33.130870055730135,
+						6.037578321585851, 26.43673676398889,
+						8.084180254645009 },
+				{ 32.785339859239635, 4.907399973629538, 33.13087005573015,
+						6.03757832158585, 36.63551439333855,
+						5.9730634521514006 },
+				{ 33.13087005573013, 6.037578321585849, 32.24812720407194,
+						6.307459895176069, 36.63551439333855,
+						5.9730634521514006 },
+				{ 27.50324879912562, 8.152280317583525, 27.393041519951915,
+						7.791808549922277, 24.74914013581882,
+						8.60013032180278 },
+				{ 27.50324879912562, 8.152280317583525, 27.471505940946376,
+						9.859203081995679, 24.74914013581882,
+						8.60013032180278 } };
+		Path union = new Path();
+		for (double[] triangle : triangles) {
+			Path path = new Polygon(triangle).toPath();
+			Area expected = compute(union, path, PathClipper.UNION);
+			union = PathClipper.clip(union, path, PathClipper.UNION);
+			assertSameArea(expected, union, new Random(0));
+		}
+	}
+
+	@Test
+	public void curves() {
+		Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			Path p1 = new Ellipse(random.nextInt(50), random.nextInt(50),
+					20 + random.nextInt(50), 20 + random.nextInt(50)).toPath();
+			Path p2 = new Ellipse(random.nextInt(50), random.nextInt(50),
+					20 + random.nextInt(50), 20 + random.nextInt(50)).toPath();
+			for (int operation = PathClipper.INTERSECTION;
+					operation <= PathClipper.EXCLUSIVE_OR; operation++) {
+				Area expected = compute(p1, p2, operation);
+				Path preserved = PathClipper.clip(p1, p2, operation,
+						PathClipper.DEFAULT_FLATNESS, true);
+				Path flattened = PathClipper.clip(p1, p2, operation,
+						PathClipper.DEFAULT_FLATNESS, false);
+				assertSameArea(expected, preserved, random);
+				assertSameArea(expected, flattened, random);
+				assertEquals(0, count(flattened, Segment.CUBIC_TO));
+				if (!expected.isEmpty()) {
+					assertTrue(count(preserved, Segment.CUBIC_TO) > 0);
+					assertTrue(count(preserved, Segment.CUBIC_TO) < count(
+							flattened, Segment.LINE_TO));
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidOperation() {
+		PathClipper.clip(new Path(), new Path(), 4);
+	}
+
+	@Test
+	public void polygons() {
+		Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			Path p1 = createPolygon(random, i % 2 == 0 ? Path.WIND_EVEN_ODD
+					: Path.WIND_NON_ZERO);
+			Path p2 = createPolygon(random, i % 3 == 0 ? Path.WIND_EVEN_ODD
+					: Path.WIND_NON_ZERO);
+			for (int operation = PathClipper.INTERSECTION;
+					operation <= PathClipper.EXCLUSIVE_OR; operation++) {
+				assertSameArea(compute(p1, p2, operation),
+						PathClipper.clip(p1, p2, operation), random);
+			}
+		}
+	}
+
+	@Test
+	public void windingRuleOfResult() {
+		// the result does not depend on the winding rule, as holes are
+		// oriented opposite to outer boundaries
+		Path frame = PathClipper.clip(new Rectangle(0, 0, 100, 100).toPath(),
+				new Polygon(25, 25, 75, 25, 75, 75, 25, 75).toPath(),
+				PathClipper.DIFFERENCE);
+		assertEquals(2, count(frame, Segment.MOVE_TO));
+		for (int windingRule : new int[] { Path.WIND_EVEN_ODD,
+				Path.WIND_NON_ZERO }) {
+			frame.setWindingRule(windingRule);
+			assertTrue(frame.contains(new Point(10, 50)));
+			assertFalse(frame.contains(new Point(50, 50)));
+		}
+	}
+
+}
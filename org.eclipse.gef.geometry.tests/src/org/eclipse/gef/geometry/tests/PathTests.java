@@ -16,8 +16,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.awt.geom.Path2D;
 import java.util.List;
+import java.util.Random;
 
+import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
 import org.eclipse.gef.geometry.planar.ICurve;
 import org.eclipse.gef.geometry.planar.Path;
 import org.eclipse.gef.geometry.planar.Point;
@@ -69,6 +72,88 @@ public class PathTests {
 		assertFalse(differencePath.contains(new Point(125, 125)));
 	}
 
+	private static Path createCurvedPath(int windingRule) {
+		// a self-intersecting path with two sub-paths, the second of which is
+		// not explicitly closed
+		return new Path(windingRule).moveTo(10, 10).lineTo(80, 10)
+				.quadTo(120, 50, 80, 80).cubicTo(50, 50, 30, 100, 10, 80)
+				.lineTo(90, 30).close().moveTo(40, 40)
+				.cubicTo(150, 0, 150, 120, 40, 60).quadTo(0, 50, 60, 50);
+	}
+
+	@Test
+	public void test_contains_Point() {
+		Random random = new Random(0);
+		for (int windingRule : new int[] { Path.WIND_EVEN_ODD,
+				Path.WIND_NON_ZERO }) {
+			Path path = createCurvedPath(windingRule);
+			Path2D awtPath = Geometry2AWT.toAWTPath(path);
+			for (int i = 0; i < 10000; i++) {
+				Point p = new Point(random.nextDouble() * 140,
+						random.nextDouble() * 120);
+				assertEquals(p.toString(),
+						awtPath.contains(Geometry2AWT.toAWTPoint(p)),
+						path.contains(p));
+			}
+		}
+	}
+
+	@Test
+	public void test_contains_Point_modified() {
+		Path path = new Path().moveTo(0, 0).lineTo(10, 0).lineTo(10, 10);
+		assertTrue(path.contains(new Point(8, 2)));
+		assertFalse(path.contains(new Point(2, 8)));
+		// the cached edges have to be updated
+		path.lineTo(0, 10);
+		assertTrue(path.contains(new Point(2, 8)));
+		path.reset();
+		assertFalse(path.contains(new Point(8, 2)));
+		path.add(new Rectangle(0, 0, 5, 5).toPath().getSegments());
+		assertTrue(path.contains(new Point(2, 2)));
+		assertFalse(path.contains(new Point(8, 2)));
+	}
+
+	@Test
+	public void test_contains_Rectangle() {
+		Random random = new Random(0);
+		for (int windingRule : new int[] { Path.WIND_EVEN_ODD,
+				Path.WIND_NON_ZERO }) {
+			Path path = createCurvedPath(windingRule);
+			Path2D awtPath = Geometry2AWT.toAWTPath(path);
+			for (int i = 0; i < 10000; i++) {
+				Rectangle r = new Rectangle(random.nextDouble() * 140,
+						random.nextDouble() * 120, random.nextDouble() * 20,
+						random.nextDouble() * 20);
+				assertEquals(r.toString(),
+						awtPath.contains(Geometry2AWT.toAWTRectangle(r)),
+						path.contains(r));
+			}
+		}
+		// a rectangle is contained by its own outline
+		Rectangle r = new Rectangle(10, 10, 50, 50);
+		assertTrue(r.toPath().contains(r));
+		assertFalse(r.toPath().contains(r.getExpanded(1, 1)));
+		assertFalse(r.toPath().contains(new Rectangle(20, 20, 0, 10)));
+	}
+
+	@Test
+	public void test_touches_Rectangle() {
+		Random random = new Random(0);
+		for (int windingRule : new int[] { Path.WIND_EVEN_ODD,
+				Path.WIND_NON_ZERO }) {
+			Path path = createCurvedPath(windingRule);
+			Path2D awtPath = Geometry2AWT.toAWTPath(path);
+			for (int i = 0; i < 10000; i++) {
+				Rectangle r = new Rectangle(random.nextDouble() * 140,
+						random.nextDouble() * 120, random.nextDouble() * 20,
+						random.nextDouble() * 20);
+				assertEquals(r.toString(),
+						awtPath.intersects(Geometry2AWT.toAWTRectangle(r)),
+						path.touches(r));
+			}
+		}
+	}
+
 	@Test
 	public void test_getBounds_cubic() {
 		// create path using all segment types
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.PointMap;
+import org.eclipse.gef.geometry.planar.PointSet;
+import org.junit.Test;
+
+public class PointSetTests {
+
+	private static final double EPS = PrecisionUtils.calculateFraction(0);
+
+	@Test
+	public void add() {
+		PointSet set = new PointSet();
+		Point p = new Point(1, 1);
+		assertTrue(set.add(p));
+		assertFalse(set.add(new Point(1, 1)));
+		// imprecisely equal points are not added
+		assertFalse(set.add(new Point(1 + EPS / 2, 1 - EPS / 2)));
+		assertFalse(set.add(new Point(1 + 0.9 * EPS, 1 - 0.9 * EPS)));
+		assertEquals(1, set.size());
+		assertSame(p, set.iterator().next());
+		// points beyond the imprecision are added
+		assertTrue(set.add(new Point(1 + 3 * EPS, 1)));
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	public void cellBorders() {
+		// equal points located in neighboring cells are found
+		for (double c : new double[] { 0, -0.5, 3 * EPS, -3 * EPS, 1e6,
+				-1e6 }) {
+			PointSet set = new PointSet();
+			set.add(new Point(c, c));
+			for (double dx = -EPS; dx <= EPS; dx += EPS / 4) {
+				for (double dy = -EPS; dy <= EPS; dy += EPS / 4) {
+					Point q = new Point(c + dx, c + dy);
+					assertEquals(new Point(c, c).equals(q), set.contains(q));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void consistentWithPointEquals() {
+		Random random = new Random(0);
+		List<Point> points = new ArrayList<>();
+		PointSet set = new PointSet();
+		for (int i = 0; i < 2000; i++) {
+			// cluster the points, so that many of them are equal
+			Point p = new Point(random.nextInt(10) + random.nextDouble() * EPS,
+					random.nextInt(10) - random.nextDouble() * 4 * EPS);
+			boolean contained = false;
+			for (Point q : points) {
+				if (q.equals(p)) {
+					contained = true;
+					break;
+				}
+			}
+			if (!contained) {
+				points.add(p);
+			}
+			assertEquals(!contained, set.add(p));
+		}
+		assertArrayEquals(points.toArray(), set.toArray());
+	}
+
+	@Test
+	public void hugeCoordinates() {
+		// cells of huge coordinates are clamped
+		PointSet set = new PointSet();
+		set.add(new Point(Double.MAX_VALUE, -Double.MAX_VALUE));
+		set.add(new Point(1e300, -1e300));
+		assertTrue(
+				set.contains(new Point(Double.MAX_VALUE, -Double.MAX_VALUE)));
+		assertTrue(set.contains(new Point(1e300, -1e300)));
+		assertFalse(set.contains(new Point(1e299, -1e300)));
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	public void iteratorRemove() {
+		PointSet set = new PointSet();
+		for (int i = 0; i < 100; i++) {
+			set.add(new Point(i, -i));
+		}
+		for (Iterator<Point> i = set.iterator(); i.hasNext();) {
+			if (i.next().x % 2 == 0) {
+				i.remove();
+			}
+		}
+		assertEquals(50, set.size());
+		int expected = 1;
+		for (Point p : set) {
+			assertEquals(new Point(expected, -expected), p);
+			expected += 2;
+		}
+		assertFalse(set.contains(new Point(2, -2)));
+		assertTrue(set.contains(new Point(3, -3)));
+	}
+
+	@Test
+	public void pointMap() {
+		PointMap<String> map = new PointMap<>();
+		Point a = new Point(5, 5);
+		assertNull(map.put(a, "a"));
+		assertEquals("a", map.put(new Point(5 + EPS / 2, 5), "b"));
+		assertEquals(1, map.size());
+		// the original key is retained
+		assertSame(a, map.keySet().iterator().next());
+		assertEquals("b", map.get(new Point(5, 5 - 0.9 * EPS)));
+		assertNull(map.get(new Point(5, 5 - 3 * EPS)));
+		assertEquals("b", map.remove(new Point(5, 5)));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void remove() {
+		PointSet set = new PointSet();
+		set.add(new Point(0, 0));
+		set.add(new Point(1, 1));
+		assertFalse(set.remove(new Point(0, 3 * EPS)));
+		assertTrue(set.remove(new Point(0, 0.9 * EPS)));
+		assertFalse(set.contains(new Point(0, 0)));
+		assertEquals(1, set.size());
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertFalse(set.contains(new Point(1, 1)));
+	}
+
+	@Test
+	public void shift() {
+		PointSet set = new PointSet(-2);
+		set.add(new Point(0, 0));
+		assertTrue(set.contains(new Point(0.5e-4, -0.5e-4)));
+		assertFalse(set.contains(new Point(2e-4, 0)));
+		assertEquals(-2, new PointSet(set).getShift());
+	}
+
+}
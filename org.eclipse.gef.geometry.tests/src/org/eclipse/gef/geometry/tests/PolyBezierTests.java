@@ -15,12 +15,34 @@ package org.eclipse.gef.geometry.tests;
 import static org.junit.Assert.assertEquals;
 
 import org.eclipse.gef.geometry.planar.BezierCurve;
+import org.eclipse.gef.geometry.planar.Line;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.PolyBezier;
 import org.junit.Test;
 
 public class PolyBezierTests {
 
+	@Test
+	public void test_getArcLength() {
+		PolyBezier polyBezier = new PolyBezier(new Line(0, 0, 30, 40),
+				new Line(30, 40, 30, 100), new Line(30, 100, 0, 100));
+		assertEquals(140, polyBezier.getArcLength(), 0);
+		assertEquals(new Point(0, 0), polyBezier.getPointAtArcLength(0));
+		assertEquals(new Point(30, 40), polyBezier.getPointAtArcLength(50));
+		assertEquals(new Point(30, 70), polyBezier.getPointAtArcLength(80));
+		assertEquals(new Point(10, 100), polyBezier.getPointAtArcLength(130));
+		assertEquals(new Point(0, 100), polyBezier.getPointAtArcLength(140));
+
+		// arc lengths are clamped
+		assertEquals(new Point(0, 0), polyBezier.getPointAtArcLength(-10));
+		assertEquals(new Point(0, 100), polyBezier.getPointAtArcLength(150));
+
+		// the length is updated on modification
+		polyBezier.scale(2, new Point());
+		assertEquals(280, polyBezier.getArcLength(), 0);
+		assertEquals(new Point(60, 140), polyBezier.getPointAtArcLength(160));
+	}
+
 	@Test
 	public void test_same_points() {
 		PolyBezier polyBezier = PolyBezier.interpolateCubic(new Point(),
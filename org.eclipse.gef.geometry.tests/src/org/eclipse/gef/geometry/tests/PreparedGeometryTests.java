@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Path2D;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.euclidean.Angle;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Polygon;
+import org.eclipse.gef.geometry.planar.PreparedGeometry;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.geometry.planar.Region;
+import org.eclipse.gef.geometry.planar.Ring;
+import org.junit.Test;
+
+public class PreparedGeometryTests {
+
+	private static Polygon createPolygon(Random random, boolean simple) {
+		int n = 3 + random.nextInt(30);
+		Point[] points = new Point[n];
+		for (int i = 0; i < n; i++) {
+			if (simple) {
+				// star-shaped
+				double angle = 2 * Math.PI * i / n;
+				double radius = 10 + random.nextInt(15);
+				points[i] = new Point(25 + radius * Math.cos(angle),
+						25 + radius * Math.sin(angle));
+			} else {
+				points[i] = new Point(random.nextInt(50), random.nextInt(50));
+			}
+		}
+		return new Polygon(points);
+	}
+
+	@Test
+	public void contains_Point_Polygon() {
+		Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			Polygon polygon = createPolygon(random, i % 2 == 0);
+			PreparedGeometry prepared = polygon.prepare();
+			for (int j = 0; j < 200; j++) {
+				Point p = j % 2 == 0
+						? new Point(random.nextDouble() * 60 - 5,
+								random.nextDouble() * 60 - 5)
+						: new Point(random.nextInt(52) - 1,
+								random.nextInt(52) - 1);
+				assertEquals(p.toString(), polygon.contains(p),
+						prepared.contains(p));
+			}
+			// vertices and points on the outline are contained
+			Point[] points = polygon.getPoints();
+			for (int j = 0; j < points.length; j++) {
+				Point q = points[(j + 1) % points.length];
+				assertTrue(prepared.contains(points[j]));
+				assertTrue(prepared.contains((points[j].x + q.x) / 2,
+						(points[j].y + q.y) / 2));
+			}
+		}
+	}
+
+	@Test
+	public void contains_Point_Region() {
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			Rectangle[] rectangles = new Rectangle[1 + random.nextInt(8)];
+			for (int j = 0; j < rectangles.length; j++) {
+				rectangles[j] = new Rectangle(random.nextInt(40),
+						random.nextInt(40), 1 + random.nextInt(20),
+						1 + random.nextInt(20));
+			}
+			Region region = new Region(rectangles);
+			PreparedGeometry prepared = region.prepare();
+			for (int j = 0; j < 200; j++) {
+				Point p = j % 2 == 0
+						? new Point(random.nextDouble() * 70 - 5,
+								random.nextDouble() * 70 - 5)
+						: new Point(random.nextInt(65) - 1,
+								random.nextInt(65) - 1);
+				assertEquals(p.toString(), region.contains(p),
+						prepared.contains(p));
+			}
+		}
+
+		// region with a void
+		PreparedGeometry prepared = new Region(new Rectangle(0, 0, 200, 50),
+				new Rectangle(0, 0, 50, 150), new Rectangle(0, 100, 200, 50),
+				new Rectangle(150, 0, 50, 150)).prepare();
+		assertTrue(prepared.contains(25, 75));
+		assertTrue(prepared.contains(50, 75));
+		assertFalse(prepared.contains(100, 75));
+		assertFalse(prepared.contains(-10, 75));
+	}
+
+	@Test
+	public void contains_Point_Ring() {
+		Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			Polygon[] polygons = new Polygon[1 + random.nextInt(5)];
+			for (int j = 0; j < polygons.length; j++) {
+				polygons[j] = new Rectangle(random.nextInt(40),
+						random.nextInt(40), 1 + random.nextInt(20),
+						1 + random.nextInt(20)).toPolygon()
+								.rotateCCW(Angle.fromDeg(17), 30, 30);
+			}
+			Ring ring = new Ring(polygons);
+			PreparedGeometry prepared = ring.prepare();
+			for (int j = 0; j < 200; j++) {
+				Point p = new Point(random.nextDouble() * 80 - 10,
+						random.nextDouble() * 80 - 10);
+				assertEquals(p.toString(), ring.contains(p),
+						prepared.contains(p));
+			}
+		}
+	}
+
+	@Test
+	public void contains_Rectangle() {
+		PreparedGeometry prepared = new Polygon(0, 0, 100, 0, 100, 100, 50, 50,
+				0, 100).prepare();
+		assertTrue(prepared.contains(new Rectangle(10, 10, 80, 20)));
+		assertTrue(prepared.contains(new Rectangle(0, 0, 100, 10)));
+		assertFalse(prepared.contains(new Rectangle(10, 10, 80, 80)));
+		assertFalse(prepared.contains(new Rectangle(40, 60, 20, 10)));
+		assertFalse(prepared.contains(new Rectangle(-10, -10, 200, 200)));
+
+		// holes are detected
+		prepared = new Region(new Rectangle(0, 0, 200, 50),
+				new Rectangle(0, 0, 50, 150), new Rectangle(0, 100, 200, 50),
+				new Rectangle(150, 0, 50, 150)).prepare();
+		assertTrue(prepared.contains(new Rectangle(0, 0, 200, 50)));
+		assertTrue(prepared.contains(new Rectangle(0, 0, 50, 150)));
+		assertFalse(prepared.contains(new Rectangle(0, 0, 200, 150)));
+	}
+
+	@Test
+	public void contains_Rectangle_degenerated() {
+		// a concave polygon may contain the end points of a line segment,
+		// which leaves it in between
+		Polygon polygon = new Polygon(0, 0, 30, 0, 30, 30, 20, 30, 20, 10, 10,
+				10, 10, 30, 0, 30);
+		PreparedGeometry prepared = polygon.prepare();
+		Rectangle r = new Rectangle(5, 20, 20, 0);
+		assertFalse(polygon.contains(r));
+		assertFalse(prepared.contains(r));
+		assertFalse(prepared.contains(new Rectangle(15, 5, 0, 20)));
+		assertTrue(prepared.contains(new Rectangle(5, 5, 20, 0)));
+		assertTrue(prepared.contains(new Rectangle(5, 5, 0, 20)));
+		// on the outline
+		assertTrue(prepared.contains(new Rectangle(0, 0, 30, 0)));
+		assertTrue(prepared.contains(new Rectangle(10, 10, 10, 0)));
+		assertTrue(prepared.contains(new Rectangle(5, 10, 20, 0)));
+		assertTrue(prepared.contains(new Rectangle(5, 5, 0, 0)));
+		assertFalse(prepared.contains(new Rectangle(15, 15, 0, 0)));
+
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			polygon = createPolygon(random, i % 2 == 0);
+			prepared = polygon.prepare();
+			for (int j = 0; j < 100; j++) {
+				double x = random.nextDouble() * 60 - 5;
+				double y = random.nextDouble() * 60 - 5;
+				double length = random.nextDouble() * 30;
+				r = j % 2 == 0 ? new Rectangle(x, y, length, 0)
+						: new Rectangle(x, y, 0, length);
+				assertEquals(r.toString(), polygon.contains(r),
+						prepared.contains(r));
+			}
+		}
+	}
+
+	@Test
+	public void contains_Rectangle_touches_Rectangle() {
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			Polygon polygon = createPolygon(random, i % 2 == 0);
+			PreparedGeometry prepared = polygon.prepare();
+			Point[] points = polygon.getPoints();
+			Path2D awtPath = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+			awtPath.moveTo(points[0].x, points[0].y);
+			for (int j = 1; j < points.length; j++) {
+				awtPath.lineTo(points[j].x, points[j].y);
+			}
+			awtPath.closePath();
+			for (int j = 0; j < 100; j++) {
+				Rectangle r = new Rectangle(random.nextDouble() * 60 - 5,
+						random.nextDouble() * 60 - 5,
+						random.nextDouble() * 10 + 0.01,
+						random.nextDouble() * 10 + 0.01);
+				assertEquals(r.toString(),
+						awtPath.intersects(r.getX(), r.getY(), r.getWidth(),
+								r.getHeight()),
+						prepared.touches(r));
+				assertEquals(r.toString(), awtPath.contains(r.getX(),
+						r.getY(), r.getWidth(), r.getHeight()),
+						prepared.contains(r));
+			}
+		}
+	}
+
+	@Test
+	public void degenerated() {
+		assertFalse(new Polygon(new Point[] {}).prepare().contains(0, 0));
+		assertEquals(new Rectangle(), new Polygon(new Point[] {}).prepare().getBounds());
+
+		PreparedGeometry prepared = new Polygon(new Point(1, 1)).prepare();
+		assertTrue(prepared.contains(1, 1));
+		assertFalse(prepared.contains(1, 2));
+
+		prepared = new Polygon(0, 0, 10, 10).prepare();
+		assertTrue(prepared.contains(5, 5));
+		assertFalse(prepared.contains(5, 6));
+		assertTrue(prepared.touches(new Rectangle(4, 4, 2, 2)));
+		assertFalse(prepared.touches(new Rectangle(6, 4, 2, 1)));
+	}
+
+	@Test
+	public void snapshot() {
+		Polygon polygon = new Polygon(0, 0, 10, 0, 10, 10, 0, 10);
+		PreparedGeometry prepared = polygon.prepare();
+		assertEquals(new Rectangle(0, 0, 10, 10), prepared.getBounds());
+		polygon.translate(100, 100);
+		assertTrue(prepared.contains(5, 5));
+		assertFalse(prepared.contains(105, 105));
+	}
+
+	@Test
+	public void touches_Rectangle() {
+		PreparedGeometry prepared = new Region(new Rectangle(0, 0, 200, 50),
+				new Rectangle(0, 0, 50, 150), new Rectangle(0, 100, 200, 50),
+				new Rectangle(150, 0, 50, 150)).prepare();
+		// within the void
+		assertFalse(prepared.touches(new Rectangle(60, 60, 80, 30)));
+		// touching the void's outline
+		assertTrue(prepared.touches(new Rectangle(50, 60, 80, 30)));
+		// fully contained
+		assertTrue(prepared.touches(new Rectangle(10, 10, 10, 10)));
+		// containing the region
+		assertTrue(prepared.touches(new Rectangle(-10, -10, 300, 300)));
+		assertFalse(prepared.touches(new Rectangle(201, 0, 10, 10)));
+	}
+
+}
@@ -121,7 +121,7 @@ abstract class AbstractMultiShape extends AbstractGeometry
 			Map<Point, List<Line>> segsAt) {
 		// System.out.println("findOutline");
 
-		Set<Point> visited = new HashSet<>();
+		Set<Point> visited = new PointSet();
 		Line initial = outlineSegments.iterator().next();
 		List<Point> way = findWay(segsAt, visited, initial.getP1(),
 				initial.getP2(), 1);
@@ -206,9 +206,7 @@ abstract class AbstractMultiShape extends AbstractGeometry
 		int longestWayLength = -1;
 		List<Point> longestWay = null;
 		for (Line nextSeg : nextSegs) {
-			@SuppressWarnings("unchecked")
-			Set<Point> visitedCopy = (Set<Point>) ((HashSet<Point>) visited)
-					.clone();
+			Set<Point> visitedCopy = new PointSet(visited);
 			Point nextPoint = start.equals(nextSeg.getP1()) ? nextSeg.getP2()
 					: nextSeg.getP1();
 			List<Point> way = findWay(segmentsByEndPoints, visitedCopy,
@@ -244,7 +242,7 @@ abstract class AbstractMultiShape extends AbstractGeometry
 	@Override
 	public Polyline[] getOutlines() {
 		List<Polyline> outlines = new ArrayList<>();
-		Map<Point, List<Line>> segmentsByEndPoints = new HashMap<>();
+		Map<Point, List<Line>> segmentsByEndPoints = new PointMap<>();
 		Set<Line> outlineSegments = new HashSet<>();
 
 		for (Line seg : getOutlineSegments()) {
@@ -359,6 +359,25 @@ abstract class AbstractPointListBasedGeometry<T extends AbstractPointListBasedGe
 		return scale(factor, factor, center);
 	}
 
+	/**
+	 * Transforms this {@link AbstractPointListBasedGeometry} in-place by
+	 * applying the given {@link AffineTransform} to each of its {@link Point}
+	 * s. In contrast to {@link #getTransformed(AffineTransform)}, no objects
+	 * are allocated.
+	 *
+	 * @param t
+	 *            The {@link AffineTransform} to apply.
+	 * @return <code>this</code> for convenience.
+	 * @since 5.1
+	 */
+	@SuppressWarnings("unchecked")
+	public T transform(AffineTransform t) {
+		for (Point p : points) {
+			p.transform(t);
+		}
+		return (T) this;
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public T translate(double dx, double dy) {
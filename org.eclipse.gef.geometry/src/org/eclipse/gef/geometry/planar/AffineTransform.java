@@ -15,8 +15,6 @@ package org.eclipse.gef.geometry.planar;
 
 import java.awt.geom.NoninvertibleTransformException;
 
-import org.eclipse.gef.geometry.convert.awt.AWT2Geometry;
-import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
 import org.eclipse.gef.geometry.euclidean.Angle;
 import org.eclipse.gef.geometry.euclidean.Vector;
 
@@ -26,7 +24,13 @@ import org.eclipse.gef.geometry.euclidean.Vector;
  * 2-dimensional affine transformations.
  * </p>
  * <p>
- * It delegates to the {@link java.awt.geom.AffineTransform} functionality.
+ * Its operations follow the specification of
+ * {@link java.awt.geom.AffineTransform} (including the snapping of rotations
+ * by integer multiples of 90deg), but the transformation matrix is maintained
+ * locally. Operations that do not return new objects do not allocate, so that
+ * the bulk operations on coordinate arrays (see
+ * {@link #transform(double[], int, double[], int, int)}) may be used within
+ * performance-critical code.
  * </p>
  *
  * @author anyssen
@@ -35,10 +39,12 @@ import org.eclipse.gef.geometry.euclidean.Vector;
  */
 public class AffineTransform implements Cloneable {
 
-	// TODO: implement affine transform locally to get rid of dependency on
-	// awt.geom.
-
-	private java.awt.geom.AffineTransform delegate = new java.awt.geom.AffineTransform();
+	private double m00 = 1;
+	private double m10;
+	private double m01;
+	private double m11 = 1;
+	private double m02;
+	private double m12;
 
 	/**
 	 * Creates a new {@link AffineTransform} with its transformation matrix set
@@ -73,8 +79,7 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform(double m00, double m10, double m01, double m11,
 			double m02, double m12) {
-		delegate = new java.awt.geom.AffineTransform(m00, m10, m01, m11, m02,
-				m12);
+		setTransform(m00, m10, m01, m11, m02, m12);
 	}
 
 	/**
@@ -90,16 +95,44 @@ public class AffineTransform implements Cloneable {
 	 *      double, double)
 	 */
 	public AffineTransform(double[] flatmatrix) {
-		delegate = new java.awt.geom.AffineTransform(flatmatrix);
+		m00 = flatmatrix[0];
+		m10 = flatmatrix[1];
+		m01 = flatmatrix[2];
+		m11 = flatmatrix[3];
+		if (flatmatrix.length > 5) {
+			m02 = flatmatrix[4];
+			m12 = flatmatrix[5];
+		}
 	}
 
-	private AffineTransform(java.awt.geom.AffineTransform delegate) {
-		this.delegate = delegate;
+	private AffineTransform applyRotation(double sin, double cos) {
+		double t00 = cos * m00 + sin * m01;
+		double t01 = -sin * m00 + cos * m01;
+		double t10 = cos * m10 + sin * m11;
+		double t11 = -sin * m10 + cos * m11;
+		m00 = t00;
+		m01 = t01;
+		m10 = t10;
+		m11 = t11;
+		return this;
 	}
 
+	/**
+	 * Returns a {@link java.awt.geom.AffineTransform} with the transformation
+	 * matrix of this {@link AffineTransform}, as this {@link AffineTransform}
+	 * used to be backed by a {@link java.awt.geom.AffineTransform}.
+	 *
+	 * @return A {@link java.awt.geom.AffineTransform} with the transformation
+	 *         matrix of this {@link AffineTransform}.
+	 * @deprecated Use {@link #getCopy()} to obtain a copy of this
+	 *             {@link AffineTransform}, or
+	 *             {@link org.eclipse.gef.geometry.convert.awt.Geometry2AWT#toAWTAffineTransform(AffineTransform)}
+	 *             to convert it into a {@link java.awt.geom.AffineTransform}.
+	 */
+	@Deprecated
 	@Override
 	public Object clone() {
-		return delegate.clone();
+		return new java.awt.geom.AffineTransform(m00, m10, m01, m11, m02, m12);
 	}
 
 	/**
@@ -114,8 +147,13 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform concatenate(AffineTransform Tx) {
-		delegate.concatenate(Tx.delegate);
-		return this;
+		double t00 = m00 * Tx.m00 + m01 * Tx.m10;
+		double t01 = m00 * Tx.m01 + m01 * Tx.m11;
+		double t02 = m00 * Tx.m02 + m01 * Tx.m12 + m02;
+		double t10 = m10 * Tx.m00 + m11 * Tx.m10;
+		double t11 = m10 * Tx.m01 + m11 * Tx.m11;
+		double t12 = m10 * Tx.m02 + m11 * Tx.m12 + m12;
+		return setTransform(t00, t10, t01, t11, t02, t12);
 	}
 
 	/**
@@ -140,7 +178,19 @@ public class AffineTransform implements Cloneable {
 	 */
 	public void deltaTransform(double[] srcPts, int srcOff, double[] dstPts,
 			int dstOff, int numPts) {
-		delegate.deltaTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+		if (srcPts == dstPts && dstOff > srcOff
+				&& dstOff < srcOff + numPts * 2) {
+			// XXX: the points would be overwritten before being read, so we
+			// move them to their destination first (as AWT does)
+			System.arraycopy(srcPts, srcOff, dstPts, dstOff, numPts * 2);
+			srcOff = dstOff;
+		}
+		while (--numPts >= 0) {
+			double x = srcPts[srcOff++];
+			double y = srcPts[srcOff++];
+			dstPts[dstOff++] = x * m00 + y * m01;
+			dstPts[dstOff++] = x * m10 + y * m11;
+		}
 	}
 
 	/**
@@ -153,14 +203,15 @@ public class AffineTransform implements Cloneable {
 	 * @return a new, transformed {@link Point}
 	 */
 	public Point deltaTransform(Point pt) {
-		return AWT2Geometry.toPoint(
-				delegate.deltaTransform(Geometry2AWT.toAWTPoint(pt), null));
+		return new Point(pt.x * m00 + pt.y * m01, pt.x * m10 + pt.y * m11);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof AffineTransform) {
-			return delegate.equals(((AffineTransform) obj).delegate);
+			AffineTransform t = (AffineTransform) obj;
+			return m00 == t.m00 && m01 == t.m01 && m02 == t.m02
+					&& m10 == t.m10 && m11 == t.m11 && m12 == t.m12;
 		}
 		return false;
 	}
@@ -171,7 +222,7 @@ public class AffineTransform implements Cloneable {
 	 * @return a copy of this {@link AffineTransform}
 	 */
 	public AffineTransform getCopy() {
-		return new AffineTransform(getMatrix());
+		return new AffineTransform(m00, m10, m01, m11, m02, m12);
 	}
 
 	/**
@@ -182,7 +233,17 @@ public class AffineTransform implements Cloneable {
 	 *         {@link AffineTransform}
 	 */
 	public double getDeterminant() {
-		return delegate.getDeterminant();
+		return m00 * m11 - m01 * m10;
+	}
+
+	private double getInvertibleDeterminant()
+			throws NoninvertibleTransformException {
+		double det = getDeterminant();
+		if (Math.abs(det) <= Double.MIN_VALUE) {
+			throw new NoninvertibleTransformException(
+					"Determinant is " + det);
+		}
+		return det;
 	}
 
 	/**
@@ -194,7 +255,7 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform getInverse() {
 		try {
-			return new AffineTransform(delegate.createInverse());
+			return getCopy().invert();
 		} catch (NoninvertibleTransformException e) {
 			throw new IllegalArgumentException(e);
 		}
@@ -206,7 +267,7 @@ public class AffineTransform implements Cloneable {
 	 * @return The matrix component in the first row and first column.
 	 */
 	public double getM00() {
-		return delegate.getScaleX();
+		return m00;
 	}
 
 	/**
@@ -215,7 +276,7 @@ public class AffineTransform implements Cloneable {
 	 * @return The matrix component in the first row and second column.
 	 */
 	public double getM01() {
-		return delegate.getShearX();
+		return m01;
 	}
 
 	/**
@@ -224,7 +285,7 @@ public class AffineTransform implements Cloneable {
 	 * @return The matrix component in the second row and first column.
 	 */
 	public double getM10() {
-		return delegate.getShearY();
+		return m10;
 	}
 
 	/**
@@ -233,7 +294,7 @@ public class AffineTransform implements Cloneable {
 	 * @return The matrix component in the second row and second column.
 	 */
 	public double getM11() {
-		return delegate.getScaleY();
+		return m11;
 	}
 
 	/**
@@ -244,9 +305,7 @@ public class AffineTransform implements Cloneable {
 	 *         {@link AffineTransform}
 	 */
 	public double[] getMatrix() {
-		double[] flatmatrix = new double[6];
-		delegate.getMatrix(flatmatrix);
-		return flatmatrix;
+		return new double[] { m00, m10, m01, m11, m02, m12 };
 	}
 
 	/**
@@ -291,8 +350,8 @@ public class AffineTransform implements Cloneable {
 	 * @return a new, transformed {@link Point}
 	 */
 	public Point getTransformed(Point ptSrc) {
-		return AWT2Geometry.toPoint(
-				delegate.transform(Geometry2AWT.toAWTPoint(ptSrc), null));
+		return new Point(ptSrc.x * m00 + ptSrc.y * m01 + m02,
+				ptSrc.x * m10 + ptSrc.y * m11 + m12);
 	}
 
 	/**
@@ -323,7 +382,7 @@ public class AffineTransform implements Cloneable {
 	 *         transformation matrix
 	 */
 	public double getTranslateX() {
-		return delegate.getTranslateX();
+		return m02;
 	}
 
 	/**
@@ -334,7 +393,7 @@ public class AffineTransform implements Cloneable {
 	 *         transformation matrix
 	 */
 	public double getTranslateY() {
-		return delegate.getTranslateY();
+		return m12;
 	}
 
 	/**
@@ -347,12 +406,102 @@ public class AffineTransform implements Cloneable {
 	 *         {@link AffineTransform}
 	 */
 	public int getType() {
-		return delegate.getType();
+		// XXX: ported from java.awt.geom.AffineTransform#calculateType(), so
+		// that the same flags are reported
+		int type = java.awt.geom.AffineTransform.TYPE_IDENTITY;
+		boolean translated = m02 != 0 || m12 != 0;
+		if (translated) {
+			type = java.awt.geom.AffineTransform.TYPE_TRANSLATION;
+		}
+		if (m01 == 0 && m10 == 0) {
+			if (m00 == 1 && m11 == 1) {
+				return type;
+			}
+			return type | getScaleType(m00, m11);
+		}
+		if (m00 == 0 && m11 == 0) {
+			return type | getShearType(m01, m10);
+		}
+		if (m00 * m01 + m10 * m11 != 0) {
+			// transformed unit vectors are not perpendicular
+			return java.awt.geom.AffineTransform.TYPE_GENERAL_TRANSFORM;
+		}
+		type |= java.awt.geom.AffineTransform.TYPE_GENERAL_ROTATION;
+		if ((m00 >= 0) == (m11 >= 0)) {
+			if (m00 != m11 || m01 != -m10) {
+				type |= java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+			} else if (m00 * m11 - m01 * m10 != 1) {
+				type |= java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE;
+			}
+		} else {
+			type |= java.awt.geom.AffineTransform.TYPE_FLIP;
+			if (m00 != -m11 || m01 != m10) {
+				type |= java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+			} else if (m00 * m11 - m01 * m10 != 1) {
+				type |= java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE;
+			}
+		}
+		return type;
+	}
+
+	private static int getScaleType(double sx, double sy) {
+		if ((sx >= 0) == (sy >= 0)) {
+			if (sx >= 0) {
+				return sx == sy ? java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE
+						: java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+			}
+			// both scaling factors negative, i.e. a rotation by 180deg
+			if (sx != sy) {
+				return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION
+						| java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+			} else if (sx != -1) {
+				return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION
+						| java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE;
+			}
+			return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION;
+		}
+		// scaling factors of different sign, i.e. a flip about an axis
+		if (sx != -sy) {
+			return java.awt.geom.AffineTransform.TYPE_FLIP
+					| java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+		} else if (sx != 1 && sx != -1) {
+			return java.awt.geom.AffineTransform.TYPE_FLIP
+					| java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE;
+		}
+		return java.awt.geom.AffineTransform.TYPE_FLIP;
+	}
+
+	private static int getShearType(double shx, double shy) {
+		if ((shx >= 0) != (shy >= 0)) {
+			// a rotation by 90deg
+			if (shx != -shy) {
+				return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION
+						| java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE;
+			} else if (shx != 1 && shx != -1) {
+				return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION
+						| java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE;
+			}
+			return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION;
+		}
+		// a rotation by 90deg combined with a flip
+		return java.awt.geom.AffineTransform.TYPE_QUADRANT_ROTATION
+				| java.awt.geom.AffineTransform.TYPE_FLIP
+				| (shx == shy
+						? java.awt.geom.AffineTransform.TYPE_UNIFORM_SCALE
+						: java.awt.geom.AffineTransform.TYPE_GENERAL_SCALE);
 	}
 
 	@Override
 	public int hashCode() {
-		return delegate.hashCode();
+		// XXX: adding 0 maps -0.0 to 0.0, so that the hash code is consistent
+		// with equals(Object)
+		long bits = Double.doubleToLongBits(m00 + 0.0);
+		bits = bits * 31 + Double.doubleToLongBits(m01 + 0.0);
+		bits = bits * 31 + Double.doubleToLongBits(m02 + 0.0);
+		bits = bits * 31 + Double.doubleToLongBits(m10 + 0.0);
+		bits = bits * 31 + Double.doubleToLongBits(m11 + 0.0);
+		bits = bits * 31 + Double.doubleToLongBits(m12 + 0.0);
+		return (int) bits ^ (int) (bits >> 32);
 	}
 
 	/**
@@ -378,7 +527,18 @@ public class AffineTransform implements Cloneable {
 	 */
 	public void inverseTransform(double[] srcPts, int srcOff, double[] dstPts,
 			int dstOff, int numPts) throws NoninvertibleTransformException {
-		delegate.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+		double det = getInvertibleDeterminant();
+		if (srcPts == dstPts && dstOff > srcOff
+				&& dstOff < srcOff + numPts * 2) {
+			System.arraycopy(srcPts, srcOff, dstPts, dstOff, numPts * 2);
+			srcOff = dstOff;
+		}
+		while (--numPts >= 0) {
+			double x = srcPts[srcOff++] - m02;
+			double y = srcPts[srcOff++] - m12;
+			dstPts[dstOff++] = (x * m11 - y * m01) / det;
+			dstPts[dstOff++] = (y * m00 - x * m10) / det;
+		}
 	}
 
 	/**
@@ -393,8 +553,10 @@ public class AffineTransform implements Cloneable {
 	 */
 	public Point inverseTransform(Point pt)
 			throws NoninvertibleTransformException {
-		return AWT2Geometry.toPoint(
-				delegate.inverseTransform(Geometry2AWT.toAWTPoint(pt), null));
+		double det = getInvertibleDeterminant();
+		double x = pt.x - m02;
+		double y = pt.y - m12;
+		return new Point((x * m11 - y * m01) / det, (y * m00 - x * m10) / det);
 	}
 
 	/**
@@ -405,8 +567,9 @@ public class AffineTransform implements Cloneable {
 	 *             when this {@link AffineTransform} is not invertible.
 	 */
 	public AffineTransform invert() throws NoninvertibleTransformException {
-		delegate.invert();
-		return this;
+		double det = getInvertibleDeterminant();
+		return setTransform(m11 / det, -m10 / det, -m01 / det, m00 / det,
+				(m01 * m12 - m11 * m02) / det, (m10 * m02 - m00 * m12) / det);
 	}
 
 	/**
@@ -418,7 +581,8 @@ public class AffineTransform implements Cloneable {
 	 *         <code>false</code>
 	 */
 	public boolean isIdentity() {
-		return delegate.isIdentity();
+		return m00 == 1 && m10 == 0 && m01 == 0 && m11 == 1 && m02 == 0
+				&& m12 == 0;
 	}
 
 	/**
@@ -433,8 +597,13 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform preConcatenate(AffineTransform Tx) {
-		delegate.preConcatenate(Tx.delegate);
-		return this;
+		double t00 = Tx.m00 * m00 + Tx.m01 * m10;
+		double t01 = Tx.m00 * m01 + Tx.m01 * m11;
+		double t02 = Tx.m00 * m02 + Tx.m01 * m12 + Tx.m02;
+		double t10 = Tx.m10 * m00 + Tx.m11 * m10;
+		double t11 = Tx.m10 * m01 + Tx.m11 * m11;
+		double t12 = Tx.m10 * m02 + Tx.m11 * m12 + Tx.m12;
+		return setTransform(t00, t10, t01, t11, t02, t12);
 	}
 
 	/**
@@ -447,8 +616,16 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform quadrantRotate(int numquadrants) {
-		delegate.quadrantRotate(numquadrants);
-		return this;
+		switch (numquadrants & 3) {
+		case 1:
+			return rotate90();
+		case 2:
+			return rotate180();
+		case 3:
+			return rotate270();
+		default:
+			return this;
+		}
 	}
 
 	/**
@@ -466,8 +643,22 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform quadrantRotate(int numquadrants, double anchorx,
 			double anchory) {
-		delegate.quadrantRotate(numquadrants, anchorx, anchory);
-		return this;
+		switch (numquadrants & 3) {
+		case 1:
+			m02 += anchorx * (m00 - m01) + anchory * (m01 + m00);
+			m12 += anchorx * (m10 - m11) + anchory * (m11 + m10);
+			return rotate90();
+		case 2:
+			m02 += anchorx * (m00 + m00) + anchory * (m01 + m01);
+			m12 += anchorx * (m10 + m10) + anchory * (m11 + m11);
+			return rotate180();
+		case 3:
+			m02 += anchorx * (m00 + m01) + anchory * (m01 - m00);
+			m12 += anchorx * (m10 + m11) + anchory * (m11 - m10);
+			return rotate270();
+		default:
+			return this;
+		}
 	}
 
 	/**
@@ -479,8 +670,20 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform rotate(double theta) {
-		delegate.rotate(theta);
-		return this;
+		// XXX: snap to exact quadrant rotations (as AWT does)
+		double sin = Math.sin(theta);
+		if (sin == 1) {
+			return rotate90();
+		} else if (sin == -1) {
+			return rotate270();
+		}
+		double cos = Math.cos(theta);
+		if (cos == -1) {
+			return rotate180();
+		} else if (cos == 1) {
+			return this;
+		}
+		return applyRotation(sin, cos);
 	}
 
 	/**
@@ -497,8 +700,13 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform rotate(double vecx, double vecy) {
-		delegate.rotate(vecx, vecy);
-		return this;
+		if (vecy == 0) {
+			return vecx < 0 ? rotate180() : this;
+		} else if (vecx == 0) {
+			return vecy > 0 ? rotate90() : rotate270();
+		}
+		double len = Math.sqrt(vecx * vecx + vecy * vecy);
+		return applyRotation(vecy / len, vecx / len);
 	}
 
 	/**
@@ -516,8 +724,9 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform rotate(double theta, double anchorx,
 			double anchory) {
-		delegate.rotate(theta, anchorx, anchory);
-		return this;
+		translate(anchorx, anchory);
+		rotate(theta);
+		return translate(-anchorx, -anchory);
 	}
 
 	// TODO: Add the possibility to pass Angle objects instead of simple double
@@ -543,10 +752,46 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform rotate(double vecx, double vecy, double anchorx,
 			double anchory) {
-		delegate.rotate(vecx, vecy, anchorx, anchory);
+		translate(anchorx, anchory);
+		rotate(vecx, vecy);
+		return translate(-anchorx, -anchory);
+	}
+
+	private AffineTransform rotate180() {
+		m00 = -m00;
+		m11 = -m11;
+		if (m01 != 0 || m10 != 0) {
+			m01 = -m01;
+			m10 = -m10;
+		}
+		return this;
+	}
+
+	private AffineTransform rotate270() {
+		double t00 = -m01;
+		double t10 = -m11;
+		m01 = m00;
+		m11 = m10;
+		m00 = t00;
+		m10 = t10;
 		return this;
 	}
 
+	private AffineTransform rotate90() {
+		double t00 = m01;
+		double t10 = m11;
+		m01 = -m00;
+		m11 = -m10;
+		m00 = t00;
+		m10 = t10;
+		return this;
+	}
+
+	private static double round(double value) {
+		// cut off imprecisions (as AWT does)
+		return Math.rint(value * 1E15) / 1E15;
+	}
+
 	/**
 	 * Adds an x and y scaling to the transformation matrix of this
 	 * {@link AffineTransform}.
@@ -560,7 +805,18 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform scale(double sx, double sy) {
-		delegate.scale(sx, sy);
+		m00 *= sx;
+		m10 *= sx;
+		m01 *= sy;
+		m11 *= sy;
+		return this;
+	}
+
+	private AffineTransform setAnchor(double anchorx, double anchory) {
+		double sin = m10;
+		double oneMinusCos = 1 - m00;
+		m02 = anchorx * oneMinusCos + anchory * sin;
+		m12 = anchory * oneMinusCos - anchorx * sin;
 		return this;
 	}
 
@@ -571,8 +827,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToIdentity() {
-		delegate.setToIdentity();
-		return this;
+		return setTransform(1, 0, 0, 1, 0, 0);
 	}
 
 	/**
@@ -584,8 +839,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToQuadrantRotation(int numquadrants) {
-		delegate.setToQuadrantRotation(numquadrants);
-		return this;
+		return setToQuadrantRotation(numquadrants, 0, 0);
 	}
 
 	/**
@@ -604,8 +858,19 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform setToQuadrantRotation(int numquadrants,
 			double anchorx, double anchory) {
-		delegate.setToQuadrantRotation(numquadrants, anchorx, anchory);
-		return this;
+		switch (numquadrants & 3) {
+		case 1:
+			return setTransform(0, 1, -1, 0, anchorx + anchory,
+					anchory - anchorx);
+		case 2:
+			return setTransform(-1, 0, 0, -1, anchorx + anchorx,
+					anchory + anchory);
+		case 3:
+			return setTransform(0, -1, 1, 0, anchorx - anchory,
+					anchorx + anchory);
+		default:
+			return setToIdentity();
+		}
 	}
 
 	/**
@@ -617,8 +882,18 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToRotation(double theta) {
-		delegate.setToRotation(theta);
-		return this;
+		// XXX: snap to exact quadrant rotations (as AWT does)
+		double sin = Math.sin(theta);
+		double cos;
+		if (sin == 1 || sin == -1) {
+			cos = 0;
+		} else {
+			cos = Math.cos(theta);
+			if (cos == 1 || cos == -1) {
+				sin = 0;
+			}
+		}
+		return setTransform(cos, sin, -sin, cos, 0, 0);
 	}
 
 	/**
@@ -635,8 +910,20 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToRotation(double vecx, double vecy) {
-		delegate.setToRotation(vecx, vecy);
-		return this;
+		double sin;
+		double cos;
+		if (vecy == 0) {
+			sin = 0;
+			cos = vecx < 0 ? -1 : 1;
+		} else if (vecx == 0) {
+			sin = vecy > 0 ? 1 : -1;
+			cos = 0;
+		} else {
+			double len = Math.sqrt(vecx * vecx + vecy * vecy);
+			sin = vecy / len;
+			cos = vecx / len;
+		}
+		return setTransform(cos, sin, -sin, cos, 0, 0);
 	}
 
 	/**
@@ -655,8 +942,8 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform setToRotation(double theta, double anchorx,
 			double anchory) {
-		delegate.setToRotation(theta, anchorx, anchory);
-		return this;
+		setToRotation(theta);
+		return setAnchor(anchorx, anchory);
 	}
 
 	/**
@@ -680,8 +967,8 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform setToRotation(double vecx, double vecy,
 			double anchorx, double anchory) {
-		delegate.setToRotation(vecx, vecy, anchorx, anchory);
-		return this;
+		setToRotation(vecx, vecy);
+		return setAnchor(anchorx, anchory);
 	}
 
 	/**
@@ -695,8 +982,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToScale(double sx, double sy) {
-		delegate.setToScale(sx, sy);
-		return this;
+		return setTransform(sx, 0, 0, sy, 0, 0);
 	}
 
 	/**
@@ -710,8 +996,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToShear(double shx, double shy) {
-		delegate.setToShear(shx, shy);
-		return this;
+		return setTransform(1, shy, shx, 1, 0, 0);
 	}
 
 	/**
@@ -726,8 +1011,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setToTranslation(double tx, double ty) {
-		delegate.setToTranslation(tx, ty);
-		return this;
+		return setTransform(1, 0, 0, 1, tx, ty);
 	}
 
 	/**
@@ -740,8 +1024,7 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform setTransform(AffineTransform Tx) {
-		delegate.setTransform(Tx.delegate);
-		return this;
+		return setTransform(Tx.m00, Tx.m10, Tx.m01, Tx.m11, Tx.m02, Tx.m12);
 	}
 
 	/**
@@ -771,7 +1054,12 @@ public class AffineTransform implements Cloneable {
 	 */
 	public AffineTransform setTransform(double m00, double m10, double m01,
 			double m11, double m02, double m12) {
-		delegate.setTransform(m00, m10, m01, m11, m02, m12);
+		this.m00 = m00;
+		this.m10 = m10;
+		this.m01 = m01;
+		this.m11 = m11;
+		this.m02 = m02;
+		this.m12 = m12;
 		return this;
 	}
 
@@ -788,13 +1076,59 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform shear(double shx, double shy) {
-		delegate.shear(shx, shy);
+		double t00 = m00 + m01 * shy;
+		double t01 = m00 * shx + m01;
+		double t10 = m10 + m11 * shy;
+		double t11 = m10 * shx + m11;
+		m00 = t00;
+		m01 = t01;
+		m10 = t10;
+		m11 = t11;
 		return this;
 	}
 
 	@Override
 	public String toString() {
-		return delegate.toString();
+		return "AffineTransform[[" + round(m00) + ", " + round(m01) + ", "
+				+ round(m02) + "], [" + round(m10) + ", " + round(m11) + ", "
+				+ round(m12) + "]]";
+	}
+
+	/**
+	 * Transforms an array of {@link Point}s specified by their coordinate
+	 * values with this {@link AffineTransform}. The source and destination
+	 * arrays may be the same (and may even overlap), so that the coordinates
+	 * can be transformed in-place. No objects are allocated.
+	 *
+	 * @param srcPts
+	 *            the array of x and y coordinates specifying the {@link Point}s
+	 *            that are transformed
+	 * @param srcOff
+	 *            the index of the <i>srcPts</i> array where the x coordinate of
+	 *            the first {@link Point} to transform is found
+	 * @param dstPts
+	 *            the destination array of x and y coordinates for the result of
+	 *            the transformation
+	 * @param dstOff
+	 *            the index of the <i>dstPts</i> array where the x coordinate of
+	 *            the first transformed {@link Point} is stored
+	 * @param numPts
+	 *            the number of {@link Point}s to transform
+	 * @since 5.1
+	 */
+	public void transform(double[] srcPts, int srcOff, double[] dstPts,
+			int dstOff, int numPts) {
+		if (srcPts == dstPts && dstOff > srcOff
+				&& dstOff < srcOff + numPts * 2) {
+			System.arraycopy(srcPts, srcOff, dstPts, dstOff, numPts * 2);
+			srcOff = dstOff;
+		}
+		while (--numPts >= 0) {
+			double x = srcPts[srcOff++];
+			double y = srcPts[srcOff++];
+			dstPts[dstOff++] = x * m00 + y * m01 + m02;
+			dstPts[dstOff++] = x * m10 + y * m11 + m12;
+		}
 	}
 
 	/**
@@ -808,7 +1142,8 @@ public class AffineTransform implements Cloneable {
 	 * @return <code>this</code> for convenience
 	 */
 	public AffineTransform translate(double tx, double ty) {
-		delegate.translate(tx, ty);
+		m02 = tx * m00 + ty * m01 + m02;
+		m12 = tx * m10 + ty * m11 + m12;
 		return this;
 	}
 
@@ -708,6 +708,380 @@ public class BezierCurve extends AbstractGeometry
 
 	}
 
+	/**
+	 * A {@link Flattening} approximates a {@link BezierCurve} by a polyline. It
+	 * stores the coordinates, parameter values, and accumulated arc lengths of
+	 * the polyline's vertices in primitive arrays, so that it can be kept by
+	 * the {@link BezierCurve} and reused by subsequent queries.
+	 * <p>
+	 * The polyline is computed by an adaptive subdivision of the
+	 * {@link BezierCurve} at half of its parameter range, until the inner
+	 * control points of each part are located within the given tolerance of
+	 * the part's base line. Consequently, each {@link Point} of the
+	 * {@link BezierCurve} is located within the tolerance of the polyline.
+	 */
+	private static final class Flattening {
+
+		// limits the number of vertices to 2^16 + 1
+		private static final int MAX_DEPTH = 16;
+
+		private final double tolerance;
+		private final double[] controlPoints;
+		private final double controlPolygonLength;
+		private final int size;
+		private final double[] coordinates;
+		private final double[] parameters;
+		private final double[] lengths;
+
+		public Flattening(Vector3D[] points, double tolerance) {
+			this.tolerance = tolerance;
+			int n = points.length;
+			controlPoints = new double[3 * n];
+			for (int i = 0; i < n; i++) {
+				controlPoints[3 * i] = points[i].x;
+				controlPoints[3 * i + 1] = points[i].y;
+				controlPoints[3 * i + 2] = points[i].z;
+			}
+			controlPolygonLength = getPolygonLength(controlPoints);
+
+			int capacity = 16;
+			double[] coordinates = new double[2 * capacity];
+			double[] parameters = new double[capacity];
+			double[] lengths = new double[capacity];
+			coordinates[0] = controlPoints[0] / controlPoints[2];
+			coordinates[1] = controlPoints[1] / controlPoints[2];
+			int size = 1;
+
+			// depth-first subdivision using a pre-allocated stack of parts,
+			// where the right half of a part replaces it and its left half is
+			// pushed on top of it
+			double[][] parts = new double[MAX_DEPTH + 2][3 * n];
+			double[] starts = new double[MAX_DEPTH + 2];
+			double[] ends = new double[MAX_DEPTH + 2];
+			int[] depths = new int[MAX_DEPTH + 2];
+			double[] work = new double[3 * n];
+			System.arraycopy(controlPoints, 0, parts[0], 0, 3 * n);
+			ends[0] = 1;
+			int top = 0;
+			while (top >= 0) {
+				double[] part = parts[top];
+				if (depths[top] >= MAX_DEPTH || isFlat(part, tolerance)) {
+					if (size == capacity) {
+						capacity *= 2;
+						coordinates = Arrays.copyOf(coordinates, 2 * capacity);
+						parameters = Arrays.copyOf(parameters, capacity);
+						lengths = Arrays.copyOf(lengths, capacity);
+					}
+					coordinates[2 * size] = part[3 * n - 3] / part[3 * n - 1];
+					coordinates[2 * size + 1] = part[3 * n - 2]
+							/ part[3 * n - 1];
+					parameters[size] = ends[top];
+					lengths[size] = lengths[size - 1] + estimateLength(part);
+					size++;
+					top--;
+				} else {
+					double[] left = parts[top + 1];
+					System.arraycopy(part, 0, work, 0, 3 * n);
+					for (int k = 0; k < n; k++) {
+						System.arraycopy(work, 0, left, 3 * k, 3);
+						System.arraycopy(work, 3 * (n - 1 - k), part,
+								3 * (n - 1 - k), 3);
+						for (int i = 0; i < 3 * (n - 1 - k); i++) {
+							work[i] = (work[i] + work[i + 3]) / 2;
+						}
+					}
+					double mid = (starts[top] + ends[top]) / 2;
+					starts[top + 1] = starts[top];
+					ends[top + 1] = mid;
+					starts[top] = mid;
+					depths[top + 1] = ++depths[top];
+					top++;
+				}
+			}
+
+			this.size = size;
+			this.coordinates = Arrays.copyOf(coordinates, 2 * size);
+			this.parameters = Arrays.copyOf(parameters, size);
+			this.lengths = Arrays.copyOf(lengths, size);
+		}
+
+		/**
+		 * Computes the control points of the part <code>[a;b]</code> of the
+		 * given control points (in homogeneous coordinates).
+		 */
+		private static double[] clip(double[] points, double a, double b) {
+			int n = points.length / 3;
+			double[] part = Arrays.copyOf(points, points.length);
+			// in-place de Casteljau subdivision, retaining the left part
+			// [0;b] and then its right part [a/b;1]
+			for (int k = 1; k < n; k++) {
+				for (int i = 3 * n - 1; i >= 3 * k; i--) {
+					part[i] = (1 - b) * part[i - 3] + b * part[i];
+				}
+			}
+			double u = b == 0 ? 0 : a / b;
+			for (int k = 1; k < n; k++) {
+				for (int i = 0; i < 3 * (n - k); i++) {
+					part[i] = (1 - u) * part[i] + u * part[i + 3];
+				}
+			}
+			return part;
+		}
+
+		/**
+		 * Estimates the length of the given (flat) part based on the lengths
+		 * of its chord and control polygon (see Jens Gravesen, "Adaptive
+		 * subdivision and the length and energy of Bézier curves"), which is
+		 * more precise than the length of the chord.
+		 */
+		private static double estimateLength(double[] part) {
+			int n = part.length / 3;
+			double chord = Math.hypot(
+					part[3 * n - 3] / part[3 * n - 1] - part[0] / part[2],
+					part[3 * n - 2] / part[3 * n - 1] - part[1] / part[2]);
+			return (2 * chord + (n - 1) * getPolygonLength(part)) / (n + 1);
+		}
+
+		private static double getPolygonLength(double[] part) {
+			double length = 0;
+			for (int i = 3; i < part.length; i += 3) {
+				length += Math.hypot(
+						part[i] / part[i + 2] - part[i - 3] / part[i - 1],
+						part[i + 1] / part[i + 2] - part[i - 2] / part[i - 1]);
+			}
+			return length;
+		}
+
+		private static boolean isFlat(double[] part, double tolerance) {
+			int n = part.length / 3;
+			double x0 = part[0] / part[2];
+			double y0 = part[1] / part[2];
+			double dx = part[3 * n - 3] / part[3 * n - 1] - x0;
+			double dy = part[3 * n - 2] / part[3 * n - 1] - y0;
+			double length = Math.sqrt(dx * dx + dy * dy);
+			for (int i = 1; i < n - 1; i++) {
+				double x = part[3 * i] / part[3 * i + 2] - x0;
+				double y = part[3 * i + 1] / part[3 * i + 2] - y0;
+				if (length == 0) {
+					if (Math.sqrt(x * x + y * y) > tolerance) {
+						return false;
+					}
+				} else {
+					// the inner control points have to be located next to
+					// the base line segment, so that the convex hull of the
+					// part is within the tolerance of the segment
+					double along = (x * dx + y * dy) / length;
+					if (Math.abs(x * dy - y * dx) / length > tolerance
+							|| along < -tolerance
+							|| along > length + tolerance) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the accumulated arc length at the given parameter value,
+		 * estimating the length of the part of the segment that contains it.
+		 */
+		public double getArcLength(double t) {
+			int i = Arrays.binarySearch(parameters, t);
+			if (i >= 0) {
+				return lengths[i];
+			}
+			i = -i - 2;
+			return lengths[i]
+					+ estimateLength(clip(controlPoints, parameters[i], t));
+		}
+
+		/**
+		 * Returns the squared distance of the given coordinates to the
+		 * {@link BezierCurve} at the given parameter value, which is evaluated
+		 * like {@link BezierCurve#getHC(double)}.
+		 */
+		private double getDistanceSquared(double t, double x, double y) {
+			int n = controlPoints.length / 3;
+			double bn = 1, tn = 1, d = 1d - t;
+			double px = controlPoints[0], py = controlPoints[1],
+					pz = controlPoints[2];
+			for (int i = 1; i < n; i++) {
+				bn = bn * (n - i) / i;
+				tn = tn * t;
+				double f = bn * tn;
+				px = px * d + controlPoints[3 * i] * f;
+				py = py * d + controlPoints[3 * i + 1] * f;
+				pz = pz * d + controlPoints[3 * i + 2] * f;
+			}
+			double dx = px / pz - x;
+			double dy = py / pz - y;
+			return dx * dx + dy * dy;
+		}
+
+		public double getLength() {
+			return lengths[size - 1];
+		}
+
+		/**
+		 * Returns the parameter value at the given accumulated arc length. It
+		 * is interpolated linearly within the segment that contains it, and
+		 * refined by a false position search until the arc length at the
+		 * parameter value matches the given one.
+		 */
+		public double getParameterAtArcLength(double s) {
+			if (s <= 0) {
+				return 0;
+			}
+			if (s >= getLength()) {
+				return 1;
+			}
+			int i = Arrays.binarySearch(lengths, s);
+			if (i >= 0) {
+				// zero-length segments result in equal lengths, for which
+				// the first parameter value is chosen
+				while (i > 0 && lengths[i - 1] == s) {
+					i--;
+				}
+				return parameters[i];
+			}
+			i = -i - 2;
+			double a = parameters[i];
+			double b = parameters[i + 1];
+			double la = lengths[i] - s;
+			double lb = lengths[i + 1] - s;
+			double t = a - la * (b - a) / (lb - la);
+			// the arc length grows almost linearly within a (flat) segment,
+			// so that the interpolation is exact for lines and converges
+			// quickly otherwise; the Illinois variant halves the retained
+			// end's value to prevent it from getting stuck
+			int side = 0;
+			while (b - a > UNRECOGNIZABLE_PRECISION_FRACTION) {
+				double lt = lengths[i]
+						+ estimateLength(clip(controlPoints, parameters[i], t))
+						- s;
+				if (Math.abs(lt) <= UNRECOGNIZABLE_PRECISION_FRACTION) {
+					break;
+				}
+				if (lt < 0) {
+					a = t;
+					la = lt;
+					if (side == -1) {
+						lb /= 2;
+					}
+					side = -1;
+				} else {
+					b = t;
+					lb = lt;
+					if (side == 1) {
+						la /= 2;
+					}
+					side = 1;
+				}
+				t = a - la * (b - a) / (lb - la);
+			}
+			return t;
+		}
+
+		/**
+		 * Returns the distance of the given coordinates to the polyline.
+		 */
+		public double getPolylineDistance(double x, double y) {
+			double min = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < Math.max(size - 1, 1); i++) {
+				min = Math.min(min, getSegmentDistanceSquared(i, x, y));
+			}
+			return Math.sqrt(min);
+		}
+
+		/**
+		 * Returns the parameter value of the {@link Point} on the
+		 * {@link BezierCurve} that is nearest to the given coordinates.
+		 */
+		public double getProjectionParameter(double x, double y) {
+			int segments = Math.max(size - 1, 1);
+			double[] distances = new double[segments];
+			int nearest = 0;
+			for (int i = 0; i < segments; i++) {
+				distances[i] = Math.sqrt(getSegmentDistanceSquared(i, x, y));
+				if (distances[i] < distances[nearest]) {
+					nearest = i;
+				}
+			}
+
+			double[] best = { 0, Double.POSITIVE_INFINITY };
+			refineProjection(nearest, x, y, best);
+			// the parts of all other segments are at least their distance
+			// minus the tolerance away, so that most of them can be skipped
+			for (int i = 0; i < segments; i++) {
+				if (i != nearest && distances[i] - tolerance < Math
+						.sqrt(best[1])) {
+					refineProjection(i, x, y, best);
+				}
+			}
+			return best[0];
+		}
+
+		private double getSegmentDistanceSquared(int i, double x, double y) {
+			double x1 = coordinates[2 * i];
+			double y1 = coordinates[2 * i + 1];
+			if (size < 2) {
+				return (x - x1) * (x - x1) + (y - y1) * (y - y1);
+			}
+			double dx = coordinates[2 * i + 2] - x1;
+			double dy = coordinates[2 * i + 3] - y1;
+			double lengthSquared = dx * dx + dy * dy;
+			double u = lengthSquared == 0 ? 0
+					: ((x - x1) * dx + (y - y1) * dy) / lengthSquared;
+			u = Math.max(0, Math.min(1, u));
+			double ex = x1 + u * dx - x;
+			double ey = y1 + u * dy - y;
+			return ex * ex + ey * ey;
+		}
+
+		/**
+		 * Searches the parameter range of the given segment for the parameter
+		 * value nearest to the given coordinates, using a golden section
+		 * search. The best parameter value and squared distance are updated in
+		 * the given array, if a nearer one is found.
+		 */
+		private void refineProjection(int segment, double x, double y,
+				double[] best) {
+			double a = parameters[segment];
+			double b = parameters[Math.min(segment + 1, size - 1)];
+			update(a, x, y, best);
+			update(b, x, y, best);
+			double ratio = (Math.sqrt(5) - 1) / 2;
+			double c = b - ratio * (b - a);
+			double d = a + ratio * (b - a);
+			double fc = getDistanceSquared(c, x, y);
+			double fd = getDistanceSquared(d, x, y);
+			while (b - a > UNRECOGNIZABLE_PRECISION_FRACTION) {
+				if (fc < fd) {
+					b = d;
+					d = c;
+					fd = fc;
+					c = b - ratio * (b - a);
+					fc = getDistanceSquared(c, x, y);
+				} else {
+					a = c;
+					c = d;
+					fc = fd;
+					d = a + ratio * (b - a);
+					fd = getDistanceSquared(d, x, y);
+				}
+			}
+			update((a + b) / 2, x, y, best);
+		}
+
+		private void update(double t, double x, double y, double[] best) {
+			double distance = getDistanceSquared(t, x, y);
+			if (distance < best[1]) {
+				best[0] = t;
+				best[1] = distance;
+			}
+		}
+	}
+
 	/**
 	 * An {@link Interval} records a lower and an upper limit that define the
 	 * mathematical interval [a;b] (inclusively). It is used to represent
@@ -1611,6 +1985,12 @@ public class BezierCurve extends AbstractGeometry
 
 	private static final int CHUNK_SHIFT = -3;
 
+	/**
+	 * The tolerance of the {@link Flattening} that is used for geometric
+	 * queries, relative to the extent of the control bounds.
+	 */
+	private static final double FLATNESS_FRACTION = 1e-3;
+
 	private static final boolean ORTHOGONAL = true;
 
 	private static final boolean PARALLEL = false;
@@ -1789,23 +2169,6 @@ public class BezierCurve extends AbstractGeometry
 		return PrecisionUtils.equal(interval[0], interval[1], 1);
 	}
 
-	/**
-	 * <p>
-	 * Returns the similarity of the given {@link BezierCurve} to a {@link Line}
-	 * , which is defined as the absolute distance of its control {@link Point}s
-	 * to the base {@link Line} connecting its end {@link Point}s.
-	 * </p>
-	 * <p>
-	 * A similarity of <code>0</code> means that the given {@link BezierCurve}'s
-	 * control {@link Point}s are on a straight {@link Line}.
-	 * </p>
-	 *
-	 * @param c
-	 *            the {@link BezierCurve} of which the distance to its base
-	 *            {@link Line} is computed
-	 * @return the distance of the given {@link BezierCurve} to its base
-	 *         {@link Line}
-	 */
 	private static double distanceToBaseLine(BezierCurve c) {
 		Straight3D baseLine = Straight3D.through(c.points[0],
 				c.points[c.points.length - 1]);
@@ -1823,6 +2186,14 @@ public class BezierCurve extends AbstractGeometry
 		return maxDistance;
 	}
 
+	private static Line[] getCopies(Line[] lines) {
+		Line[] copies = new Line[lines.length];
+		for (int i = 0; i < lines.length; i++) {
+			copies[i] = lines[i].getCopy();
+		}
+		return copies;
+	}
+
 	/**
 	 * Searches for an overlapping segment within the given {@link IntervalPair}
 	 * s.
@@ -2409,6 +2780,29 @@ public class BezierCurve extends AbstractGeometry
 	 */
 	private final Vector3D[] points;
 
+	/**
+	 * The {@link Flattening} that is used by {@link #contains(Point)},
+	 * {@link #getProjection(Point)}, and the arc length related methods. It is
+	 * lazily computed and discarded when this {@link BezierCurve} is modified.
+	 */
+	private transient Flattening flattening;
+
+	/**
+	 * The {@link Line}s that were last computed by
+	 * {@link #toLineStrip(double)}.
+	 */
+	private transient Line[] lineStrip;
+
+	/**
+	 * The line similarity that was used to compute the {@link #lineStrip}.
+	 */
+	private transient double lineStripSimilarity;
+
+	/**
+	 * The bounds as computed by {@link #getBounds()}.
+	 */
+	private transient Rectangle bounds;
+
 	/**
 	 * Constructs a new {@link BezierCurve} from the given {@link CubicCurve}.
 	 *
@@ -2597,6 +2991,17 @@ public class BezierCurve extends AbstractGeometry
 			return false;
 		}
 
+		// XXX: Points that are not located next to the flattening (i.e.
+		// most of the points that are tested during hit-testing) can be
+		// rejected without subdividing the curve. The containment parameter
+		// approximation tolerates an imprecision that grows with the length
+		// of the control polygon, which has to be accounted for.
+		Flattening f = getFlattening();
+		double slack = PrecisionUtils.calculateFraction(0)
+				* (2 + points.length * f.controlPolygonLength);
+		if (f.getPolylineDistance(p.x, p.y) > f.tolerance + slack) {
+			return false;
+		}
 		return containmentParameter(this, new double[] { 0, 1 }, p);
 	}
 
@@ -2730,14 +3135,49 @@ public class BezierCurve extends AbstractGeometry
 		return getHC(t).toPoint();
 	}
 
+	/**
+	 * Returns the approximated length of this {@link BezierCurve}. It is
+	 * computed as the length of a polyline approximating this
+	 * {@link BezierCurve}, which is kept until this {@link BezierCurve} is
+	 * modified.
+	 *
+	 * @return the approximated length of this {@link BezierCurve}
+	 * @since 5.1
+	 */
+	public double getArcLength() {
+		return getFlattening().getLength();
+	}
+
+	/**
+	 * Returns the approximated length of this {@link BezierCurve} from its
+	 * start {@link Point} to the {@link Point} at the given parameter value.
+	 *
+	 * @param t
+	 *            the parameter value up to which the length is computed
+	 * @return the approximated length of this {@link BezierCurve} on the
+	 *         parameter {@link Interval} <code>[0;t]</code>
+	 * @see #getArcLength()
+	 * @since 5.1
+	 */
+	public double getArcLength(double t) {
+		if (t < 0 || t > 1) {
+			throw new IllegalArgumentException("t out of range: " + t);
+		}
+		return getFlattening().getArcLength(t);
+	}
+
 	@Override
 	public Rectangle getBounds() {
-		// TODO: check costs of 'inlining' lambdas here
-		double xmin = findExtreme(xminCriteria).x;
-		double xmax = findExtreme(xmaxCriteria).x;
-		double ymin = findExtreme(yminCriteria).y;
-		double ymax = findExtreme(ymaxCriteria).y;
-		return new Rectangle(new Point(xmin, ymin), new Point(xmax, ymax));
+		if (bounds == null) {
+			// TODO: check costs of 'inlining' lambdas here
+			double xmin = findExtreme(xminCriteria).x;
+			double xmax = findExtreme(xmaxCriteria).x;
+			double ymin = findExtreme(yminCriteria).y;
+			double ymax = findExtreme(ymaxCriteria).y;
+			bounds = new Rectangle(new Point(xmin, ymin),
+					new Point(xmax, ymax));
+		}
+		return bounds.getCopy();
 	}
 
 	/**
@@ -2797,6 +3237,25 @@ public class BezierCurve extends AbstractGeometry
 		return new BezierCurve(points);
 	}
 
+	/**
+	 * Returns the {@link Flattening} that is used for geometric queries. Its
+	 * tolerance is chosen relative to the extent of the control bounds, so
+	 * that it does not depend on the scale of this {@link BezierCurve}.
+	 *
+	 * @return the (cached) {@link Flattening} of this {@link BezierCurve}
+	 */
+	private Flattening getFlattening() {
+		if (flattening == null) {
+			Rectangle controlBounds = getControlBounds();
+			double tolerance = Math.max(
+					FLATNESS_FRACTION * Math.max(controlBounds.getWidth(),
+							controlBounds.getHeight()),
+					PrecisionUtils.calculateFraction(0));
+			flattening = new Flattening(points, tolerance);
+		}
+		return flattening;
+	}
+
 	/**
 	 * Computes the hodograph, the first parametric derivative, of this
 	 * {@link BezierCurve}.
@@ -2968,14 +3427,14 @@ public class BezierCurve extends AbstractGeometry
 	 *         and the given other {@link BezierCurve}
 	 */
 	public Point[] getIntersections(BezierCurve other) {
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 		getIntersectionIntervalPairs(other, intersections);
 		return intersections.toArray(new Point[] {});
 	}
 
 	@Override
 	public final Point[] getIntersections(ICurve curve) {
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 
 		for (BezierCurve c : curve.toBezier()) {
 			intersections.addAll(Arrays.asList(getIntersections(c)));
@@ -3042,7 +3501,7 @@ public class BezierCurve extends AbstractGeometry
 			return getCopy();
 		}
 
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 		Set<IntervalPair> intervalPairs = new HashSet<>();
 		Set<IntervalPair> endPointIntervalPairs = new HashSet<>();
 
@@ -3104,6 +3563,22 @@ public class BezierCurve extends AbstractGeometry
 		}
 	}
 
+	/**
+	 * Returns the parameter value at which the approximated length of this
+	 * {@link BezierCurve} from its start {@link Point} equals the given arc
+	 * length. Arc lengths outside of <code>[0;</code>{@link #getArcLength()}
+	 * <code>]</code> are clamped to that range.
+	 *
+	 * @param s
+	 *            the arc length for which to compute the parameter value
+	 * @return the parameter value at the given arc length
+	 * @see #getArcLength()
+	 * @since 5.1
+	 */
+	public double getParameterAtArcLength(double s) {
+		return getFlattening().getParameterAtArcLength(s);
+	}
+
 	/**
 	 * Returns the <i>i</i>th control {@link Point} of this {@link BezierCurve}.
 	 * The start {@link Point} is at index <code>0</code>, the first handle-
@@ -3152,70 +3627,27 @@ public class BezierCurve extends AbstractGeometry
 		return copy;
 	}
 
+	/**
+	 * Returns the {@link Point} on this {@link BezierCurve} at the given arc
+	 * length from its start {@link Point}.
+	 *
+	 * @param s
+	 *            the arc length at which to return the {@link Point}
+	 * @return the {@link Point} on this {@link BezierCurve} at the given arc
+	 *         length
+	 * @see #getParameterAtArcLength(double)
+	 * @since 5.1
+	 */
+	public Point getPointAtArcLength(double s) {
+		return get(getParameterAtArcLength(s));
+	}
+
 	@Override
 	public Point getProjection(final Point reference) {
-		// find nearest to reference within 100 samples
-		int numSamples = 100;
-
-		double nearestParam = 0;
-		Point nearest = get(nearestParam);
-		double distance = reference.getDistance(nearest);
-		for (int i = 1; i < numSamples; i++) {
-			double t = i / (numSamples - 1.0);
-			Point candidate = get(t);
-			double d = reference.getDistance(candidate);
-			if (d < distance) {
-				nearestParam = t;
-				nearest = candidate;
-				distance = d;
-			}
-		}
-
-		// compute interval
-		Interval interval = new Interval(
-				nearestParam / (numSamples - 1) - 1 / (double) (numSamples - 1),
-				nearestParam / (numSamples - 1)
-						+ 1 / (double) (numSamples - 1));
-		// ensure interval is valid
-		interval.a = Math.min(1, Math.max(0, interval.a));
-		interval.b = Math.min(1, Math.max(0, interval.b));
-
-		// refine interval
-		while (!interval.converges()) {
-			// compute start point and end point for the current interval
-			Point sp = get(interval.a);
-			Point ep = get(interval.b);
-
-			// compute distance to reference point
-			double sDist = reference.getDistance(sp);
-			double eDist = reference.getDistance(ep);
-
-			if (sDist >= distance && eDist >= distance) {
-				// start point and end point have greater distance
-				// => reduce interval on both sides
-				double range = interval.b - interval.a;
-				interval.b = interval.a + 0.75 * range;
-				interval.a = interval.a + 0.25 * range;
-			} else if (sDist < distance && sDist < eDist) {
-				// start has smaller distance
-				distance = sDist;
-				nearest = sp;
-				// reduce interval to its left side
-				interval.b = (interval.a + interval.b) / 2;
-			} else if (eDist < distance) {
-				// end has smaller distance
-				distance = eDist;
-				nearest = ep;
-				// reduce interval to its right side
-				interval.a = (interval.a + interval.b) / 2;
-			} else {
-				// impossible
-				throw new IllegalStateException(
-						"condition should not be reachable");
-			}
-		}
-
-		return nearest;
+		// the nearest segment of the flattening determines the parameter
+		// range in which the projection is refined
+		return get(getFlattening().getProjectionParameter(reference.x,
+				reference.y));
 	}
 
 	@Override
@@ -3316,6 +3748,16 @@ public class BezierCurve extends AbstractGeometry
 		return getP2().y;
 	}
 
+	/**
+	 * Discards the cached {@link Flattening}s and bounds, so that they are
+	 * recomputed by subsequent queries.
+	 */
+	private void invalidate() {
+		flattening = null;
+		lineStrip = null;
+		bounds = null;
+	}
+
 	@Override
 	public boolean intersects(ICurve c) {
 		return getIntersections(c).length > 0;
@@ -3395,6 +3837,7 @@ public class BezierCurve extends AbstractGeometry
 	 * @return <code>this</code> for convenience
 	 */
 	public BezierCurve rotateCCW(Angle angle, Point center) {
+		invalidate();
 		for (int i = 0; i < points.length; i++) {
 			points[i] = new Vector3D(new Vector(
 					points[i].toPoint().getTranslated(center.getNegated()))
@@ -3537,6 +3980,7 @@ public class BezierCurve extends AbstractGeometry
 					+ (points.length - 1) + ".");
 		}
 		points[i] = new Vector3D(p);
+		invalidate();
 		return this;
 	}
 
@@ -3648,6 +4092,11 @@ public class BezierCurve extends AbstractGeometry
 	 * than the given <i>lineSimilarity</i>, the {@link BezierCurve} is assumed
 	 * to be "similar" to a straight line.
 	 * </p>
+	 * <p>
+	 * The approximation of the full parameter range is kept until this
+	 * {@link BezierCurve} is modified, so that repeated calls with the same
+	 * <i>lineSimilarity</i> do not recompute it.
+	 * </p>
 	 *
 	 * @param lineSimilarity
 	 *            the threshold for the sum of the distances of the control
@@ -3658,6 +4107,12 @@ public class BezierCurve extends AbstractGeometry
 	 * @return {@link Line} segments approximating this {@link BezierCurve}
 	 */
 	public Line[] toLineStrip(double lineSimilarity, Interval startInterval) {
+		boolean full = startInterval.a == 0 && startInterval.b == 1;
+		if (full && lineStrip != null
+				&& lineStripSimilarity == lineSimilarity) {
+			return getCopies(lineStrip);
+		}
+
 		ArrayList<Line> lines = new ArrayList<>();
 
 		Point startPoint = getHC(startInterval.a).toPoint();
@@ -3680,7 +4135,13 @@ public class BezierCurve extends AbstractGeometry
 			}
 		}
 
-		return lines.toArray(new Line[] {});
+		Line[] strip = lines.toArray(new Line[] {});
+		if (full) {
+			lineStrip = strip;
+			lineStripSimilarity = lineSimilarity;
+			return getCopies(strip);
+		}
+		return strip;
 	}
 
 	/**
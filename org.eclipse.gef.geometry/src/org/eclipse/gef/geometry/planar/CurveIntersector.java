@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.planar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+
+/**
+ * Computes the intersections between all pairs of a (large) number of
+ * {@link ICurve}s, e.g. to detect the crossings of the connections within a
+ * diagram.
+ * <p>
+ * Instead of intersecting each pair of {@link ICurve}s (see
+ * {@link ICurve#getIntersections(ICurve)}), the {@link BezierCurve}s of all
+ * {@link ICurve}s (see {@link ICurve#toBezier()}) are split into sub-curves
+ * that are monotone in x and y direction, so that their bounds are tightly
+ * determined by their end points. A sweep-line that traverses these bounds in
+ * x direction determines the pairs of {@link BezierCurve}s whose bounds
+ * overlap. Only these candidate pairs are actually intersected (optionally in
+ * parallel), so that the effort is proportional to the number of (nearly)
+ * intersecting {@link BezierCurve}s rather than to the square of the number of
+ * {@link ICurve}s.
+ * <p>
+ * The results correspond to the ones of
+ * {@link ICurve#getIntersections(ICurve)}, i.e. the intersections of
+ * overlapping sections are not reported, and intersections of an
+ * {@link ICurve} with itself are not taken into account.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class CurveIntersector {
+
+	/**
+	 * The {@link Point}s of intersection of a pair of {@link ICurve}s.
+	 */
+	public static final class Intersection {
+
+		private final int index1;
+		private final int index2;
+		private final ICurve curve1;
+		private final ICurve curve2;
+		private final Point[] points;
+
+		private Intersection(int index1, ICurve curve1, int index2,
+				ICurve curve2, Point[] points) {
+			this.index1 = index1;
+			this.curve1 = curve1;
+			this.index2 = index2;
+			this.curve2 = curve2;
+			this.points = points;
+		}
+
+		/**
+		 * Returns the first of the intersecting {@link ICurve}s.
+		 *
+		 * @return The first {@link ICurve}.
+		 */
+		public ICurve getCurve1() {
+			return curve1;
+		}
+
+		/**
+		 * Returns the second of the intersecting {@link ICurve}s.
+		 *
+		 * @return The second {@link ICurve}.
+		 */
+		public ICurve getCurve2() {
+			return curve2;
+		}
+
+		/**
+		 * Returns the index of the first {@link ICurve} within the
+		 * {@link Collection} that was passed in. It is smaller than
+		 * {@link #getIndex2()}.
+		 *
+		 * @return The index of the first {@link ICurve}.
+		 */
+		public int getIndex1() {
+			return index1;
+		}
+
+		/**
+		 * Returns the index of the second {@link ICurve} within the
+		 * {@link Collection} that was passed in.
+		 *
+		 * @return The index of the second {@link ICurve}.
+		 */
+		public int getIndex2() {
+			return index2;
+		}
+
+		/**
+		 * Returns the {@link Point}s of intersection of both {@link ICurve}s.
+		 *
+		 * @return A copy of the {@link Point}s of intersection.
+		 */
+		public Point[] getPoints() {
+			return Point.getCopy(points);
+		}
+
+		@Override
+		public String toString() {
+			return "Intersection(" + index1 + ", " + index2 + ", "
+					+ Arrays.toString(points) + ")";
+		}
+	}
+
+	// the bounds of the monotone sub-curves
+	private static class Boxes {
+		private double[] minX = new double[16];
+		private double[] maxX = new double[16];
+		private double[] minY = new double[16];
+		private double[] maxY = new double[16];
+		private int[] bezier = new int[16];
+		private int size;
+
+		private void add(int b, Point p, Point q) {
+			if (size == bezier.length) {
+				int capacity = 2 * size;
+				minX = Arrays.copyOf(minX, capacity);
+				maxX = Arrays.copyOf(maxX, capacity);
+				minY = Arrays.copyOf(minY, capacity);
+				maxY = Arrays.copyOf(maxY, capacity);
+				bezier = Arrays.copyOf(bezier, capacity);
+			}
+			minX[size] = Math.min(p.x, q.x);
+			maxX[size] = Math.max(p.x, q.x);
+			minY[size] = Math.min(p.y, q.y);
+			maxY[size] = Math.max(p.y, q.y);
+			bezier[size] = b;
+			size++;
+		}
+
+		private void add(int b, Rectangle bounds) {
+			add(b, bounds.getTopLeft(), bounds.getBottomRight());
+		}
+	}
+
+	private static final double EPSILON = 2
+			* PrecisionUtils.calculateFraction(0);
+
+	private static void addBoxes(Boxes boxes, int b, BezierCurve bezier) {
+		Point[] points = bezier.getPoints();
+		int degree = points.length - 1;
+		if (degree <= 1) {
+			boxes.add(b, points[0], points[degree]);
+			return;
+		}
+		if (degree > 3) {
+			// XXX: the extrema of higher degree curves are not computed
+			// analytically, so we resort to the bounds of the control points
+			boxes.add(b, bezier.getControlBounds());
+			return;
+		}
+		double[] xs = new double[points.length];
+		double[] ys = new double[points.length];
+		for (int i = 0; i < points.length; i++) {
+			xs[i] = points[i].x;
+			ys[i] = points[i].y;
+		}
+		double[] roots = new double[4];
+		int[] count = new int[1];
+		addDerivativeRoots(xs, degree, roots, count);
+		addDerivativeRoots(ys, degree, roots, count);
+		Arrays.sort(roots, 0, count[0]);
+		Point p = points[0];
+		for (int i = 0; i < count[0]; i++) {
+			Point q = bezier.get(roots[i]);
+			boxes.add(b, p, q);
+			p = q;
+		}
+		boxes.add(b, p, points[degree]);
+	}
+
+	private static void addDerivativeRoots(double[] c, int degree,
+			double[] roots, int[] count) {
+		if (degree == 2) {
+			// (c0 - 2c1 + c2) t + (c1 - c0) = 0
+			addRoot((c[0] - c[1]) / (c[0] - 2 * c[1] + c[2]), roots, count);
+		} else if (degree == 3) {
+			// a t^2 + b t + d = 0
+			double a = -c[0] + 3 * c[1] - 3 * c[2] + c[3];
+			double b = 2 * (c[0] - 2 * c[1] + c[2]);
+			double d = c[1] - c[0];
+			if (a == 0) {
+				addRoot(-d / b, roots, count);
+			} else {
+				double discriminant = b * b - 4 * a * d;
+				if (discriminant >= 0) {
+					double sqrt = Math.sqrt(discriminant);
+					addRoot((-b + sqrt) / (2 * a), roots, count);
+					addRoot((-b - sqrt) / (2 * a), roots, count);
+				}
+			}
+		}
+	}
+
+	private static void addRoot(double t, double[] roots, int[] count) {
+		// XXX: NaN (for a vanishing derivative) is excluded as well
+		if (t > 0 && t < 1) {
+			roots[count[0]++] = t;
+		}
+	}
+
+	/**
+	 * Computes the {@link Point}s of intersection between all pairs of the
+	 * given {@link ICurve}s, evaluating the candidate pairs sequentially.
+	 *
+	 * @param curves
+	 *            The {@link ICurve}s to intersect.
+	 * @return An {@link Intersection} for each pair of intersecting
+	 *         {@link ICurve}s, ordered by the indices of the {@link ICurve}s.
+	 * @see #getIntersections(Collection, boolean)
+	 */
+	public static List<Intersection> getIntersections(
+			Collection<? extends ICurve> curves) {
+		return getIntersections(curves, false);
+	}
+
+	/**
+	 * Computes the {@link Point}s of intersection between all pairs of the
+	 * given {@link ICurve}s. The pairs of {@link ICurve}s are identified by the
+	 * indices of the {@link ICurve}s w.r.t. the iteration order of the given
+	 * {@link Collection}.
+	 *
+	 * @param curves
+	 *            The {@link ICurve}s to intersect.
+	 * @param parallel
+	 *            <code>true</code> if the candidate pairs of
+	 *            {@link BezierCurve}s are to be intersected in parallel (using
+	 *            the common fork-join pool), <code>false</code> if they are to
+	 *            be intersected by the calling thread.
+	 * @return An {@link Intersection} for each pair of intersecting
+	 *         {@link ICurve}s, ordered by the indices of the {@link ICurve}s.
+	 */
+	public static List<Intersection> getIntersections(
+			Collection<? extends ICurve> curves, boolean parallel) {
+		ICurve[] input = curves.toArray(new ICurve[curves.size()]);
+		if (input.length < 2) {
+			return Collections.emptyList();
+		}
+
+		// decompose the curves into Bezier curves, and those into monotone
+		// sub-curves
+		List<BezierCurve> beziers = new ArrayList<>();
+		List<Integer> owners = new ArrayList<>();
+		Boxes boxes = new Boxes();
+		for (int i = 0; i < input.length; i++) {
+			for (BezierCurve bezier : input[i].toBezier()) {
+				addBoxes(boxes, beziers.size(), bezier);
+				beziers.add(bezier);
+				owners.add(i);
+			}
+		}
+
+		long[] candidates = sweep(boxes, owners);
+
+		// intersect the candidate pairs
+		Point[][] points = new Point[candidates.length][];
+		IntStream indices = IntStream.range(0, candidates.length);
+		if (parallel) {
+			indices = indices.parallel();
+		}
+		indices.forEach(c -> points[c] = beziers
+				.get((int) (candidates[c] >>> 32))
+				.getIntersections(beziers.get((int) candidates[c])));
+
+		// aggregate the intersections per pair of curves (in the order of the
+		// Bezier curves, as ICurve#getIntersections(ICurve) does)
+		Map<Long, Set<Point>> pairs = new TreeMap<>();
+		for (int c = 0; c < candidates.length; c++) {
+			if (points[c].length == 0) {
+				continue;
+			}
+			long owner1 = owners.get((int) (candidates[c] >>> 32));
+			long owner2 = owners.get((int) candidates[c]);
+			long key = owner1 << 32 | owner2;
+			Set<Point> intersections = pairs.get(key);
+			if (intersections == null) {
+				intersections = new PointSet();
+				pairs.put(key, intersections);
+			}
+			intersections.addAll(Arrays.asList(points[c]));
+		}
+		List<Intersection> result = new ArrayList<>(pairs.size());
+		for (Map.Entry<Long, Set<Point>> pair : pairs.entrySet()) {
+			int index1 = (int) (pair.getKey() >>> 32);
+			int index2 = (int) (long) pair.getKey();
+			result.add(new Intersection(index1, input[index1], index2,
+					input[index2], pair.getValue().toArray(new Point[] {})));
+		}
+		return result;
+	}
+
+	/**
+	 * Determines the pairs of {@link BezierCurve}s (belonging to different
+	 * {@link ICurve}s) whose monotone sub-curves have overlapping bounds, by
+	 * sweeping a vertical line over the bounds from left to right. Each pair
+	 * is encoded as a <code>long</code>, holding the smaller index in its upper
+	 * and the larger index in its lower half.
+	 */
+	private static long[] sweep(Boxes boxes, List<Integer> owners) {
+		Integer[] order = new Integer[boxes.size];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> boxes.minX[i]));
+
+		long[] candidates = new long[16];
+		int candidateCount = 0;
+		int[] active = new int[16];
+		int activeCount = 0;
+		for (int i : order) {
+			double minX = boxes.minX[i] - EPSILON;
+			int bezier = boxes.bezier[i];
+			int owner = owners.get(bezier);
+			int retained = 0;
+			for (int a = 0; a < activeCount; a++) {
+				int j = active[a];
+				if (boxes.maxX[j] < minX) {
+					// the sweep-line has passed the box
+					continue;
+				}
+				active[retained++] = j;
+				int other = boxes.bezier[j];
+				if (owners.get(other) != owner
+						&& boxes.minY[j] <= boxes.maxY[i] + EPSILON
+						&& boxes.minY[i] <= boxes.maxY[j] + EPSILON) {
+					if (candidateCount == candidates.length) {
+						candidates = Arrays.copyOf(candidates,
+								2 * candidateCount);
+					}
+					candidates[candidateCount++] = (long) Math.min(bezier,
+							other) << 32 | Math.max(bezier, other);
+				}
+			}
+			activeCount = retained;
+			if (activeCount == active.length) {
+				active = Arrays.copyOf(active, 2 * activeCount);
+			}
+			active[activeCount++] = i;
+		}
+
+		// remove duplicates (resulting from several monotone sub-curves of the
+		// same Bezier curves)
+		Arrays.sort(candidates, 0, candidateCount);
+		int unique = 0;
+		for (int c = 0; c < candidateCount; c++) {
+			if (unique == 0 || candidates[unique - 1] != candidates[c]) {
+				candidates[unique++] = candidates[c];
+			}
+		}
+		return Arrays.copyOf(candidates, unique);
+	}
+
+	private CurveIntersector() {
+		// this class should not be instantiated by clients
+	}
+
+}
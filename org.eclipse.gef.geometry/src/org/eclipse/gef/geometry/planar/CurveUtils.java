@@ -50,7 +50,7 @@ class CurveUtils {
 	 * @return An array of intersection {@link Point}s
 	 */
 	public static Point[] getIntersections(ICurve curve1, ICurve curve2) {
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 
 		for (BezierCurve bezier : curve1.toBezier()) {
 			intersections
@@ -96,7 +96,7 @@ class CurveUtils {
 	 */
 	public static Point[] getIntersections(ICurve curve,
 			IMultiShape multiShape) {
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 
 		for (IShape shape : multiShape.getShapes()) {
 			intersections.addAll(Arrays.asList(getIntersections(curve, shape)));
@@ -115,7 +115,7 @@ class CurveUtils {
 	 * @return an array of intersection {@link Point}s
 	 */
 	public static Point[] getIntersections(ICurve curve, IShape shape) {
-		Set<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 
 		for (ICurve curve2 : shape.getOutlineSegments()) {
 			intersections
@@ -138,7 +138,7 @@ class CurveUtils {
 		if (geom1 instanceof ICurve) {
 			return getIntersections((ICurve) geom1, geom2);
 		} else {
-			Set<Point> intersections = new HashSet<>();
+			Set<Point> intersections = new PointSet();
 
 			if (geom1 instanceof IShape) {
 				for (ICurve curve : ((IShape) geom1).getOutlineSegments()) {
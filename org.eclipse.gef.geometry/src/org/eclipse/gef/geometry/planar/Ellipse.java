@@ -15,9 +15,9 @@ package org.eclipse.gef.geometry.planar;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.gef.geometry.euclidean.Angle;
 import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
@@ -191,7 +191,7 @@ public class Ellipse extends AbstractRectangleBasedGeometry<Ellipse, PolyBezier>
 			return new Point[] {};
 		}
 
-		HashSet<Point> intersections = new HashSet<>();
+		Set<Point> intersections = new PointSet();
 
 		for (CubicCurve seg : getOutlineSegments()) {
 			intersections.addAll(Arrays.asList(e2.getIntersections(seg)));
@@ -12,14 +12,10 @@
  *******************************************************************************/
 package org.eclipse.gef.geometry.planar;
 
-import java.awt.geom.Area;
-import java.awt.geom.Path2D;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import org.eclipse.gef.geometry.convert.awt.AWT2Geometry;
-import org.eclipse.gef.geometry.convert.awt.Geometry2AWT;
 import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
 
 /**
@@ -225,6 +221,261 @@ public class Path extends AbstractGeometry implements IGeometry {
 
 	}
 
+	/**
+	 * The edges of a {@link Path}, i.e. its line, quadratic, and cubic
+	 * {@link Segment}s including the implicit closing lines of its sub-paths,
+	 * each stored as a flat array of control point coordinates, together with
+	 * the bounds of all control points. Containment and intersection are
+	 * computed directly on this representation: a curve is only subdivided
+	 * where the control polygon does not suffice to decide a test.
+	 */
+	private static final class Edges {
+
+		// the 52 bits of a double's mantissa limit reasonable subdivision
+		private static final int MAX_SUBDIVISION_DEPTH = 52;
+
+		private static boolean intersects(double[] c, double minX,
+				double minY, double maxX, double maxY, int depth) {
+			int degree = c.length / 2 - 1;
+			double cMinX = c[0], cMinY = c[1], cMaxX = c[0], cMaxY = c[1];
+			for (int i = 2; i <= 2 * degree; i += 2) {
+				cMinX = Math.min(cMinX, c[i]);
+				cMinY = Math.min(cMinY, c[i + 1]);
+				cMaxX = Math.max(cMaxX, c[i]);
+				cMaxY = Math.max(cMaxY, c[i + 1]);
+			}
+			// the convex hull does not enter the interior
+			if (cMaxX <= minX || cMinX >= maxX || cMaxY <= minY
+					|| cMinY >= maxY) {
+				return false;
+			}
+			int e = 2 * degree;
+			if (isInside(c[0], c[1], minX, minY, maxX, maxY)
+					|| isInside(c[e], c[e + 1], minX, minY, maxX, maxY)) {
+				return true;
+			}
+			if (degree == 1 || depth > MAX_SUBDIVISION_DEPTH) {
+				return intersectsLine(c[0], c[1], c[e], c[e + 1], minX, minY,
+						maxX, maxY);
+			}
+			double[] left = new double[c.length];
+			double[] right = new double[c.length];
+			subdivide(c, left, right);
+			return intersects(left, minX, minY, maxX, maxY, depth + 1)
+					|| intersects(right, minX, minY, maxX, maxY, depth + 1);
+		}
+
+		private static boolean intersectsLine(double x0, double y0, double x1,
+				double y1, double minX, double minY, double maxX,
+				double maxY) {
+			// clip the line's parameter interval against the (open) interior
+			double dx = x1 - x0;
+			double dy = y1 - y0;
+			double[] p = { -dx, dx, -dy, dy };
+			double[] q = { x0 - minX, maxX - x0, y0 - minY, maxY - y0 };
+			double t0 = 0;
+			double t1 = 1;
+			for (int i = 0; i < 4; i++) {
+				if (p[i] == 0) {
+					if (q[i] <= 0) {
+						return false;
+					}
+				} else if (p[i] < 0) {
+					t0 = Math.max(t0, q[i] / p[i]);
+				} else {
+					t1 = Math.min(t1, q[i] / p[i]);
+				}
+			}
+			return t0 < t1;
+		}
+
+		private static boolean isInside(double x, double y, double minX,
+				double minY, double maxX, double maxY) {
+			return x > minX && x < maxX && y > minY && y < maxY;
+		}
+
+		private static int getLineCrossing(double x0, double y0, double x1,
+				double y1, double px, double py) {
+			// count a crossing of the ray from (px, py) in positive
+			// x-direction; the edge's lower end point is included, its upper
+			// end point is excluded
+			if (py < Math.min(y0, y1) || py >= Math.max(y0, y1)) {
+				return 0;
+			}
+			double x = x0 + (py - y0) * (x1 - x0) / (y1 - y0);
+			if (px >= x) {
+				return 0;
+			}
+			return y0 < y1 ? 1 : -1;
+		}
+
+		private static int getCrossings(double[] c, double px, double py,
+				int depth) {
+			int degree = c.length / 2 - 1;
+			double cMinX = c[0], cMinY = c[1], cMaxX = c[0], cMaxY = c[1];
+			for (int i = 2; i <= 2 * degree; i += 2) {
+				cMinX = Math.min(cMinX, c[i]);
+				cMinY = Math.min(cMinY, c[i + 1]);
+				cMaxX = Math.max(cMaxX, c[i]);
+				cMaxY = Math.max(cMaxY, c[i + 1]);
+			}
+			if (py < cMinY || py >= cMaxY || px >= cMaxX) {
+				return 0;
+			}
+			int e = 2 * degree;
+			if (px < cMinX) {
+				// the edge is crossed as often as its chord
+				if (c[1] <= py && py < c[e + 1]) {
+					return 1;
+				} else if (c[e + 1] <= py && py < c[1]) {
+					return -1;
+				}
+				return 0;
+			}
+			if (degree == 1 || depth > MAX_SUBDIVISION_DEPTH) {
+				return getLineCrossing(c[0], c[1], c[e], c[e + 1], px, py);
+			}
+			double[] left = new double[c.length];
+			double[] right = new double[c.length];
+			subdivide(c, left, right);
+			return getCrossings(left, px, py, depth + 1)
+					+ getCrossings(right, px, py, depth + 1);
+		}
+
+		private static void subdivide(double[] c, double[] left,
+				double[] right) {
+			// de Casteljau at t = 0.5; the last point of each level remains in
+			// place, so that right ends up holding the right half
+			int degree = c.length / 2 - 1;
+			System.arraycopy(c, 0, right, 0, c.length);
+			for (int level = 0; level <= degree; level++) {
+				left[2 * level] = right[0];
+				left[2 * level + 1] = right[1];
+				for (int i = 0; i < 2 * (degree - level); i += 2) {
+					right[i] = (right[i] + right[i + 2]) / 2;
+					right[i + 1] = (right[i + 1] + right[i + 3]) / 2;
+				}
+			}
+		}
+
+		private int count;
+		private double[][] controlPoints;
+		private double minX = Double.POSITIVE_INFINITY;
+		private double minY = Double.POSITIVE_INFINITY;
+		private double maxX = Double.NEGATIVE_INFINITY;
+		private double maxY = Double.NEGATIVE_INFINITY;
+
+		private Edges(List<Segment> segments) {
+			// one edge per segment, plus the closing lines
+			controlPoints = new double[segments.size() * 2][];
+			double startX = 0, startY = 0, x = 0, y = 0;
+			boolean started = false;
+			for (Segment s : segments) {
+				Point[] points = s.points;
+				if (s.type == Segment.MOVE_TO) {
+					if (started) {
+						add(x, y, startX, startY);
+					}
+					startX = x = points[0].x;
+					startY = y = points[0].y;
+					started = true;
+					continue;
+				} else if (!started) {
+					if (s.type == Segment.CLOSE) {
+						continue;
+					}
+					throw new IllegalStateException(
+							"This Path does not start with a MOVE_TO, therefore, no start position could be determined.");
+				}
+				if (s.type == Segment.CLOSE) {
+					add(x, y, startX, startY);
+					x = startX;
+					y = startY;
+					continue;
+				}
+				double[] c = new double[2 * points.length + 2];
+				c[0] = x;
+				c[1] = y;
+				for (int i = 0; i < points.length; i++) {
+					c[2 * i + 2] = points[i].x;
+					c[2 * i + 3] = points[i].y;
+				}
+				add(c);
+				x = points[points.length - 1].x;
+				y = points[points.length - 1].y;
+			}
+			if (started) {
+				add(x, y, startX, startY);
+			}
+		}
+
+		private void add(double x0, double y0, double x1, double y1) {
+			if (x0 != x1 || y0 != y1) {
+				add(new double[] { x0, y0, x1, y1 });
+			}
+		}
+
+		private void add(double[] c) {
+			controlPoints[count++] = c;
+			for (int i = 0; i < c.length; i += 2) {
+				minX = Math.min(minX, c[i]);
+				minY = Math.min(minY, c[i + 1]);
+				maxX = Math.max(maxX, c[i]);
+				maxY = Math.max(maxY, c[i + 1]);
+			}
+		}
+
+		private boolean contains(double x, double y, double width,
+				double height, int windingRule) {
+			if (!(width > 0 && height > 0) || x < minX || y < minY
+					|| x + width > maxX || y + height > maxY) {
+				return false;
+			}
+			if (intersects(x, y, x + width, y + height)) {
+				return false;
+			}
+			// as no edge enters the interior, it is either completely inside
+			// or outside
+			return contains(x + width / 2, y + height / 2, windingRule);
+		}
+
+		private boolean contains(double px, double py, int windingRule) {
+			if (Double.isNaN(px) || Double.isInfinite(px) || Double.isNaN(py)
+					|| Double.isInfinite(py) || px < minX || py < minY
+					|| px >= maxX || py >= maxY) {
+				return false;
+			}
+			int winding = 0;
+			for (int i = 0; i < count; i++) {
+				winding += getCrossings(controlPoints[i], px, py, 0);
+			}
+			return windingRule == WIND_NON_ZERO ? winding != 0
+					: (winding & 1) != 0;
+		}
+
+		private boolean intersects(double minX, double minY, double maxX,
+				double maxY) {
+			for (int i = 0; i < count; i++) {
+				if (intersects(controlPoints[i], minX, minY, maxX, maxY, 0)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean touches(double x, double y, double width,
+				double height, int windingRule) {
+			if (!(width > 0 && height > 0) || x >= maxX || y >= maxY
+					|| x + width <= minX || y + height <= minY) {
+				return false;
+			}
+			if (intersects(x, y, x + width, y + height)) {
+				return true;
+			}
+			return contains(x + width / 2, y + height / 2, windingRule);
+		}
+	}
+
 	/**
 	 * Winding rule for determining the interior of the {@link Path}. Indicates
 	 * that a {@link Point} is regarded to lie inside the {@link Path}, if any
@@ -254,10 +505,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 * @return the sum of the areas
 	 */
 	public static Path add(Path pa, Path pb) {
-		Area a = new Area(Geometry2AWT.toAWTPath(pa));
-		Area b = new Area(Geometry2AWT.toAWTPath(pb));
-		a.add(b);
-		return AWT2Geometry.toPath(new Path2D.Double(a));
+		return PathClipper.clip(pa, pb, PathClipper.UNION);
 	}
 
 	/**
@@ -271,10 +519,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 * @return the exclusive-or of the areas
 	 */
 	public static Path exclusiveOr(Path pa, Path pb) {
-		Area a = new Area(Geometry2AWT.toAWTPath(pa));
-		Area b = new Area(Geometry2AWT.toAWTPath(pb));
-		a.exclusiveOr(b);
-		return AWT2Geometry.toPath(new Path2D.Double(a));
+		return PathClipper.clip(pa, pb, PathClipper.EXCLUSIVE_OR);
 	}
 
 	/**
@@ -288,10 +533,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 *         areas
 	 */
 	public static Path intersect(Path pa, Path pb) {
-		Area a = new Area(Geometry2AWT.toAWTPath(pa));
-		Area b = new Area(Geometry2AWT.toAWTPath(pb));
-		a.intersect(b);
-		return AWT2Geometry.toPath(new Path2D.Double(a));
+		return PathClipper.clip(pa, pb, PathClipper.INTERSECTION);
 	}
 
 	/**
@@ -304,16 +546,16 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 * @return the area covered by the first but not the second given area
 	 */
 	public static Path subtract(Path pa, Path pb) {
-		Area a = new Area(Geometry2AWT.toAWTPath(pa));
-		Area b = new Area(Geometry2AWT.toAWTPath(pb));
-		a.subtract(b);
-		return AWT2Geometry.toPath(new Path2D.Double(a));
+		return PathClipper.clip(pa, pb, PathClipper.DIFFERENCE);
 	}
 
 	private int windingRule = WIND_NON_ZERO;
 
 	private List<Segment> segments = new ArrayList<>();
 
+	// lazily computed, discarded whenever the segments change
+	private transient Edges edges;
+
 	/**
 	 * Creates a new empty path with a default winding rule of
 	 * {@link #WIND_NON_ZERO}.
@@ -368,6 +610,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path add(List<Segment> segments) {
 		this.segments.addAll(segments);
+		edges = null;
 		return this;
 	}
 
@@ -380,6 +623,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path add(Segment... segments) {
 		this.segments.addAll(Arrays.asList(segments));
+		edges = null;
 		return this;
 	}
 
@@ -391,13 +635,13 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path close() {
 		segments.add(new Segment(Segment.CLOSE));
+		edges = null;
 		return this;
 	}
 
 	@Override
 	public boolean contains(Point p) {
-		return Geometry2AWT.toAWTPath(this)
-				.contains(Geometry2AWT.toAWTPoint(p));
+		return getEdges().contains(p.x, p.y, windingRule);
 	}
 
 	/**
@@ -412,8 +656,8 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 *         within this {@link IGeometry}
 	 */
 	public boolean contains(Rectangle r) {
-		return Geometry2AWT.toAWTPath(this)
-				.contains(Geometry2AWT.toAWTRectangle(r));
+		return getEdges().contains(r.getX(), r.getY(), r.getWidth(),
+				r.getHeight(), windingRule);
 	}
 
 	/**
@@ -440,6 +684,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 		segments.add(
 				new Segment(Segment.CUBIC_TO, new Point(control1X, control1Y),
 						new Point(control2X, control2Y), new Point(x, y)));
+		edges = null;
 		return this;
 	}
 
@@ -469,6 +714,15 @@ public class Path extends AbstractGeometry implements IGeometry {
 		return new Rectangle();
 	}
 
+	private Edges getEdges() {
+		Edges edges = this.edges;
+		if (edges == null) {
+			edges = new Edges(segments);
+			this.edges = edges;
+		}
+		return edges;
+	}
+
 	@Override
 	public Path getCopy() {
 		return new Path(getWindingRule(), getSegments());
@@ -548,9 +802,13 @@ public class Path extends AbstractGeometry implements IGeometry {
 
 	@Override
 	public Path getTransformed(AffineTransform t) {
-		return AWT2Geometry
-				.toPath(new Path2D.Double(Geometry2AWT.toAWTPath(this),
-						Geometry2AWT.toAWTAffineTransform(t)));
+		Path transformed = getCopy();
+		for (Segment s : transformed.segments) {
+			for (Point p : s.points) {
+				p.transform(t);
+			}
+		}
+		return transformed;
 	}
 
 	/**
@@ -575,6 +833,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path lineTo(double x, double y) {
 		segments.add(new Segment(Segment.LINE_TO, new Point(x, y)));
+		edges = null;
 		return this;
 	}
 
@@ -590,6 +849,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path moveTo(double x, double y) {
 		segments.add(new Segment(Segment.MOVE_TO, new Point(x, y)));
+		edges = null;
 		return this;
 	}
 
@@ -612,6 +872,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 			double y) {
 		segments.add(new Segment(Segment.QUAD_TO, new Point(controlX, controlY),
 				new Point(x, y)));
+		edges = null;
 		return this;
 	}
 
@@ -622,6 +883,7 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 */
 	public final Path reset() {
 		segments.clear();
+		edges = null;
 		return this;
 	}
 
@@ -662,8 +924,8 @@ public class Path extends AbstractGeometry implements IGeometry {
 	 * @see IGeometry#touches(IGeometry)
 	 */
 	public boolean touches(Rectangle r) {
-		return Geometry2AWT.toAWTPath(this)
-				.intersects(Geometry2AWT.toAWTRectangle(r));
+		return getEdges().touches(r.getX(), r.getY(), r.getWidth(),
+				r.getHeight(), windingRule);
 	}
 
 }
@@ -0,0 +1,970 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.planar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+import org.eclipse.gef.geometry.planar.Path.Segment;
+
+/**
+ * Computes the union, intersection, difference, or exclusive-or of the areas
+ * enclosed by two {@link Path}s. {@link Polygon}s, {@link Ring}s, and other
+ * {@link IGeometry}s can be processed by means of their {@link Path}
+ * representation (see {@link IGeometry#toPath()}).
+ * <p>
+ * The outlines of both {@link Path}s are flattened (sub-paths are implicitly
+ * closed), split at their mutual intersections, and the resulting fragments
+ * are classified by means of a sweep-line, which determines the winding
+ * numbers of the areas to both sides of each fragment. Those fragments that
+ * separate the resulting area from its complement are finally linked into
+ * closed sub-paths, which are oriented counter-clockwise (in a y-up
+ * coordinate system) for outer boundaries and clockwise for holes, so that
+ * the result is independent of the winding rule.
+ * <p>
+ * Optionally, the fragments that originate from a quadratic or cubic
+ * {@link Segment} can be joined into a (clipped) curve again, so that curves
+ * are preserved within the result. Otherwise, the result solely consists of
+ * straight line segments.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class PathClipper {
+
+	// a directed edge of a flattened outline
+	private static class Edge {
+		private final int from;
+		private final int to;
+		private final int operand;
+		private final int curve;
+		private final double t0;
+		private final double t1;
+		private final double minX;
+		private final double maxX;
+		private final double minY;
+		private final double maxY;
+		private double[] splitParameters;
+		private int[] splitVertices;
+		private int splitCount;
+
+		private Edge(int from, int to, Point p, Point q, int operand,
+				int curve, double t0, double t1) {
+			this.from = from;
+			this.to = to;
+			this.operand = operand;
+			this.curve = curve;
+			this.t0 = t0;
+			this.t1 = t1;
+			minX = Math.min(p.x, q.x);
+			maxX = Math.max(p.x, q.x);
+			minY = Math.min(p.y, q.y);
+			maxY = Math.max(p.y, q.y);
+		}
+
+		private void addSplit(double s, int vertex) {
+			if (splitParameters == null) {
+				splitParameters = new double[2];
+				splitVertices = new int[2];
+			} else if (splitCount == splitParameters.length) {
+				int length = 2 * splitCount;
+				double[] parameters = new double[length];
+				int[] vertices = new int[length];
+				System.arraycopy(splitParameters, 0, parameters, 0,
+						splitCount);
+				System.arraycopy(splitVertices, 0, vertices, 0, splitCount);
+				splitParameters = parameters;
+				splitVertices = vertices;
+			}
+			splitParameters[splitCount] = s;
+			splitVertices[splitCount++] = vertex;
+		}
+	}
+
+	// an undirected fragment of the outlines, which does not intersect any
+	// other fragment
+	private static class Fragment {
+		// lexicographically smaller (left) and greater (right) vertex
+		private final int left;
+		private final int right;
+		private final boolean vertical;
+		// change of the winding numbers when crossing the fragment from its
+		// right-hand to its left-hand side (when heading from left to right)
+		private final int[] delta = new int[2];
+		// winding numbers at the left-hand side
+		private final int[] winding = new int[2];
+		// origin of the fragment (for curve reconstruction)
+		private int curve = -1;
+		private double tLeft;
+		private double tRight;
+
+		private Fragment(int left, int right, boolean vertical) {
+			this.left = left;
+			this.right = right;
+			this.vertical = vertical;
+		}
+	}
+
+	// a directed fragment of the result's outline
+	private static class ResultEdge {
+		private final int from;
+		private final int to;
+		private final int curve;
+		private final double tFrom;
+		private final double tTo;
+		private boolean visited;
+
+		private ResultEdge(int from, int to, int curve, double tFrom,
+				double tTo) {
+			this.from = from;
+			this.to = to;
+			this.curve = curve;
+			this.tFrom = tFrom;
+			this.tTo = tTo;
+		}
+	}
+
+	/**
+	 * Operation that computes the area covered by both operands.
+	 */
+	public static final int INTERSECTION = 0;
+
+	/**
+	 * Operation that computes the area covered by at least one of the
+	 * operands.
+	 */
+	public static final int UNION = 1;
+
+	/**
+	 * Operation that computes the area covered by the first but not by the
+	 * second operand.
+	 */
+	public static final int DIFFERENCE = 2;
+
+	/**
+	 * Operation that computes the area covered by exactly one of the
+	 * operands.
+	 */
+	public static final int EXCLUSIVE_OR = 3;
+
+	/**
+	 * The default flatness, i.e. the maximum distance between a curve and the
+	 * line segments approximating it.
+	 */
+	public static final double DEFAULT_FLATNESS = 0.01;
+
+	// a curve is subdivided into at most 2^MAX_FLATTENING_DEPTH segments
+	private static final int MAX_FLATTENING_DEPTH = 12;
+
+	private static final double EPSILON = PrecisionUtils.calculateFraction(0);
+
+	/**
+	 * Computes the result of the given operation, applied to the areas
+	 * enclosed by the given {@link Path}s. Curves are preserved, using the
+	 * {@link #DEFAULT_FLATNESS} to determine the intersections.
+	 *
+	 * @param p1
+	 *            The first operand.
+	 * @param p2
+	 *            The second operand.
+	 * @param operation
+	 *            The operation to perform, one of {@link #INTERSECTION},
+	 *            {@link #UNION}, {@link #DIFFERENCE}, or
+	 *            {@link #EXCLUSIVE_OR}.
+	 * @return A new {@link Path} representing the result.
+	 */
+	public static Path clip(Path p1, Path p2, int operation) {
+		return clip(p1, p2, operation, DEFAULT_FLATNESS, true);
+	}
+
+	/**
+	 * Computes the result of the given operation, applied to the areas
+	 * enclosed by the given {@link Path}s.
+	 *
+	 * @param p1
+	 *            The first operand.
+	 * @param p2
+	 *            The second operand.
+	 * @param operation
+	 *            The operation to perform, one of {@link #INTERSECTION},
+	 *            {@link #UNION}, {@link #DIFFERENCE}, or
+	 *            {@link #EXCLUSIVE_OR}.
+	 * @param flatness
+	 *            The maximum distance between a curve and the line segments
+	 *            that approximate it.
+	 * @param preserveCurves
+	 *            <code>true</code> if the result should contain (clipped)
+	 *            curves for those parts that originate from curves,
+	 *            <code>false</code> if the result should solely consist of
+	 *            straight line segments.
+	 * @return A new {@link Path} representing the result.
+	 */
+	public static Path clip(Path p1, Path p2, int operation, double flatness,
+			boolean preserveCurves) {
+		if (operation < INTERSECTION || operation > EXCLUSIVE_OR) {
+			throw new IllegalArgumentException(
+					"Unsupported operation: " + operation);
+		}
+		if (!(flatness > 0)) {
+			throw new IllegalArgumentException(
+					"flatness has to be greater than 0.");
+		}
+		return new PathClipper(flatness).compute(p1, p2, operation,
+				preserveCurves);
+	}
+
+	private static double cross(double ax, double ay, double bx, double by) {
+		return ax * by - ay * bx;
+	}
+
+	private static boolean isInside(int winding, int windingRule) {
+		return windingRule == Path.WIND_NON_ZERO ? winding != 0
+				: (winding & 1) != 0;
+	}
+
+	private static void split(double[] c, double t, double[] left,
+			double[] right) {
+		// de Casteljau; the last point of each level remains in place
+		int degree = c.length / 2 - 1;
+		System.arraycopy(c, 0, right, 0, c.length);
+		for (int level = 0; level <= degree; level++) {
+			left[2 * level] = right[0];
+			left[2 * level + 1] = right[1];
+			for (int i = 0; i < 2 * (degree - level); i += 2) {
+				right[i] += t * (right[i + 2] - right[i]);
+				right[i + 1] += t * (right[i + 3] - right[i + 1]);
+			}
+		}
+	}
+
+	private final double flatness;
+	private final List<Point> vertices = new ArrayList<>();
+	private final PointMap<Integer> vertexIds = new PointMap<>();
+	private final List<double[]> curves = new ArrayList<>();
+	private final List<Edge> edges = new ArrayList<>();
+
+	private PathClipper(double flatness) {
+		this.flatness = flatness;
+	}
+
+	private void addCurve(double[] c, int operand) {
+		int curve = curves.size();
+		curves.add(c);
+		flatten(c, 0, 1, operand, curve, 0);
+	}
+
+	private void addEdge(double x0, double y0, double x1, double y1,
+			int operand, int curve, double t0, double t1) {
+		int from = getVertex(x0, y0);
+		int to = getVertex(x1, y1);
+		if (from != to) {
+			edges.add(new Edge(from, to, vertices.get(from), vertices.get(to),
+					operand, curve, t0, t1));
+		}
+	}
+
+	private void addFragment(Edge e, int from, int to, double tFrom,
+			double tTo, Map<Long, Fragment> fragmentsByVertices,
+			List<Fragment> fragments) {
+		boolean forward = isLeftOf(from, to);
+		int left = forward ? from : to;
+		int right = forward ? to : from;
+		// (the hash code of a Long is only well distributed in its lower bits)
+		Long key = (long) left * vertices.size() + right;
+		Fragment f = fragmentsByVertices.get(key);
+		if (f == null) {
+			f = new Fragment(left, right,
+					vertices.get(left).x == vertices.get(right).x);
+			fragmentsByVertices.put(key, f);
+			fragments.add(f);
+		}
+		f.delta[e.operand] += forward ? 1 : -1;
+		if (f.curve < 0 && e.curve >= 0) {
+			f.curve = e.curve;
+			f.tLeft = forward ? tFrom : tTo;
+			f.tRight = forward ? tTo : tFrom;
+		}
+	}
+
+	private void addOutline(Path path, int operand) {
+		double startX = 0, startY = 0, x = 0, y = 0;
+		boolean started = false;
+		for (Segment s : path.getSegments()) {
+			Point[] points = s.getPoints();
+			if (s.getType() == Segment.MOVE_TO) {
+				if (started) {
+					addEdge(x, y, startX, startY, operand, -1, 0, 1);
+				}
+				startX = x = points[0].x;
+				startY = y = points[0].y;
+				started = true;
+				continue;
+			} else if (!started) {
+				if (s.getType() == Segment.CLOSE) {
+					continue;
+				}
+				throw new IllegalStateException(
+						"This Path does not start with a MOVE_TO, therefore, no start position could be determined.");
+			}
+			if (s.getType() == Segment.CLOSE) {
+				addEdge(x, y, startX, startY, operand, -1, 0, 1);
+				x = startX;
+				y = startY;
+			} else if (s.getType() == Segment.LINE_TO) {
+				addEdge(x, y, points[0].x, points[0].y, operand, -1, 0, 1);
+				x = points[0].x;
+				y = points[0].y;
+			} else {
+				double[] c = new double[2 * points.length + 2];
+				c[0] = x;
+				c[1] = y;
+				for (int i = 0; i < points.length; i++) {
+					c[2 * i + 2] = points[i].x;
+					c[2 * i + 3] = points[i].y;
+				}
+				addCurve(c, operand);
+				x = points[points.length - 1].x;
+				y = points[points.length - 1].y;
+			}
+		}
+		if (started) {
+			addEdge(x, y, startX, startY, operand, -1, 0, 1);
+		}
+	}
+
+	private void addSplit(Edge e, int vertex) {
+		// XXX: the parameter is determined by projecting the (snapped) vertex
+		// onto the edge, rather than by using the parameter of the computed
+		// intersection, which is ill-conditioned for almost collinear edges;
+		// otherwise, the order of the splits could contradict the positions
+		// of the vertices.
+		Point a = vertices.get(e.from);
+		Point b = vertices.get(e.to);
+		Point v = vertices.get(vertex);
+		double dx = b.x - a.x;
+		double dy = b.y - a.y;
+		double s = ((v.x - a.x) * dx + (v.y - a.y) * dy)
+				/ (dx * dx + dy * dy);
+		if (s > 0 && s < 1) {
+			e.addSplit(s, vertex);
+		}
+	}
+
+	private void addSplitIfOnSegment(int vertex, Edge e) {
+		// tests whether the given vertex lies in the interior of the given
+		// edge (which is not the case for the edge's end points)
+		if (vertex == e.from || vertex == e.to) {
+			return;
+		}
+		Point v = vertices.get(vertex);
+		if (v.x < e.minX - EPSILON || v.x > e.maxX + EPSILON
+				|| v.y < e.minY - EPSILON || v.y > e.maxY + EPSILON) {
+			return;
+		}
+		Point a = vertices.get(e.from);
+		Point b = vertices.get(e.to);
+		double dx = b.x - a.x;
+		double dy = b.y - a.y;
+		double distance = Math.abs(cross(dx, dy, v.x - a.x, v.y - a.y))
+				/ Math.sqrt(dx * dx + dy * dy);
+		if (distance <= EPSILON) {
+			addSplit(e, vertex);
+		}
+	}
+
+	private List<ResultEdge> classify(List<Fragment> fragments,
+			int windingRule1, int windingRule2, int operation) {
+		List<ResultEdge> result = new ArrayList<>();
+		for (Fragment f : fragments) {
+			boolean insideLeft = isInside(f.winding, windingRule1,
+					windingRule2, operation);
+			int[] rightWinding = { f.winding[0] - f.delta[0],
+					f.winding[1] - f.delta[1] };
+			boolean insideRight = isInside(rightWinding, windingRule1,
+					windingRule2, operation);
+			if (insideLeft != insideRight) {
+				// orient the edge so that the result is on its left
+				if (insideLeft) {
+					result.add(new ResultEdge(f.left, f.right, f.curve,
+							f.tLeft, f.tRight));
+				} else {
+					result.add(new ResultEdge(f.right, f.left, f.curve,
+							f.tRight, f.tLeft));
+				}
+			}
+		}
+		return result;
+	}
+
+	private Path compute(Path p1, Path p2, int operation,
+			boolean preserveCurves) {
+		addOutline(p1, 0);
+		addOutline(p2, 1);
+		intersectEdges();
+		List<Fragment> fragments = split();
+		sweep(fragments);
+		List<ResultEdge> resultEdges = classify(fragments,
+				p1.getWindingRule(), p2.getWindingRule(), operation);
+		Path result = new Path();
+		for (List<ResultEdge> ring : link(resultEdges)) {
+			toSegments(ring, preserveCurves, result);
+		}
+		return result;
+	}
+
+	private void flatten(double[] c, double t0, double t1, int operand,
+			int curve, int depth) {
+		int e = c.length - 2;
+		if (depth >= MAX_FLATTENING_DEPTH || isFlat(c)) {
+			addEdge(c[0], c[1], c[e], c[e + 1], operand, curve, t0, t1);
+			return;
+		}
+		double[] left = new double[c.length];
+		double[] right = new double[c.length];
+		split(c, 0.5, left, right);
+		double t = (t0 + t1) / 2;
+		flatten(left, t0, t, operand, curve, depth + 1);
+		flatten(right, t, t1, operand, curve, depth + 1);
+	}
+
+	private int countBelow(Point p, List<Fragment> status) {
+		// the number of fragments of the status below the given point
+		int low = 0;
+		int high = status.size();
+		while (low < high) {
+			int m = (low + high) >>> 1;
+			if (isAbove(p, status.get(m))) {
+				low = m + 1;
+			} else {
+				high = m;
+			}
+		}
+		return low;
+	}
+
+	private double[] getClipped(double[] c, double t0, double t1) {
+		// clip out [min(t0, t1), max(t0, t1)] and reverse if required
+		double s = Math.min(t0, t1);
+		double e = Math.max(t0, t1);
+		double[] left = new double[c.length];
+		double[] right = new double[c.length];
+		split(c, s, left, right);
+		double[] clipped = new double[c.length];
+		if (s < 1) {
+			split(right, (e - s) / (1 - s), clipped, left);
+		} else {
+			System.arraycopy(right, 0, clipped, 0, c.length);
+		}
+		if (t0 > t1) {
+			for (int i = 0, j = c.length - 2; i < j; i += 2, j -= 2) {
+				double x = clipped[i];
+				double y = clipped[i + 1];
+				clipped[i] = clipped[j];
+				clipped[i + 1] = clipped[j + 1];
+				clipped[j] = x;
+				clipped[j + 1] = y;
+			}
+		}
+		return clipped;
+	}
+
+	private int getVertex(double x, double y) {
+		Point p = new Point(x, y);
+		Integer id = vertexIds.get(p);
+		if (id == null) {
+			id = vertices.size();
+			vertices.add(p);
+			vertexIds.put(p, id);
+		}
+		return id;
+	}
+
+	private void intersect(Edge e, Edge f) {
+		// end points located in the interior of the other edge
+		addSplitIfOnSegment(f.from, e);
+		addSplitIfOnSegment(f.to, e);
+		addSplitIfOnSegment(e.from, f);
+		addSplitIfOnSegment(e.to, f);
+		// edges sharing an end point can only overlap (if collinear), which
+		// is covered by the above
+		if (e.from == f.from || e.from == f.to || e.to == f.from
+				|| e.to == f.to) {
+			return;
+		}
+		// proper crossing of the interiors
+		Point a = vertices.get(e.from);
+		Point b = vertices.get(e.to);
+		Point c = vertices.get(f.from);
+		Point d = vertices.get(f.to);
+		double rx = b.x - a.x, ry = b.y - a.y;
+		double sx = d.x - c.x, sy = d.y - c.y;
+		double denominator = cross(rx, ry, sx, sy);
+		if (denominator == 0) {
+			return;
+		}
+		double t = cross(c.x - a.x, c.y - a.y, sx, sy) / denominator;
+		double u = cross(c.x - a.x, c.y - a.y, rx, ry) / denominator;
+		if (t <= 0 || t >= 1 || u <= 0 || u >= 1) {
+			return;
+		}
+		// for almost parallel edges, the computed intersection may not be
+		// located on the other edge (which is then covered by the above)
+		double x = a.x + t * rx;
+		double y = a.y + t * ry;
+		if (Math.abs(cross(sx, sy, x - c.x, y - c.y)) > 2 * EPSILON
+				* Math.sqrt(sx * sx + sy * sy)) {
+			return;
+		}
+		// the intersection may coincide with an end point (within the
+		// imprecision), in which case only the other edge is split
+		int vertex = getVertex(x, y);
+		if (vertex != e.from && vertex != e.to) {
+			addSplit(e, vertex);
+		}
+		if (vertex != f.from && vertex != f.to) {
+			addSplit(f, vertex);
+		}
+	}
+
+	private void intersectEdges() {
+		// sweep over the edges in order of their minimal x-coordinate, only
+		// testing edges whose x-ranges overlap
+		List<Edge> sorted = new ArrayList<>(edges);
+		Collections.sort(sorted, new Comparator<Edge>() {
+			@Override
+			public int compare(Edge e1, Edge e2) {
+				return Double.compare(e1.minX, e2.minX);
+			}
+		});
+		List<Edge> active = new ArrayList<>();
+		for (Edge e : sorted) {
+			int retained = 0;
+			for (int i = 0; i < active.size(); i++) {
+				Edge f = active.get(i);
+				if (f.maxX >= e.minX - EPSILON) {
+					active.set(retained++, f);
+					if (f.maxY >= e.minY - EPSILON
+							&& f.minY <= e.maxY + EPSILON) {
+						intersect(e, f);
+					}
+				}
+			}
+			active.subList(retained, active.size()).clear();
+			active.add(e);
+		}
+	}
+
+	private boolean isAbove(Point p, Fragment f) {
+		Point l = vertices.get(f.left);
+		Point r = vertices.get(f.right);
+		return cross(r.x - l.x, r.y - l.y, p.x - l.x, p.y - l.y) > 0;
+	}
+
+	private boolean isAbove(Fragment f, Fragment g) {
+		// whether f is located above g, where f starts within the x-range of g
+		Point l = vertices.get(g.left);
+		Point r = vertices.get(g.right);
+		Point fl = vertices.get(f.left);
+		double orientation = cross(r.x - l.x, r.y - l.y, fl.x - l.x,
+				fl.y - l.y);
+		if (orientation == 0 || f.left == g.left) {
+			Point fr = vertices.get(f.right);
+			orientation = cross(r.x - l.x, r.y - l.y, fr.x - l.x, fr.y - l.y);
+		}
+		return orientation > 0;
+	}
+
+	private boolean isContinuation(ResultEdge e, ResultEdge f) {
+		return e.curve >= 0 && e.curve == f.curve && e.tTo == f.tFrom
+				&& e.to == f.from;
+	}
+
+	private boolean isFlat(double[] c) {
+		int e = c.length - 2;
+		double dx = c[e] - c[0];
+		double dy = c[e + 1] - c[1];
+		double length = Math.sqrt(dx * dx + dy * dy);
+		for (int i = 2; i < e; i += 2) {
+			double distance = length == 0
+					? Math.hypot(c[i] - c[0], c[i + 1] - c[1])
+					: Math.abs(cross(dx, dy, c[i] - c[0], c[i + 1] - c[1]))
+							/ length;
+			if (distance > flatness) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isInside(int[] winding, int windingRule1,
+			int windingRule2, int operation) {
+		boolean inside1 = isInside(winding[0], windingRule1);
+		boolean inside2 = isInside(winding[1], windingRule2);
+		switch (operation) {
+		case INTERSECTION:
+			return inside1 && inside2;
+		case UNION:
+			return inside1 || inside2;
+		case DIFFERENCE:
+			return inside1 && !inside2;
+		default:
+			return inside1 != inside2;
+		}
+	}
+
+	private boolean isLeftOf(int v, int w) {
+		Point p = vertices.get(v);
+		Point q = vertices.get(w);
+		return p.x < q.x || p.x == q.x && p.y < q.y;
+	}
+
+	private boolean isLine(ResultEdge[] piece, boolean preserveCurves) {
+		return !preserveCurves || piece[0].curve < 0;
+	}
+
+	private boolean isStraight(int u, int v, int w) {
+		Point a = vertices.get(u);
+		Point b = vertices.get(v);
+		Point c = vertices.get(w);
+		double abx = b.x - a.x;
+		double aby = b.y - a.y;
+		double bcx = c.x - b.x;
+		double bcy = c.y - b.y;
+		return abx * bcx + aby * bcy > 0
+				&& Math.abs(cross(abx, aby, bcx, bcy)) <= EPSILON
+						* Math.hypot(abx, aby) * Math.hypot(bcx, bcy);
+	}
+
+	private List<List<ResultEdge>> link(List<ResultEdge> resultEdges) {
+		Map<Integer, List<ResultEdge>> outgoing = new HashMap<>();
+		for (ResultEdge e : resultEdges) {
+			List<ResultEdge> list = outgoing.get(e.from);
+			if (list == null) {
+				list = new ArrayList<>(2);
+				outgoing.put(e.from, list);
+			}
+			list.add(e);
+		}
+		List<List<ResultEdge>> rings = new ArrayList<>();
+		for (ResultEdge start : resultEdges) {
+			if (start.visited) {
+				continue;
+			}
+			List<ResultEdge> ring = new ArrayList<>();
+			ResultEdge e = start;
+			while (e != null) {
+				e.visited = true;
+				ring.add(e);
+				e = next(e, outgoing.get(e.to));
+			}
+			rings.add(ring);
+		}
+		return rings;
+	}
+
+	private ResultEdge next(ResultEdge incoming, List<ResultEdge> candidates) {
+		// choose the outgoing edge with the smallest clockwise angle to the
+		// reversed incoming edge, so that rings touching in a vertex are
+		// separated
+		Point v = vertices.get(incoming.to);
+		Point u = vertices.get(incoming.from);
+		double reversed = Math.atan2(u.y - v.y, u.x - v.x);
+		ResultEdge next = null;
+		double maxAngle = -1;
+		if (candidates == null) {
+			// cannot occur for a consistent classification; the ring is
+			// closed at this point
+			return null;
+		}
+		for (ResultEdge candidate : candidates) {
+			if (candidate.visited) {
+				continue;
+			}
+			Point w = vertices.get(candidate.to);
+			double angle = Math.atan2(w.y - v.y, w.x - v.x) - reversed;
+			while (angle <= 0) {
+				angle += 2 * Math.PI;
+			}
+			while (angle > 2 * Math.PI) {
+				angle -= 2 * Math.PI;
+			}
+			if (angle > maxAngle) {
+				maxAngle = angle;
+				next = candidate;
+			}
+		}
+		return next;
+	}
+
+	private void removeFromStatus(List<Fragment> status, Fragment f,
+			double previousX) {
+		// all fragments of the status span the x-range between the previous
+		// sweep-line and the right vertex of f (which ends first), so that
+		// the index of f can be determined by a binary search at a point of
+		// f within that range
+		Point l = vertices.get(f.left);
+		Point r = vertices.get(f.right);
+		double x = (previousX + r.x) / 2;
+		int below = countBelow(
+				new Point(x, l.y + (r.y - l.y) * (x - l.x) / (r.x - l.x)),
+				status);
+		// as the point is located on f, it may be rounded to either side of
+		// it (or of coincident fragments), so that f is searched around the
+		// determined index
+		for (int i = Math.max(below - 2, 0); i < Math.min(below + 2,
+				status.size()); i++) {
+			if (status.get(i) == f) {
+				status.remove(i);
+				return;
+			}
+		}
+		status.remove(f);
+	}
+
+	private void setWinding(Fragment f, Fragment below) {
+		// the right-hand side of a non-vertical fragment is below it; the
+		// left-hand side of a vertical one (heading upwards) is to its left,
+		// i.e. above the fragment below
+		for (int operand = 0; operand < 2; operand++) {
+			int adjacent = below == null ? 0 : below.winding[operand];
+			f.winding[operand] = f.vertical ? adjacent
+					: adjacent + f.delta[operand];
+		}
+	}
+
+	private List<Fragment> split() {
+		// split the edges at the collected intersections and merge
+		// coincident fragments
+		Map<Long, Fragment> fragmentsByVertices = new HashMap<>();
+		List<Fragment> fragments = new ArrayList<>();
+		for (Edge e : edges) {
+			int n = e.splitCount;
+			Integer[] order = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+			}
+			final Edge edge = e;
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i1, Integer i2) {
+					return Double.compare(edge.splitParameters[i1],
+							edge.splitParameters[i2]);
+				}
+			});
+			int previous = e.from;
+			double previousT = e.t0;
+			for (int i = 0; i <= n; i++) {
+				int vertex = i < n ? e.splitVertices[order[i]] : e.to;
+				// the curve parameters of the end points are retained, so
+				// that adjacent fragments can be joined again
+				double t = i < n
+						? e.t0 + e.splitParameters[order[i]] * (e.t1 - e.t0)
+						: e.t1;
+				if (vertex != previous) {
+					addFragment(e, previous, vertex, previousT, t,
+							fragmentsByVertices, fragments);
+					previous = vertex;
+					previousT = t;
+				}
+			}
+		}
+		// fragments whose contributions cancel out do not separate anything
+		List<Fragment> relevant = new ArrayList<>(fragments.size());
+		for (Fragment f : fragments) {
+			if (f.delta[0] != 0 || f.delta[1] != 0) {
+				relevant.add(f);
+			}
+		}
+		return relevant;
+	}
+
+	private void sweep(List<Fragment> fragments) {
+		// process the fragments in order of their left vertices
+		Collections.sort(fragments, new Comparator<Fragment>() {
+			@Override
+			public int compare(Fragment f1, Fragment f2) {
+				Point p1 = vertices.get(f1.left);
+				Point p2 = vertices.get(f2.left);
+				int c = Double.compare(p1.x, p2.x);
+				return c != 0 ? c : Double.compare(p1.y, p2.y);
+			}
+		});
+		// non-vertical fragments intersecting the sweep-line, sorted from
+		// bottom to top
+		List<Fragment> status = new ArrayList<>();
+		PriorityQueue<Fragment> ends = new PriorityQueue<>(
+				new Comparator<Fragment>() {
+					@Override
+					public int compare(Fragment f1, Fragment f2) {
+						return Double.compare(vertices.get(f1.right).x,
+								vertices.get(f2.right).x);
+					}
+				});
+		List<Fragment> inserted = new ArrayList<>();
+		// orders fragments that start at the same x-coordinate
+		Comparator<Fragment> bottomToTop = new Comparator<Fragment>() {
+			@Override
+			public int compare(Fragment f1, Fragment f2) {
+				if (f1.left != f2.left) {
+					return Double.compare(vertices.get(f1.left).y,
+							vertices.get(f2.left).y);
+				}
+				return isAbove(f1, f2) ? 1 : isAbove(f2, f1) ? -1 : 0;
+			}
+		};
+		double previousX = Double.NEGATIVE_INFINITY;
+		int i = 0;
+		while (i < fragments.size()) {
+			double x = vertices.get(fragments.get(i).left).x;
+			int groupEnd = i;
+			while (groupEnd < fragments.size()
+					&& vertices.get(fragments.get(groupEnd).left).x == x) {
+				groupEnd++;
+			}
+			// remove fragments that ended before the sweep-line
+			while (!ends.isEmpty() && vertices.get(ends.peek().right).x < x) {
+				removeFromStatus(status, ends.poll(), previousX);
+			}
+			// vertical fragments are not inserted; the winding numbers at
+			// their left-hand side are determined by the fragment below
+			for (int j = i; j < groupEnd; j++) {
+				Fragment f = fragments.get(j);
+				if (f.vertical) {
+					Point l = vertices.get(f.left);
+					Point r = vertices.get(f.right);
+					int below = countBelow(new Point(x, (l.y + r.y) / 2),
+							status);
+					setWinding(f, below > 0 ? status.get(below - 1) : null);
+				}
+			}
+			// remove fragments ending at the sweep-line
+			while (!ends.isEmpty()
+					&& vertices.get(ends.peek().right).x <= x) {
+				removeFromStatus(status, ends.poll(), previousX);
+			}
+			// insert the non-vertical fragments starting at the sweep-line
+			// from bottom to top, so that the fragment below each inserted
+			// one has already been processed
+			inserted.clear();
+			for (int j = i; j < groupEnd; j++) {
+				if (!fragments.get(j).vertical) {
+					inserted.add(fragments.get(j));
+				}
+			}
+			Collections.sort(inserted, bottomToTop);
+			for (Fragment f : inserted) {
+				int low = 0;
+				int high = status.size();
+				while (low < high) {
+					int m = (low + high) >>> 1;
+					if (isAbove(f, status.get(m))) {
+						low = m + 1;
+					} else {
+						high = m;
+					}
+				}
+				status.add(low, f);
+				ends.add(f);
+				setWinding(f, low > 0 ? status.get(low - 1) : null);
+			}
+			previousX = x;
+			i = groupEnd;
+		}
+	}
+
+	private void toSegments(List<ResultEdge> ring, boolean preserveCurves,
+			Path path) {
+		int n = ring.size();
+		// start at an edge that cannot be joined with its predecessor
+		int start = 0;
+		if (preserveCurves) {
+			for (int i = 0; i < n; i++) {
+				if (!isContinuation(ring.get((i + n - 1) % n), ring.get(i))) {
+					start = i;
+					break;
+				}
+			}
+		}
+		// group the edges into straight lines and runs of curve fragments,
+		// each given by its first and last edge
+		List<ResultEdge[]> pieces = new ArrayList<>();
+		int i = 0;
+		while (i < n) {
+			ResultEdge e = ring.get((start + i) % n);
+			ResultEdge last = e;
+			i++;
+			if (preserveCurves && e.curve >= 0) {
+				while (i < n
+						&& isContinuation(last, ring.get((start + i) % n))) {
+					last = ring.get((start + i) % n);
+					i++;
+				}
+			}
+			pieces.add(new ResultEdge[] { e, last });
+		}
+		// XXX: vertices between collinear lines result from splitting the
+		// outlines (at intersections with the other operand's outline) and
+		// are omitted, so that the result is not more complex than necessary
+		int m = pieces.size();
+		boolean[] omitted = new boolean[m];
+		int first = -1;
+		for (int j = 0; j < m; j++) {
+			ResultEdge[] piece = pieces.get(j);
+			ResultEdge[] next = pieces.get((j + 1) % m);
+			omitted[j] = m > 2 && isLine(piece, preserveCurves)
+					&& isLine(next, preserveCurves)
+					&& isStraight(piece[0].from, piece[1].to, next[1].to);
+			if (!omitted[j] && first < 0) {
+				first = j;
+			}
+		}
+		if (first < 0) {
+			return;
+		}
+		// start at a vertex that is not omitted
+		first = (first + 1) % m;
+		Point p = vertices.get(pieces.get(first)[0].from);
+		path.moveTo(p.x, p.y);
+		for (int j = 0; j < m; j++) {
+			int k = (first + j) % m;
+			ResultEdge[] piece = pieces.get(k);
+			Point to = vertices.get(piece[1].to);
+			if (isLine(piece, preserveCurves)) {
+				// the last line is implied by closing the path
+				if (!omitted[k] && j < m - 1) {
+					path.lineTo(to.x, to.y);
+				}
+				continue;
+			}
+			double[] c = getClipped(curves.get(piece[0].curve),
+					piece[0].tFrom, piece[1].tTo);
+			// connect to the (possibly approximated) intersection points
+			int end = c.length - 2;
+			if (c.length == 6) {
+				path.quadTo(c[2], c[3], to.x, to.y);
+			} else {
+				path.cubicTo(c[2], c[3], c[end - 2], c[end - 1], to.x, to.y);
+			}
+		}
+		path.close();
+	}
+
+}
@@ -751,9 +751,11 @@ public class Point implements Cloneable, Serializable {
 	 * @return <code>this</code> for convenience.
 	 */
 	public Point transform(AffineTransform transformation) {
-		Point transformed = transformation.getTransformed(this);
-		x = transformed.x;
-		y = transformed.y;
+		double tx = x * transformation.getM00() + y * transformation.getM01()
+				+ transformation.getTranslateX();
+		y = x * transformation.getM10() + y * transformation.getM11()
+				+ transformation.getTranslateY();
+		x = tx;
 		return this;
 	}
 
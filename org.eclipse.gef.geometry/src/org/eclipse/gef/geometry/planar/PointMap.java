@@ -0,0 +1,393 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.planar;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+
+/**
+ * A {@link Map} that uses {@link Point}s as keys and that respects the
+ * imprecise equality of {@link Point}s (see {@link Point#equals(Object)}).
+ * <p>
+ * As {@link Point#hashCode()} cannot be computed in a way that is consistent
+ * with the imprecise {@link Point#equals(Object)}, a {@link java.util.HashMap}
+ * that uses {@link Point}s as keys degenerates into a linear list. A
+ * {@link PointMap} instead distributes its keys over a uniform grid, whose
+ * cells are twice as large as the imprecision that is tolerated when comparing
+ * coordinates (see {@link PrecisionUtils#calculateFraction(int)}). Keys that
+ * are regarded to be equal are thus located within the same or within
+ * directly neighboring cells, so that a lookup only has to probe the 3x3
+ * cells around the cell of the given {@link Point}.
+ * <p>
+ * If multiple keys are regarded to be equal to a given {@link Point} (which
+ * may happen because the imprecise equality is not transitive), the key that
+ * was inserted first is used. The map's views iterate in insertion order. As
+ * with other hash-based collections, keys may not be changed while being
+ * contained. <code>null</code> keys are not supported.
+ *
+ * @param <V>
+ *            The type of the values.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class PointMap<V> extends AbstractMap<Point, V> {
+
+	private static class Entry<V> implements Map.Entry<Point, V> {
+		private final Point key;
+		private V value;
+		private final long cellX;
+		private final long cellY;
+		private final long sequence;
+		// next entry within the same bucket
+		private Entry<V> next;
+		// neighbors with regard to insertion order
+		private Entry<V> before;
+		private Entry<V> after;
+
+		private Entry(Point key, V value, long cellX, long cellY,
+				long sequence) {
+			this.key = key;
+			this.value = value;
+			this.cellX = cellX;
+			this.cellY = cellY;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return key.equals(e.getKey()) && (value == null
+					? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		@Override
+		public Point getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public int hashCode() {
+			// consistent with Point#hashCode()
+			return value == null ? 0 : value.hashCode();
+		}
+
+		@Override
+		public V setValue(V value) {
+			V oldValue = this.value;
+			this.value = value;
+			return oldValue;
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<Point, V>> {
+
+		private Entry<V> next = head;
+		private Entry<V> lastReturned;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<Point, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.after;
+			return lastReturned;
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeEntry(lastReturned);
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int shift;
+	private final double cellSize;
+
+	private Entry<V>[] buckets = newBuckets(INITIAL_CAPACITY);
+	private Entry<V> head;
+	private Entry<V> tail;
+	private int size;
+	private long sequence;
+	private int modCount;
+
+	private Set<Map.Entry<Point, V>> entrySet;
+
+	/**
+	 * Constructs a new, empty {@link PointMap}, which regards keys to be equal
+	 * in case they are equal according to {@link Point#equals(Object)}.
+	 */
+	public PointMap() {
+		this(0);
+	}
+
+	/**
+	 * Constructs a new, empty {@link PointMap}, which regards keys to be equal
+	 * in case their coordinates are equal w.r.t. the given shift (see
+	 * {@link PrecisionUtils#equal(double, double, int)}).
+	 *
+	 * @param shift
+	 *            The precision shift that is used when comparing keys.
+	 */
+	public PointMap(int shift) {
+		this.shift = shift;
+		this.cellSize = 2 * PrecisionUtils.calculateFraction(shift);
+	}
+
+	/**
+	 * Constructs a new {@link PointMap}, which regards keys to be equal in case
+	 * they are equal according to {@link Point#equals(Object)}, and which
+	 * contains the mappings of the given {@link Map}.
+	 *
+	 * @param map
+	 *            The {@link Map} whose mappings are to be put into this
+	 *            {@link PointMap}.
+	 */
+	public PointMap(Map<? extends Point, ? extends V> map) {
+		this(0);
+		putAll(map);
+	}
+
+	private int bucketIndex(long cellX, long cellY, int length) {
+		long hash = cellX * 0x9E3779B97F4A7C15L + cellY * 0xC2B2AE3D27D4EB4FL;
+		hash ^= hash >>> 29;
+		return (int) (hash ^ (hash >>> 32)) & (length - 1);
+	}
+
+	@Override
+	public void clear() {
+		if (size > 0) {
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = null;
+			}
+			head = tail = null;
+			size = 0;
+			modCount++;
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return getEntry(key) != null;
+	}
+
+	@Override
+	public Set<Map.Entry<Point, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<Point, V>>() {
+				@Override
+				public void clear() {
+					PointMap.this.clear();
+				}
+
+				@Override
+				public Iterator<Map.Entry<Point, V>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	@Override
+	public V get(Object key) {
+		Entry<V> entry = getEntry(key);
+		return entry == null ? null : entry.value;
+	}
+
+	private Entry<V> getEntry(Object key) {
+		if (!(key instanceof Point) || size == 0) {
+			return null;
+		}
+		Point p = (Point) key;
+		long cellX = toCell(p.x);
+		long cellY = toCell(p.y);
+		Entry<V> match = null;
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				long x = cellX + dx;
+				long y = cellY + dy;
+				for (Entry<V> e = buckets[bucketIndex(x, y,
+						buckets.length)]; e != null; e = e.next) {
+					if (e.cellX == x && e.cellY == y
+							&& (match == null || e.sequence < match.sequence)
+							&& PrecisionUtils.equal(e.key.x, p.x, shift)
+							&& PrecisionUtils.equal(e.key.y, p.y, shift)) {
+						match = e;
+					}
+				}
+			}
+		}
+		return match;
+	}
+
+	/**
+	 * Returns the precision shift that is used when comparing keys.
+	 *
+	 * @return The precision shift that is used when comparing keys.
+	 */
+	public int getShift() {
+		return shift;
+	}
+
+	/**
+	 * Associates the given value with the given key. If this map already
+	 * contains a key that is regarded to be equal to the given key, the value
+	 * of that key is replaced (the key itself is retained).
+	 *
+	 * @param key
+	 *            The {@link Point} with which the given value is to be
+	 *            associated.
+	 * @param value
+	 *            The value to be associated with the given key.
+	 * @return The value previously associated with a key equal to the given
+	 *         key, or <code>null</code> if there was no such key.
+	 */
+	@Override
+	public V put(Point key, V value) {
+		if (key == null) {
+			throw new NullPointerException("key may not be null.");
+		}
+		Entry<V> entry = getEntry(key);
+		if (entry != null) {
+			return entry.setValue(value);
+		}
+		entry = new Entry<>(key, value, toCell(key.x), toCell(key.y),
+				sequence++);
+		if (size >= buckets.length * 3 / 4) {
+			resize(buckets.length * 2);
+		}
+		int index = bucketIndex(entry.cellX, entry.cellY, buckets.length);
+		entry.next = buckets[index];
+		buckets[index] = entry;
+		if (tail == null) {
+			head = entry;
+		} else {
+			tail.after = entry;
+			entry.before = tail;
+		}
+		tail = entry;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		Entry<V> entry = getEntry(key);
+		if (entry == null) {
+			return null;
+		}
+		removeEntry(entry);
+		return entry.value;
+	}
+
+	private void removeEntry(Entry<V> entry) {
+		int index = bucketIndex(entry.cellX, entry.cellY, buckets.length);
+		if (buckets[index] == entry) {
+			buckets[index] = entry.next;
+		} else {
+			Entry<V> e = buckets[index];
+			while (e.next != entry) {
+				e = e.next;
+			}
+			e.next = entry.next;
+		}
+		if (entry.before == null) {
+			head = entry.after;
+		} else {
+			entry.before.after = entry.after;
+		}
+		if (entry.after == null) {
+			tail = entry.before;
+		} else {
+			entry.after.before = entry.before;
+		}
+		entry.next = entry.before = entry.after = null;
+		size--;
+		modCount++;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <V> Entry<V>[] newBuckets(int capacity) {
+		return new Entry[capacity];
+	}
+
+	private void resize(int capacity) {
+		Entry<V>[] newBuckets = newBuckets(capacity);
+		for (Entry<V> e = head; e != null; e = e.after) {
+			int index = bucketIndex(e.cellX, e.cellY, capacity);
+			e.next = newBuckets[index];
+			newBuckets[index] = e;
+		}
+		buckets = newBuckets;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private long toCell(double coordinate) {
+		// XXX: NaN is mapped to cell 0, huge and infinite values are clamped
+		// to the long range; in either case, equality is still decided by
+		// PrecisionUtils.
+		return (long) Math.floor(coordinate / cellSize);
+	}
+
+}
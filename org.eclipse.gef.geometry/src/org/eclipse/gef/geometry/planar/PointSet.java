@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.planar;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+
+/**
+ * A {@link Set} of {@link Point}s that respects the imprecise equality of
+ * {@link Point}s (see {@link Point#equals(Object)}). In contrast to a
+ * {@link java.util.HashSet}, which degenerates into a linear list because
+ * {@link Point#hashCode()} cannot be consistent with the imprecise equality,
+ * lookups are performed in constant time, using a {@link PointMap}
+ * internally.
+ * <p>
+ * A {@link PointSet} iterates its {@link Point}s in insertion order. As with
+ * other hash-based collections, contained {@link Point}s may not be changed.
+ * <code>null</code> elements are not supported.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class PointSet extends AbstractSet<Point> {
+
+	private static final Object PRESENT = new Object();
+
+	private final PointMap<Object> map;
+
+	/**
+	 * Constructs a new, empty {@link PointSet}, which regards {@link Point}s
+	 * to be equal in case they are equal according to
+	 * {@link Point#equals(Object)}.
+	 */
+	public PointSet() {
+		this(0);
+	}
+
+	/**
+	 * Constructs a new {@link PointSet}, which regards {@link Point}s to be
+	 * equal in case they are equal according to {@link Point#equals(Object)},
+	 * and which contains the given {@link Point}s.
+	 *
+	 * @param points
+	 *            The {@link Point}s to add to this {@link PointSet}.
+	 */
+	public PointSet(Collection<? extends Point> points) {
+		this(points instanceof PointSet ? ((PointSet) points).getShift() : 0);
+		addAll(points);
+	}
+
+	/**
+	 * Constructs a new, empty {@link PointSet}, which regards {@link Point}s
+	 * to be equal in case their coordinates are equal w.r.t. the given shift
+	 * (see {@link PrecisionUtils#equal(double, double, int)}).
+	 *
+	 * @param shift
+	 *            The precision shift that is used when comparing
+	 *            {@link Point}s.
+	 */
+	public PointSet(int shift) {
+		map = new PointMap<>(shift);
+	}
+
+	@Override
+	public boolean add(Point p) {
+		return map.put(p, PRESENT) == null;
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	/**
+	 * Returns the precision shift that is used when comparing {@link Point}s.
+	 *
+	 * @return The precision shift that is used when comparing {@link Point}s.
+	 */
+	public int getShift() {
+		return map.getShift();
+	}
+
+	@Override
+	public Iterator<Point> iterator() {
+		return map.keySet().iterator();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return map.remove(o) == PRESENT;
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+}
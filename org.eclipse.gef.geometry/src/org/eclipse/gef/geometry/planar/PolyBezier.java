@@ -221,6 +221,22 @@ public class PolyBezier extends AbstractGeometry
 		return false;
 	}
 
+	/**
+	 * Returns the approximated length of this {@link PolyBezier}, i.e. the sum
+	 * of the {@link BezierCurve#getArcLength() arc lengths} of its
+	 * {@link BezierCurve}s.
+	 *
+	 * @return the approximated length of this {@link PolyBezier}
+	 * @since 5.1
+	 */
+	public double getArcLength() {
+		double length = 0;
+		for (BezierCurve c : beziers) {
+			length += c.getArcLength();
+		}
+		return length;
+	}
+
 	@Override
 	public Rectangle getBounds() {
 		if (beziers == null || beziers.length == 0) {
@@ -262,6 +278,30 @@ public class PolyBezier extends AbstractGeometry
 		return beziers[beziers.length - 1].getP2();
 	}
 
+	/**
+	 * Returns the {@link Point} on this {@link PolyBezier} at the given arc
+	 * length from its start {@link Point}. Arc lengths outside of
+	 * <code>[0;</code>{@link #getArcLength()}<code>]</code> are clamped to
+	 * that range.
+	 *
+	 * @param s
+	 *            the arc length at which to return the {@link Point}
+	 * @return the {@link Point} on this {@link PolyBezier} at the given arc
+	 *         length
+	 * @see BezierCurve#getPointAtArcLength(double)
+	 * @since 5.1
+	 */
+	public Point getPointAtArcLength(double s) {
+		for (int i = 0; i < beziers.length - 1; i++) {
+			double length = beziers[i].getArcLength();
+			if (s <= length) {
+				return beziers[i].getPointAtArcLength(s);
+			}
+			s -= length;
+		}
+		return beziers[beziers.length - 1].getPointAtArcLength(s);
+	}
+
 	@Override
 	public Point getProjection(Point reference) {
 		double minDistance = 0;
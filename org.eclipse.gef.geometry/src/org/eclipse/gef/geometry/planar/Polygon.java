@@ -580,7 +580,7 @@ public class Polygon extends AbstractPointListBasedGeometry<Polygon>
 	@Override
 	public Polygon getTransformed(AffineTransform t) {
 		// shape type should remain polygon (not path)
-		return new Polygon(t.getTransformed(points));
+		return getCopy().transform(t);
 	}
 
 	/**
@@ -596,6 +596,21 @@ public class Polygon extends AbstractPointListBasedGeometry<Polygon>
 		return ears.toArray(new Polygon[] {});
 	}
 
+	/**
+	 * Prepares this {@link Polygon} for a large number of containment and
+	 * intersection queries. The returned {@link PreparedGeometry} does not
+	 * reflect subsequent changes of this {@link Polygon}. Its results are only
+	 * guaranteed to be consistent with those of this {@link Polygon} if this
+	 * {@link Polygon} is simple, i.e. does not intersect itself.
+	 *
+	 * @return A new {@link PreparedGeometry} for the area covered by this
+	 *         {@link Polygon}.
+	 * @since 5.1
+	 */
+	public PreparedGeometry prepare() {
+		return new PreparedGeometry(new Point[][] { getPoints() }, false);
+	}
+
 	/**
 	 * @see IGeometry#toPath()
 	 */
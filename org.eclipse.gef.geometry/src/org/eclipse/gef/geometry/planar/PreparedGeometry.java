@@ -0,0 +1,679 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.geometry.planar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.gef.geometry.internal.utils.PrecisionUtils;
+import org.eclipse.gef.geometry.planar.Path.Segment;
+
+/**
+ * A {@link PreparedGeometry} is an immutable snapshot of the area covered by a
+ * {@link Polygon}, {@link Ring}, or {@link Region}, which is optimized for
+ * answering a large number of containment and intersection queries (as needed
+ * for hit-testing or snapping).
+ * <p>
+ * When being prepared, the edges of the outline are distributed into
+ * horizontal bands, so that each band is crossed by a (small) set of edges,
+ * which are sorted from left to right. A query thus only has to locate the
+ * band (and the position within the band) via binary search, and does not
+ * allocate any objects. The outlines of {@link Ring}s and {@link Region}s are
+ * merged before, so that the edges shared by adjacent triangles or rectangles
+ * are not part of the index.
+ * <p>
+ * For {@link Ring}s, {@link Region}s, and simple {@link Polygon}s, the results
+ * are consistent with those of the prepared shape, i.e. the outline is regarded
+ * to be part of the area and {@link Point}s are (imprecisely) compared. The
+ * area of a self-intersecting {@link Polygon} is determined w.r.t. the even-odd
+ * rule, so that the results may differ from those of the {@link Polygon} in
+ * this case. A {@link PreparedGeometry} does not reflect subsequent changes of
+ * the shape it was prepared from.
+ *
+ * @see Polygon#prepare()
+ * @see Ring#prepare()
+ * @see Region#prepare()
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public final class PreparedGeometry {
+
+	private static final double EPSILON = PrecisionUtils.calculateFraction(0);
+
+	// an upper bound for the number of band entries per edge; if exceeded,
+	// neighboring bands are combined
+	private static final int ENTRIES_PER_EDGE = 8;
+
+	private static double signedArea(Point[] polygon) {
+		double area = 0;
+		for (int i = 0; i < polygon.length; i++) {
+			Point p = polygon[i];
+			Point q = polygon[(i + 1) % polygon.length];
+			area += p.x * q.y - q.x * p.y;
+		}
+		return area / 2;
+	}
+
+	private static Point[][] union(Point[][] polygons) {
+		// XXX: the shapes of a multi-shape may overlap or share edges, so
+		// their (consistently oriented) outlines are combined w.r.t. the
+		// non-zero winding rule, which results in the outline of the union.
+		Path path = new Path(Path.WIND_NON_ZERO);
+		for (Point[] polygon : polygons) {
+			double area = signedArea(polygon);
+			if (area == 0) {
+				continue;
+			}
+			for (int i = 0; i < polygon.length; i++) {
+				Point p = polygon[area > 0 ? i : polygon.length - 1 - i];
+				if (i == 0) {
+					path.moveTo(p.x, p.y);
+				} else {
+					path.lineTo(p.x, p.y);
+				}
+			}
+			path.close();
+		}
+		Path union = PathClipper.clip(path, new Path(), PathClipper.UNION,
+				PathClipper.DEFAULT_FLATNESS, false);
+		List<Point[]> rings = new ArrayList<>();
+		List<Point> ring = new ArrayList<>();
+		for (Segment s : union.getSegments()) {
+			if (s.getType() == Segment.CLOSE) {
+				rings.add(ring.toArray(new Point[] {}));
+				ring.clear();
+			} else {
+				ring.add(s.getPoints()[0]);
+			}
+		}
+		return rings.toArray(new Point[][] {});
+	}
+
+	private final double minX;
+	private final double minY;
+	private final double maxX;
+	private final double maxY;
+
+	// non-horizontal edges (x1, y1, x2, y2), oriented so that y1 < y2
+	private final double[] edges;
+
+	// the bands are separated by bandYs; the edges overlapping band i are
+	// stored at bandEdges[bandStart[i]] to bandEdges[bandStart[i + 1] - 1],
+	// sorted from left to right if bandSorted[i] is set
+	private final double[] bandYs;
+	private final int[] bandStart;
+	private final int[] bandEdges;
+	private final boolean[] bandSorted;
+
+	// horizontal edges (y, x1, x2), sorted by y and x1, where x1 <= x2; for
+	// each edge, horizontalMaxX stores the maximum x2 of the preceding edges
+	// with the same y (including the edge itself)
+	private final double[] horizontals;
+	private final double[] horizontalMaxX;
+
+	/**
+	 * Prepares the area enclosed by the given polygons. If <i>merge</i> is
+	 * set, the area covered by any of the polygons is prepared, otherwise the
+	 * even-odd rule is applied to the polygons' outlines.
+	 *
+	 * @param polygons
+	 *            The vertices of the polygons that bound the area.
+	 * @param merge
+	 *            Whether to prepare the union of the given polygons.
+	 */
+	PreparedGeometry(Point[][] polygons, boolean merge) {
+		Point[][] rings = merge ? union(polygons) : polygons;
+
+		// determine bounds and separate horizontal edges
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		int edgeCount = 0;
+		int horizontalCount = 0;
+		for (Point[] ring : rings) {
+			for (int i = 0; i < ring.length; i++) {
+				Point p = ring[i];
+				minX = Math.min(minX, p.x);
+				minY = Math.min(minY, p.y);
+				maxX = Math.max(maxX, p.x);
+				maxY = Math.max(maxY, p.y);
+				if (p.y == ring[(i + 1) % ring.length].y) {
+					horizontalCount++;
+				} else {
+					edgeCount++;
+				}
+			}
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		edges = new double[4 * edgeCount];
+		Double[][] horizontalEdges = new Double[horizontalCount][];
+		double[] ys = new double[2 * edgeCount];
+		int e = 0;
+		int h = 0;
+		for (Point[] ring : rings) {
+			for (int i = 0; i < ring.length; i++) {
+				Point p = ring[i];
+				Point q = ring[(i + 1) % ring.length];
+				if (p.y == q.y) {
+					horizontalEdges[h++] = new Double[] { p.y,
+							Math.min(p.x, q.x), Math.max(p.x, q.x) };
+					continue;
+				}
+				if (p.y > q.y) {
+					Point t = p;
+					p = q;
+					q = t;
+				}
+				ys[2 * e] = p.y;
+				ys[2 * e + 1] = q.y;
+				edges[4 * e] = p.x;
+				edges[4 * e + 1] = p.y;
+				edges[4 * e + 2] = q.x;
+				edges[4 * e + 3] = q.y;
+				e++;
+			}
+		}
+
+		// sort horizontal edges
+		Arrays.sort(horizontalEdges, new Comparator<Double[]>() {
+			@Override
+			public int compare(Double[] a, Double[] b) {
+				int c = Double.compare(a[0], b[0]);
+				return c != 0 ? c : Double.compare(a[1], b[1]);
+			}
+		});
+		horizontals = new double[3 * horizontalCount];
+		horizontalMaxX = new double[horizontalCount];
+		for (int i = 0; i < horizontalCount; i++) {
+			horizontals[3 * i] = horizontalEdges[i][0];
+			horizontals[3 * i + 1] = horizontalEdges[i][1];
+			horizontals[3 * i + 2] = horizontalEdges[i][2];
+			horizontalMaxX[i] = i > 0
+					&& horizontalEdges[i - 1][0]
+							.equals(horizontalEdges[i][0])
+									? Math.max(horizontalMaxX[i - 1],
+											horizontalEdges[i][2])
+									: horizontalEdges[i][2];
+		}
+
+		// determine the bands, which are bounded by the distinct y-coordinates
+		// of the edges' end points
+		Arrays.sort(ys);
+		int distinct = 0;
+		for (int i = 0; i < ys.length; i++) {
+			if (distinct == 0 || ys[i] != ys[distinct - 1]) {
+				ys[distinct++] = ys[i];
+			}
+		}
+		long entries = 0;
+		for (int i = 0; i < edgeCount; i++) {
+			entries += Arrays.binarySearch(ys, 0, distinct, edges[4 * i + 3])
+					- Arrays.binarySearch(ys, 0, distinct, edges[4 * i + 1]);
+		}
+		// XXX: in degenerate cases (e.g. for a comb-like polygon), the number
+		// of entries grows quadratically with the number of edges; we thus
+		// combine neighboring bands (whose edges cannot be sorted then) to
+		// bound the size of the index.
+		int stride = 1;
+		while (entries > (long) ENTRIES_PER_EDGE * edgeCount
+				&& stride < distinct) {
+			stride *= 2;
+			entries = entries / 2 + edgeCount;
+		}
+		int bandCount = distinct < 2 ? 0 : (distinct - 2) / stride + 1;
+		bandYs = new double[bandCount + 1];
+		for (int i = 0; i < bandCount; i++) {
+			bandYs[i] = ys[i * stride];
+		}
+		if (bandCount > 0) {
+			bandYs[bandCount] = ys[distinct - 1];
+		}
+
+		// distribute the edges into the bands
+		bandStart = new int[bandCount + 1];
+		for (int i = 0; i < edgeCount; i++) {
+			int first = getBand(edges[4 * i + 1]);
+			int last = getBand(edges[4 * i + 3]);
+			for (int b = first; b < last; b++) {
+				bandStart[b + 1]++;
+			}
+			// the upper end point may be located within a combined band
+			if (last < bandCount && bandYs[last] < edges[4 * i + 3]) {
+				bandStart[last + 1]++;
+			}
+		}
+		for (int b = 0; b < bandCount; b++) {
+			bandStart[b + 1] += bandStart[b];
+		}
+		bandEdges = new int[bandStart[bandCount]];
+		int[] fill = Arrays.copyOf(bandStart, bandCount);
+		for (int i = 0; i < edgeCount; i++) {
+			int first = getBand(edges[4 * i + 1]);
+			int last = getBand(edges[4 * i + 3]);
+			if (last < bandCount && bandYs[last] < edges[4 * i + 3]) {
+				last++;
+			}
+			for (int b = first; b < last; b++) {
+				bandEdges[fill[b]++] = i;
+			}
+		}
+		bandSorted = new boolean[bandCount];
+		if (stride == 1) {
+			for (int b = 0; b < bandCount; b++) {
+				bandSorted[b] = sortBand(b);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the {@link Point} given by its coordinates is contained
+	 * within the prepared area (or located on its outline).
+	 *
+	 * @param x
+	 *            The x-coordinate of the {@link Point} to test.
+	 * @param y
+	 *            The y-coordinate of the {@link Point} to test.
+	 * @return <code>true</code> if the {@link Point} is contained,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean contains(double x, double y) {
+		if (x < minX - EPSILON || x > maxX + EPSILON || y < minY - EPSILON
+				|| y > maxY + EPSILON) {
+			return false;
+		}
+		return isOnOutline(x, y) || isInside(x, y);
+	}
+
+	/**
+	 * Checks whether the given {@link Point} is contained within the prepared
+	 * area (or located on its outline).
+	 *
+	 * @param p
+	 *            The {@link Point} to test.
+	 * @return <code>true</code> if the {@link Point} is contained,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean contains(Point p) {
+		return contains(p.x, p.y);
+	}
+
+	/**
+	 * Checks whether the given {@link Rectangle} is fully contained within the
+	 * prepared area, i.e. whether its center is contained and the outline
+	 * does not pass through its interior.
+	 *
+	 * @param r
+	 *            The {@link Rectangle} to test.
+	 * @return <code>true</code> if the {@link Rectangle} is contained,
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean contains(Rectangle r) {
+		double x1 = r.x + EPSILON;
+		double y1 = r.y + EPSILON;
+		double x2 = r.x + r.width - EPSILON;
+		double y2 = r.y + r.height - EPSILON;
+		// degenerated rectangles are regarded as a line segment (or point)
+		if (x1 > x2 || y1 > y2) {
+			return containsSegment(r.x, r.y, r.x + r.width, r.y + r.height);
+		}
+		return !hasEdgeWithin(x1, y1, x2, y2)
+				&& contains(r.x + r.width / 2, r.y + r.height / 2);
+	}
+
+	// returns true if the segment from (x1, y1) to (x2, y2) is contained,
+	// i.e. its end points as well as all the pieces into which it is split
+	// by the edges are contained (which is tested via their midpoints)
+	private boolean containsSegment(double x1, double y1, double x2,
+			double y2) {
+		if (!contains(x1, y1) || !contains(x2, y2)) {
+			return false;
+		}
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		if (dx == 0 && dy == 0) {
+			return true;
+		}
+		// the parameters (within (0, 1)) at which the segment meets an edge
+		double[] ts = new double[8];
+		int count = 0;
+		int edgeCount = edges.length / 4;
+		int horizontalCount = horizontalMaxX.length;
+		for (int i = 0; i < edgeCount + horizontalCount; i++) {
+			double ax, ay, bx, by;
+			if (i < edgeCount) {
+				ax = edges[4 * i];
+				ay = edges[4 * i + 1];
+				bx = edges[4 * i + 2];
+				by = edges[4 * i + 3];
+			} else {
+				int h = i - edgeCount;
+				ay = by = horizontals[3 * h];
+				ax = horizontals[3 * h + 1];
+				bx = horizontals[3 * h + 2];
+			}
+			double ex = bx - ax;
+			double ey = by - ay;
+			double denominator = dx * ey - dy * ex;
+			double cross = (ax - x1) * dy - (ay - y1) * dx;
+			if (count + 2 > ts.length) {
+				ts = Arrays.copyOf(ts, 2 * ts.length);
+			}
+			if (denominator != 0) {
+				double u = cross / denominator;
+				if (u >= 0 && u <= 1) {
+					ts[count++] = ((ax - x1) * ey - (ay - y1) * ex)
+							/ denominator;
+				}
+			} else if (cross == 0) {
+				// collinear edges overlap the segment between their end points
+				double length = dx * dx + dy * dy;
+				ts[count++] = ((ax - x1) * dx + (ay - y1) * dy) / length;
+				ts[count++] = ((bx - x1) * dx + (by - y1) * dy) / length;
+			}
+		}
+		Arrays.sort(ts, 0, count);
+		double t = 0;
+		for (int i = 0; i <= count; i++) {
+			double next = i < count ? Math.min(1, ts[i]) : 1;
+			if (next > t) {
+				double mid = (t + next) / 2;
+				if (!contains(x1 + mid * dx, y1 + mid * dy)) {
+					return false;
+				}
+				t = next;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the bounds of the prepared area.
+	 *
+	 * @return A new {@link Rectangle} representing the bounds.
+	 */
+	public Rectangle getBounds() {
+		if (minX > maxX) {
+			return new Rectangle();
+		}
+		return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	// returns the index of the band containing the given y-coordinate (w.r.t.
+	// the half-open interval [bandYs[i], bandYs[i + 1]))
+	private int getBand(double y) {
+		int low = 0;
+		int high = bandYs.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (bandYs[mid + 1] <= y) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private double getX(int edge, double y) {
+		double y1 = edges[4 * edge + 1];
+		double y2 = edges[4 * edge + 3];
+		if (y <= y1) {
+			return edges[4 * edge];
+		} else if (y >= y2) {
+			return edges[4 * edge + 2];
+		}
+		double x1 = edges[4 * edge];
+		return x1 + (edges[4 * edge + 2] - x1) * (y - y1) / (y2 - y1);
+	}
+
+	// returns true if an edge passes through the given (closed) rectangle
+	private boolean hasEdgeWithin(double x1, double y1, double x2,
+			double y2) {
+		int bandCount = bandSorted.length;
+		for (int b = y1 < bandYs[0] ? 0 : getBand(y1); b < bandCount
+				&& bandYs[b] <= y2; b++) {
+			double low = Math.max(bandYs[b], y1);
+			double high = Math.min(bandYs[b + 1], y2);
+			if (bandSorted[b]) {
+				// the edges that overlap [x1, x2] within the window form a
+				// contiguous range
+				int first = lowerBound(b, low, high, x1);
+				if (first < bandStart[b + 1]
+						&& Math.min(getX(bandEdges[first], low),
+								getX(bandEdges[first], high)) <= x2) {
+					return true;
+				}
+			} else {
+				for (int i = bandStart[b]; i < bandStart[b + 1]; i++) {
+					int edge = bandEdges[i];
+					double l = Math.max(low, edges[4 * edge + 1]);
+					double u = Math.min(high, edges[4 * edge + 3]);
+					if (l <= u) {
+						double xl = getX(edge, l);
+						double xu = getX(edge, u);
+						if (Math.min(xl, xu) <= x2
+								&& Math.max(xl, xu) >= x1) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		int i = lowerBoundHorizontal(y1);
+		while (i < horizontalMaxX.length && horizontals[3 * i] <= y2) {
+			// the last edge of the current y, which starts left of x2
+			int last = i;
+			while (last + 1 < horizontalMaxX.length
+					&& horizontals[3 * (last + 1)] == horizontals[3 * i]) {
+				last++;
+			}
+			int candidate = upperBoundHorizontal(i, last, x2);
+			if (candidate >= i && horizontalMaxX[candidate] >= x1) {
+				return true;
+			}
+			i = last + 1;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the given {@link Rectangle} and the prepared area have
+	 * at least one {@link Point} in common.
+	 *
+	 * @param r
+	 *            The {@link Rectangle} to test.
+	 * @return <code>true</code> if the {@link Rectangle} intersects the
+	 *         prepared area, <code>false</code> otherwise.
+	 */
+	public boolean touches(Rectangle r) {
+		double x1 = r.x - EPSILON;
+		double y1 = r.y - EPSILON;
+		double x2 = r.x + r.width + EPSILON;
+		double y2 = r.y + r.height + EPSILON;
+		if (x2 < minX || x1 > maxX || y2 < minY || y1 > maxY) {
+			return false;
+		}
+		// either the outline passes through the rectangle, or the rectangle
+		// is fully contained
+		return hasEdgeWithin(x1, y1, x2, y2) || isInside(r.x, r.y);
+	}
+
+	private boolean isInside(double x, double y) {
+		// even-odd rule, counting the crossings of the ray from (x, y) to the
+		// right with the edges of the band containing y
+		if (bandSorted.length == 0 || y < bandYs[0]
+				|| y >= bandYs[bandYs.length - 1]) {
+			return false;
+		}
+		int b = getBand(y);
+		if (bandSorted[b]) {
+			return (bandStart[b + 1] - lowerBound(b, y, y, x)) % 2 == 1;
+		}
+		boolean inside = false;
+		for (int i = bandStart[b]; i < bandStart[b + 1]; i++) {
+			int edge = bandEdges[i];
+			if (edges[4 * edge + 1] <= y && y < edges[4 * edge + 3]
+					&& getX(edge, y) > x) {
+				inside = !inside;
+			}
+		}
+		return inside;
+	}
+
+	private boolean isOnEdge(int edge, double x, double y) {
+		double x1 = edges[4 * edge];
+		double y1 = edges[4 * edge + 1];
+		double x2 = edges[4 * edge + 2];
+		double y2 = edges[4 * edge + 3];
+		if (x < Math.min(x1, x2) - EPSILON || x > Math.max(x1, x2) + EPSILON
+				|| y < y1 - EPSILON || y > y2 + EPSILON) {
+			return false;
+		}
+		// consistent with Line#contains(Point)
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		return Math.abs((x - x1) * dy - (y - y1) * dx) <= EPSILON
+				* Math.sqrt(dx * dx + dy * dy);
+	}
+
+	private boolean isOnOutline(double x, double y) {
+		int bandCount = bandSorted.length;
+		for (int b = y - EPSILON < bandYs[0] ? 0
+				: getBand(y - EPSILON); b < bandCount
+						&& bandYs[b] <= y + EPSILON; b++) {
+			int first = bandStart[b];
+			int last = bandStart[b + 1];
+			if (bandSorted[b]) {
+				double low = Math.max(bandYs[b], y - EPSILON);
+				double high = Math.min(bandYs[b + 1], y + EPSILON);
+				first = lowerBound(b, low, high, x - EPSILON);
+			}
+			for (int i = first; i < last; i++) {
+				int edge = bandEdges[i];
+				if (isOnEdge(edge, x, y)) {
+					return true;
+				}
+				if (bandSorted[b] && Math.min(getX(edge, y - EPSILON),
+						getX(edge, y + EPSILON)) > x + EPSILON) {
+					break;
+				}
+			}
+		}
+		int i = lowerBoundHorizontal(y - EPSILON);
+		while (i < horizontalMaxX.length
+				&& horizontals[3 * i] <= y + EPSILON) {
+			int last = i;
+			while (last + 1 < horizontalMaxX.length
+					&& horizontals[3 * (last + 1)] == horizontals[3 * i]) {
+				last++;
+			}
+			for (int j = upperBoundHorizontal(i, last, x + EPSILON); j >= i
+					&& horizontalMaxX[j] >= x - EPSILON; j--) {
+				if (horizontals[3 * j + 2] >= x - EPSILON) {
+					return true;
+				}
+			}
+			i = last + 1;
+		}
+		return false;
+	}
+
+	// returns the index (within bandEdges) of the first edge of the given
+	// (sorted) band, which reaches x within [low, high]
+	private int lowerBound(int band, double low, double high, double x) {
+		int first = bandStart[band];
+		int last = bandStart[band + 1];
+		while (first < last) {
+			int mid = (first + last) >>> 1;
+			int edge = bandEdges[mid];
+			if (Math.max(getX(edge, low), getX(edge, high)) < x) {
+				first = mid + 1;
+			} else {
+				last = mid;
+			}
+		}
+		return first;
+	}
+
+	// returns the index of the first horizontal edge with a y-coordinate not
+	// less than the given one
+	private int lowerBoundHorizontal(double y) {
+		int first = 0;
+		int last = horizontalMaxX.length;
+		while (first < last) {
+			int mid = (first + last) >>> 1;
+			if (horizontals[3 * mid] < y) {
+				first = mid + 1;
+			} else {
+				last = mid;
+			}
+		}
+		return first;
+	}
+
+	private boolean sortBand(int band) {
+		int from = bandStart[band];
+		int to = bandStart[band + 1];
+		final double low = bandYs[band];
+		final double high = bandYs[band + 1];
+		final double mid = (low + high) / 2;
+		Integer[] sorted = new Integer[to - from];
+		for (int i = from; i < to; i++) {
+			sorted[i - from] = bandEdges[i];
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer e, Integer f) {
+				return Double.compare(getX(e, mid), getX(f, mid));
+			}
+		});
+		// the edges may only be regarded as being sorted, if they do not
+		// cross each other within the band
+		boolean crossing = false;
+		for (int i = from; i < to; i++) {
+			bandEdges[i] = sorted[i - from];
+			if (i > from && (getX(bandEdges[i - 1], low) > getX(bandEdges[i],
+					low)
+					|| getX(bandEdges[i - 1], high) > getX(bandEdges[i],
+							high))) {
+				crossing = true;
+			}
+		}
+		return !crossing;
+	}
+
+	// returns the index of the last horizontal edge within [first, last],
+	// which starts left of (or at) the given x-coordinate, or first - 1
+	private int upperBoundHorizontal(int first, int last, double x) {
+		int low = first;
+		int high = last + 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (horizontals[3 * mid + 1] <= x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low - 1;
+	}
+
+}
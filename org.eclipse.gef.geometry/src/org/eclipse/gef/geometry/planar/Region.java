@@ -15,7 +15,6 @@ package org.eclipse.gef.geometry.planar;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -239,7 +238,7 @@ public class Region extends AbstractMultiShape
 	 * @return the intersection {@link Point}s
 	 */
 	public Point[] getOutlineIntersections(ICurve c) {
-		Set<Point> intersections = new HashSet<>(0);
+		Set<Point> intersections = new PointSet();
 
 		for (Line seg : getOutlineSegments()) {
 			intersections.addAll(Arrays.asList(seg.getIntersections(c)));
@@ -342,6 +341,25 @@ public class Region extends AbstractMultiShape
 		return getCopy().translate(d.x, d.y);
 	}
 
+	/**
+	 * Prepares this {@link Region} for a large number of containment and
+	 * intersection queries. The rectangles of this {@link Region} are merged,
+	 * so that only its outline is indexed. The returned
+	 * {@link PreparedGeometry} does not reflect subsequent changes of this
+	 * {@link Region}.
+	 *
+	 * @return A new {@link PreparedGeometry} for the area covered by this
+	 *         {@link Region}.
+	 * @since 5.1
+	 */
+	public PreparedGeometry prepare() {
+		Point[][] polygons = new Point[rects.size()][];
+		for (int i = 0; i < polygons.length; i++) {
+			polygons[i] = rects.get(i).getPoints();
+		}
+		return new PreparedGeometry(polygons, true);
+	}
+
 	@Override
 	public Region scale(double factor) {
 		return scale(factor, factor);
@@ -506,6 +506,24 @@ public class Ring extends AbstractMultiShape
 		}
 	}
 
+	/**
+	 * Prepares this {@link Ring} for a large number of containment and
+	 * intersection queries. The triangles of this {@link Ring} are merged, so
+	 * that only its outline is indexed. The returned {@link PreparedGeometry}
+	 * does not reflect subsequent changes of this {@link Ring}.
+	 *
+	 * @return A new {@link PreparedGeometry} for the area covered by this
+	 *         {@link Ring}.
+	 * @since 5.1
+	 */
+	public PreparedGeometry prepare() {
+		Point[][] polygons = new Point[triangles.size()][];
+		for (int i = 0; i < polygons.length; i++) {
+			polygons[i] = triangles.get(i).getPoints();
+		}
+		return new PreparedGeometry(polygons, true);
+	}
+
 	/**
 	 * Directly rotates this {@link Ring} counter-clock-wise around its center
 	 * {@link Point} by the given {@link Angle}. Direct adaptation means, that
@@ -142,7 +142,7 @@ class ShapeUtils {
 
 		for (ICurve segC : multiShape.getOutlineSegments()) {
 			for (BezierCurve seg : segC.toBezier()) {
-				Set<Point> inters = new HashSet<>();
+				Set<Point> inters = new PointSet();
 				Set<IntervalPair> ips = c.getIntersectionIntervalPairs(seg,
 						inters);
 				for (IntervalPair ip : ips) {
@@ -330,7 +330,7 @@ class ShapeUtils {
 
 		for (ICurve segC : shape.getOutlineSegments()) {
 			for (BezierCurve seg : segC.toBezier()) {
-				Set<Point> inters = new HashSet<>();
+				Set<Point> inters = new PointSet();
 				c.getIntersectionIntervalPairs(seg, inters);
 				for (Point poi : inters) {
 					intersectionParams.add(c.getParameterAt(poi));
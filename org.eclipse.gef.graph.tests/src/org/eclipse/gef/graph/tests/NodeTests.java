@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.junit.Test;
+
+public class NodeTests {
+
+	@Test
+	public void adjacencyFollowsEdgeChanges() {
+		Node a = new Node();
+		Node b = new Node();
+		Node c = new Node();
+		Edge ab = new Edge(a, b);
+		Graph g = new Graph(Arrays.asList(a, b, c), Arrays.asList(ab));
+
+		Set<Edge> outgoingA = a.getOutgoingEdgesUnmodifiable();
+		Set<Node> successorsA = a.getSuccessorNodesUnmodifiable();
+		Set<Node> predecessorsC = c.getPredecessorNodesUnmodifiable();
+		assertEquals(Collections.singleton(ab), outgoingA);
+		assertEquals(Collections.singleton(b), successorsA);
+		assertTrue(predecessorsC.isEmpty());
+
+		// add edge
+		Edge ac = new Edge(a, c);
+		g.getEdges().add(ac);
+		assertEquals(2, outgoingA.size());
+		assertEquals(2, successorsA.size());
+		assertEquals(Collections.singleton(a), predecessorsC);
+		assertEquals(Collections.singleton(ac), c.getIncomingEdges());
+
+		// change target of contained edge
+		ab.setTarget(c);
+		assertTrue(b.getIncomingEdges().isEmpty());
+		assertTrue(b.getPredecessorNodes().isEmpty());
+		assertEquals(Collections.singleton(c), successorsA);
+		assertEquals(2, c.getIncomingEdges().size());
+
+		// remove one of the parallel edges
+		g.getEdges().remove(ac);
+		assertEquals(Collections.singleton(ab), outgoingA);
+		assertEquals(Collections.singleton(c), successorsA);
+		assertEquals(Collections.singleton(a), predecessorsC);
+
+		// remove last edge
+		g.getEdges().clear();
+		assertTrue(outgoingA.isEmpty());
+		assertTrue(successorsA.isEmpty());
+		assertTrue(predecessorsC.isEmpty());
+		assertTrue(a.getNeighbors().isEmpty());
+	}
+
+	@Test
+	public void adjacencyIsLocalToGraph() {
+		Node n = new Node();
+		Node m = new Node();
+		Node ma = new Node();
+		Node mb = new Node();
+		Edge mab = new Edge(ma, mb);
+		Graph mg = new Graph(Arrays.asList(ma, mb), Arrays.asList(mab));
+		m.setNestedGraph(mg);
+		// edge from the outer graph into the nested graph
+		Edge nma = new Edge(n, ma);
+		new Graph(Arrays.asList(n, m), Arrays.asList(nma));
+
+		assertEquals(Collections.singleton(ma), n.getSuccessorNodes());
+		// the outer edge is not a local incoming edge of the nested node
+		assertEquals(Collections.singleton(mab), mb.getIncomingEdges());
+		assertTrue(ma.getIncomingEdges().isEmpty());
+		assertTrue(ma.getPredecessorNodesUnmodifiable().isEmpty());
+		assertEquals(Collections.singleton(mb), ma.getSuccessorNodesUnmodifiable());
+	}
+
+	@Test
+	public void adjacencyWithoutGraph() {
+		Node n = new Node();
+		assertTrue(n.getIncomingEdges().isEmpty());
+		assertTrue(n.getOutgoingEdgesUnmodifiable().isEmpty());
+		assertTrue(n.getPredecessorNodes().isEmpty());
+		assertTrue(n.getSuccessorNodesUnmodifiable().isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unmodifiableViews() {
+		Node a = new Node();
+		Node b = new Node();
+		new Graph(Arrays.asList(a, b), Arrays.asList(new Edge(a, b)));
+		a.getOutgoingEdgesUnmodifiable().clear();
+	}
+}
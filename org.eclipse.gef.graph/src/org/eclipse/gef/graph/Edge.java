@@ -297,9 +297,9 @@ public class Edge implements IAttributeStore {
 	 *            The new {@link Graph} for this {@link Edge}.
 	 */
 	void setGraph(Graph graph) {
-		if (graph != null && !graph.getEdges().contains(this)) {
-			throw new IllegalArgumentException("Edge is not contained in graph " + graph);
-		}
+		// XXX: Only called by the graph when this edge has been added to
+		// (or removed from) its edges, so we do not have to check
+		// containment (which would make graph construction quadratic).
 		this.graph = graph;
 	}
 
@@ -310,7 +310,11 @@ public class Edge implements IAttributeStore {
 	 *            The new source {@link Node} for this {@link Edge}.
 	 */
 	public void setSource(Node source) {
+		Node oldSource = this.source;
 		this.source = source;
+		if (graph != null && oldSource != source) {
+			graph.edgeChanged(this, oldSource, target);
+		}
 	}
 
 	/**
@@ -320,7 +324,11 @@ public class Edge implements IAttributeStore {
 	 *            The new target {@link Node} for this {@link Edge}.
 	 */
 	public void setTarget(Node target) {
+		Node oldTarget = this.target;
 		this.target = target;
+		if (graph != null && oldTarget != target) {
+			graph.edgeChanged(this, source, oldTarget);
+		}
 	}
 
 	@Override
@@ -17,10 +17,13 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -297,6 +300,48 @@ public final class Graph implements IAttributeStore {
 		}
 	}
 
+	/**
+	 * Incidence information of a single {@link Node} with respect to the
+	 * {@link Edge}s of a {@link Graph}. The incident edges and adjacent nodes
+	 * are reference counted, so that multiple (parallel) edges between the
+	 * same nodes are properly taken into account. Unmodifiable views of the
+	 * respective key sets are created once and can be handed out without
+	 * additional allocations.
+	 */
+	static final class Incidence {
+
+		private final Map<Edge, Integer> incomingEdges = new IdentityHashMap<>();
+		private final Map<Edge, Integer> outgoingEdges = new IdentityHashMap<>();
+		private final Map<Node, Integer> predecessorNodes = new IdentityHashMap<>();
+		private final Map<Node, Integer> successorNodes = new IdentityHashMap<>();
+
+		final Set<Edge> incomingEdgesUnmodifiable = Collections.unmodifiableSet(incomingEdges.keySet());
+		final Set<Edge> outgoingEdgesUnmodifiable = Collections.unmodifiableSet(outgoingEdges.keySet());
+		final Set<Node> predecessorNodesUnmodifiable = Collections.unmodifiableSet(predecessorNodes.keySet());
+		final Set<Node> successorNodesUnmodifiable = Collections.unmodifiableSet(successorNodes.keySet());
+
+		private static <T> void decrement(Map<T, Integer> counts, T key) {
+			Integer count = counts.get(key);
+			if (count == null) {
+				return;
+			}
+			if (count.intValue() <= 1) {
+				counts.remove(key);
+			} else {
+				counts.put(key, count - 1);
+			}
+		}
+
+		private static <T> void increment(Map<T, Integer> counts, T key) {
+			Integer count = counts.get(key);
+			counts.put(key, count == null ? 1 : count + 1);
+		}
+
+		boolean isEmpty() {
+			return incomingEdges.isEmpty() && outgoingEdges.isEmpty();
+		}
+	}
+
 	/**
 	 * The name of the {@link #getNodes() nodes property}.
 	 */
@@ -332,6 +377,14 @@ public final class Graph implements IAttributeStore {
 	 */
 	private Node nestingNode; // when contained as a nested graph within a node
 
+	/**
+	 * Incidence index, mapping the source and target {@link Node}s of all
+	 * {@link Edge}s of this {@link Graph} to their respective
+	 * {@link Incidence}. It is maintained incrementally when edges are added
+	 * or removed, or when the source or target of a contained edge changes.
+	 */
+	private final Map<Node, Incidence> incidences = new IdentityHashMap<>();
+
 	/**
 	 * Default constructor, using empty collections for attributes, nodes, and
 	 * edges.
@@ -372,11 +425,12 @@ public final class Graph implements IAttributeStore {
 			@Override
 			public void onChanged(ListChangeListener.Change<? extends Node> c) {
 				while (c.next()) {
-					for (Node n : c.getAddedSubList()) {
-						n.setGraph(Graph.this);
-					}
 					for (Node n : c.getRemoved()) {
 						n.setGraph(null);
+						removeIncidenceIfUnused(n);
+					}
+					for (Node n : c.getAddedSubList()) {
+						n.setGraph(Graph.this);
 					}
 				}
 			}
@@ -385,12 +439,14 @@ public final class Graph implements IAttributeStore {
 			@Override
 			public void onChanged(ListChangeListener.Change<? extends Edge> c) {
 				while (c.next()) {
-					for (Edge e : c.getAddedSubList()) {
-						e.setGraph(Graph.this);
-					}
 					for (Edge e : c.getRemoved()) {
+						unindex(e, e.getSource(), e.getTarget());
 						e.setGraph(null);
 					}
+					for (Edge e : c.getAddedSubList()) {
+						e.setGraph(Graph.this);
+						index(e, e.getSource(), e.getTarget());
+					}
 				}
 			}
 		});
@@ -403,6 +459,27 @@ public final class Graph implements IAttributeStore {
 		return attributesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Updates the incidence index in case the source or target of the given
+	 * contained {@link Edge} changed.
+	 *
+	 * @param edge
+	 *            The {@link Edge} whose source or target changed.
+	 * @param oldSource
+	 *            The previous source {@link Node} of the {@link Edge}.
+	 * @param oldTarget
+	 *            The previous target {@link Node} of the {@link Edge}.
+	 */
+	void edgeChanged(Edge edge, Node oldSource, Node oldTarget) {
+		// an edge may be contained more than once, so re-index every occurrence
+		Incidence sourceIncidence = incidences.get(oldSource);
+		Integer occurrences = sourceIncidence == null ? null : sourceIncidence.outgoingEdges.get(edge);
+		for (int i = 0; occurrences != null && i < occurrences; i++) {
+			unindex(edge, oldSource, oldTarget);
+			index(edge, edge.getSource(), edge.getTarget());
+		}
+	}
+
 	/**
 	 * Returns a read-only list property containing the {@link Edge}s of this
 	 * {@link Graph}.
@@ -427,6 +504,27 @@ public final class Graph implements IAttributeStore {
 		return edgesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Returns the {@link Incidence} of the given {@link Node} with respect to
+	 * the {@link Edge}s of this {@link Graph}, or <code>null</code> if the
+	 * {@link Node} neither is contained nor has incident {@link Edge}s.
+	 *
+	 * @param node
+	 *            The {@link Node} for which to return the {@link Incidence}.
+	 * @return The {@link Incidence} of the given {@link Node}, or
+	 *         <code>null</code>.
+	 */
+	Incidence getIncidence(Node node) {
+		Incidence incidence = incidences.get(node);
+		if (incidence == null && node.getGraph() == this) {
+			// create incidence for contained nodes eagerly, so that views
+			// handed out for them reflect later changes
+			incidence = new Incidence();
+			incidences.put(node, incidence);
+		}
+		return incidence;
+	}
+
 	/**
 	 * Returns the {@link Node} in which this {@link Graph} is nested. Returns
 	 * <code>null</code> when this {@link Graph} is not nested.
@@ -438,6 +536,15 @@ public final class Graph implements IAttributeStore {
 		return nestingNode;
 	}
 
+	private Incidence getOrCreateIncidence(Node node) {
+		Incidence incidence = incidences.get(node);
+		if (incidence == null) {
+			incidence = new Incidence();
+			incidences.put(node, incidence);
+		}
+		return incidence;
+	}
+
 	/**
 	 * Returns the nodes of this Graph.
 	 *
@@ -460,6 +567,15 @@ public final class Graph implements IAttributeStore {
 		}
 	}
 
+	private void index(Edge edge, Node source, Node target) {
+		Incidence sourceIncidence = getOrCreateIncidence(source);
+		Incidence.increment(sourceIncidence.outgoingEdges, edge);
+		Incidence.increment(sourceIncidence.successorNodes, target);
+		Incidence targetIncidence = getOrCreateIncidence(target);
+		Incidence.increment(targetIncidence.incomingEdges, edge);
+		Incidence.increment(targetIncidence.predecessorNodes, source);
+	}
+
 	/**
 	 * Returns a read-only list property containing the {@link Node}s of this
 	 * {@link Graph}.
@@ -470,6 +586,13 @@ public final class Graph implements IAttributeStore {
 		return nodesProperty.getReadOnlyProperty();
 	}
 
+	private void removeIncidenceIfUnused(Node node) {
+		Incidence incidence = incidences.get(node);
+		if (incidence != null && incidence.isEmpty() && node.getGraph() != this) {
+			incidences.remove(node);
+		}
+	}
+
 	/**
 	 * Sets the nesting {@link Node} of this {@link Graph}.
 	 *
@@ -530,4 +653,19 @@ public final class Graph implements IAttributeStore {
 		return sb.toString();
 	}
 
+	private void unindex(Edge edge, Node source, Node target) {
+		Incidence sourceIncidence = incidences.get(source);
+		if (sourceIncidence != null) {
+			Incidence.decrement(sourceIncidence.outgoingEdges, edge);
+			Incidence.decrement(sourceIncidence.successorNodes, target);
+			removeIncidenceIfUnused(source);
+		}
+		Incidence targetIncidence = incidences.get(target);
+		if (targetIncidence != null) {
+			Incidence.decrement(targetIncidence.incomingEdges, edge);
+			Incidence.decrement(targetIncidence.predecessorNodes, source);
+			removeIncidenceIfUnused(target);
+		}
+	}
+
 }
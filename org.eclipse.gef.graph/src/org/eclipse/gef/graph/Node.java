@@ -363,14 +363,26 @@ public class Node implements IAttributeStore {
 			return Collections.emptySet();
 		}
 		Set<Edge> incoming = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getTarget() == this) {
-				incoming.add(e);
-			}
-		}
+		incoming.addAll(getIncomingEdgesUnmodifiable());
 		return incoming;
 	}
 
+	/**
+	 * Returns an unmodifiable view on the local incoming {@link Edge}s of this
+	 * {@link Node}, as provided by the incidence index of the
+	 * {@link #getGraph() associated graph}. In contrast to
+	 * {@link #getIncomingEdges()}, no copy is created, i.e. the returned
+	 * {@link Set} reflects subsequent changes as long as this {@link Node} is
+	 * contained in the {@link #getGraph() associated graph}.
+	 *
+	 * @return An unmodifiable view on the local incoming {@link Edge}s.
+	 * @since 5.1
+	 */
+	public Set<Edge> getIncomingEdgesUnmodifiable() {
+		Graph.Incidence incidence = getIncidence();
+		return incidence == null ? Collections.<Edge>emptySet() : incidence.incomingEdgesUnmodifiable;
+	}
+
 	/**
 	 * Returns all (local) neighbors of this {@link Node}, i.e. the union of the
 	 * {@link #getPredecessorNodes()} and {@link #getSuccessorNodes()} .
@@ -384,6 +396,10 @@ public class Node implements IAttributeStore {
 		return neighbors;
 	}
 
+	private Graph.Incidence getIncidence() {
+		return graph == null ? null : graph.getIncidence(this);
+	}
+
 	/**
 	 * Returns the {@link Graph} that is nested inside of this {@link Node}. May
 	 * be <code>null</code>.
@@ -407,14 +423,26 @@ public class Node implements IAttributeStore {
 			return Collections.emptySet();
 		}
 		Set<Edge> outgoing = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getSource() == this) {
-				outgoing.add(e);
-			}
-		}
+		outgoing.addAll(getOutgoingEdgesUnmodifiable());
 		return outgoing;
 	}
 
+	/**
+	 * Returns an unmodifiable view on the local outgoing {@link Edge}s of this
+	 * {@link Node}, as provided by the incidence index of the
+	 * {@link #getGraph() associated graph}. In contrast to
+	 * {@link #getOutgoingEdges()}, no copy is created, i.e. the returned
+	 * {@link Set} reflects subsequent changes as long as this {@link Node} is
+	 * contained in the {@link #getGraph() associated graph}.
+	 *
+	 * @return An unmodifiable view on the local outgoing {@link Edge}s.
+	 * @since 5.1
+	 */
+	public Set<Edge> getOutgoingEdgesUnmodifiable() {
+		Graph.Incidence incidence = getIncidence();
+		return incidence == null ? Collections.<Edge>emptySet() : incidence.outgoingEdgesUnmodifiable;
+	}
+
 	/**
 	 * Returns the local predecessor {@link Node}s of this {@link Node}. Only
 	 * the {@link #getGraph() associated graph} is scanned for predecessor
@@ -424,12 +452,26 @@ public class Node implements IAttributeStore {
 	 */
 	public Set<Node> getPredecessorNodes() {
 		Set<Node> predecessors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		for (Edge incoming : getIncomingEdges()) {
-			predecessors.add(incoming.getSource());
-		}
+		predecessors.addAll(getPredecessorNodesUnmodifiable());
 		return predecessors;
 	}
 
+	/**
+	 * Returns an unmodifiable view on the local predecessor {@link Node}s of
+	 * this {@link Node}, as provided by the incidence index of the
+	 * {@link #getGraph() associated graph}. In contrast to
+	 * {@link #getPredecessorNodes()}, no copy is created, i.e. the returned
+	 * {@link Set} reflects subsequent changes as long as this {@link Node} is
+	 * contained in the {@link #getGraph() associated graph}.
+	 *
+	 * @return An unmodifiable view on the local predecessor {@link Node}s.
+	 * @since 5.1
+	 */
+	public Set<Node> getPredecessorNodesUnmodifiable() {
+		Graph.Incidence incidence = getIncidence();
+		return incidence == null ? Collections.<Node>emptySet() : incidence.predecessorNodesUnmodifiable;
+	}
+
 	/**
 	 * Returns the local successor {@link Node}s of this {@link Node}. Only the
 	 * {@link #getGraph() associated graph} is scanned for successor nodes, and
@@ -439,12 +481,26 @@ public class Node implements IAttributeStore {
 	 */
 	public Set<Node> getSuccessorNodes() {
 		Set<Node> successors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		for (Edge outgoing : getOutgoingEdges()) {
-			successors.add(outgoing.getTarget());
-		}
+		successors.addAll(getSuccessorNodesUnmodifiable());
 		return successors;
 	}
 
+	/**
+	 * Returns an unmodifiable view on the local successor {@link Node}s of this
+	 * {@link Node}, as provided by the incidence index of the
+	 * {@link #getGraph() associated graph}. In contrast to
+	 * {@link #getSuccessorNodes()}, no copy is created, i.e. the returned
+	 * {@link Set} reflects subsequent changes as long as this {@link Node} is
+	 * contained in the {@link #getGraph() associated graph}.
+	 *
+	 * @return An unmodifiable view on the local successor {@link Node}s.
+	 * @since 5.1
+	 */
+	public Set<Node> getSuccessorNodesUnmodifiable() {
+		Graph.Incidence incidence = getIncidence();
+		return incidence == null ? Collections.<Node>emptySet() : incidence.successorNodesUnmodifiable;
+	}
+
 	/**
 	 * Sets the {@link Graph} to which this {@link Node} belongs to the given
 	 * value.
@@ -453,9 +509,9 @@ public class Node implements IAttributeStore {
 	 *            The new {@link Graph} for this {@link Node}.
 	 */
 	void setGraph(Graph graph) {
-		if (graph != null && !graph.getNodes().contains(this)) {
-			throw new IllegalArgumentException("Node is not contained in graph " + graph);
-		}
+		// XXX: Only called by the graph when this node has been added to
+		// (or removed from) its nodes, so we do not have to check
+		// containment (which would make graph construction quadratic).
 		this.graph = graph;
 	}
 
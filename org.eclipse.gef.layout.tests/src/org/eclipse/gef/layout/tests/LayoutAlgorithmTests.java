@@ -10,8 +10,32 @@
  *******************************************************************************/
 package org.eclipse.gef.layout.tests;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.IIncrementalLayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ILayoutFilter;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutGraph;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.algorithms.SpaceTreeLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.TreeLayoutAlgorithm;
 import org.eclipse.gef.layout.algorithms.TreeLayoutHelper;
+import org.eclipse.gef.layout.algorithms.WalkerTreeLayout;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -25,10 +49,25 @@ public class LayoutAlgorithmTests {
 
 	/* Use a private subclass to access protected members: */
 	private static class TestNode extends TreeLayoutHelper.TreeNode {
+		private List<TestNode> precomputedNodes;
+
 		protected TestNode() {
 			super(null, null);
 		}
 
+		protected TestNode(List<TestNode> precomputedNodes) {
+			this();
+			this.precomputedNodes = precomputedNodes;
+		}
+
+		@Override
+		protected void precomputeNode() {
+			if (precomputedNodes != null) {
+				Assert.assertTrue(numOfLeaves > 0);
+				precomputedNodes.add(this);
+			}
+		}
+
 		void addDescendant(TestNode descendant) {
 			addChild(descendant);
 			precomputeTree();
@@ -83,4 +122,1010 @@ public class LayoutAlgorithmTests {
 		Assert.assertFalse(node3.isAncestorOf(node4));
 		Assert.assertFalse(node4.isAncestorOf(node3));
 	}
+
+	/**
+	 * Ensures that TreeLayoutHelper.TreeNode#precomputeNode() is called for
+	 * each node of the tree, descendants before their ancestors.
+	 */
+	@Test
+	public void testTreeLayoutObserverTreeNodePrecomputeNode() {
+		List<TestNode> precomputedNodes = new ArrayList<>();
+		TestNode root = new TestNode(precomputedNodes);
+		TestNode child = new TestNode(precomputedNodes);
+		TestNode grandChild = new TestNode(precomputedNodes);
+		child.addDescendant(grandChild);
+		Assert.assertEquals(Arrays.asList(grandChild, child), precomputedNodes);
+		precomputedNodes.clear();
+		root.addDescendant(child);
+		Assert.assertEquals(Arrays.asList(grandChild, child, root),
+				precomputedNodes);
+	}
+
+	/**
+	 * Creates a random (but reproducible) graph with the given number of
+	 * nodes, which is placed within a layout context of fixed bounds.
+	 */
+	private static LayoutContext createLayoutContext(int size, long seed) {
+		Random random = new Random(seed);
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Node node = new Node();
+			LayoutProperties.setLocation(node, new Point(
+					random.nextDouble() * 400, random.nextDouble() * 300));
+			LayoutProperties.setSize(node, new Dimension(20, 10));
+			nodes.add(node);
+			if (i > 0) {
+				edges.add(new Edge(nodes.get(random.nextInt(i)), node));
+			}
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 400, 300));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		return context;
+	}
+
+	private static Point[] applySpringLayout(LayoutContext context,
+			SpringLayoutAlgorithm algorithm) {
+		algorithm.setRandom(false);
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(20);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+		List<Node> nodes = context.getGraph().getNodes();
+		Point[] locations = new Point[nodes.size()];
+		for (int i = 0; i < locations.length; i++) {
+			locations[i] = LayoutProperties.getLocation(nodes.get(i));
+		}
+		return locations;
+	}
+
+	/**
+	 * Ensures that approximating the repulsive forces within the
+	 * {@link SpringLayoutAlgorithm} yields the same results as the exact
+	 * computation in case the approximation threshold is <code>0</code>.
+	 */
+	@Test
+	public void testSpringLayoutApproximation() {
+		Point[] exact = applySpringLayout(createLayoutContext(60, 0),
+				new SpringLayoutAlgorithm());
+
+		SpringLayoutAlgorithm approximating = new SpringLayoutAlgorithm();
+		approximating.setApproximate(true);
+		approximating.setApproximationTheta(0);
+		Point[] approximated = applySpringLayout(createLayoutContext(60, 0),
+				approximating);
+
+		for (int i = 0; i < exact.length; i++) {
+			Assert.assertEquals(exact[i].x, approximated[i].x, 1e-3);
+			Assert.assertEquals(exact[i].y, approximated[i].y, 1e-3);
+		}
+
+		// using an actual approximation should still place all nodes
+		approximating.setApproximationTheta(0.8);
+		for (Point p : applySpringLayout(createLayoutContext(60, 0),
+				approximating)) {
+			Assert.assertFalse(Double.isNaN(p.x) || Double.isNaN(p.y));
+		}
+	}
+
+	/**
+	 * Ensures that computing the forces of the {@link SpringLayoutAlgorithm}
+	 * in parallel yields results that are identical to the ones of the
+	 * sequential computation (in exact and approximated mode).
+	 */
+	@Test
+	public void testSpringLayoutParallelism() {
+		for (boolean approximate : new boolean[] { false, true }) {
+			SpringLayoutAlgorithm sequential = new SpringLayoutAlgorithm();
+			sequential.setApproximate(approximate);
+			Point[] expected = applySpringLayout(createLayoutContext(200, 1),
+					sequential);
+
+			SpringLayoutAlgorithm parallel = new SpringLayoutAlgorithm();
+			parallel.setApproximate(approximate);
+			parallel.setParallelism(4);
+			Point[] actual = applySpringLayout(createLayoutContext(200, 1),
+					parallel);
+
+			for (int i = 0; i < expected.length; i++) {
+				Assert.assertEquals(expected[i].x, actual[i].x, 0);
+				Assert.assertEquals(expected[i].y, actual[i].y, 0);
+			}
+		}
+	}
+
+	/**
+	 * Ensures that the {@link SpringLayoutAlgorithm} writes back its results
+	 * when it is applied directly, i.e. outside of a layout pass of the
+	 * {@link LayoutContext}, and that these equal the ones of a layout pass.
+	 */
+	@Test
+	public void testSpringLayoutAppliedDirectly() {
+		Point[] expected = applySpringLayout(createLayoutContext(60, 3),
+				new SpringLayoutAlgorithm());
+
+		LayoutContext context = createLayoutContext(60, 3);
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setRandom(false);
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(20);
+		Assert.assertFalse(context.isLayoutPassActive());
+		algorithm.applyLayout(context, true);
+
+		List<Node> nodes = context.getGraph().getNodes();
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(expected[i],
+					LayoutProperties.getLocation(nodes.get(i)));
+		}
+	}
+
+	/**
+	 * Ensures that the {@link SpringLayoutAlgorithm} reports its progress to
+	 * the progress listener of the {@link LayoutContext}.
+	 */
+	@Test
+	public void testSpringLayoutProgress() {
+		final List<Double> progress = new ArrayList<>();
+		LayoutContext context = createLayoutContext(20, 4);
+		context.setProgressListener((p) -> progress.add(p));
+		applySpringLayout(context, new SpringLayoutAlgorithm());
+		Assert.assertFalse(progress.isEmpty());
+		for (int i = 0; i < progress.size(); i++) {
+			Assert.assertTrue(progress.get(i) > 0 && progress.get(i) <= 1);
+			if (i > 0) {
+				Assert.assertTrue(progress.get(i) >= progress.get(i - 1));
+			}
+		}
+		Assert.assertEquals(1, progress.get(progress.size() - 1), 0);
+
+		// without a listener, reporting progress has no effect
+		int reported = progress.size();
+		context.setProgressListener(null);
+		context.reportProgress(0.5);
+		Assert.assertEquals(reported, progress.size());
+	}
+
+	private static Node createNode(Graph graph) {
+		Node node = new Node();
+		LayoutProperties.setLocation(node, new Point());
+		LayoutProperties.setSize(node, new Dimension(20, 10));
+		graph.getNodes().add(node);
+		return node;
+	}
+
+	private static Edge createEdge(Graph graph, Node source, Node target) {
+		Edge edge = new Edge(source, target);
+		graph.getEdges().add(edge);
+		return edge;
+	}
+
+	/**
+	 * Ensures that the {@link LayoutContext} determines the changes since the
+	 * last layout pass and passes them to an
+	 * {@link IIncrementalLayoutAlgorithm}.
+	 */
+	@Test
+	public void testIncrementalLayoutChanges() {
+		final List<String> passes = new ArrayList<>();
+		final List<Set<?>> changes = new ArrayList<>();
+		IIncrementalLayoutAlgorithm algorithm = new IIncrementalLayoutAlgorithm() {
+			@Override
+			public void applyLayout(LayoutContext layoutContext,
+					boolean clean) {
+				passes.add("full");
+			}
+
+			@Override
+			public void applyIncrementalLayout(LayoutContext layoutContext) {
+				passes.add("incremental");
+				changes.add(new HashSet<>(layoutContext.getAddedNodes()));
+				changes.add(new HashSet<>(layoutContext.getRemovedNodes()));
+				changes.add(new HashSet<>(layoutContext.getMovedNodes()));
+				changes.add(new HashSet<>(layoutContext.getAddedEdges()));
+				changes.add(new HashSet<>(layoutContext.getRemovedEdges()));
+			}
+		};
+		Graph graph = new Graph();
+		Node a = createNode(graph);
+		Node b = createNode(graph);
+		Node c = createNode(graph);
+		Edge ab = createEdge(graph, a, b);
+		createEdge(graph, b, c);
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(algorithm);
+
+		// the first pass is always a full one
+		context.applyLayout(false);
+		// no changes, so that the algorithm is not called
+		context.applyLayout(false);
+		Assert.assertEquals(Collections.singletonList("full"), passes);
+
+		Node d = createNode(graph);
+		Edge cd = createEdge(graph, c, d);
+		graph.getEdges().remove(ab);
+		graph.getNodes().remove(a);
+		LayoutProperties.setLocation(b, new Point(10, 10));
+		context.applyLayout(false);
+		Assert.assertEquals("incremental", passes.get(1));
+		Assert.assertEquals(Collections.singleton(d), changes.get(0));
+		Assert.assertEquals(Collections.singleton(a), changes.get(1));
+		Assert.assertEquals(Collections.singleton(b), changes.get(2));
+		Assert.assertEquals(Collections.singleton(cd), changes.get(3));
+		Assert.assertEquals(Collections.singleton(ab), changes.get(4));
+		// changes are only available during the layout pass
+		Assert.assertTrue(context.getAddedNodes().isEmpty());
+
+		// a clean layout pass is always a full one
+		context.applyLayout(true);
+		Assert.assertEquals("full", passes.get(2));
+	}
+
+	/**
+	 * Ensures that the {@link LayoutGraph} of a layout pass provides the
+	 * layout-relevant nodes and edges in array form, is shared within the
+	 * layout pass, and is written back at its end, only updating the nodes
+	 * that were changed.
+	 */
+	@Test
+	public void testLayoutGraph() {
+		Graph graph = new Graph();
+		final Node a = createNode(graph);
+		final Node b = createNode(graph);
+		final Node c = createNode(graph);
+		final Node hidden = createNode(graph);
+		createEdge(graph, a, b);
+		createEdge(graph, a, c);
+		createEdge(graph, c, b);
+		createEdge(graph, hidden, a);
+		LayoutProperties.setWeight(graph.getEdges().get(2), 2);
+		final int[] filtered = new int[1];
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.addLayoutFilter(new ILayoutFilter() {
+			@Override
+			public boolean isLayoutIrrelevant(Edge edge) {
+				return false;
+			}
+
+			@Override
+			public boolean isLayoutIrrelevant(Node node) {
+				filtered[0]++;
+				return node == hidden;
+			}
+		});
+		final LayoutGraph[] graphs = new LayoutGraph[2];
+		context.setLayoutAlgorithm(new ILayoutAlgorithm() {
+			@Override
+			public void applyLayout(LayoutContext layoutContext,
+					boolean clean) {
+				layoutContext.getNodes();
+				layoutContext.getEdges();
+				graphs[0] = layoutContext.getLayoutGraph();
+				graphs[1] = layoutContext.getLayoutGraph();
+				int ib = graphs[0].getId(b);
+				graphs[0].getX()[ib] += 50;
+				graphs[0].getWidth()[ib] = 30;
+				// not written back before the end of the layout pass
+				Assert.assertEquals(graphs[0].getX()[ib] - 50,
+						LayoutProperties.getLocation(b).x, 0);
+			}
+		});
+		Point locationA = LayoutProperties.getLocation(a);
+		context.applyLayout(true);
+
+		// filtered only once per layout pass
+		Assert.assertEquals(graph.getNodes().size(), filtered[0]);
+		LayoutGraph layoutGraph = graphs[0];
+		Assert.assertSame(layoutGraph, graphs[1]);
+		Assert.assertEquals(3, layoutGraph.getNodeCount());
+		Assert.assertEquals(-1, layoutGraph.getId(hidden));
+		int ia = layoutGraph.getId(a);
+		int ib = layoutGraph.getId(b);
+		int ic = layoutGraph.getId(c);
+		Assert.assertSame(b, layoutGraph.getNode(ib));
+		Assert.assertEquals(4, layoutGraph.getEdgeCount());
+		Assert.assertEquals(20, layoutGraph.getWidth()[ia], 0);
+		Assert.assertEquals(10, layoutGraph.getHeight()[ia], 0);
+
+		// the edge from the hidden node is not part of the adjacency
+		Assert.assertEquals(-1, layoutGraph.getSources()[3]);
+		Assert.assertEquals(ia, layoutGraph.getTargets()[3]);
+		Assert.assertEquals(2, layoutGraph.getWeights()[2], 0);
+		int[] outgoingOffsets = layoutGraph.getOutgoingOffsets();
+		int[] outgoingEdges = layoutGraph.getOutgoingEdges();
+		Assert.assertEquals(2, outgoingOffsets[ia + 1] - outgoingOffsets[ia]);
+		Assert.assertEquals(0, outgoingEdges[outgoingOffsets[ia]]);
+		Assert.assertEquals(1, outgoingEdges[outgoingOffsets[ia] + 1]);
+		Assert.assertEquals(0, outgoingOffsets[ib + 1] - outgoingOffsets[ib]);
+		int[] incomingOffsets = layoutGraph.getIncomingOffsets();
+		int[] incomingEdges = layoutGraph.getIncomingEdges();
+		Assert.assertEquals(0, incomingOffsets[ia + 1] - incomingOffsets[ia]);
+		Assert.assertEquals(2, incomingOffsets[ib + 1] - incomingOffsets[ib]);
+		Assert.assertEquals(2, incomingEdges[incomingOffsets[ib] + 1]);
+		Assert.assertEquals(1, incomingEdges[incomingOffsets[ic]]);
+
+		// only the changed node was written back
+		Assert.assertEquals(new Point(50, 0), LayoutProperties.getLocation(b));
+		Assert.assertEquals(new Dimension(30, 10),
+				LayoutProperties.getSize(b));
+		Assert.assertSame(locationA, LayoutProperties.getLocation(a));
+
+		// a new layout graph is created for the next layout pass
+		context.applyLayout(true);
+		Assert.assertNotSame(layoutGraph, graphs[0]);
+		Assert.assertEquals(new Point(100, 0), LayoutProperties.getLocation(b));
+	}
+
+	/**
+	 * Ensures that an incremental layout pass of the
+	 * {@link SpringLayoutAlgorithm} only re-places the neighborhood of the
+	 * changes, while keeping moved and non-movable nodes in place.
+	 */
+	@Test
+	public void testSpringLayoutIncremental() {
+		LayoutContext context = createLayoutContext(60, 2);
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		applySpringLayout(context, algorithm);
+		Graph graph = context.getGraph();
+		List<Node> nodes = new ArrayList<>(graph.getNodes());
+
+		// add a node connected to the first one, move the second one, and pin
+		// a (previous) neighbor of the first one
+		Node first = nodes.get(0);
+		Node pinned = first.getNeighbors().iterator().next();
+		pinned.getAttributes().put(LayoutProperties.MOVABLE_PROPERTY, false);
+		Node added = createNode(graph);
+		createEdge(graph, first, added);
+		Node moved = nodes.get(1);
+		LayoutProperties.setLocation(moved, new Point(200, 150));
+		Set<Node> affected = new HashSet<>(first.getNeighbors());
+		affected.addAll(moved.getNeighbors());
+		affected.add(first);
+		Point[] before = new Point[nodes.size()];
+		for (int i = 0; i < before.length; i++) {
+			before[i] = LayoutProperties.getLocation(nodes.get(i)).getCopy();
+		}
+
+		context.applyLayout(false);
+
+		for (int i = 0; i < before.length; i++) {
+			Node node = nodes.get(i);
+			if (!affected.contains(node) || node == moved || node == pinned) {
+				Assert.assertEquals(before[i],
+						LayoutProperties.getLocation(node));
+			}
+		}
+		Point location = LayoutProperties.getLocation(added);
+		Assert.assertTrue(
+				LayoutProperties.getBounds(graph).contains(location));
+		Assert.assertNotEquals(new Point(), location);
+	}
+
+	private static int countCrossings(List<Edge> edges) {
+		int crossings = 0;
+		for (int i = 0; i < edges.size(); i++) {
+			Point s1 = LayoutProperties.getLocation(edges.get(i).getSource());
+			Point t1 = LayoutProperties.getLocation(edges.get(i).getTarget());
+			for (int j = i + 1; j < edges.size(); j++) {
+				Point s2 = LayoutProperties
+						.getLocation(edges.get(j).getSource());
+				Point t2 = LayoutProperties
+						.getLocation(edges.get(j).getTarget());
+				if ((s1.x - s2.x) * (t1.x - t2.x) < 0) {
+					crossings++;
+				}
+			}
+		}
+		return crossings;
+	}
+
+	/**
+	 * Ensures that the
+	 * {@link SugiyamaLayoutAlgorithm.BarycentricCrossingReducer} removes the
+	 * crossings of a planar two-layer graph, also when the number of sweeps
+	 * is limited.
+	 */
+	@Test
+	public void testSugiyamaLayoutCrossingReduction() {
+		for (SugiyamaLayoutAlgorithm.CrossingReducer crossingReducer : new SugiyamaLayoutAlgorithm.CrossingReducer[] {
+				new SugiyamaLayoutAlgorithm.BarycentricCrossingReducer(),
+				new SugiyamaLayoutAlgorithm.BarycentricCrossingReducer(4) }) {
+			Graph graph = new Graph();
+			LayoutProperties.setBounds(graph, new Rectangle(0, 0, 300, 300));
+			List<Node> roots = new ArrayList<>();
+			List<Node> children = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				roots.add(createNode(graph));
+				children.add(createNode(graph));
+			}
+			// edges of the roots to the children in reverse order, as well as
+			// to the next child
+			List<Edge> edges = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				edges.add(createEdge(graph, roots.get(i), children.get(5 - i)));
+				if (i > 0) {
+					edges.add(createEdge(graph, roots.get(i),
+							children.get(6 - i)));
+				}
+			}
+			LayoutContext context = new LayoutContext();
+			context.setGraph(graph);
+			context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm(
+					SugiyamaLayoutAlgorithm.Direction.VERTICAL,
+					new SugiyamaLayoutAlgorithm.SimpleLayerProvider(),
+					crossingReducer));
+			context.applyLayout(true);
+			Assert.assertEquals(0, countCrossings(edges));
+		}
+	}
+
+	/**
+	 * Ensures that the
+	 * {@link SugiyamaLayoutAlgorithm.BrandesKoepfCoordinateAssigner} respects
+	 * the sizes of the nodes as well as the node and layer spacing.
+	 */
+	@Test
+	public void testSugiyamaLayoutBrandesKoepf() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(10, 10, 100, 100));
+		Node root = createNode(graph);
+		List<Node> children = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Node child = createNode(graph);
+			LayoutProperties.setSize(child, new Dimension(20 + 40 * i, 30));
+			createEdge(graph, root, child);
+			children.add(child);
+		}
+		Node grandChild = createNode(graph);
+		createEdge(graph, children.get(1), grandChild);
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm(
+				SugiyamaLayoutAlgorithm.Direction.VERTICAL, null, null, null,
+				new SugiyamaLayoutAlgorithm.BrandesKoepfCoordinateAssigner(5,
+						15)));
+		context.applyLayout(true);
+
+		// the layers are separated by the layer spacing
+		Point rootLocation = LayoutProperties.getLocation(root);
+		Assert.assertEquals(15, rootLocation.y, 1e-9);
+		double minX = Double.POSITIVE_INFINITY;
+		List<Node> sorted = new ArrayList<>(children);
+		Collections.sort(sorted, (n1, n2) -> Double.compare(
+				LayoutProperties.getLocation(n1).x,
+				LayoutProperties.getLocation(n2).x));
+		for (int i = 0; i < sorted.size(); i++) {
+			Point location = LayoutProperties.getLocation(sorted.get(i));
+			Dimension size = LayoutProperties.getSize(sorted.get(i));
+			Assert.assertEquals(15 + 5 + 15 + 15, location.y, 1e-9);
+			minX = Math.min(minX, location.x - size.width / 2);
+			// adjacent nodes are separated by the node spacing
+			if (i > 0) {
+				Point previous = LayoutProperties
+						.getLocation(sorted.get(i - 1));
+				Dimension previousSize = LayoutProperties
+						.getSize(sorted.get(i - 1));
+				Assert.assertTrue(location.x - previous.x >= (size.width
+						+ previousSize.width) / 2 + 5 - 1e-9);
+			}
+		}
+		Assert.assertEquals(
+				LayoutProperties.getLocation(children.get(1)).y + 15 + 15 + 5,
+				LayoutProperties.getLocation(grandChild).y, 1e-9);
+
+		// the layout starts at the top-left corner of the bounds, and the
+		// grand child is aligned with its parent
+		Assert.assertEquals(10, minX, 1e-9);
+		Assert.assertEquals(LayoutProperties.getLocation(children.get(1)).x,
+				LayoutProperties.getLocation(grandChild).x, 1e-9);
+		// the root is placed between its children
+		Assert.assertTrue(LayoutProperties.getLocation(sorted.get(0)).x
+				+ 1e-9 < rootLocation.x);
+		Assert.assertTrue(rootLocation.x + 1e-9 < LayoutProperties
+				.getLocation(sorted.get(3)).x);
+	}
+
+	/**
+	 * Applies a {@link SugiyamaLayoutAlgorithm} with the given
+	 * {@link SugiyamaLayoutAlgorithm.LayerProvider} to the given graph, and
+	 * returns the resulting layer of each node.
+	 */
+	private static int[] applySugiyamaLayering(Graph graph,
+			SugiyamaLayoutAlgorithm.LayerProvider layerProvider) {
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm(
+				SugiyamaLayoutAlgorithm.Direction.VERTICAL, layerProvider));
+		context.applyLayout(true);
+		List<Double> ys = new ArrayList<>();
+		for (Node node : graph.getNodes()) {
+			double y = LayoutProperties.getLocation(node).y;
+			if (!ys.contains(y)) {
+				ys.add(y);
+			}
+		}
+		Collections.sort(ys);
+		int[] layers = new int[graph.getNodes().size()];
+		for (int i = 0; i < layers.length; i++) {
+			layers[i] = ys.indexOf(
+					LayoutProperties.getLocation(graph.getNodes().get(i)).y);
+		}
+		return layers;
+	}
+
+	/**
+	 * Ensures that the
+	 * {@link SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider} minimizes
+	 * the span of the edges, while the
+	 * {@link SugiyamaLayoutAlgorithm.LongestPathLayerProvider} places all
+	 * sources on the first layer, and that both respect the direction of the
+	 * edges (except for those that close a cycle).
+	 */
+	@Test
+	public void testSugiyamaLayoutLayerProviders() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 300, 300));
+		Node a = createNode(graph);
+		Node b = createNode(graph);
+		Node c = createNode(graph);
+		Node d = createNode(graph);
+		createEdge(graph, a, b);
+		createEdge(graph, b, c);
+		createEdge(graph, d, c);
+		int[] longestPath = applySugiyamaLayering(graph,
+				new SugiyamaLayoutAlgorithm.LongestPathLayerProvider());
+		Assert.assertArrayEquals(new int[] { 0, 1, 2, 0 }, longestPath);
+		int[] networkSimplex = applySugiyamaLayering(graph,
+				new SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider());
+		Assert.assertArrayEquals(new int[] { 0, 1, 2, 1 }, networkSimplex);
+
+		// random graphs (with cycles)
+		Random random = new Random(0);
+		for (int i = 0; i < 5; i++) {
+			graph = new Graph();
+			LayoutProperties.setBounds(graph, new Rectangle(0, 0, 300, 300));
+			List<Node> nodes = new ArrayList<>();
+			for (int j = 0; j < 60; j++) {
+				nodes.add(createNode(graph));
+			}
+			for (int j = 0; j < 100; j++) {
+				createEdge(graph, nodes.get(random.nextInt(60)),
+						nodes.get(random.nextInt(60)));
+			}
+			longestPath = applySugiyamaLayering(graph,
+					new SugiyamaLayoutAlgorithm.LongestPathLayerProvider());
+			networkSimplex = applySugiyamaLayering(graph,
+					new SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider());
+			int longestPathSpan = 0;
+			int networkSimplexSpan = 0;
+			int backEdges = 0;
+			for (Edge edge : graph.getEdges()) {
+				int source = nodes.indexOf(edge.getSource());
+				int target = nodes.indexOf(edge.getTarget());
+				if (source == target) {
+					continue;
+				}
+				Assert.assertNotEquals(longestPath[source],
+						longestPath[target]);
+				Assert.assertNotEquals(networkSimplex[source],
+						networkSimplex[target]);
+				if (networkSimplex[source] > networkSimplex[target]) {
+					backEdges++;
+				}
+				longestPathSpan += Math
+						.abs(longestPath[target] - longestPath[source]);
+				networkSimplexSpan += Math
+						.abs(networkSimplex[target] - networkSimplex[source]);
+			}
+			Assert.assertTrue(backEdges < graph.getEdges().size() / 2);
+			Assert.assertTrue(networkSimplexSpan <= longestPathSpan);
+
+			// the iterations may be limited
+			int[] limited = applySugiyamaLayering(graph,
+					new SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider(0,
+							0));
+			int limitedSpan = 0;
+			for (Edge edge : graph.getEdges()) {
+				int source = nodes.indexOf(edge.getSource());
+				int target = nodes.indexOf(edge.getTarget());
+				if (source != target) {
+					Assert.assertNotEquals(limited[source], limited[target]);
+					limitedSpan += Math.abs(limited[target] - limited[source]);
+				}
+			}
+			Assert.assertTrue(networkSimplexSpan <= limitedSpan);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSugiyamaLayoutNegativeSweeps() {
+		new SugiyamaLayoutAlgorithm.BarycentricCrossingReducer(-1);
+	}
+
+	/**
+	 * Ensures that an incremental layout pass of the
+	 * {@link SugiyamaLayoutAlgorithm} keeps the order of the unaffected nodes,
+	 * so that only the added nodes are placed.
+	 */
+	@Test
+	public void testSugiyamaLayoutIncremental() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 300, 300));
+		Node root = createNode(graph);
+		List<Node> nodes = new ArrayList<>();
+		nodes.add(root);
+		for (int i = 0; i < 3; i++) {
+			Node child = createNode(graph);
+			createEdge(graph, root, child);
+			nodes.add(child);
+		}
+		Node grandChild = createNode(graph);
+		createEdge(graph, nodes.get(3), grandChild);
+		nodes.add(grandChild);
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm());
+		context.applyLayout(true);
+		List<Point> before = new ArrayList<>();
+		for (Node node : nodes) {
+			before.add(LayoutProperties.getLocation(node).getCopy());
+		}
+
+		Node added = createNode(graph);
+		createEdge(graph, nodes.get(1), added);
+		context.applyLayout(false);
+
+		for (int i = 0; i < nodes.size(); i++) {
+			Assert.assertEquals(before.get(i),
+					LayoutProperties.getLocation(nodes.get(i)));
+		}
+		// the added node is placed next to the other node on its layer
+		Point location = LayoutProperties.getLocation(added);
+		Assert.assertEquals(LayoutProperties.getLocation(grandChild).y,
+				location.y, 1e-9);
+		Assert.assertNotEquals(LayoutProperties.getLocation(grandChild).x,
+				location.x, 1e-9);
+	}
+
+	/**
+	 * Ensures that an incremental layout pass of the
+	 * {@link SugiyamaLayoutAlgorithm} does not move the unaffected nodes when
+	 * the widest layer changes (which changes the computed coordinates of all
+	 * nodes).
+	 */
+	@Test
+	public void testSugiyamaLayoutIncrementalWidestLayer() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 300, 300));
+		List<Node> nodes = new ArrayList<>();
+		Node root = createNode(graph);
+		nodes.add(root);
+		// two chains of length three
+		for (int i = 0; i < 2; i++) {
+			Node parent = root;
+			for (int j = 0; j < 3; j++) {
+				Node child = createNode(graph);
+				createEdge(graph, parent, child);
+				nodes.add(child);
+				parent = child;
+			}
+		}
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm());
+		context.applyLayout(true);
+		List<Point> before = new ArrayList<>();
+		for (Node node : nodes) {
+			before.add(LayoutProperties.getLocation(node).getCopy());
+		}
+
+		// the first layer becomes the widest one
+		Node added = createNode(graph);
+		createEdge(graph, root, added);
+		context.applyLayout(false);
+
+		for (int i = 0; i < nodes.size(); i++) {
+			Assert.assertEquals(before.get(i),
+					LayoutProperties.getLocation(nodes.get(i)));
+		}
+		// the added node is placed on the first layer
+		Point location = LayoutProperties.getLocation(added);
+		Assert.assertEquals(before.get(1).y, location.y, 1e-9);
+		Assert.assertNotEquals(before.get(1).x, location.x, 1e-9);
+		Assert.assertNotEquals(before.get(4).x, location.x, 1e-9);
+	}
+
+	/**
+	 * Ensures that an incremental layout pass of the
+	 * {@link TreeLayoutAlgorithm} only re-places the nodes whose position
+	 * within the tree changed, so that moved nodes keep their location.
+	 */
+	@Test
+	public void testTreeLayoutIncremental() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 400, 300));
+		Node root = createNode(graph);
+		Node left = createNode(graph);
+		Node right = createNode(graph);
+		createEdge(graph, root, left);
+		createEdge(graph, root, right);
+		Node leftLeaf = createNode(graph);
+		createEdge(graph, left, leftLeaf);
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new TreeLayoutAlgorithm(
+				TreeLayoutAlgorithm.TOP_DOWN, new Dimension(50, 50)));
+		context.applyLayout(true);
+		Point rootLocation = LayoutProperties.getLocation(root).getCopy();
+		Point rightLocation = LayoutProperties.getLocation(right).getCopy();
+
+		// move a node and add a child to the right node (which does not
+		// change the number of leaves)
+		LayoutProperties.setLocation(left, new Point(5, 5));
+		Node rightLeaf = createNode(graph);
+		createEdge(graph, right, rightLeaf);
+		context.applyLayout(false);
+
+		Assert.assertEquals(rootLocation, LayoutProperties.getLocation(root));
+		Assert.assertEquals(rightLocation, LayoutProperties.getLocation(right));
+		Assert.assertEquals(new Point(5, 5), LayoutProperties.getLocation(left));
+		Point location = LayoutProperties.getLocation(rightLeaf);
+		Assert.assertEquals(rightLocation.x, location.x, 1e-9);
+		Assert.assertEquals(rightLocation.y + 50, location.y, 1e-9);
+
+		// a clean layout re-places the moved node
+		context.applyLayout(true);
+		Assert.assertNotEquals(new Point(5, 5),
+				LayoutProperties.getLocation(left));
+	}
+
+	/**
+	 * Ensures that an incremental layout pass of the
+	 * {@link TreeLayoutAlgorithm} only re-places the subtree whose number of
+	 * leaves changed (within the breadth it occupied before), so that the
+	 * other nodes do not move, even though the number of leaves changes the
+	 * locations of all nodes on the uniform grid.
+	 */
+	@Test
+	public void testTreeLayoutIncrementalLeafCount() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 300));
+		List<Node> nodes = new ArrayList<>();
+		Node root = createNode(graph);
+		nodes.add(root);
+		for (int i = 0; i < 4; i++) {
+			Node child = createNode(graph);
+			createEdge(graph, root, child);
+			nodes.add(child);
+			for (int j = 0; j < 5; j++) {
+				Node leaf = createNode(graph);
+				createEdge(graph, child, leaf);
+				nodes.add(leaf);
+			}
+		}
+		Assert.assertEquals(25, nodes.size());
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new TreeLayoutAlgorithm());
+		context.applyLayout(true);
+		List<Point> before = new ArrayList<>();
+		for (Node node : nodes) {
+			before.add(LayoutProperties.getLocation(node).getCopy());
+		}
+
+		Node parent = nodes.get(1);
+		Node added = createNode(graph);
+		createEdge(graph, parent, added);
+		context.applyLayout(false);
+
+		// only the leaves of the parent (nodes 2 to 6) are re-placed
+		for (int i = 0; i < nodes.size(); i++) {
+			if (i < 2 || i > 6) {
+				Assert.assertEquals(before.get(i),
+						LayoutProperties.getLocation(nodes.get(i)));
+			}
+		}
+		// within the breadth that was available to them before
+		List<Node> leaves = new ArrayList<>(nodes.subList(2, 7));
+		leaves.add(added);
+		double spacing = before.get(3).x - before.get(2).x;
+		Set<Double> xs = new HashSet<>();
+		for (Node leaf : leaves) {
+			Point location = LayoutProperties.getLocation(leaf);
+			Assert.assertEquals(before.get(2).y, location.y, 1e-9);
+			Assert.assertTrue(location.x > before.get(2).x - spacing / 2);
+			Assert.assertTrue(location.x < before.get(6).x + spacing / 2);
+			Assert.assertTrue(xs.add(location.x));
+		}
+	}
+
+	/**
+	 * Ensures that the {@link TreeLayoutAlgorithm} can lay out deep trees
+	 * (using the uniform grid as well as the {@link WalkerTreeLayout}),
+	 * without running into a {@link StackOverflowError}.
+	 */
+	@Test
+	public void testTreeLayoutDeepTree() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 400, 300));
+		Node[] chain = new Node[50000];
+		for (int i = 0; i < chain.length; i++) {
+			chain[i] = createNode(graph);
+			if (i > 0) {
+				createEdge(graph, chain[i - 1], chain[i]);
+			}
+		}
+		// add a sibling to the deepest node
+		Node sibling = createNode(graph);
+		createEdge(graph, chain[chain.length - 2], sibling);
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		TreeLayoutAlgorithm algorithm = new TreeLayoutAlgorithm(
+				TreeLayoutAlgorithm.TOP_DOWN, new Dimension(50, 50));
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+		Assert.assertEquals(25,
+				LayoutProperties.getLocation(chain[0]).y, 1e-9);
+		Assert.assertEquals(25 + 50 * (chain.length - 1),
+				LayoutProperties.getLocation(chain[chain.length - 1]).y, 1e-9);
+		Assert.assertEquals(50,
+				LayoutProperties.getLocation(chain[0]).x, 1e-9);
+
+		algorithm.setWalkerTreeLayout(new WalkerTreeLayout(10, 5));
+		context.applyLayout(true);
+		// the order of the siblings is not determined
+		Point location = LayoutProperties.getLocation(sibling);
+		Point lastLocation = LayoutProperties
+				.getLocation(chain[chain.length - 1]);
+		Assert.assertEquals(new Point(25, 5),
+				LayoutProperties.getLocation(chain[0]));
+		Assert.assertEquals(5 + 15 * (chain.length - 1), location.y, 1e-9);
+		Assert.assertEquals(location.y, lastLocation.y, 1e-9);
+		Assert.assertEquals(10 + 40, location.x + lastLocation.x, 1e-9);
+		Assert.assertEquals(30, Math.abs(location.x - lastLocation.x), 1e-9);
+	}
+
+	/**
+	 * Ensures that the {@link SpaceTreeLayoutAlgorithm} can lay out deep trees
+	 * using the {@link WalkerTreeLayout}, without running into a
+	 * {@link StackOverflowError}.
+	 */
+	@Test
+	public void testSpaceTreeLayoutDeepTree() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 400, 300));
+		Node[] chain = new Node[50000];
+		for (int i = 0; i < chain.length; i++) {
+			chain[i] = createNode(graph);
+			if (i > 0) {
+				createEdge(graph, chain[i - 1], chain[i]);
+			}
+		}
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		SpaceTreeLayoutAlgorithm algorithm = new SpaceTreeLayoutAlgorithm(
+				SpaceTreeLayoutAlgorithm.TOP_DOWN);
+		algorithm.setWalkerTreeLayout(new WalkerTreeLayout(10, 5));
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+		// all nodes of the chain are expanded
+		Assert.assertEquals(new Point(10, 5),
+				LayoutProperties.getLocation(chain[0]));
+		Assert.assertEquals(
+				new Point(10, 5 + 15 * (chain.length - 1)),
+				LayoutProperties.getLocation(chain[chain.length - 1]));
+	}
+
+	private static void sortByX(List<Node> nodes) {
+		Collections.sort(nodes, (n1, n2) -> Double.compare(
+				LayoutProperties.getLocation(n1).x,
+				LayoutProperties.getLocation(n2).x));
+	}
+
+	/**
+	 * Ensures that the {@link WalkerTreeLayout} respects the sizes of the
+	 * nodes, as well as the sibling, subtree, and layer spacing.
+	 */
+	@Test
+	public void testTreeLayoutWalker() {
+		Graph graph = new Graph();
+		LayoutProperties.setBounds(graph, new Rectangle(10, 20, 100, 100));
+		Node root = createNode(graph);
+		List<Node> children = new ArrayList<>();
+		List<Node> grandChildren = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Node child = createNode(graph);
+			LayoutProperties.setSize(child, new Dimension(20 + 40 * i, 30));
+			createEdge(graph, root, child);
+			children.add(child);
+			for (int j = 0; j < 2; j++) {
+				Node grandChild = createNode(graph);
+				createEdge(graph, child, grandChild);
+				grandChildren.add(grandChild);
+			}
+		}
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		TreeLayoutAlgorithm algorithm = new TreeLayoutAlgorithm(
+				TreeLayoutAlgorithm.TOP_DOWN);
+		algorithm.setWalkerTreeLayout(new WalkerTreeLayout(5, 40, 15));
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+
+		// the layers are as thick as their thickest node, separated by the
+		// layer spacing
+		Assert.assertEquals(20 + 5, LayoutProperties.getLocation(root).y,
+				1e-9);
+		for (Node child : children) {
+			Assert.assertEquals(20 + 10 + 15 + 15,
+					LayoutProperties.getLocation(child).y, 1e-9);
+		}
+		for (Node grandChild : grandChildren) {
+			Assert.assertEquals(20 + 10 + 15 + 30 + 15 + 5,
+					LayoutProperties.getLocation(grandChild).y, 1e-9);
+		}
+
+		// adjacent nodes are separated by the sibling or subtree spacing
+		// (which is larger than the distance needed for the children), and
+		// parents are centered above their children (the order of siblings is
+		// not determined)
+		sortByX(children);
+		sortByX(grandChildren);
+		double minX = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < children.size(); i++) {
+			Node first = grandChildren.get(2 * i);
+			Node last = grandChildren.get(2 * i + 1);
+			Assert.assertSame(children.get(i), first.getPredecessorNodes()
+					.iterator().next());
+			Assert.assertSame(children.get(i), last.getPredecessorNodes()
+					.iterator().next());
+			Assert.assertEquals(
+					(LayoutProperties.getLocation(first).x
+							+ LayoutProperties.getLocation(last).x) / 2,
+					LayoutProperties.getLocation(children.get(i)).x, 1e-9);
+			minX = Math.min(minX,
+					LayoutProperties.getLocation(children.get(i)).x
+							- LayoutProperties.getSize(children.get(i)).width
+									/ 2);
+		}
+		for (int i = 1; i < grandChildren.size(); i++) {
+			Assert.assertEquals(20 + (i % 2 == 1 ? 5 : 40),
+					LayoutProperties.getLocation(grandChildren.get(i)).x
+							- LayoutProperties
+									.getLocation(grandChildren.get(i - 1)).x,
+					1e-9);
+		}
+		minX = Math.min(minX,
+				LayoutProperties.getLocation(grandChildren.get(0)).x - 10);
+		Assert.assertEquals(10, minX, 1e-9);
+		Assert.assertEquals(LayoutProperties.getLocation(children.get(1)).x,
+				LayoutProperties.getLocation(root).x, 1e-9);
+
+		// nodes that do not fit are moved apart
+		LayoutProperties.setSize(children.get(1), new Dimension(200, 30));
+		context.applyLayout(true);
+		sortByX(children);
+		for (int i = 1; i < children.size(); i++) {
+			Point location = LayoutProperties.getLocation(children.get(i));
+			Point previous = LayoutProperties
+					.getLocation(children.get(i - 1));
+			double distance = (LayoutProperties.getSize(children.get(i)).width
+					+ LayoutProperties.getSize(children.get(i - 1)).width) / 2
+					+ 5;
+			Assert.assertTrue(location.x - previous.x >= distance - 1e-9);
+		}
+
+		// a horizontal layout swaps the coordinates
+		algorithm.setDirection(TreeLayoutAlgorithm.LEFT_RIGHT);
+		context.applyLayout(true);
+		Assert.assertEquals(10 + 10, LayoutProperties.getLocation(root).x,
+				1e-9);
+		for (Node child : children) {
+			Assert.assertEquals(10 + 20 + 15 + 100,
+					LayoutProperties.getLocation(child).x, 1e-9);
+		}
+	}
 }
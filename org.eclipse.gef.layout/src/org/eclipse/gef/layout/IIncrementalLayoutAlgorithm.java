@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+/**
+ * An {@link ILayoutAlgorithm} that is capable of updating a previously
+ * computed layout, rather than re-computing it from scratch. When a
+ * {@link LayoutContext} is asked to apply a layout that is not clean (see
+ * {@link LayoutContext#applyLayout(boolean)}), it determines the nodes and
+ * edges that were added, removed, or moved since its last layout pass, and
+ * passes them to {@link #applyIncrementalLayout(LayoutContext)}.
+ * <p>
+ * Implementations should only re-place the nodes that are affected by these
+ * changes, keeping the locations of all other nodes, as well as of nodes that
+ * are not {@link LayoutProperties#isMovable(org.eclipse.gef.graph.Node)
+ * movable}, stable.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public interface IIncrementalLayoutAlgorithm extends ILayoutAlgorithm {
+
+	/**
+	 * Updates the layout of the given {@link LayoutContext} to reflect the
+	 * changes since its last layout pass, which are provided by
+	 * {@link LayoutContext#getAddedNodes()},
+	 * {@link LayoutContext#getRemovedNodes()},
+	 * {@link LayoutContext#getMovedNodes()},
+	 * {@link LayoutContext#getAddedEdges()}, and
+	 * {@link LayoutContext#getRemovedEdges()}. Is only called by the
+	 * {@link LayoutContext} after a previous layout pass was applied using
+	 * this algorithm.
+	 *
+	 * @param layoutContext
+	 *            The {@link LayoutContext} that provides all relevant
+	 *            information about what to layout.
+	 */
+	public void applyIncrementalLayout(LayoutContext layoutContext);
+}
@@ -13,21 +13,39 @@
 package org.eclipse.gef.layout;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleConsumer;
 
+import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.graph.Node;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.collections.ObservableList;
 
 /**
  * The {@link LayoutContext} provides the context in which to layout a
  * {@link Graph}. It maintains an {@link ILayoutAlgorithm} that can be applied,
  * supports the handling and execution of pre and post {@link Runnable}s, and
  * filtering of layout objects using {@link ILayoutFilter}.
+ * <p>
+ * In case an {@link IIncrementalLayoutAlgorithm} is used, the context keeps
+ * track of the layout-relevant nodes and edges, as well as of the node
+ * locations, after each layout pass. This allows it to determine the nodes and
+ * edges that were added, removed, or moved since the last layout pass, so that
+ * the algorithm may only update the affected parts of the layout.
+ * <p>
+ * During a layout pass, the layout-relevant nodes and edges are only
+ * determined once (see {@link #getNodes()} and {@link #getEdges()}), and
+ * algorithms may opt into working on an array-based {@link LayoutGraph}
+ * snapshot of them (see {@link #getLayoutGraph()}), which is written back to
+ * the nodes at the end of the layout pass.
  * 
  * @author mwienand
  *
@@ -47,6 +65,25 @@ public class LayoutContext {
 	private final List<Runnable> postLayoutPass = new ArrayList<>();
 	private final List<Runnable> preLayoutPass = new ArrayList<>();
 	private final List<ILayoutFilter> layoutFilters = new ArrayList<>();
+	private DoubleConsumer progressListener;
+
+	// state after the last (incremental) layout pass
+	private ILayoutAlgorithm previousLayoutAlgorithm;
+	private Map<Node, Point> previousLocations;
+	private Set<Edge> previousEdges;
+
+	// changes since the last layout pass
+	private Set<Node> addedNodes = Collections.emptySet();
+	private Set<Node> removedNodes = Collections.emptySet();
+	private Set<Node> movedNodes = Collections.emptySet();
+	private Set<Edge> addedEdges = Collections.emptySet();
+	private Set<Edge> removedEdges = Collections.emptySet();
+
+	// state of the current layout pass
+	private boolean inLayoutPass;
+	private Node[] layoutRelevantNodes;
+	private Edge[] layoutRelevantEdges;
+	private LayoutGraph layoutGraph;
 
 	/**
 	 * Adds the given ILayoutFilter to this {@link LayoutContext}.
@@ -56,12 +93,20 @@ public class LayoutContext {
 	 */
 	public void addLayoutFilter(ILayoutFilter layoutFilter) {
 		layoutFilters.add(layoutFilter);
+		clearLayoutRelevantElements();
 	}
 
 	/**
 	 * Applies the layout algorithm of this LayoutContext. The clean flag is
 	 * passed-in to the layout algorithm to indicate whether the context changed
 	 * significantly since the last layout pass.
+	 * <p>
+	 * In case the layout algorithm is an {@link IIncrementalLayoutAlgorithm}
+	 * and <code>false</code> is passed in, the changes since the last layout
+	 * pass are determined and (if there are any)
+	 * {@link IIncrementalLayoutAlgorithm#applyIncrementalLayout(LayoutContext)}
+	 * is called instead. If no previous layout pass was applied with the same
+	 * algorithm, the layout is fully re-computed.
 	 * 
 	 * @param clear
 	 *            <code>true</code> to indicate that the algorithm has to fully
@@ -71,11 +116,214 @@ public class LayoutContext {
 		ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty.get();
 		if (layoutAlgorithm != null) {
 			preLayout();
-			layoutAlgorithm.applyLayout(this, clear);
+			inLayoutPass = true;
+			try {
+				if (layoutAlgorithm instanceof IIncrementalLayoutAlgorithm) {
+					if (!clear && previousLocations != null
+							&& previousLayoutAlgorithm == layoutAlgorithm) {
+						computeChanges(getNodes(), getEdges());
+						try {
+							if (hasChanges()) {
+								((IIncrementalLayoutAlgorithm) layoutAlgorithm)
+										.applyIncrementalLayout(this);
+							}
+						} finally {
+							clearChanges();
+						}
+					} else {
+						layoutAlgorithm.applyLayout(this, true);
+					}
+					flushLayoutGraph();
+					recordLayoutState(layoutAlgorithm);
+				} else {
+					layoutAlgorithm.applyLayout(this, clear);
+					flushLayoutGraph();
+					previousLayoutAlgorithm = null;
+					previousLocations = null;
+					previousEdges = null;
+				}
+			} finally {
+				inLayoutPass = false;
+				layoutGraph = null;
+				clearLayoutRelevantElements();
+			}
 			postLayout();
 		}
 	}
 
+	private void clearLayoutRelevantElements() {
+		layoutRelevantNodes = null;
+		layoutRelevantEdges = null;
+	}
+
+	private void clearChanges() {
+		addedNodes = Collections.emptySet();
+		removedNodes = Collections.emptySet();
+		movedNodes = Collections.emptySet();
+		addedEdges = Collections.emptySet();
+		removedEdges = Collections.emptySet();
+	}
+
+	/**
+	 * Determines the nodes and edges that were added, removed, or moved since
+	 * the last layout pass, by comparing the given layout-relevant nodes and
+	 * edges to the recorded state.
+	 */
+	private void computeChanges(Node[] nodes, Edge[] edges) {
+		addedNodes = new HashSet<>();
+		movedNodes = new HashSet<>();
+		Set<Node> currentNodes = new HashSet<>();
+		for (Node node : nodes) {
+			currentNodes.add(node);
+			if (!previousLocations.containsKey(node)) {
+				addedNodes.add(node);
+			} else {
+				Point previousLocation = previousLocations.get(node);
+				Point location = LayoutProperties.getLocation(node);
+				if (previousLocation == null ? location != null
+						: !previousLocation.equals(location)) {
+					movedNodes.add(node);
+				}
+			}
+		}
+		removedNodes = new HashSet<>();
+		for (Node node : previousLocations.keySet()) {
+			if (!currentNodes.contains(node)) {
+				removedNodes.add(node);
+			}
+		}
+
+		addedEdges = new HashSet<>();
+		Set<Edge> currentEdges = new HashSet<>();
+		for (Edge edge : edges) {
+			currentEdges.add(edge);
+			if (!previousEdges.contains(edge)) {
+				addedEdges.add(edge);
+			}
+		}
+		removedEdges = new HashSet<>();
+		for (Edge edge : previousEdges) {
+			if (!currentEdges.contains(edge)) {
+				removedEdges.add(edge);
+			}
+		}
+	}
+
+	/**
+	 * Writes the changes that were applied to the {@link LayoutGraph} of the
+	 * current layout pass (see {@link #getLayoutGraph()}) back to the nodes,
+	 * and discards it, so that a new snapshot is created on the next call to
+	 * {@link #getLayoutGraph()}. Is called by the context at the end of each
+	 * layout pass, and has to be called by algorithms that access the nodes
+	 * directly after (another algorithm) worked on the {@link LayoutGraph}
+	 * within the same layout pass (e.g. by a
+	 * {@link org.eclipse.gef.layout.algorithms.CompositeLayoutAlgorithm} in
+	 * between the combined algorithms).
+	 *
+	 * @since 5.1
+	 */
+	public void flushLayoutGraph() {
+		if (layoutGraph != null) {
+			LayoutGraph graph = layoutGraph;
+			layoutGraph = null;
+			graph.writeBack();
+		}
+	}
+
+	/**
+	 * Returns the layout-relevant {@link Edge}s that were added since the last
+	 * layout pass. Only available during an incremental layout pass (see
+	 * {@link IIncrementalLayoutAlgorithm}), empty otherwise.
+	 * 
+	 * @return An unmodifiable {@link Set} of the added {@link Edge}s.
+	 * @since 5.1
+	 */
+	public Set<Edge> getAddedEdges() {
+		return Collections.unmodifiableSet(addedEdges);
+	}
+
+	/**
+	 * Returns the layout-relevant {@link Node}s that were added since the last
+	 * layout pass. Only available during an incremental layout pass (see
+	 * {@link IIncrementalLayoutAlgorithm}), empty otherwise.
+	 * 
+	 * @return An unmodifiable {@link Set} of the added {@link Node}s.
+	 * @since 5.1
+	 */
+	public Set<Node> getAddedNodes() {
+		return Collections.unmodifiableSet(addedNodes);
+	}
+
+	/**
+	 * Returns the layout-relevant {@link Node}s whose location was changed
+	 * since the last layout pass (e.g. because they were moved by the user).
+	 * Only available during an incremental layout pass (see
+	 * {@link IIncrementalLayoutAlgorithm}), empty otherwise.
+	 * 
+	 * @return An unmodifiable {@link Set} of the moved {@link Node}s.
+	 * @since 5.1
+	 */
+	public Set<Node> getMovedNodes() {
+		return Collections.unmodifiableSet(movedNodes);
+	}
+
+	/**
+	 * Returns the {@link Edge}s that were layout-relevant in the last layout
+	 * pass, but have been removed (or became layout-irrelevant) since. Only
+	 * available during an incremental layout pass (see
+	 * {@link IIncrementalLayoutAlgorithm}), empty otherwise.
+	 * 
+	 * @return An unmodifiable {@link Set} of the removed {@link Edge}s.
+	 * @since 5.1
+	 */
+	public Set<Edge> getRemovedEdges() {
+		return Collections.unmodifiableSet(removedEdges);
+	}
+
+	/**
+	 * Returns an array-based {@link LayoutGraph} snapshot of the
+	 * layout-relevant nodes and edges (see {@link #getNodes()} and
+	 * {@link #getEdges()}). Within a layout pass (see
+	 * {@link #applyLayout(boolean)}), the snapshot is created on first access
+	 * and shared by all subsequent calls, until it is written back to the
+	 * nodes (see {@link #flushLayoutGraph()}), which is done at the end of the
+	 * layout pass. Outside of a layout pass (see {@link #isLayoutPassActive()}
+	 * ), a new snapshot is returned, which has to be written back by the
+	 * caller (see {@link LayoutGraph#writeBack()}).
+	 * <p>
+	 * Layout algorithms that opt into working on the {@link LayoutGraph}
+	 * should not access the locations and sizes of the nodes directly (see
+	 * {@link LayoutProperties}) within the same layout pass, as these are not
+	 * updated before the snapshot is written back.
+	 * 
+	 * @return The {@link LayoutGraph} of the current layout pass.
+	 * @since 5.1
+	 */
+	public LayoutGraph getLayoutGraph() {
+		if (!inLayoutPass) {
+			return new LayoutGraph(getLayoutRelevantNodes(),
+					getLayoutRelevantEdges());
+		}
+		if (layoutGraph == null) {
+			layoutGraph = new LayoutGraph(getLayoutRelevantNodes(),
+					getLayoutRelevantEdges());
+		}
+		return layoutGraph;
+	}
+
+	/**
+	 * Returns the {@link Node}s that were layout-relevant in the last layout
+	 * pass, but have been removed (or became layout-irrelevant) since. Only
+	 * available during an incremental layout pass (see
+	 * {@link IIncrementalLayoutAlgorithm}), empty otherwise.
+	 * 
+	 * @return An unmodifiable {@link Set} of the removed {@link Node}s.
+	 * @since 5.1
+	 */
+	public Set<Node> getRemovedNodes() {
+		return Collections.unmodifiableSet(removedNodes);
+	}
+
 	/**
 	 * Initiated by the context or by an {@link ILayoutAlgorithm} to perform
 	 * steps that are scheduled to be run after the layout pass. Should not be
@@ -98,6 +346,43 @@ public class LayoutContext {
 		}
 	}
 
+	/**
+	 * Initiated by an {@link ILayoutAlgorithm} to report the progress of the
+	 * current layout pass to the progress listener of this context (see
+	 * {@link #setProgressListener(DoubleConsumer)}). Reporting progress is
+	 * optional for layout algorithms. Should not be called by clients.
+	 * 
+	 * @param progress
+	 *            The progress of the current layout pass, ranging from
+	 *            <code>0</code> to <code>1</code>.
+	 * @since 5.1
+	 */
+	public void reportProgress(double progress) {
+		if (progressListener != null) {
+			progressListener.accept(progress);
+		}
+	}
+
+	/**
+	 * Records the layout-relevant nodes (and their locations) and edges after
+	 * a layout pass, so that the changes until the next layout pass can be
+	 * determined.
+	 */
+	private void recordLayoutState(ILayoutAlgorithm layoutAlgorithm) {
+		Node[] nodes = getLayoutRelevantNodes();
+		Map<Node, Point> locations = new HashMap<>(
+				Math.max(16, nodes.length * 4 / 3 + 1));
+		for (Node node : nodes) {
+			Point location = LayoutProperties.getLocation(node);
+			locations.put(node, location == null ? null : location.getCopy());
+		}
+		Set<Edge> edges = new HashSet<>();
+		Collections.addAll(edges, getLayoutRelevantEdges());
+		previousLayoutAlgorithm = layoutAlgorithm;
+		previousLocations = locations;
+		previousEdges = edges;
+	}
+
 	/**
 	 * Returns the graph that is to be layouted.
 	 * 
@@ -119,6 +404,13 @@ public class LayoutContext {
 		if (graph == null) {
 			graph = new Graph();
 		}
+		if (this.graph != graph) {
+			// changes cannot be tracked across graphs
+			previousLocations = null;
+			previousEdges = null;
+			layoutGraph = null;
+			clearLayoutRelevantElements();
+		}
 		this.graph = graph;
 	}
 
@@ -130,14 +422,7 @@ public class LayoutContext {
 	 */
 	// TODO: remove this (algorithms should use getGraph().getNodes())
 	public Node[] getNodes() {
-		ObservableList<Node> nodes = graph.getNodes();
-		List<Node> layoutRelevantNodes = new ArrayList<>();
-		for (Node n : nodes) {
-			if (!isLayoutIrrelevant(n)) {
-				layoutRelevantNodes.add(n);
-			}
-		}
-		return layoutRelevantNodes.toArray(new Node[] {});
+		return getLayoutRelevantNodes().clone();
 	}
 
 	/**
@@ -147,14 +432,51 @@ public class LayoutContext {
 	 * @return array of connections between nodes
 	 */
 	public Edge[] getEdges() {
-		ObservableList<Edge> edges = graph.getEdges();
-		List<Edge> layoutRelevantEdges = new ArrayList<>();
-		for (Edge e : edges) {
-			if (!isLayoutIrrelevant(e)) {
-				layoutRelevantEdges.add(e);
+		return getLayoutRelevantEdges().clone();
+	}
+
+	/**
+	 * Returns the layout-relevant nodes, which are only determined once per
+	 * layout pass (as the graph is not expected to change during a layout
+	 * pass).
+	 */
+	private Node[] getLayoutRelevantNodes() {
+		Node[] nodes = layoutRelevantNodes;
+		if (nodes == null) {
+			List<Node> relevantNodes = new ArrayList<>();
+			for (Node n : graph.getNodes()) {
+				if (!isLayoutIrrelevant(n)) {
+					relevantNodes.add(n);
+				}
+			}
+			nodes = relevantNodes.toArray(new Node[relevantNodes.size()]);
+			if (inLayoutPass) {
+				layoutRelevantNodes = nodes;
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Returns the layout-relevant edges, which are only determined once per
+	 * layout pass (as the graph is not expected to change during a layout
+	 * pass).
+	 */
+	private Edge[] getLayoutRelevantEdges() {
+		Edge[] edges = layoutRelevantEdges;
+		if (edges == null) {
+			List<Edge> relevantEdges = new ArrayList<>();
+			for (Edge e : graph.getEdges()) {
+				if (!isLayoutIrrelevant(e)) {
+					relevantEdges.add(e);
+				}
+			}
+			edges = relevantEdges.toArray(new Edge[relevantEdges.size()]);
+			if (inLayoutPass) {
+				layoutRelevantEdges = edges;
 			}
 		}
-		return layoutRelevantEdges.toArray(new Edge[] {});
+		return edges;
 	}
 
 	/**
@@ -167,6 +489,12 @@ public class LayoutContext {
 		return layoutAlgorithmProperty.get();
 	}
 
+	private boolean hasChanges() {
+		return !addedNodes.isEmpty() || !removedNodes.isEmpty()
+				|| !movedNodes.isEmpty() || !addedEdges.isEmpty()
+				|| !removedEdges.isEmpty();
+	}
+
 	/**
 	 * Returns <code>true</code> when the given {@link Edge} is not relevant for
 	 * layout according to the configured {@link ILayoutFilter layout filters}.
@@ -207,6 +535,23 @@ public class LayoutContext {
 		return false;
 	}
 
+	/**
+	 * Returns <code>true</code> while this {@link LayoutContext} performs a
+	 * layout pass (see {@link #applyLayout(boolean)}), i.e. while the
+	 * {@link LayoutGraph} returned by {@link #getLayoutGraph()} is written
+	 * back by the context itself. Otherwise returns <code>false</code>, in
+	 * which case layout algorithms that are applied directly have to write
+	 * back the {@link LayoutGraph} they worked on (see
+	 * {@link LayoutGraph#writeBack()}).
+	 * 
+	 * @return <code>true</code> if this {@link LayoutContext} performs a
+	 *         layout pass, otherwise <code>false</code>.
+	 * @since 5.1
+	 */
+	public boolean isLayoutPassActive() {
+		return inLayoutPass;
+	}
+
 	/**
 	 * A property representing the layout algorithm used by this
 	 * {@link LayoutContext}.
@@ -228,6 +573,7 @@ public class LayoutContext {
 	 */
 	public void removeLayoutFilter(ILayoutFilter layoutFilter) {
 		layoutFilters.remove(layoutFilter);
+		clearLayoutRelevantElements();
 	}
 
 	/**
@@ -277,6 +623,21 @@ public class LayoutContext {
 		layoutAlgorithmProperty.set(algorithm);
 	}
 
+	/**
+	 * Sets the listener that is notified about the progress that is reported
+	 * by the layout algorithm (see {@link #reportProgress(double)}). The
+	 * listener is called on the thread on which the layout algorithm is
+	 * applied.
+	 * 
+	 * @param progressListener
+	 *            The {@link DoubleConsumer} that is called with the reported
+	 *            progress, or <code>null</code>.
+	 * @since 5.1
+	 */
+	public void setProgressListener(DoubleConsumer progressListener) {
+		this.progressListener = progressListener;
+	}
+
 	/**
 	 * Removes the given {@link Runnable} from the list of runnables which are
 	 * called when this {@link LayoutContext} is asked to apply all changes made
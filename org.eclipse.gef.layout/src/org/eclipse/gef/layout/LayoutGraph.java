@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * A {@link LayoutGraph} is an array-based snapshot of the layout-relevant
+ * {@link Node}s and {@link Edge}s of a {@link LayoutContext}, which allows
+ * layout algorithms to read and write node locations and sizes without
+ * accessing (and allocating) {@link Point}s and {@link Dimension}s stored in
+ * the attributes of the nodes, which notify listeners on each change.
+ * <p>
+ * Nodes and edges are identified by their index (in the order they are
+ * provided by {@link LayoutContext#getNodes()} and
+ * {@link LayoutContext#getEdges()}). The locations (centers) and sizes of the
+ * nodes are provided by {@link #getX()}, {@link #getY()}, {@link #getWidth()},
+ * and {@link #getHeight()}, which return the backing arrays of this snapshot,
+ * i.e. layout algorithms are expected to modify their elements directly. The
+ * changes are written back to the nodes (see
+ * {@link LayoutProperties#setLocation(Node, Point)} and
+ * {@link LayoutProperties#setSize(Node, Dimension)}) in one batch by
+ * {@link #writeBack()}, which is done by the {@link LayoutContext} at the end
+ * of each layout pass (see {@link LayoutContext#getLayoutGraph()}).
+ * <p>
+ * The edges are provided in compressed (CSR) form: The outgoing edges of node
+ * <i>i</i> are stored at indices <code>getOutgoingOffsets()[i]</code> to
+ * <code>getOutgoingOffsets()[i + 1] - 1</code> of
+ * {@link #getOutgoingEdges()} (in edge order), and analogously for the
+ * incoming edges. Edges whose source or target is not part of the snapshot
+ * are not contained in the compressed form, and their source or target index
+ * is <code>-1</code>.
+ * <p>
+ * As a snapshot, a {@link LayoutGraph} does not reflect changes that are
+ * applied to the nodes and edges (or their attributes) after its creation.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class LayoutGraph {
+
+	private final Node[] nodes;
+	private final Edge[] edges;
+	private final Map<Node, Integer> ids;
+
+	private final double[] x;
+	private final double[] y;
+	private final double[] width;
+	private final double[] height;
+	private final boolean[] movable;
+	private final boolean[] resizable;
+
+	// the values that were last written back (or initially read)
+	private final double[] writtenX;
+	private final double[] writtenY;
+	private final double[] writtenWidth;
+	private final double[] writtenHeight;
+	private final boolean[] unlocated;
+
+	private final int[] sources;
+	private final int[] targets;
+	private final double[] weights;
+	private final int[] outgoingOffsets;
+	private final int[] outgoingEdges;
+	private final int[] incomingOffsets;
+	private final int[] incomingEdges;
+
+	/**
+	 * Creates a new {@link LayoutGraph} snapshot of the given {@link Node}s
+	 * and {@link Edge}s.
+	 *
+	 * @param nodes
+	 *            The {@link Node}s to include.
+	 * @param edges
+	 *            The {@link Edge}s to include.
+	 */
+	public LayoutGraph(Node[] nodes, Edge[] edges) {
+		this.nodes = nodes.clone();
+		this.edges = edges.clone();
+		int n = nodes.length;
+		int m = edges.length;
+
+		ids = new IdentityHashMap<>(n);
+		x = new double[n];
+		y = new double[n];
+		width = new double[n];
+		height = new double[n];
+		movable = new boolean[n];
+		resizable = new boolean[n];
+		unlocated = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			Node node = nodes[i];
+			ids.put(node, i);
+			Point location = LayoutProperties.getLocation(node);
+			if (location == null) {
+				unlocated[i] = true;
+			} else {
+				x[i] = location.x;
+				y[i] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(node);
+			if (size != null) {
+				width[i] = size.width;
+				height[i] = size.height;
+			}
+			movable[i] = LayoutProperties.isMovable(node);
+			resizable[i] = LayoutProperties.isResizable(node);
+		}
+		writtenX = x.clone();
+		writtenY = y.clone();
+		writtenWidth = width.clone();
+		writtenHeight = height.clone();
+
+		sources = new int[m];
+		targets = new int[m];
+		weights = new double[m];
+		outgoingOffsets = new int[n + 1];
+		incomingOffsets = new int[n + 1];
+		int size = 0;
+		for (int e = 0; e < m; e++) {
+			Integer source = ids.get(edges[e].getSource());
+			Integer target = ids.get(edges[e].getTarget());
+			sources[e] = source == null ? -1 : source;
+			targets[e] = target == null ? -1 : target;
+			weights[e] = LayoutProperties.getWeight(edges[e]);
+			if (sources[e] >= 0 && targets[e] >= 0) {
+				outgoingOffsets[sources[e] + 1]++;
+				incomingOffsets[targets[e] + 1]++;
+				size++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			outgoingOffsets[i + 1] += outgoingOffsets[i];
+			incomingOffsets[i + 1] += incomingOffsets[i];
+		}
+		outgoingEdges = new int[size];
+		incomingEdges = new int[size];
+		int[] outgoingFill = new int[n];
+		int[] incomingFill = new int[n];
+		for (int e = 0; e < m; e++) {
+			if (sources[e] >= 0 && targets[e] >= 0) {
+				outgoingEdges[outgoingOffsets[sources[e]]
+						+ outgoingFill[sources[e]]++] = e;
+				incomingEdges[incomingOffsets[targets[e]]
+						+ incomingFill[targets[e]]++] = e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link Edge} with the given index.
+	 *
+	 * @param edge
+	 *            The index of the {@link Edge}.
+	 * @return The {@link Edge} with the given index.
+	 */
+	public Edge getEdge(int edge) {
+		return edges[edge];
+	}
+
+	/**
+	 * Returns the number of {@link Edge}s of this {@link LayoutGraph}.
+	 *
+	 * @return The number of {@link Edge}s.
+	 */
+	public int getEdgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * Returns the heights of the nodes (backing array).
+	 *
+	 * @return The heights of the nodes, indexed by node.
+	 */
+	public double[] getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the index of the given {@link Node} within this
+	 * {@link LayoutGraph}.
+	 *
+	 * @param node
+	 *            The {@link Node} whose index is returned.
+	 * @return The index of the given {@link Node}, or <code>-1</code> if it is
+	 *         not part of this {@link LayoutGraph}.
+	 */
+	public int getId(Node node) {
+		Integer id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the indices of the incoming edges of all nodes (backing array),
+	 * see {@link #getIncomingOffsets()}.
+	 *
+	 * @return The indices of the incoming edges.
+	 */
+	public int[] getIncomingEdges() {
+		return incomingEdges;
+	}
+
+	/**
+	 * Returns the offsets of the incoming edges of each node within
+	 * {@link #getIncomingEdges()} (backing array), which has one more element
+	 * than there are nodes.
+	 *
+	 * @return The offsets of the incoming edges, indexed by node.
+	 */
+	public int[] getIncomingOffsets() {
+		return incomingOffsets;
+	}
+
+	/**
+	 * Returns the {@link Node} with the given index.
+	 *
+	 * @param node
+	 *            The index of the {@link Node}.
+	 * @return The {@link Node} with the given index.
+	 */
+	public Node getNode(int node) {
+		return nodes[node];
+	}
+
+	/**
+	 * Returns the number of {@link Node}s of this {@link LayoutGraph}.
+	 *
+	 * @return The number of {@link Node}s.
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the indices of the outgoing edges of all nodes (backing array),
+	 * see {@link #getOutgoingOffsets()}.
+	 *
+	 * @return The indices of the outgoing edges.
+	 */
+	public int[] getOutgoingEdges() {
+		return outgoingEdges;
+	}
+
+	/**
+	 * Returns the offsets of the outgoing edges of each node within
+	 * {@link #getOutgoingEdges()} (backing array), which has one more element
+	 * than there are nodes.
+	 *
+	 * @return The offsets of the outgoing edges, indexed by node.
+	 */
+	public int[] getOutgoingOffsets() {
+		return outgoingOffsets;
+	}
+
+	/**
+	 * Returns the source node indices of the edges (backing array), where
+	 * <code>-1</code> denotes a source that is not part of this
+	 * {@link LayoutGraph}.
+	 *
+	 * @return The source node indices, indexed by edge.
+	 */
+	public int[] getSources() {
+		return sources;
+	}
+
+	/**
+	 * Returns the target node indices of the edges (backing array), where
+	 * <code>-1</code> denotes a target that is not part of this
+	 * {@link LayoutGraph}.
+	 *
+	 * @return The target node indices, indexed by edge.
+	 */
+	public int[] getTargets() {
+		return targets;
+	}
+
+	/**
+	 * Returns the weights of the edges (see
+	 * {@link LayoutProperties#getWeight(Edge)}) (backing array).
+	 *
+	 * @return The weights of the edges, indexed by edge.
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * Returns the widths of the nodes (backing array).
+	 *
+	 * @return The widths of the nodes, indexed by node.
+	 */
+	public double[] getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the x-coordinates of the node locations (centers) (backing
+	 * array).
+	 *
+	 * @return The x-coordinates of the node locations, indexed by node.
+	 */
+	public double[] getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y-coordinates of the node locations (centers) (backing
+	 * array).
+	 *
+	 * @return The y-coordinates of the node locations, indexed by node.
+	 */
+	public double[] getY() {
+		return y;
+	}
+
+	/**
+	 * Returns whether the node with the given index is movable (see
+	 * {@link LayoutProperties#isMovable(Node)}).
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return <code>true</code> if the node is movable, otherwise
+	 *         <code>false</code>.
+	 */
+	public boolean isMovable(int node) {
+		return movable[node];
+	}
+
+	/**
+	 * Returns whether the node with the given index is resizable (see
+	 * {@link LayoutProperties#isResizable(Node)}).
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return <code>true</code> if the node is resizable, otherwise
+	 *         <code>false</code>.
+	 */
+	public boolean isResizable(int node) {
+		return resizable[node];
+	}
+
+	/**
+	 * Writes the locations and sizes that were changed since the creation of
+	 * this {@link LayoutGraph} (or since the last call to this method) back to
+	 * the nodes. Locations and sizes that were not changed are not written, so
+	 * that changes that were directly applied to the nodes in the meantime are
+	 * preserved (the locations of nodes that did not have a location are
+	 * always written).
+	 */
+	public void writeBack() {
+		for (int i = 0; i < nodes.length; i++) {
+			if (unlocated[i] || x[i] != writtenX[i] || y[i] != writtenY[i]) {
+				LayoutProperties.setLocation(nodes[i], new Point(x[i], y[i]));
+				writtenX[i] = x[i];
+				writtenY[i] = y[i];
+				unlocated[i] = false;
+			}
+			if (width[i] != writtenWidth[i] || height[i] != writtenHeight[i]) {
+				LayoutProperties.setSize(nodes[i],
+						new Dimension(width[i], height[i]));
+				writtenWidth[i] = width[i];
+				writtenHeight[i] = height[i];
+			}
+		}
+	}
+}
@@ -13,9 +13,10 @@
 package org.eclipse.gef.layout.algorithms;
 
 import org.eclipse.gef.geometry.planar.Dimension;
-import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.LayoutGraph;
 import org.eclipse.gef.layout.LayoutProperties;
 
 /**
@@ -56,62 +57,78 @@ class AlgorithmHelper {
 	 */
 	public static void fitWithinBounds(Node[] entities,
 			Rectangle destinationBounds, boolean resize) {
-		if (entities.length == 1) {
-			fitSingleEntity(entities[0], destinationBounds, resize);
+		LayoutGraph graph = new LayoutGraph(entities, new Edge[0]);
+		fitWithinBounds(graph, destinationBounds, resize);
+		graph.writeBack();
+	}
+
+	/**
+	 * Fits the nodes of the given {@link LayoutGraph} within given bounds,
+	 * preserving their relative locations. If a node is resizable and the
+	 * <i>resize</i> flag is set to <code>true</code>, then the node will be
+	 * scaled according to the bounds change, i.e.
+	 * <code>scale_factor = dst_bounds / start_bounds</code>.
+	 * 
+	 * @param graph
+	 *            The {@link LayoutGraph} whose nodes are fitted.
+	 * @param destinationBounds
+	 *            The {@link Rectangle} representing the layout bounds.
+	 * @param resize
+	 *            <code>true</code> to indicate that the nodes can be resized,
+	 *            otherwise <code>false</code>.
+	 * @see #fitWithinBounds(Node[], Rectangle, boolean)
+	 */
+	public static void fitWithinBounds(LayoutGraph graph,
+			Rectangle destinationBounds, boolean resize) {
+		int n = graph.getNodeCount();
+		double[] x = graph.getX();
+		double[] y = graph.getY();
+		double[] width = graph.getWidth();
+		double[] height = graph.getHeight();
+		if (n == 1) {
+			if (graph.isMovable(0)) {
+				x[0] = destinationBounds.getX()
+						+ destinationBounds.getWidth() / 2;
+				y[0] = destinationBounds.getY()
+						+ destinationBounds.getHeight() / 2;
+			}
+			if (resize && graph.isResizable(0)) {
+				Dimension size = new Dimension(destinationBounds.getWidth(),
+						destinationBounds.getHeight());
+				double preferredAspectRatio = LayoutProperties
+						.getPreferredAspectRatio(graph.getNode(0));
+				if (preferredAspectRatio > 0) {
+					size = fixAspectRatio(size.width, size.height,
+							preferredAspectRatio);
+				}
+				width[0] = size.width;
+				height[0] = size.height;
+			}
 			return;
 		}
-		Rectangle startingBounds = getLayoutBounds(entities, false);
+		Rectangle startingBounds = getLayoutBounds(graph, false);
 		double sizeScale = Math.min(
 				destinationBounds.getWidth() / startingBounds.getWidth(),
 				destinationBounds.getHeight() / startingBounds.getHeight());
-		for (int i = 0; i < entities.length; i++) {
-			Node entity = entities[i];
-			Dimension size = LayoutProperties.getSize(entity);
-			if (LayoutProperties.isMovable(entity)) {
-				Point location = LayoutProperties.getLocation(entity);
+		for (int i = 0; i < n; i++) {
+			if (graph.isMovable(i)) {
 				double percentX = startingBounds.getWidth() == 0 ? 0
-						: (location.x - startingBounds.getX())
+						: (x[i] - startingBounds.getX())
 								/ (startingBounds.getWidth());
 				double percentY = startingBounds.getHeight() == 0 ? 0
-						: (location.y - startingBounds.getY())
+						: (y[i] - startingBounds.getY())
 								/ (startingBounds.getHeight());
-				if (resize && LayoutProperties.isResizable(entity)) {
-					size.width *= sizeScale;
-					size.height *= sizeScale;
-					LayoutProperties.setSize(entity, new Dimension(size));
+				if (resize && graph.isResizable(i)) {
+					width[i] *= sizeScale;
+					height[i] *= sizeScale;
 				}
-				location.x = destinationBounds.getX() + size.width / 2
-						+ percentX
-								* (destinationBounds.getWidth() - size.width);
-				location.y = destinationBounds.getY() + size.height / 2
-						+ percentY
-								* (destinationBounds.getHeight() - size.height);
-			} else if (resize && LayoutProperties.isResizable(entity)) {
-				LayoutProperties.setSize(entity, size.getScaled(sizeScale));
-			}
-		}
-	}
-
-	private static void fitSingleEntity(Node entity,
-			Rectangle destinationBounds, boolean resize) {
-		if (LayoutProperties.isMovable(entity)) {
-			LayoutProperties.setLocation(entity,
-					new Point(
-							destinationBounds.getX()
-									+ destinationBounds.getWidth() / 2,
-							destinationBounds.getY()
-									+ destinationBounds.getHeight() / 2));
-		}
-		if (resize && LayoutProperties.isResizable(entity)) {
-			double width = destinationBounds.getWidth();
-			double height = destinationBounds.getHeight();
-			double preferredAspectRatio = LayoutProperties
-					.getPreferredAspectRatio(entity);
-			if (preferredAspectRatio > 0) {
-				LayoutProperties.setSize(entity,
-						fixAspectRatio(width, height, preferredAspectRatio));
-			} else {
-				LayoutProperties.setSize(entity, new Dimension(width, height));
+				x[i] = destinationBounds.getX() + width[i] / 2 + percentX
+						* (destinationBounds.getWidth() - width[i]);
+				y[i] = destinationBounds.getY() + height[i] / 2 + percentY
+						* (destinationBounds.getHeight() - height[i]);
+			} else if (resize && graph.isResizable(i)) {
+				width[i] *= sizeScale;
+				height[i] *= sizeScale;
 			}
 		}
 	}
@@ -125,24 +142,36 @@ class AlgorithmHelper {
 	 *            The {@link Node}s of which the sizes are maximized.
 	 */
 	public static void maximizeSizes(Node[] entities) {
-		if (entities.length > 1) {
-			Dimension minDistance = getMinimumDistance(entities);
+		LayoutGraph graph = new LayoutGraph(entities, new Edge[0]);
+		maximizeSizes(graph);
+		graph.writeBack();
+	}
+
+	/**
+	 * Resizes the nodes of the given {@link LayoutGraph} so that they have a
+	 * maximal area without overlapping each other, with additional empty space
+	 * of 20% of node's width (or height, if bigger). It does nothing if
+	 * there's less than two nodes.
+	 * 
+	 * @param graph
+	 *            The {@link LayoutGraph} whose nodes are resized.
+	 * @see #maximizeSizes(Node[])
+	 */
+	public static void maximizeSizes(LayoutGraph graph) {
+		int n = graph.getNodeCount();
+		if (n > 1) {
+			Dimension minDistance = getMinimumDistance(graph);
 			double nodeSize = Math.max(minDistance.width, minDistance.height)
 					* PADDING_PERCENT;
-			double width = nodeSize;
-			double height = nodeSize;
-			for (int i = 0; i < entities.length; i++) {
-				Node entity = entities[i];
-				if (LayoutProperties.isResizable(entity)) {
+			for (int i = 0; i < n; i++) {
+				if (graph.isResizable(i)) {
 					double preferredRatio = LayoutProperties
-							.getPreferredAspectRatio(entity);
-					if (preferredRatio > 0) {
-						LayoutProperties.setSize(entity,
-								fixAspectRatio(width, height, preferredRatio));
-					} else {
-						LayoutProperties.setSize(entity,
-								new Dimension(width, height));
-					}
+							.getPreferredAspectRatio(graph.getNode(i));
+					Dimension size = preferredRatio > 0
+							? fixAspectRatio(nodeSize, nodeSize, preferredRatio)
+							: new Dimension(nodeSize, nodeSize);
+					graph.getWidth()[i] = size.width;
+					graph.getHeight()[i] = size.height;
 				}
 			}
 		}
@@ -185,24 +214,46 @@ class AlgorithmHelper {
 	 */
 	public static Rectangle getLayoutBounds(Node[] entities,
 			boolean includeNodeSize) {
+		return getLayoutBounds(new LayoutGraph(entities, new Edge[0]),
+				includeNodeSize);
+	}
+
+	/**
+	 * Find the bounds in which the nodes of the given {@link LayoutGraph} are
+	 * located. The bounds can be determined either including the size of the
+	 * nodes or not. If the size is not included, the bounds will only be
+	 * guaranteed to include the center of each node.
+	 * 
+	 * @param graph
+	 *            The {@link LayoutGraph} for whose nodes the layout bounds are
+	 *            computed.
+	 * @param includeNodeSize
+	 *            <code>true</code> to indicate that the nodes' sizes should be
+	 *            taken into consideration, otherwise <code>false</code>.
+	 * @return A {@link Rectangle} representing the layout bounds of the nodes
+	 *         of the given {@link LayoutGraph}.
+	 */
+	public static Rectangle getLayoutBounds(LayoutGraph graph,
+			boolean includeNodeSize) {
 		double rightSide = Double.NEGATIVE_INFINITY;
 		double bottomSide = Double.NEGATIVE_INFINITY;
 		double leftSide = Double.POSITIVE_INFINITY;
 		double topSide = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < entities.length; i++) {
-			Node entity = entities[i];
-			Point location = LayoutProperties.getLocation(entity);
-			Dimension size = LayoutProperties.getSize(entity);
+		double[] x = graph.getX();
+		double[] y = graph.getY();
+		double[] width = graph.getWidth();
+		double[] height = graph.getHeight();
+		for (int i = 0; i < graph.getNodeCount(); i++) {
 			if (includeNodeSize) {
-				leftSide = Math.min(location.x - size.width / 2, leftSide);
-				topSide = Math.min(location.y - size.height / 2, topSide);
-				rightSide = Math.max(location.x + size.width / 2, rightSide);
-				bottomSide = Math.max(location.y + size.height / 2, bottomSide);
+				leftSide = Math.min(x[i] - width[i] / 2, leftSide);
+				topSide = Math.min(y[i] - height[i] / 2, topSide);
+				rightSide = Math.max(x[i] + width[i] / 2, rightSide);
+				bottomSide = Math.max(y[i] + height[i] / 2, bottomSide);
 			} else {
-				leftSide = Math.min(location.x, leftSide);
-				topSide = Math.min(location.y, topSide);
-				rightSide = Math.max(location.x, rightSide);
-				bottomSide = Math.max(location.y, bottomSide);
+				leftSide = Math.min(x[i], leftSide);
+				topSide = Math.min(y[i], topSide);
+				rightSide = Math.max(x[i], rightSide);
+				bottomSide = Math.max(y[i], bottomSide);
 			}
 		}
 		return new Rectangle(leftSide, topSide, rightSide - leftSide,
@@ -237,19 +288,32 @@ class AlgorithmHelper {
 	 *         y-direction).
 	 */
 	public static Dimension getMinimumDistance(Node[] entities) {
+		return getMinimumDistance(new LayoutGraph(entities, new Edge[0]));
+	}
+
+	/**
+	 * Returns the horizontal and vertical distance between the two closest
+	 * nodes of the given {@link LayoutGraph}.
+	 * 
+	 * @param graph
+	 *            The {@link LayoutGraph} for whose nodes the minimum distance
+	 *            is computed.
+	 * @return A {@link Dimension} representing the minimum distance (in x- and
+	 *         y-direction).
+	 * @see #getMinimumDistance(Node[])
+	 */
+	public static Dimension getMinimumDistance(LayoutGraph graph) {
 		Dimension horAndVertdistance = new Dimension(Double.MAX_VALUE,
 				Double.MAX_VALUE);
 		double minDistance = Double.MAX_VALUE;
-
-		// TODO: Very Slow!
-		for (int i = 0; i < entities.length; i++) {
-			Point location1 = LayoutProperties.getLocation(entities[i]);
-			for (int j = i + 1; j < entities.length; j++) {
-				Point location2 = LayoutProperties.getLocation(entities[j]);
-				double distanceX = location1.x - location2.x;
-				double distanceY = location1.y - location2.y;
+		double[] x = graph.getX();
+		double[] y = graph.getY();
+		int n = graph.getNodeCount();
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				double distanceX = x[i] - x[j];
+				double distanceY = y[i] - y[j];
 				double distance = distanceX * distanceX + distanceY * distanceY;
-
 				if (distance < minDistance) {
 					minDistance = distance;
 					horAndVertdistance.width = Math.abs(distanceX);
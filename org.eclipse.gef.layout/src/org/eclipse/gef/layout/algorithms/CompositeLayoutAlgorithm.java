@@ -43,6 +43,10 @@ public class CompositeLayoutAlgorithm implements ILayoutAlgorithm {
 	public void applyLayout(LayoutContext context, boolean clean) {
 		for (int i = 0; i < algorithms.length; i++) {
 			algorithms[i].applyLayout(context, clean);
+			// XXX: The next algorithm may access the nodes directly, so the
+			// results of an algorithm that worked on the layout graph have to
+			// be written back.
+			context.flushLayoutGraph();
 		}
 	}
 
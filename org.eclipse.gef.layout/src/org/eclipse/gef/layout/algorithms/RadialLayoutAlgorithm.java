@@ -22,6 +22,9 @@ import org.eclipse.gef.layout.LayoutProperties;
 /**
  * This layout will take the given entities, apply a tree layout to them, and
  * then display the tree in a circular fashion with the roots in the center.
+ * The tree layout may be computed by a {@link WalkerTreeLayout} (see
+ * {@link #setWalkerTreeLayout(WalkerTreeLayout)}), so that the angular
+ * distance between adjacent nodes reflects their sizes.
  * 
  * @author Casey Best
  * @author Ian Bull
@@ -64,8 +67,18 @@ public class RadialLayoutAlgorithm implements ILayoutAlgorithm {
 	private void computeRadialPositions(Node[] entities, Rectangle bounds) {
 		Rectangle layoutBounds = AlgorithmHelper.getLayoutBounds(entities,
 				false);
-		layoutBounds.setX(bounds.getX());
-		layoutBounds.setWidth(bounds.getWidth());
+		if (treeLayout.getWalkerTreeLayout() != null) {
+			// XXX: The tree layout is not scaled to the bounds in this case,
+			// so the angle is determined by the extent of the tree (including
+			// the node sizes, so that the outermost nodes do not coincide).
+			Rectangle treeBounds = AlgorithmHelper.getLayoutBounds(entities,
+					true);
+			layoutBounds.setX(treeBounds.getX());
+			layoutBounds.setWidth(treeBounds.getWidth());
+		} else {
+			layoutBounds.setX(bounds.getX());
+			layoutBounds.setWidth(bounds.getWidth());
+		}
 		for (int i = 0; i < entities.length; i++) {
 			Point location = LayoutProperties.getLocation(entities[i]);
 			if (layoutBounds.getWidth() == 0 || layoutBounds.getHeight() == 0) {
@@ -101,6 +114,31 @@ public class RadialLayoutAlgorithm implements ILayoutAlgorithm {
 		this.endDegree = endDegree;
 	}
 
+	/**
+	 * Returns the {@link WalkerTreeLayout} that is used to compute the tree
+	 * layout, or <code>null</code> if the nodes are placed on a uniform grid.
+	 * 
+	 * @return The {@link WalkerTreeLayout} that is used to compute the tree
+	 *         layout.
+	 * @since 5.1
+	 */
+	public WalkerTreeLayout getWalkerTreeLayout() {
+		return treeLayout.getWalkerTreeLayout();
+	}
+
+	/**
+	 * Sets the {@link WalkerTreeLayout} that is used to compute the tree
+	 * layout, which is then mapped to polar coordinates. If <code>null</code>
+	 * (the default), the nodes are placed on a uniform grid.
+	 * 
+	 * @param walkerTreeLayout
+	 *            The {@link WalkerTreeLayout} to use, or <code>null</code>.
+	 * @since 5.1
+	 */
+	public void setWalkerTreeLayout(WalkerTreeLayout walkerTreeLayout) {
+		treeLayout.setWalkerTreeLayout(walkerTreeLayout);
+	}
+
 	/**
 	 * 
 	 * @return true if this algorithm is set to resize elements
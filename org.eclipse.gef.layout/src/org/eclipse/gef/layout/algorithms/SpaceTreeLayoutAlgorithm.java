@@ -20,6 +20,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
@@ -38,6 +39,13 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutHelper.TreeNode;
  * to keep the tree structure clearly visible, it also keeps track of the nodes'
  * positions to makes sure they stay in their current layer and don't overlap
  * with each other.
+ * <p>
+ * If a {@link WalkerTreeLayout} is set (see
+ * {@link #setWalkerTreeLayout(WalkerTreeLayout)}), it is used to place the
+ * expanded nodes, instead of the positions the nodes are assigned within their
+ * layers. In this case, the nodes are expanded layer by layer as long as the
+ * layers fit into the available space, without assigning positions within the
+ * layers.
  * 
  * @author Ian Bull
  * @author Mateusz Matela
@@ -882,6 +890,8 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private Rectangle bounds;
 
+	private WalkerTreeLayout walkerTreeLayout;
+
 	/**
 	 * Constructs an instance of <code>SpaceTreeLayoutAlgorithm</code> that
 	 * places the root of a tree at the top of the graph.
@@ -929,6 +939,35 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					"Invalid direction: " + direction);
 	}
 
+	/**
+	 * Returns the {@link WalkerTreeLayout} that is used to place the expanded
+	 * nodes, or <code>null</code> if they are placed according to their
+	 * positions within their layers.
+	 * 
+	 * @return The {@link WalkerTreeLayout} that is used to place the expanded
+	 *         nodes.
+	 * @since 5.1
+	 */
+	public WalkerTreeLayout getWalkerTreeLayout() {
+		return walkerTreeLayout;
+	}
+
+	/**
+	 * Sets the {@link WalkerTreeLayout} that is used to place the expanded
+	 * nodes (starting at the top-left corner of the layout bounds). The
+	 * expansion of the nodes is still determined based on the available space,
+	 * but the leaf, branch, and layer gaps are not used for placing the nodes
+	 * in this case. If <code>null</code> (the default), the nodes are placed
+	 * according to their positions within their layers.
+	 * 
+	 * @param walkerTreeLayout
+	 *            The {@link WalkerTreeLayout} to use, or <code>null</code>.
+	 * @since 5.1
+	 */
+	public void setWalkerTreeLayout(WalkerTreeLayout walkerTreeLayout) {
+		this.walkerTreeLayout = walkerTreeLayout;
+	}
+
 	public void applyLayout(LayoutContext layoutContext, boolean clean) {
 		bounds = LayoutProperties.getBounds(layoutContext.getGraph());
 		if (bounds.isEmpty()) {
@@ -938,13 +977,78 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		treeObserver = new TreeLayoutHelper(spaceTreeNodeFactory);
 		treeObserver.computeTree(layoutContext.getNodes());
 
-		if (clean) {
-			maximizeExpansion((SpaceTreeNode) treeObserver.getSuperRoot());
+		SpaceTreeNode superRoot = ((SpaceTreeNode) treeObserver.getSuperRoot());
+		if (walkerTreeLayout != null) {
+			// XXX: The positions within the layers are not used when the
+			// WalkerTreeLayout places the nodes, so that only the expansion
+			// state is computed (iteratively), which prevents that deep trees
+			// cause a StackOverflowError.
+			if (clean) {
+				expandWithinBounds(superRoot);
+			}
+			Map<Node, Point> locations = walkerTreeLayout.computeLocations(
+					superRoot, direction,
+					treeNode -> ((SpaceTreeNode) treeNode).expanded);
+			for (Map.Entry<Node, Point> entry : locations.entrySet()) {
+				LayoutProperties.setLocation(entry.getKey(), entry.getValue()
+						.getTranslated(bounds.getX(), bounds.getY()));
+			}
+		} else {
+			if (clean) {
+				maximizeExpansion(superRoot);
+			}
+			superRoot.flushExpansionChanges();
+			superRoot.flushLocationChanges(0);
 		}
+	}
 
-		SpaceTreeNode superRoot = ((SpaceTreeNode) treeObserver.getSuperRoot());
-		superRoot.flushExpansionChanges();
-		superRoot.flushLocationChanges(0);
+	/**
+	 * Expands the given node and its descendants layer by layer, as long as
+	 * the space required by the next layer does not exceed the available
+	 * space (or the space required by the previous layers), like
+	 * {@link #maximizeExpansion(SpaceTreeNode)}, but without assigning
+	 * positions within the layers.
+	 * 
+	 * @param nodeToExpand
+	 *            The {@link SpaceTreeNode} to expand.
+	 */
+	private void expandWithinBounds(SpaceTreeNode nodeToExpand) {
+		double availableSpace = (direction == TOP_DOWN
+				|| direction == BOTTOM_UP) ? bounds.getWidth()
+						: bounds.getHeight();
+		double requiredSpace = nodeToExpand.spaceRequiredForNode();
+		List<TreeNode> nodesInThisLayer = Collections
+				.singletonList(nodeToExpand);
+		for (int layer = 0; !nodesInThisLayer.isEmpty(); layer++) {
+			List<TreeNode> nodesInNextLayer = new ArrayList<>();
+			double spaceRequiredInNextLayer = 0;
+			int numOfNodesWithChildren = 0;
+			for (TreeNode node : nodesInThisLayer) {
+				if (!node.children.isEmpty()) {
+					spaceRequiredInNextLayer += ((SpaceTreeNode) node)
+							.spaceRequiredForChildren();
+					nodesInNextLayer.addAll(node.children);
+					numOfNodesWithChildren++;
+				}
+			}
+			if (numOfNodesWithChildren == 0) {
+				break;
+			}
+			spaceRequiredInNextLayer += branchGap
+					* (numOfNodesWithChildren - 1);
+			if (spaceRequiredInNextLayer > requiredSpace
+					&& spaceRequiredInNextLayer > availableSpace
+					&& !(layer < 1 && nodeToExpand.depth + layer < 1)) {
+				break;
+			}
+			for (TreeNode node : nodesInThisLayer) {
+				if (!node.children.isEmpty()) {
+					((SpaceTreeNode) node).expanded = true;
+				}
+			}
+			requiredSpace = Math.max(requiredSpace, spaceRequiredInNextLayer);
+			nodesInThisLayer = nodesInNextLayer;
+		}
 	}
 
 	private void maximizeExpansion(SpaceTreeNode nodeToExpand) {
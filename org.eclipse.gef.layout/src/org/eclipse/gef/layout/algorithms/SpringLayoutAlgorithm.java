@@ -14,21 +14,30 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import org.eclipse.gef.geometry.planar.Dimension;
-import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.IIncrementalLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutGraph;
 import org.eclipse.gef.layout.LayoutProperties;
 
 /**
  * The SpringLayoutAlgorithm has its own data repository and relation
  * repository. A user can populate the repository, specify the layout
  * conditions, do the computation and query the computed results.
+ * <p>
+ * An incremental layout pass only re-places the nodes that are affected by
+ * the changes, i.e. added nodes, the end points of added or removed edges, and
+ * the neighbors of these and of moved nodes. Forces are only computed for the
+ * affected nodes, while all other nodes, as well as moved nodes and nodes that
+ * are not movable, keep their current locations.
  * 
  * @author Jingwei Wu
  * @author Rob Lintern
@@ -37,7 +46,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
+public class SpringLayoutAlgorithm implements IIncrementalLayoutAlgorithm {
 
 	/**
 	 * The default value for the spring layout number of iterations.
@@ -74,6 +83,17 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private static final double DEFAULT_SPRING_GRAVITATION = 2.0f;
 
+	/**
+	 * The default value for the Barnes-Hut approximation threshold.
+	 */
+	private static final double DEFAULT_APPROXIMATION_THETA = 0.8d;
+
+	/**
+	 * The minimum number of nodes whose forces are computed within a single
+	 * parallel task.
+	 */
+	private static final int MIN_NODES_PER_TASK = 32;
+
 	/**
 	 * Minimum distance considered between nodes
 	 */
@@ -122,10 +142,43 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private boolean resize = false;
 
+	/**
+	 * The variable can be customized to set whether repulsive forces are
+	 * approximated (using a Barnes-Hut quadtree) instead of being computed
+	 * exactly for all pairs of nodes.
+	 */
+	private boolean approximate = false;
+
+	/**
+	 * The variable can be customized to set the Barnes-Hut approximation
+	 * threshold, i.e. the ratio between the size of a quadtree cell and its
+	 * distance, below which the cell is treated as a single body.
+	 */
+	private double approximationTheta = DEFAULT_APPROXIMATION_THETA;
+
+	/**
+	 * The variable can be customized to set the number of threads that are
+	 * used to compute the forces.
+	 */
+	private int parallelism = 1;
+	// pool of parallelism threads, created on demand (its idle threads
+	// terminate on their own, so that it does not need to be shut down)
+	private ForkJoinPool forkJoinPool;
+
 	private int iteration;
-	private double[][] srcDestToSumOfWeights;
+	// nodes that may be moved in an incremental layout pass (null otherwise)
+	private boolean[] free;
+	// sparse (CSR) representation of the summed edge weights between nodes
+	private int[] adjacencyOffsets;
+	private int[] adjacencyIndices;
+	private double[] adjacencyWeights;
+	private QuadTree quadTree;
+	private LayoutGraph layoutGraph;
 	private Node[] entities;
 	private double[] forcesX, forcesY;
+	// forces and locations of the two steps computed within each iteration
+	private double[][] stepForcesX, stepForcesY;
+	private double[] stepLocationsX, stepLocationsY;
 	private double[] locationsX, locationsY;
 	private double[] sizeW, sizeH;
 	private Rectangle bounds;
@@ -138,6 +191,80 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	// TODO: expose field
 	private boolean fitWithinBounds = true;
 
+	@Override
+	public void applyIncrementalLayout(LayoutContext layoutContext) {
+		this.layoutContext = layoutContext;
+		loadGraph(layoutContext);
+
+		Set<Node> seeds = new HashSet<>(layoutContext.getAddedNodes());
+		seeds.addAll(layoutContext.getMovedNodes());
+		for (Edge edge : layoutContext.getAddedEdges()) {
+			seeds.add(edge.getSource());
+			seeds.add(edge.getTarget());
+		}
+		for (Edge edge : layoutContext.getRemovedEdges()) {
+			seeds.add(edge.getSource());
+			seeds.add(edge.getTarget());
+		}
+
+		// the seeds and their neighbors are re-placed, except for moved nodes,
+		// which are kept at the location they were moved to
+		free = new boolean[entities.length];
+		for (Node seed : seeds) {
+			int i = layoutGraph.getId(seed);
+			if (i < 0) {
+				continue;
+			}
+			free[i] = true;
+			for (int a = adjacencyOffsets[i]; a < adjacencyOffsets[i
+					+ 1]; a++) {
+				free[adjacencyIndices[a]] = true;
+			}
+		}
+		for (Node moved : layoutContext.getMovedNodes()) {
+			int i = layoutGraph.getId(moved);
+			if (i >= 0) {
+				free[i] = false;
+			}
+		}
+
+		try {
+			placeAddedNodes(layoutContext.getAddedNodes());
+			iteration = 1;
+			startTime = System.currentTimeMillis();
+			while (performAnotherNonContinuousIteration()) {
+				// XXX: The bounds scale is not adjusted and the nodes are not
+				// re-centered, as this would affect all nodes.
+				computeForces();
+				computePositions();
+				iteration++;
+			}
+
+			for (int i = 0; i < entities.length; i++) {
+				if (!isFree(i)) {
+					continue;
+				}
+				if (fitWithinBounds) {
+					locationsX[i] = Math.max(bounds.getX() + sizeW[i] / 2,
+							Math.min(locationsX[i], bounds.getX()
+									+ bounds.getWidth() - sizeW[i] / 2));
+					locationsY[i] = Math.max(bounds.getY() + sizeH[i] / 2,
+							Math.min(locationsY[i], bounds.getY()
+									+ bounds.getHeight() - sizeH[i] / 2));
+				}
+				if (Double.isNaN(locationsX[i])
+						|| Double.isNaN(locationsY[i])) {
+					continue;
+				}
+				layoutGraph.getX()[i] = locationsX[i];
+				layoutGraph.getY()[i] = locationsY[i];
+			}
+			writeBackOutsideLayoutPass();
+		} finally {
+			free = null;
+		}
+	}
+
 	public void applyLayout(LayoutContext layoutContext, boolean clean) {
 		this.layoutContext = layoutContext;
 		initLayout(layoutContext);
@@ -147,11 +274,13 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 
 		while (performAnotherNonContinuousIteration()) {
 			computeOneIteration();
+			layoutContext.reportProgress(
+					Math.min(1, (double) iteration / sprIterations));
 		}
 
 		saveLocations();
 		if (resize)
-			AlgorithmHelper.maximizeSizes(entities);
+			AlgorithmHelper.maximizeSizes(layoutGraph);
 
 		if (fitWithinBounds) {
 			Rectangle bounds2 = new Rectangle(bounds);
@@ -160,8 +289,9 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 			bounds2.setY(bounds2.getY() + insets);
 			bounds2.setWidth(bounds2.getWidth() - 2 * insets);
 			bounds2.setHeight(bounds2.getHeight() - 2 * insets);
-			AlgorithmHelper.fitWithinBounds(entities, bounds2, resize);
+			AlgorithmHelper.fitWithinBounds(layoutGraph, bounds2, resize);
 		}
+		writeBackOutsideLayoutPass();
 	}
 
 	/**
@@ -173,15 +303,16 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	public void performNIteration(int n) {
 		layoutContext.preLayout();
 		if (iteration == 0) {
-			entities = layoutContext.getNodes();
-			loadLocations();
 			initLayout(layoutContext);
 		}
 		bounds = LayoutProperties.getBounds(layoutContext.getGraph());
 		for (int i = 0; i < n; i++) {
 			computeOneIteration();
-			saveLocations();
 		}
+		saveLocations();
+		// XXX: The iterations are performed outside of a layout pass, so the
+		// layout graph has to be written back explicitly.
+		layoutGraph.writeBack();
 		layoutContext.postLayout();
 	}
 
@@ -190,16 +321,7 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 * 
 	 */
 	public void performOneIteration() {
-		layoutContext.preLayout();
-		if (iteration == 0) {
-			entities = layoutContext.getNodes();
-			loadLocations();
-			initLayout(layoutContext);
-		}
-		bounds = LayoutProperties.getBounds(layoutContext.getGraph());
-		computeOneIteration();
-		saveLocations();
-		layoutContext.postLayout();
+		performNIteration(1);
 	}
 
 	/**
@@ -360,40 +482,249 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		return sprRandom;
 	}
 
+	/**
+	 * Sets whether or not this {@link SpringLayoutAlgorithm} will approximate
+	 * the repulsive forces between nodes using a Barnes-Hut quadtree, which
+	 * reduces the costs of an iteration from O(n^2) to O(n log n). Attractive
+	 * forces are always computed exactly. By default, all forces are computed
+	 * exactly.
+	 * 
+	 * @param approximate
+	 *            <code>true</code> to approximate repulsive forces,
+	 *            <code>false</code> to compute them exactly.
+	 * @since 5.1
+	 */
+	public void setApproximate(boolean approximate) {
+		this.approximate = approximate;
+	}
+
+	/**
+	 * Returns whether or not this {@link SpringLayoutAlgorithm} will
+	 * approximate the repulsive forces between nodes.
+	 * 
+	 * @return <code>true</code> if repulsive forces are approximated,
+	 *         otherwise <code>false</code>.
+	 * @see #setApproximate(boolean)
+	 * @since 5.1
+	 */
+	public boolean isApproximate() {
+		return approximate;
+	}
+
+	/**
+	 * Sets the Barnes-Hut approximation threshold that is used when
+	 * {@link #isApproximate() approximating} repulsive forces. A quadtree cell
+	 * is treated as a single body if the ratio between its size and its
+	 * distance is below the given value. Smaller values increase accuracy,
+	 * larger values increase performance. A value of <code>0</code> results
+	 * in exact forces.
+	 * 
+	 * @param theta
+	 *            The approximation threshold.
+	 * @since 5.1
+	 */
+	public void setApproximationTheta(double theta) {
+		approximationTheta = theta;
+	}
+
+	/**
+	 * Returns the Barnes-Hut approximation threshold that is used when
+	 * {@link #isApproximate() approximating} repulsive forces.
+	 * 
+	 * @return The approximation threshold.
+	 * @see #setApproximationTheta(double)
+	 * @since 5.1
+	 */
+	public double getApproximationTheta() {
+		return approximationTheta;
+	}
+
+	/**
+	 * Sets the number of threads that are used to compute the forces within
+	 * each iteration. If a value greater than <code>1</code> is given, the
+	 * forces are computed by a {@link ForkJoinPool} with the given
+	 * parallelism. The forces that act on a node are still summed up in the
+	 * same order as within a sequential computation (using a parallelism of
+	 * <code>1</code>, which is the default), so that the results are
+	 * identical.
+	 * 
+	 * @param parallelism
+	 *            The number of threads to use for computing forces.
+	 * @since 5.1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism needs to be greater than 0.");
+		}
+		if (forkJoinPool != null && parallelism != this.parallelism) {
+			forkJoinPool.shutdown();
+			forkJoinPool = null;
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the number of threads that are used to compute the forces.
+	 * 
+	 * @return The number of threads used to compute forces.
+	 * @see #setParallelism(int)
+	 * @since 5.1
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
 	private long startTime = 0;
 
 	private void initLayout(LayoutContext context) {
-		entities = context.getNodes();
+		loadGraph(context);
+
+		if (sprRandom)
+			placeRandomly(); // put vertices in random places
+
+		iteration = 1;
+
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Writes back the {@link LayoutGraph} in case the algorithm is applied
+	 * directly, i.e. not within a layout pass of the {@link LayoutContext},
+	 * which would otherwise write it back at the end of the layout pass.
+	 */
+	private void writeBackOutsideLayoutPass() {
+		if (!layoutContext.isLayoutPassActive()) {
+			layoutGraph.writeBack();
+		}
+	}
+
+	/**
+	 * Loads the layout-relevant nodes (including their locations and sizes)
+	 * and edges of the given {@link LayoutContext} from its
+	 * {@link LayoutGraph}.
+	 */
+	private void loadGraph(LayoutContext context) {
+		layoutGraph = context.getLayoutGraph();
+		entities = new Node[layoutGraph.getNodeCount()];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = layoutGraph.getNode(i);
+		}
 		bounds = LayoutProperties.getBounds(context.getGraph());
 		loadLocations();
+		initAdjacency();
+	}
 
-		srcDestToSumOfWeights = new double[entities.length][entities.length];
-		HashMap<Node, Integer> entityToPosition = new HashMap<>();
-		for (int i = 0; i < entities.length; i++) {
-			entityToPosition.put(entities[i], new Integer(i));
+	/**
+	 * Places the given added nodes close to the barycenter of their neighbors
+	 * that were already placed, slightly spreading them out (along a spiral)
+	 * so that they do not coincide. Added nodes without placed neighbors keep
+	 * their location if it is within the layout bounds, otherwise they are
+	 * placed at the center of the layout bounds.
+	 */
+	private void placeAddedNodes(Set<Node> addedNodes) {
+		int k = 0;
+		for (Node added : addedNodes) {
+			int i = layoutGraph.getId(added);
+			if (i < 0 || !isFree(i)) {
+				continue;
+			}
+			double x = 0;
+			double y = 0;
+			int placed = 0;
+			for (int a = adjacencyOffsets[i]; a < adjacencyOffsets[i
+					+ 1]; a++) {
+				int j = adjacencyIndices[a];
+				if (!addedNodes.contains(entities[j])) {
+					x += locationsX[j];
+					y += locationsY[j];
+					placed++;
+				}
+			}
+			if (placed > 0) {
+				x /= placed;
+				y /= placed;
+			} else if (bounds.contains(locationsX[i], locationsY[i])) {
+				continue;
+			} else {
+				x = bounds.getX() + bounds.getWidth() / 2;
+				y = bounds.getY() + bounds.getHeight() / 2;
+			}
+			// golden angle
+			double angle = ++k * 2.399963229728653;
+			double radius = Math.max(sizeW[i], sizeH[i]);
+			locationsX[i] = x + radius * Math.cos(angle);
+			locationsY[i] = y + radius * Math.sin(angle);
 		}
+	}
 
-		Edge[] connections = context.getEdges();
-		for (int i = 0; i < connections.length; i++) {
-			Edge connection = connections[i];
-			Integer source = entityToPosition.get(connection.getSource());
-			Integer target = entityToPosition.get(connection.getTarget());
-			if (source == null || target == null)
+	/**
+	 * Builds a sparse (compressed row) representation of the summed edge
+	 * weights between the nodes, which replaces a dense n x n matrix. The
+	 * neighbors of each node are sorted by index, and the weights of multiple
+	 * edges between the same nodes are summed up in edge order.
+	 */
+	private void initAdjacency() {
+		int[] edgeSources = layoutGraph.getSources();
+		int[] edgeTargets = layoutGraph.getTargets();
+		double[] edgeWeights = layoutGraph.getWeights();
+		int[] sources = new int[edgeSources.length];
+		int[] targets = new int[edgeSources.length];
+		double[] weights = new double[edgeSources.length];
+		int[] offsets = new int[entities.length + 1];
+		int edgeCount = 0;
+		for (int i = 0; i < edgeSources.length; i++) {
+			if (edgeSources[i] < 0 || edgeTargets[i] < 0)
 				continue;
-			double weight = LayoutProperties.getWeight(connection);
+			double weight = edgeWeights[i];
 			weight = (weight <= 0 ? 0.1 : weight);
-			srcDestToSumOfWeights[source.intValue()][target
-					.intValue()] += weight;
-			srcDestToSumOfWeights[target.intValue()][source
-					.intValue()] += weight;
+			sources[edgeCount] = edgeSources[i];
+			targets[edgeCount] = edgeTargets[i];
+			weights[edgeCount] = weight;
+			offsets[sources[edgeCount] + 1]++;
+			offsets[targets[edgeCount] + 1]++;
+			edgeCount++;
+		}
+		for (int i = 0; i < entities.length; i++) {
+			offsets[i + 1] += offsets[i];
 		}
 
-		if (sprRandom)
-			placeRandomly(); // put vertices in random places
-
-		iteration = 1;
+		// fill rows in edge order, encoding the position within the row, so
+		// that sorting by neighbor index is stable
+		long[] keys = new long[offsets[entities.length]];
+		double[] unsortedWeights = new double[keys.length];
+		int[] fill = Arrays.copyOf(offsets, entities.length);
+		for (int e = 0; e < edgeCount; e++) {
+			int a = fill[sources[e]]++;
+			keys[a] = ((long) targets[e] << 32) | a;
+			unsortedWeights[a] = weights[e];
+			int b = fill[targets[e]]++;
+			keys[b] = ((long) sources[e] << 32) | b;
+			unsortedWeights[b] = weights[e];
+		}
 
-		startTime = System.currentTimeMillis();
+		// sort each row and merge duplicate neighbors
+		adjacencyOffsets = new int[entities.length + 1];
+		adjacencyIndices = new int[keys.length];
+		adjacencyWeights = new double[keys.length];
+		int size = 0;
+		for (int i = 0; i < entities.length; i++) {
+			adjacencyOffsets[i] = size;
+			Arrays.sort(keys, offsets[i], offsets[i + 1]);
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				int neighbor = (int) (keys[k] >>> 32);
+				double weight = unsortedWeights[(int) keys[k]];
+				if (size > adjacencyOffsets[i]
+						&& adjacencyIndices[size - 1] == neighbor) {
+					adjacencyWeights[size - 1] += weight;
+				} else {
+					adjacencyIndices[size] = neighbor;
+					adjacencyWeights[size] = weight;
+					size++;
+				}
+			}
+		}
+		adjacencyOffsets[entities.length] = size;
 	}
 
 	private void loadLocations() {
@@ -405,30 +736,29 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 			sizeH = new double[length];
 			forcesX = new double[length];
 			forcesY = new double[length];
+			stepForcesX = new double[2][length];
+			stepForcesY = new double[2][length];
+			stepLocationsX = new double[length];
+			stepLocationsY = new double[length];
 		}
-		for (int i = 0; i < entities.length; i++) {
-			Point location = LayoutProperties.getLocation(entities[i]);
-			locationsX[i] = location.x;
-			locationsY[i] = location.y;
-			Dimension size = LayoutProperties.getSize(entities[i]);
-			sizeW[i] = size.width;
-			sizeH[i] = size.height;
-		}
+		System.arraycopy(layoutGraph.getX(), 0, locationsX, 0, entities.length);
+		System.arraycopy(layoutGraph.getY(), 0, locationsY, 0, entities.length);
+		System.arraycopy(layoutGraph.getWidth(), 0, sizeW, 0, entities.length);
+		System.arraycopy(layoutGraph.getHeight(), 0, sizeH, 0,
+				entities.length);
 	}
 
 	private void saveLocations() {
 		if (entities == null)
 			return;
 		for (int i = 0; i < entities.length; i++) {
-			// TODO ensure no dynamic layout passes are triggered as a result of
-			// storing the positions
 			// TODO: check where NaN values originate from
 			if (Double.isNaN(locationsX[i]) || Double.isNaN(locationsY[i])) {
 				locationsX[i] = 0;
 				locationsY[i] = 0;
 			}
-			LayoutProperties.setLocation(entities[i],
-					new Point(locationsX[i], locationsY[i]));
+			layoutGraph.getX()[i] = locationsX[i];
+			layoutGraph.getY()[i] = locationsY[i];
 		}
 	}
 
@@ -526,65 +856,41 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	protected void computeForces() {
 
-		double forcesX[][] = new double[2][this.forcesX.length];
-		double forcesY[][] = new double[2][this.forcesX.length];
-		double locationsX[] = new double[this.forcesX.length];
-		double locationsY[] = new double[this.forcesX.length];
+		double forcesX[][] = stepForcesX;
+		double forcesY[][] = stepForcesY;
+		double locationsX[] = stepLocationsX;
+		double locationsY[] = stepLocationsY;
 
 		// // initialize all forces to zero
 		for (int j = 0; j < 2; j++) {
-			for (int i = 0; i < this.forcesX.length; i++) {
-				forcesX[j][i] = 0;
-				forcesY[j][i] = 0;
-				locationsX[i] = this.locationsX[i];
-				locationsY[i] = this.locationsY[i];
-			}
+			Arrays.fill(forcesX[j], 0);
+			Arrays.fill(forcesY[j], 0);
 		}
-		// TODO: Again really really slow!
+		System.arraycopy(this.locationsX, 0, locationsX, 0,
+				locationsX.length);
+		System.arraycopy(this.locationsY, 0, locationsY, 0,
+				locationsY.length);
 
 		for (int k = 0; k < 2; k++) {
-			for (int i = 0; i < this.locationsX.length; i++) {
-
-				for (int j = i + 1; j < locationsX.length; j++) {
-					double dx = (locationsX[i] - locationsX[j])
-							/ bounds.getWidth() / boundsScaleX;
-					double dy = (locationsY[i] - locationsY[j])
-							/ bounds.getHeight() / boundsScaleY;
-					double distance_sq = dx * dx + dy * dy;
-					// make sure distance and distance squared not too small
-					distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
-							distance_sq);
-					double distance = Math.sqrt(distance_sq);
-
-					// If there are relationships between srcObj and destObj
-					// then decrease force on srcObj (a pull) in direction of
-					// destObj
-					// If no relation between srcObj and destObj then increase
-					// force on srcObj (a push) from direction of destObj.
-					double sumOfWeights = srcDestToSumOfWeights[i][j];
-
-					double f;
-					if (sumOfWeights > 0) {
-						// nodes are pulled towards each other
-						f = -sprStrain * Math.log(distance / sprLength)
-								* sumOfWeights;
-					} else {
-						// nodes are repelled from each other
-						f = sprGravitation / (distance_sq);
-					}
-					double dfx = f * dx / distance;
-					double dfy = f * dy / distance;
-
-					forcesX[k][i] += dfx;
-					forcesY[k][i] += dfy;
-
-					forcesX[k][j] -= dfx;
-					forcesY[k][j] -= dfy;
-				}
+			if (free != null) {
+				accumulateForcesOfFreeNodes(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
+			} else if (parallelism > 1
+					&& locationsX.length > MIN_NODES_PER_TASK) {
+				accumulateForcesInParallel(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
+			} else if (approximate) {
+				buildQuadTree(locationsX, locationsY);
+				accumulateForcesApproximated(0, locationsX.length, locationsX,
+						locationsY, forcesX[k], forcesY[k],
+						QuadTree.createStack());
+			} else {
+				accumulateForcesExactly(0, locationsX.length, locationsX,
+						locationsY, forcesX[k], forcesY[k]);
 			}
 
 			for (int i = 0; i < entities.length; i++) {
-				if (LayoutProperties.isMovable(entities[i])) {
+				if (isFree(i)) {
 					double deltaX = sprMove * forcesX[k][i];
 					double deltaY = sprMove * forcesY[k][i];
 
@@ -622,6 +928,308 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
+	/**
+	 * Accumulates the forces between all pairs of nodes <code>(i, j)</code>
+	 * with <code>from &lt;= i &lt; to</code> and <code>i &lt; j</code>.
+	 * Connected nodes are pulled towards each other, while unconnected nodes
+	 * are repelled from each other.
+	 * 
+	 * @param from
+	 *            The index of the first node whose pairs are considered.
+	 * @param to
+	 *            The index after the last node whose pairs are considered.
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are
+	 *            added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are
+	 *            added.
+	 */
+	private void accumulateForcesExactly(int from, int to,
+			double[] locationsX, double[] locationsY, double[] forcesX,
+			double[] forcesY) {
+		for (int i = from; i < to; i++) {
+			// neighbors are sorted by index, so we can walk them alongside j
+			int a = adjacencyOffsets[i];
+			int aEnd = adjacencyOffsets[i + 1];
+			while (a < aEnd && adjacencyIndices[a] <= i) {
+				a++;
+			}
+			for (int j = i + 1; j < locationsX.length; j++) {
+				double dx = (locationsX[i] - locationsX[j]) / bounds.getWidth()
+						/ boundsScaleX;
+				double dy = (locationsY[i] - locationsY[j])
+						/ bounds.getHeight() / boundsScaleY;
+				double distance_sq = dx * dx + dy * dy;
+				// make sure distance and distance squared not too small
+				distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+						distance_sq);
+				double distance = Math.sqrt(distance_sq);
+
+				// If there are relationships between srcObj and destObj
+				// then decrease force on srcObj (a pull) in direction of
+				// destObj
+				// If no relation between srcObj and destObj then increase
+				// force on srcObj (a push) from direction of destObj.
+				double sumOfWeights = 0;
+				if (a < aEnd && adjacencyIndices[a] == j) {
+					sumOfWeights = adjacencyWeights[a++];
+				}
+
+				double f;
+				if (sumOfWeights > 0) {
+					// nodes are pulled towards each other
+					f = -sprStrain * Math.log(distance / sprLength)
+							* sumOfWeights;
+				} else {
+					// nodes are repelled from each other
+					f = sprGravitation / (distance_sq);
+				}
+				double dfx = f * dx / distance;
+				double dfy = f * dy / distance;
+
+				forcesX[i] += dfx;
+				forcesY[i] += dfy;
+
+				forcesX[j] -= dfx;
+				forcesY[j] -= dfy;
+			}
+		}
+	}
+
+	/**
+	 * Builds the Barnes-Hut quadtree for the given locations, which is used
+	 * to approximate the repulsive forces.
+	 */
+	private void buildQuadTree(double[] locationsX, double[] locationsY) {
+		if (quadTree == null) {
+			quadTree = new QuadTree();
+		}
+		// build quadtree on scaled coordinates
+		quadTree.build(locationsX, locationsY,
+				bounds.getWidth() * boundsScaleX,
+				bounds.getHeight() * boundsScaleY, locationsX.length);
+	}
+
+	/**
+	 * Accumulates the forces that act on the nodes <code>i</code> with
+	 * <code>from &lt;= i &lt; to</code>, approximating the repulsive forces by
+	 * means of the Barnes-Hut quadtree (see
+	 * {@link #buildQuadTree(double[], double[])}). The attractive forces are
+	 * computed exactly for all pairs of connected nodes <code>(i, j)</code>
+	 * with <code>i &lt; j</code>, which are in turn exempted from repulsion.
+	 * 
+	 * @param from
+	 *            The index of the first node whose forces are considered.
+	 * @param to
+	 *            The index after the last node whose forces are considered.
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are
+	 *            added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are
+	 *            added.
+	 * @param stack
+	 *            The stack that is used to traverse the quadtree (see
+	 *            {@link QuadTree#createStack()}).
+	 */
+	private void accumulateForcesApproximated(int from, int to,
+			double[] locationsX, double[] locationsY, double[] forcesX,
+			double[] forcesY, int[] stack) {
+		// repulsion between all pairs of nodes
+		for (int i = from; i < to; i++) {
+			quadTree.accumulateRepulsion(i, approximationTheta,
+					sprGravitation, forcesX, forcesY, stack);
+		}
+
+		// attraction between connected nodes (replacing their repulsion)
+		for (int i = from; i < to; i++) {
+			for (int a = adjacencyOffsets[i]; a < adjacencyOffsets[i
+					+ 1]; a++) {
+				int j = adjacencyIndices[a];
+				if (j <= i) {
+					continue;
+				}
+				double dx = (locationsX[i] - locationsX[j]) / bounds.getWidth()
+						/ boundsScaleX;
+				double dy = (locationsY[i] - locationsY[j])
+						/ bounds.getHeight() / boundsScaleY;
+				double distance_sq = dx * dx + dy * dy;
+				distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+						distance_sq);
+				double distance = Math.sqrt(distance_sq);
+				double f = -sprStrain * Math.log(distance / sprLength)
+						* adjacencyWeights[a] - sprGravitation / distance_sq;
+				double dfx = f * dx / distance;
+				double dfy = f * dy / distance;
+
+				forcesX[i] += dfx;
+				forcesY[i] += dfy;
+
+				forcesX[j] -= dfx;
+				forcesY[j] -= dfy;
+			}
+		}
+	}
+
+	/**
+	 * Accumulates the forces that act on the nodes that may be moved within an
+	 * incremental layout pass, considering all other nodes.
+	 * 
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are
+	 *            added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are
+	 *            added.
+	 */
+	private void accumulateForcesOfFreeNodes(double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		int n = locationsX.length;
+		int[] stack = null;
+		if (approximate) {
+			buildQuadTree(locationsX, locationsY);
+			stack = QuadTree.createStack();
+		}
+		for (int i = 0; i < n; i++) {
+			if (!free[i]) {
+				continue;
+			}
+			if (approximate) {
+				quadTree.accumulateRepulsion(i, approximationTheta,
+						sprGravitation, forcesX, forcesY, stack);
+				accumulateNodeAttraction(i, locationsX, locationsY, forcesX,
+						forcesY);
+			} else {
+				accumulateNodeForcesExactly(i, locationsX, locationsY, forcesX,
+						forcesY);
+			}
+		}
+	}
+
+	/**
+	 * Accumulates the forces between all pairs of nodes using a
+	 * {@link ForkJoinPool} with {@link #getParallelism()} threads. The nodes
+	 * are partitioned into ranges, and each task computes the forces that act
+	 * on the nodes of its range, considering all other nodes in the order of
+	 * their indices (see
+	 * {@link #accumulateNodeForcesExactly(int, double[], double[], double[], double[])}
+	 * and
+	 * {@link #accumulateNodeAttraction(int, double[], double[], double[], double[])}
+	 * ). As the forces that act on a node are thereby summed up in the same
+	 * order as by
+	 * {@link #accumulateForcesExactly(int, int, double[], double[], double[], double[])}
+	 * and
+	 * {@link #accumulateForcesApproximated(int, int, double[], double[], double[], double[], int[])}
+	 * , the results are identical to the sequential ones.
+	 * 
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are
+	 *            added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are
+	 *            added.
+	 */
+	private void accumulateForcesInParallel(double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		int n = locationsX.length;
+		if (approximate) {
+			buildQuadTree(locationsX, locationsY);
+		}
+		if (forkJoinPool == null) {
+			forkJoinPool = new ForkJoinPool(parallelism);
+		}
+		// each node is affected by all other nodes, so that ranges of equal
+		// size require about the same effort
+		int grain = Math.max(MIN_NODES_PER_TASK,
+				(n + parallelism - 1) / parallelism);
+		forkJoinPool.invoke(new ForceTask(0, n, grain, locationsX, locationsY,
+				forcesX, forcesY));
+	}
+
+	/**
+	 * Accumulates the forces that act on the given node, considering all
+	 * other nodes (in the order of their indices). Connected nodes are pulled
+	 * towards each other, while unconnected nodes are repelled from each
+	 * other.
+	 */
+	private void accumulateNodeForcesExactly(int i, double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		int a = adjacencyOffsets[i];
+		int aEnd = adjacencyOffsets[i + 1];
+		for (int j = 0; j < locationsX.length; j++) {
+			double sumOfWeights = 0;
+			while (a < aEnd && adjacencyIndices[a] < j) {
+				a++;
+			}
+			if (a < aEnd && adjacencyIndices[a] == j) {
+				sumOfWeights = adjacencyWeights[a];
+			}
+			if (j == i) {
+				continue;
+			}
+			double dx = (locationsX[i] - locationsX[j]) / bounds.getWidth()
+					/ boundsScaleX;
+			double dy = (locationsY[i] - locationsY[j]) / bounds.getHeight()
+					/ boundsScaleY;
+			double distance_sq = dx * dx + dy * dy;
+			distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE, distance_sq);
+			double distance = Math.sqrt(distance_sq);
+
+			double f;
+			if (sumOfWeights > 0) {
+				f = -sprStrain * Math.log(distance / sprLength)
+						* sumOfWeights;
+			} else {
+				f = sprGravitation / (distance_sq);
+			}
+			forcesX[i] += f * dx / distance;
+			forcesY[i] += f * dy / distance;
+		}
+	}
+
+	/**
+	 * Accumulates the attractive forces that act on the given node, replacing
+	 * the repulsive forces that were approximated for its neighbors (in the
+	 * order of their indices).
+	 */
+	private void accumulateNodeAttraction(int i, double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		for (int a = adjacencyOffsets[i]; a < adjacencyOffsets[i + 1]; a++) {
+			int j = adjacencyIndices[a];
+			if (j == i) {
+				continue;
+			}
+			double dx = (locationsX[i] - locationsX[j]) / bounds.getWidth()
+					/ boundsScaleX;
+			double dy = (locationsY[i] - locationsY[j]) / bounds.getHeight()
+					/ boundsScaleY;
+			double distance_sq = dx * dx + dy * dy;
+			distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE, distance_sq);
+			double distance = Math.sqrt(distance_sq);
+			double f = -sprStrain * Math.log(distance / sprLength)
+					* adjacencyWeights[a] - sprGravitation / distance_sq;
+			forcesX[i] += f * dx / distance;
+			forcesY[i] += f * dy / distance;
+		}
+	}
+
 	/**
 	 * Computes the position for each node in this SpringLayoutAlgorithm. The
 	 * computed position will be stored in the data repository. position =
@@ -629,7 +1237,7 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	protected void computePositions() {
 		for (int i = 0; i < entities.length; i++) {
-			if (LayoutProperties.isMovable(entities[i])) {
+			if (isFree(i)) {
 				double deltaX = sprMove * forcesX[i];
 				double deltaY = sprMove * forcesY[i];
 
@@ -648,6 +1256,15 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * Returns whether the node at the given index may be moved, i.e. whether
+	 * it is movable and (within an incremental layout pass) affected by the
+	 * changes.
+	 */
+	private boolean isFree(int i) {
+		return (free == null || free[i]) && layoutGraph.isMovable(i);
+	}
+
 	private Rectangle getLayoutBounds() {
 		double minX, maxX, minY, maxY;
 		minX = minY = Double.POSITIVE_INFINITY;
@@ -696,4 +1313,263 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 			locationsY[i] -= moveY;
 		}
 	}
+
+	/**
+	 * A {@link RecursiveAction} that computes the forces that act on a range
+	 * of nodes (see {@link SpringLayoutAlgorithm#accumulateForcesInParallel}),
+	 * splitting the range in halves until it does not exceed the given grain
+	 * size.
+	 */
+	private final class ForceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final double[] locationsX;
+		private final double[] locationsY;
+		private final double[] forcesX;
+		private final double[] forcesY;
+
+		ForceTask(int from, int to, int grain, double[] locationsX,
+				double[] locationsY, double[] forcesX, double[] forcesY) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.locationsX = locationsX;
+			this.locationsY = locationsY;
+			this.forcesX = forcesX;
+			this.forcesY = forcesY;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(
+						new ForceTask(from, middle, grain, locationsX,
+								locationsY, forcesX, forcesY),
+						new ForceTask(middle, to, grain, locationsX,
+								locationsY, forcesX, forcesY));
+				return;
+			}
+			int[] stack = approximate ? QuadTree.createStack() : null;
+			for (int i = from; i < to; i++) {
+				if (approximate) {
+					quadTree.accumulateRepulsion(i, approximationTheta,
+							sprGravitation, forcesX, forcesY, stack);
+					accumulateNodeAttraction(i, locationsX, locationsY,
+							forcesX, forcesY);
+				} else {
+					accumulateNodeForcesExactly(i, locationsX, locationsY,
+							forcesX, forcesY);
+				}
+			}
+		}
+	}
+
+	/**
+	 * An array-based quadtree that is used to approximate the repulsive forces
+	 * between nodes (Barnes-Hut). Each cell stores the number of contained
+	 * nodes and the sum of their coordinates, so that a cell can be treated as
+	 * a single body located at its center of mass. The arrays are reused
+	 * across iterations to avoid garbage.
+	 */
+	private static final class QuadTree {
+
+		// cells below this depth are not subdivided any further; the
+		// contained (nearly coincident) nodes are then kept in a list
+		private static final int MAX_DEPTH = 48;
+
+		private double[] x = new double[0];
+		private double[] y = new double[0];
+		private int[] nextBody = new int[0];
+
+		private double[] cellMinX = new double[0];
+		private double[] cellMinY = new double[0];
+		private double[] cellSize = new double[0];
+		private double[] massX = new double[0];
+		private double[] massY = new double[0];
+		private int[] count = new int[0];
+		private int[] firstChild = new int[0];
+		private int[] firstBody = new int[0];
+		private int cells;
+
+		/**
+		 * Creates a stack that is sufficiently large to traverse a quadtree
+		 * (as each traversed level adds at most three cells).
+		 */
+		static int[] createStack() {
+			return new int[3 * MAX_DEPTH + 4];
+		}
+
+		private void accumulate(int i, double otherX, double otherY,
+				int mass, double gravitation, double[] forcesX,
+				double[] forcesY) {
+			double dx = x[i] - otherX;
+			double dy = y[i] - otherY;
+			double distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+					dx * dx + dy * dy);
+			double distance = Math.sqrt(distance_sq);
+			double f = mass * gravitation / distance_sq;
+			forcesX[i] += f * dx / distance;
+			forcesY[i] += f * dy / distance;
+		}
+
+		/**
+		 * Adds the (approximated) repulsive forces that are exerted on the
+		 * body with the given index by all other bodies to the given force
+		 * arrays.
+		 */
+		void accumulateRepulsion(int i, double theta, double gravitation,
+				double[] forcesX, double[] forcesY, int[] stack) {
+			int top = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				int c = stack[--top];
+				if (count[c] == 0) {
+					continue;
+				}
+				if (firstChild[c] < 0) {
+					// leaf: compute exact forces for the contained bodies
+					for (int b = firstBody[c]; b >= 0; b = nextBody[b]) {
+						if (b != i) {
+							accumulate(i, x[b], y[b], 1, gravitation, forcesX,
+									forcesY);
+						}
+					}
+					continue;
+				}
+				double comX = massX[c] / count[c];
+				double comY = massY[c] / count[c];
+				double dx = x[i] - comX;
+				double dy = y[i] - comY;
+				double size = cellSize[c];
+				if (size * size < theta * theta * (dx * dx + dy * dy)) {
+					// cell is far enough away to be treated as a single body
+					accumulate(i, comX, comY, count[c], gravitation, forcesX,
+							forcesY);
+				} else {
+					for (int q = 0; q < 4; q++) {
+						stack[top++] = firstChild[c] + q;
+					}
+				}
+			}
+		}
+
+		private int addCell(double minX, double minY, double size) {
+			if (cells == count.length) {
+				int capacity = 2 * cells + 4;
+				cellMinX = Arrays.copyOf(cellMinX, capacity);
+				cellMinY = Arrays.copyOf(cellMinY, capacity);
+				cellSize = Arrays.copyOf(cellSize, capacity);
+				massX = Arrays.copyOf(massX, capacity);
+				massY = Arrays.copyOf(massY, capacity);
+				count = Arrays.copyOf(count, capacity);
+				firstChild = Arrays.copyOf(firstChild, capacity);
+				firstBody = Arrays.copyOf(firstBody, capacity);
+			}
+			cellMinX[cells] = minX;
+			cellMinY[cells] = minY;
+			cellSize[cells] = size;
+			massX[cells] = 0;
+			massY[cells] = 0;
+			count[cells] = 0;
+			firstChild[cells] = -1;
+			firstBody[cells] = -1;
+			return cells++;
+		}
+
+		/**
+		 * (Re-)builds this quadtree for the given locations, dividing the
+		 * coordinates by the given scale factors.
+		 */
+		void build(double[] locationsX, double[] locationsY, double scaleX,
+				double scaleY, int n) {
+			if (x.length != n) {
+				x = new double[n];
+				y = new double[n];
+				nextBody = new int[n];
+			}
+			double minX = Double.POSITIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < n; i++) {
+				x[i] = locationsX[i] / scaleX;
+				y[i] = locationsY[i] / scaleY;
+				minX = Math.min(minX, x[i]);
+				minY = Math.min(minY, y[i]);
+				maxX = Math.max(maxX, x[i]);
+				maxY = Math.max(maxY, y[i]);
+			}
+			cells = 0;
+			if (n == 0) {
+				addCell(0, 0, 0);
+				return;
+			}
+			// use a square root cell
+			addCell(minX, minY, Math.max(maxX - minX, maxY - minY));
+			for (int i = 0; i < n; i++) {
+				insert(i);
+			}
+		}
+
+		private int childFor(int c, double bx, double by) {
+			double half = cellSize[c] / 2;
+			int q = 0;
+			if (bx >= cellMinX[c] + half) {
+				q += 1;
+			}
+			if (by >= cellMinY[c] + half) {
+				q += 2;
+			}
+			return firstChild[c] + q;
+		}
+
+		private void insert(int b) {
+			int c = 0;
+			int depth = 0;
+			while (true) {
+				count[c]++;
+				massX[c] += x[b];
+				massY[c] += y[b];
+				if (firstChild[c] >= 0) {
+					c = childFor(c, x[b], y[b]);
+					depth++;
+					continue;
+				}
+				if (firstBody[c] < 0) {
+					firstBody[c] = b;
+					nextBody[b] = -1;
+					return;
+				}
+				if (depth >= MAX_DEPTH) {
+					nextBody[b] = firstBody[c];
+					firstBody[c] = b;
+					return;
+				}
+				// subdivide and move the single contained body into a child
+				double half = cellSize[c] / 2;
+				double minX = cellMinX[c];
+				double minY = cellMinY[c];
+				int first = addCell(minX, minY, half);
+				addCell(minX + half, minY, half);
+				addCell(minX, minY + half, half);
+				addCell(minX + half, minY + half, half);
+				firstChild[c] = first;
+				int e = firstBody[c];
+				firstBody[c] = -1;
+				int child = childFor(c, x[e], y[e]);
+				count[child] = 1;
+				massX[child] = x[e];
+				massY[child] = y[e];
+				firstBody[child] = e;
+				nextBody[e] = -1;
+				c = childFor(c, x[b], y[b]);
+				depth++;
+			}
+		}
+	}
 }
@@ -18,12 +18,14 @@
 package org.eclipse.gef.layout.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,7 +37,7 @@ import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.IIncrementalLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -51,6 +53,21 @@ import org.eclipse.gef.layout.LayoutProperties;
  * 
  * For further information see http://dx.doi.org/10.1109/TSMC.1981.4308636
  * 
+ * The layout is computed in three stages: a {@link LayerProvider} assigns the
+ * nodes to layers, a {@link CrossingReducer} orders the nodes within their
+ * layers, and a {@link CoordinateAssigner} computes their final locations. If
+ * no {@link CoordinateAssigner} is specified, the nodes are placed on a uniform
+ * grid within the layout area (ignoring their sizes), whereas the
+ * {@link BrandesKoepfCoordinateAssigner} respects their sizes.
+ * 
+ * An incremental layout pass keeps the layer assignment and the order within
+ * the layers of the previous layout pass, i.e. neither the layering nor the
+ * crossing reduction are re-computed. Only the added nodes, and the targets
+ * of added edges that would otherwise not point downwards, are assigned to a
+ * layer (below their predecessors), and placed at the barycenter of their
+ * neighbors on that layer, moved aside to the closest position where they do
+ * not overlap other nodes. All other nodes keep their current locations.
+ * 
  * This layout algorithm works only with - directed graphs (otherwise an
  * appropriate RuntimeException is thrown)
  * 
@@ -58,7 +75,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Adam Kovacs
  * @author mwienand
  */
-public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
+public class SugiyamaLayoutAlgorithm implements IIncrementalLayoutAlgorithm {
 
 	/**
 	 * Specifies the direction for the {@link SugiyamaLayoutAlgorithm}.
@@ -93,65 +110,96 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	}
 
 	/**
+	 * An interface for heuristics that assign coordinates to the nodes, after
+	 * their layers and their order within the layers have been determined.
+	 * 
+	 * @author agent
+	 * @since 5.1
+	 */
+	public static interface CoordinateAssigner {
+		/**
+		 * Computes the locations of the nodes within the given layers, in
+		 * which the nodes are sorted by increasing index.
+		 * 
+		 * @param layers
+		 *            The layers of nodes, as determined by the
+		 *            {@link LayerProvider} and the {@link CrossingReducer}.
+		 * @param direction
+		 *            The {@link Direction} of the layout.
+		 * @param bounds
+		 *            The bounds of the layout area.
+		 * @return A {@link Map} that provides the (center) location for each
+		 *         (non-dummy) {@link Node}.
+		 */
+		Map<Node, Point> assignCoordinates(List<List<NodeWrapper>> layers,
+				Direction direction, Rectangle bounds);
+	}
+
+	/**
+	 * A {@link CrossingReducer} that sorts the nodes of each layer according
+	 * to the barycenter of their neighbors (alternating between downward and
+	 * upward sweeps), and refines the positions of the nodes by means of the
+	 * priority method of Sugiyama et al.
+	 * <p>
+	 * The layers are represented sparsely, i.e. the index of a node
+	 * corresponds to its position within a grid that is as wide as the
+	 * widest layer, so that layers may contain gaps. After each sweep, the
+	 * number of crossings is counted (see
+	 * {@link SugiyamaLayoutAlgorithm#countCrossings(List)}), and the
+	 * best ordering is retained. Sweeping stops when the crossings do not
+	 * decrease any more, or when the configurable maximum number of sweeps is
+	 * exhausted.
+	 * 
 	 * @author Rene Kuhlemann
 	 */
 	public static class BarycentricCrossingReducer implements CrossingReducer {
 
-		private List<List<NodeWrapper>> layers = new ArrayList<>();
-		private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 		private static final int MAX_SWEEPS = 35;
-		private int last; // index of the last element in a layer after padding
-							// process
+
+		private List<List<NodeWrapper>> layers = new ArrayList<>();
+		private final int maxSweeps;
+		private int last; // the greatest index of a node within a layer
 
 		/**
-		 * Fills in virtual nodes, so the layer system finally becomes an
-		 * equidistant grid
+		 * Constructs a new {@link BarycentricCrossingReducer} that performs
+		 * at most 35 sweeps.
 		 */
-		private void padLayers() {
-			last = 0;
-			for (List<NodeWrapper> iter : layers)
-				if (iter.size() > last)
-					last = iter.size();
-			last--; // index of the last element of any layer
-			for (List<NodeWrapper> iter : layers) { // padding is always
-													// added at
-				// the END of each layer!
-				for (int i = iter.size(); i <= last; i++)
-					iter.add(new NodeWrapper());
-				updateIndex(iter);
-			}
+		public BarycentricCrossingReducer() {
+			this(MAX_SWEEPS);
 		}
 
 		/**
-		 * Removes the padding nodes from the layers
+		 * Constructs a new {@link BarycentricCrossingReducer} that performs
+		 * at most the given number of sweeps.
+		 * 
+		 * @param maxSweeps
+		 *            The maximum number of (downward or upward) sweeps.
+		 * @since 5.1
 		 */
-		private void unpadLayers() {
-			for (List<NodeWrapper> layer : layers) {
-				Iterator<NodeWrapper> it = layer.iterator();
-				while (it.hasNext()) {
-					NodeWrapper wrapper = it.next();
-					if (wrapper.isPadding()) {
-						it.remove();
-					}
-				}
+		public BarycentricCrossingReducer(int maxSweeps) {
+			if (maxSweeps < 0) {
+				throw new IllegalArgumentException(
+						"The maximum number of sweeps may not be negative.");
 			}
+			this.maxSweeps = maxSweeps;
 		}
 
 		/**
-		 * Reduces connection crossings between two adjacent layers by a
-		 * combined top-down and bottom-up approach. It uses a heuristic
-		 * approach based on the predecessor's barycenter.
+		 * Assigns increasing indices to the nodes of the given layer, which
+		 * are (in this order) as close as possible to their current
+		 * (preferred) index, while not exceeding the last index.
 		 */
-		private void reduceCrossings() {
-			for (int round = 0; round < MAX_SWEEPS; round++) {
-				if ((round & 1) == 0) { // if round is even then do a bottom-up
-										// scan
-					for (int index = 1; index < layers.size(); index++)
-						reduceCrossingsDown(layers.get(index));
-				} else { // else top-down
-					for (int index = layers.size() - 2; index >= 0; index--)
-						reduceCrossingsUp(layers.get(index));
-				}
+		private void assignIndices(List<NodeWrapper> layer) {
+			int index = -1;
+			for (NodeWrapper node : layer) {
+				index = Math.max(index + 1, node.index);
+				node.index = index;
+			}
+			index = last + 1;
+			for (int i = layer.size() - 1; i >= 0; i--) {
+				NodeWrapper node = layer.get(i);
+				index = Math.min(index - 1, node.index);
+				node.index = index;
 			}
 		}
 
@@ -164,7 +212,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 					return (node1.index - node2.index);
 				}
 			});
-			updateIndex(layer);
+			assignIndices(layer);
 		}
 
 		private void reduceCrossingsUp(List<NodeWrapper> layer) {
@@ -176,7 +224,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 					return (node1.index - node2.index);
 				}
 			});
-			updateIndex(layer);
+			assignIndices(layer);
 		}
 
 		private void refineLayers() {
@@ -199,18 +247,10 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 					// ordering!!!
 				}
 			});
-			// second, remove padding from the layer's end and place them in
-			// front of the current node to improve its position
-			for (NodeWrapper iter : list) {
-				// break, if there are no more "real" nodes
-				if (iter.isPadding())
-					break;
-				// compute distance to new position
-				int delta = iter.getBaryCenter(iter.pred) - iter.index;
-				for (int i = 0; i < delta; i++)
-					layer.add(iter.index, layer.remove(last));
-			}
-			updateIndex(layer);
+			// second, move the nodes towards their barycenter (shifting the
+			// subsequent nodes as needed)
+			for (NodeWrapper iter : list)
+				moveTo(layer, iter, iter.getBaryCenter(iter.pred));
 		}
 
 		private void refineLayersUp(List<NodeWrapper> layer) {
@@ -222,38 +262,114 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 					return (node2.getPriorityUp() - node1.getPriorityUp());
 				}
 			});
-			// second, remove padding from the layer's end and place them in
-			// front of the current node to improve its position
-			for (NodeWrapper iter : list) {
-				// break, if there are no more "real" nodes
-				if (iter.isPadding())
-					break;
-				// compute distance to new position
-				int delta = iter.getBaryCenter(iter.succ) - iter.index;
-				for (int i = 0; i < delta; i++)
-					layer.add(iter.index, layer.remove(last));
+			// second, move the nodes towards their barycenter (shifting the
+			// subsequent nodes as needed)
+			for (NodeWrapper iter : list)
+				moveTo(layer, iter, iter.getBaryCenter(iter.succ));
+		}
+
+		/**
+		 * Moves the given node to the right, so that it is placed at the given
+		 * index (if possible), shifting the subsequent nodes of the layer as
+		 * needed.
+		 */
+		private void moveTo(List<NodeWrapper> layer, NodeWrapper node,
+				int index) {
+			if (index <= node.index)
+				return;
+			int position = Collections.binarySearch(layer, node,
+					new Comparator<NodeWrapper>() {
+						public int compare(NodeWrapper node1,
+								NodeWrapper node2) {
+							return (node1.index - node2.index);
+						}
+					});
+			node.index = Math.min(index,
+					last - (layer.size() - 1 - position));
+			for (int i = position + 1; i < layer.size()
+					&& layer.get(i).index <= layer.get(i - 1).index; i++)
+				layer.get(i).index = layer.get(i - 1).index + 1;
+		}
+
+		private List<NodeWrapper[]> saveLayers(int[][] indices) {
+			List<NodeWrapper[]> order = new ArrayList<>(layers.size());
+			for (int l = 0; l < layers.size(); l++) {
+				List<NodeWrapper> layer = layers.get(l);
+				order.add(layer.toArray(new NodeWrapper[layer.size()]));
+				for (int i = 0; i < layer.size(); i++)
+					indices[l][i] = layer.get(i).index;
 			}
-			updateIndex(layer);
+			return order;
 		}
 
-		private void updateIndex(List<NodeWrapper> list) {
-			for (int index = 0; index < list.size(); index++) {
-				list.get(index).index = index;
-				map.put(list.get(index).node, list.get(index));
+		private void restoreLayers(List<NodeWrapper[]> order,
+				int[][] indices) {
+			for (int l = 0; l < layers.size(); l++) {
+				List<NodeWrapper> layer = layers.get(l);
+				NodeWrapper[] nodes = order.get(l);
+				for (int i = 0; i < nodes.length; i++) {
+					nodes[i].index = indices[l][i];
+					layer.set(i, nodes[i]);
+				}
 			}
 		}
 
+		private static void updateIndex(List<NodeWrapper> list) {
+			for (int index = 0; index < list.size(); index++)
+				list.get(index).index = index;
+		}
+
 		public void crossReduction(List<List<NodeWrapper>> nodes) {
 			this.layers = nodes;
-			padLayers();
+			last = 0;
+			int[][] indices = new int[layers.size()][];
+			for (int l = 0; l < layers.size(); l++) {
+				List<NodeWrapper> layer = layers.get(l);
+				if (layer.size() - 1 > last)
+					last = layer.size() - 1;
+				updateIndex(layer);
+				indices[l] = new int[layer.size()];
+			}
+
+			long best = countCrossings(layers);
+			List<NodeWrapper[]> bestOrder = saveLayers(indices);
 			// reduce and refine iteratively, depending on the depth of the
-			// graph
-			for (int i = 0; i < layers.size(); i++) {
-				reduceCrossings();
+			// graph, as long as the crossings decrease
+			int sweeps = 0;
+			for (int i = 0; i <= layers.size() && best > 0; i++) {
+				boolean improved = false;
+				int unimproved = 0;
+				// stop after a downward and an upward sweep without
+				// improvement
+				while (sweeps < maxSweeps && unimproved < 2 && best > 0) {
+					if ((sweeps & 1) == 0) { // if round is even then do a
+												// bottom-up scan
+						for (int index = 1; index < layers.size(); index++)
+							reduceCrossingsDown(layers.get(index));
+					} else { // else top-down
+						for (int index = layers.size()
+								- 2; index >= 0; index--)
+							reduceCrossingsUp(layers.get(index));
+					}
+					sweeps++;
+					long crossings = countCrossings(layers);
+					if (crossings <= best) {
+						// XXX: also retain equally good orderings, as they
+						// result from further refinement
+						improved |= crossings < best;
+						unimproved = crossings < best ? 0 : unimproved + 1;
+						best = crossings;
+						bestOrder = saveLayers(indices);
+					} else {
+						unimproved++;
+					}
+				}
+				if (!improved || sweeps >= maxSweeps)
+					break;
 				refineLayers();
 			}
-			reduceCrossings();
-			unpadLayers();
+			restoreLayers(bestOrder, indices);
+			refineLayers();
 		}
 	}
 
@@ -269,119 +385,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	public static class SplitCrossingReducer implements CrossingReducer {
 		private final Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 
-		/**
-		 * Filters the multiple connections from the two arrays
-		 * 
-		 * @param a
-		 * @param b
-		 * @return
-		 */
-		private ArrayList<Node> unionOfNodes(Collection<Node> a,
-				Collection<Node> b) {
-			ArrayList<Node> res = new ArrayList<>(a);
-			for (Node n : b) {
-				if (!res.contains(n)) {
-					res.add(n);
-				}
-			}
-			return res;
-		}
-
-		/**
-		 * Returns the number of crosses between the two nodes and those
-		 * connected to them.
-		 * 
-		 * @param nodeA
-		 * @param nodeB
-		 * @return
-		 */
-		private int numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
-			int numOfCrosses = 0;
-			if (nodeA.equals(nodeB))
-				return 0;
-
-			// Filter nodes connected with bidirectional edges
-			ArrayList<Node> adjacentNodesOfA = unionOfNodes(
-					nodeA.node.getPredecessorNodes(),
-					nodeA.node.getSuccessorNodes());
-			ArrayList<Node> adjacentNodesOfB = unionOfNodes(
-					nodeB.node.getPredecessorNodes(),
-					nodeB.node.getSuccessorNodes());
-
-			for (Node aNode : adjacentNodesOfA) {
-				ArrayList<Integer> alreadyCrossed = new ArrayList<>();
-				NodeWrapper aNodeWrapper = map.get(aNode);
-				for (int i = 0; i < adjacentNodesOfB.size(); i++) {
-					NodeWrapper nw = map.get(adjacentNodesOfB.get(i));
-					if (!alreadyCrossed.contains(i) && nw != null) {
-						// only if on the same side
-						if ((nw.layer > nodeA.layer
-								&& aNodeWrapper.layer > nodeA.layer)
-								|| (nw.layer < nodeA.layer
-										&& aNodeWrapper.layer < nodeA.layer)) {
-							if (nodeA.index < nodeB.index) {
-								if (aNodeWrapper.index > nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeA.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeA.layer < nw.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeB.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& aNodeWrapper.layer < nodeB.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							} else if (nodeA.index > nodeB.index) {
-								if (aNodeWrapper.index < nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeB.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeB.layer > aNodeWrapper.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeA.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nw.layer > nodeA.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							}
-						}
-					}
-				}
-			}
-
-			return numOfCrosses;
-		}
-
 		/**
 		 * Selects the pivot node by random and decides the order.
 		 * 
@@ -401,8 +404,8 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			for (NodeWrapper node : layer) {
 				if (!node.equals(pivot) && node.node != null
 						&& pivot.node != null) {
-					int num1 = numberOfCrosses(node, pivot);
-					int num2 = numberOfCrosses(pivot, node);
+					int num1 = numberOfCrosses(node, pivot, map);
+					int num2 = numberOfCrosses(pivot, node, map);
 					if (num1 < num2)
 						left.add(node);
 					else if (num1 > num2)
@@ -435,8 +438,13 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				for (NodeWrapper nw : layer)
 					map.put(nw.node, nw);
 			for (int i = 0; i < nodes.size(); i++) {
-				if (!nodes.get(i).isEmpty()) {
-					splitHeuristic(nodes.get(i));
+				List<NodeWrapper> layer = nodes.get(i);
+				if (!layer.isEmpty()) {
+					List<NodeWrapper> res = splitHeuristic(layer);
+					layer.clear();
+					layer.addAll(res);
+					for (int index = 0; index < layer.size(); index++)
+						layer.get(index).index = index;
 				}
 			}
 		}
@@ -445,127 +453,43 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	/**
 	 * Implemented the CrossingReducer interface. This algorithm select
 	 * neighbouring nodes and decides there order based on the number of edge
-	 * crossings between them and those connected to them.
+	 * crossings between them and those connected to them. Sweeping over the
+	 * layers stops when no more neighbouring nodes are switched, or when the
+	 * configurable maximum number of sweeps is exhausted.
 	 * 
 	 * @author Adam Kovacs
 	 * 
 	 */
 	public static class GreedyCrossingReducer implements CrossingReducer {
+
+		private static final int MAX_SWEEPS = 35;
+
 		private final Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 		private List<List<NodeWrapper>> layers = new ArrayList<>();
-		private Map<Integer, Integer> crossesForLayers = new IdentityHashMap<>();
+		private final int maxSweeps;
 
 		/**
-		 * Filters the multiple connections from the two arrays.
-		 * 
-		 * @param a
-		 * @param b
-		 * @return
+		 * Constructs a new {@link GreedyCrossingReducer} that performs at
+		 * most 35 sweeps.
 		 */
-		private ArrayList<Node> unionOfNodes(Collection<Node> a,
-				Collection<Node> b) {
-			ArrayList<Node> res = new ArrayList<>(a);
-			for (Node n : b) {
-				if (!res.contains(n)) {
-					res.add(n);
-				}
-			}
-			return res;
+		public GreedyCrossingReducer() {
+			this(MAX_SWEEPS);
 		}
 
 		/**
-		 * Returns the number of crosses between the two nodes and those
-		 * connected to them.
+		 * Constructs a new {@link GreedyCrossingReducer} that performs at
+		 * most the given number of sweeps.
 		 * 
-		 * @param nodeA
-		 * @param nodeB
-		 * @return
+		 * @param maxSweeps
+		 *            The maximum number of sweeps over all layers.
+		 * @since 5.1
 		 */
-		private int numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
-			int numOfCrosses = 0;
-			if (nodeA.equals(nodeB))
-				return 0;
-
-			// Filter nodes connected with bidirectional edges
-			ArrayList<Node> adjacentNodesOfA = unionOfNodes(
-					nodeA.node.getPredecessorNodes(),
-					nodeA.node.getSuccessorNodes());
-			ArrayList<Node> adjacentNodesOfB = unionOfNodes(
-					nodeB.node.getPredecessorNodes(),
-					nodeB.node.getSuccessorNodes());
-
-			for (Node aNode : adjacentNodesOfA) {
-				ArrayList<Integer> alreadyCrossed = new ArrayList<>();
-				NodeWrapper aNodeWrapper = map.get(aNode);
-				for (int i = 0; i < adjacentNodesOfB.size(); i++) {
-					NodeWrapper nw = map.get(adjacentNodesOfB.get(i));
-					if (!alreadyCrossed.contains(i) && nw != null) {
-						// only if on the same side
-						if ((nw.layer > nodeA.layer
-								&& aNodeWrapper.layer > nodeA.layer)
-								|| (nw.layer < nodeA.layer
-										&& aNodeWrapper.layer < nodeA.layer)) {
-							if (nodeA.index < nodeB.index) {
-								if (aNodeWrapper.index > nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeA.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeA.layer < nw.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeB.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& aNodeWrapper.layer < nodeB.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							} else if (nodeA.index > nodeB.index) {
-								if (aNodeWrapper.index < nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeB.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeB.layer > aNodeWrapper.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeA.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nw.layer > nodeA.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							}
-						}
-					}
-				}
+		public GreedyCrossingReducer(int maxSweeps) {
+			if (maxSweeps < 0) {
+				throw new IllegalArgumentException(
+						"The maximum number of sweeps may not be negative.");
 			}
-
-			return numOfCrosses;
+			this.maxSweeps = maxSweeps;
 		}
 
 		/**
@@ -576,33 +500,21 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 */
 		private boolean greedyHeuristic(List<NodeWrapper> layer) {
 			boolean res = false;
-			if (layer.size() > 1) {
-				for (int i = 0; i < layer.size() - 1; i++) {
-					if (layer.get(i).node != null
-							&& layer.get(i + 1).node != null) {
-						int num1 = numberOfCrosses(layer.get(i),
-								layer.get(i + 1));
-						int num2 = numberOfCrosses(layer.get(i + 1),
-								layer.get(i));
-						if (num1 > num2 || (num1 == num2 && num1 > 0)) {
-							if (!crossesForLayers
-									.containsKey((layer.get(i).layer))
-									|| crossesForLayers
-											.get(layer.get(i).layer) > num2) {
-								crossesForLayers.put(layer.get(i).layer, num2);
-								res = true;
-								int level = layer.get(0).layer;
-
-								NodeWrapper tmp = layers.get(level).get(i);
-								int tmpindex = layers.get(level).get(i).index;
-								layers.get(level).get(i).index = layers
-										.get(level).get(i + 1).index;
-								layers.get(level).set(i,
-										layers.get(level).get(i + 1));
-								layers.get(level).get(i + 1).index = tmpindex;
-								layers.get(level).set(i + 1, tmp);
-							}
-						}
+			for (int i = 0; i < layer.size() - 1; i++) {
+				NodeWrapper left = layer.get(i);
+				NodeWrapper right = layer.get(i + 1);
+				if (left.node != null && right.node != null) {
+					int num1 = numberOfCrosses(left, right, map);
+					int num2 = numberOfCrosses(right, left, map);
+					// only switch if this strictly reduces the crossings, so
+					// that sweeping terminates
+					if (num1 > num2) {
+						res = true;
+						int tmpindex = left.index;
+						left.index = right.index;
+						right.index = tmpindex;
+						layer.set(i, right);
+						layer.set(i + 1, left);
 					}
 				}
 			}
@@ -610,7 +522,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 
 		public void crossReduction(List<List<NodeWrapper>> nodes) {
-			crossesForLayers.clear();
 			layers = nodes;
 
 			// Builds the map
@@ -618,22 +529,351 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				for (NodeWrapper node : layer)
 					map.put(node.node, node);
 
-			// After three iteration with no change it stops
-			int iteration = 0;
-			boolean change = false;
-			while (iteration < 3) {
+			// stops when no more nodes are switched
+			boolean change = true;
+			for (int sweeps = 0; change && sweeps < maxSweeps; sweeps++) {
 				change = false;
-				for (int i = 0; i < nodes.size(); i++) {
+				for (int i = 0; i < layers.size(); i++) {
 					if (greedyHeuristic(layers.get(i))) {
 						change = true;
 					}
 				}
-				if (!change)
-					iteration++;
 			}
 		}
 	}
 
+	/**
+	 * A {@link CoordinateAssigner} that implements the horizontal coordinate
+	 * assignment of Brandes and Köpf ("Fast and Simple Horizontal Coordinate
+	 * Assignment", 2001) in linear time. The nodes are aligned with their
+	 * median neighbors into vertical blocks in four different ways (upward or
+	 * downward, preferring left or right neighbors), each of which is
+	 * compacted, and the average median of the resulting coordinates is used.
+	 * <p>
+	 * In contrast to a uniform grid, the sizes of the nodes (see
+	 * {@link LayoutProperties#getSize(Node)}) are respected, i.e. adjacent
+	 * nodes of a layer are separated by the configurable node spacing, and
+	 * adjacent layers are separated by the configurable layer spacing. The
+	 * layout starts at the top-left corner of the bounds, but is not scaled
+	 * to fit them.
+	 * 
+	 * @author agent
+	 * @since 5.1
+	 */
+	public static class BrandesKoepfCoordinateAssigner
+			implements CoordinateAssigner {
+
+		private static final double NODE_SPACING = 20;
+		private static final double LAYER_SPACING = 40;
+
+		private final double nodeSpacing;
+		private final double layerSpacing;
+
+		// the nodes of each layer, sorted by increasing index
+		private int[][] order;
+		// the position of each node within its layer
+		private int[] pos;
+		// the extent of each node along its layer
+		private double[] size;
+		// the neighbors of each node within the adjacent layers, sorted by
+		// increasing position
+		private int[][] upper;
+		private int[][] lower;
+		// the (upper, lower) pairs of neighbors whose edges are not aligned
+		private Set<Long> conflicts;
+
+		/**
+		 * Constructs a new {@link BrandesKoepfCoordinateAssigner} with a node
+		 * spacing of 20 and a layer spacing of 40.
+		 */
+		public BrandesKoepfCoordinateAssigner() {
+			this(NODE_SPACING, LAYER_SPACING);
+		}
+
+		/**
+		 * Constructs a new {@link BrandesKoepfCoordinateAssigner} with the
+		 * given node and layer spacing.
+		 * 
+		 * @param nodeSpacing
+		 *            The minimum distance between adjacent nodes of a layer.
+		 * @param layerSpacing
+		 *            The minimum distance between adjacent layers.
+		 */
+		public BrandesKoepfCoordinateAssigner(double nodeSpacing,
+				double layerSpacing) {
+			if (nodeSpacing < 0 || layerSpacing < 0) {
+				throw new IllegalArgumentException(
+						"The spacing may not be negative.");
+			}
+			this.nodeSpacing = nodeSpacing;
+			this.layerSpacing = layerSpacing;
+		}
+
+		public Map<Node, Point> assignCoordinates(
+				List<List<NodeWrapper>> layers, Direction direction,
+				Rectangle bounds) {
+			// index the nodes
+			Map<NodeWrapper, Integer> ids = new IdentityHashMap<>();
+			order = new int[layers.size()][];
+			for (int l = 0; l < layers.size(); l++) {
+				List<NodeWrapper> layer = layers.get(l);
+				order[l] = new int[layer.size()];
+				for (int i = 0; i < layer.size(); i++) {
+					order[l][i] = ids.size();
+					ids.put(layer.get(i), ids.size());
+				}
+			}
+			int n = ids.size();
+			NodeWrapper[] nodes = new NodeWrapper[n];
+			pos = new int[n];
+			size = new double[n];
+			double[] thickness = new double[layers.size()];
+			for (int l = 0; l < layers.size(); l++) {
+				for (int i = 0; i < order[l].length; i++) {
+					int v = order[l][i];
+					nodes[v] = layers.get(l).get(i);
+					pos[v] = i;
+					if (!nodes[v].isDummy()) {
+						Dimension d = LayoutProperties.getSize(nodes[v].node);
+						boolean vertical = direction == Direction.VERTICAL;
+						size[v] = vertical ? d.width : d.height;
+						thickness[l] = Math.max(thickness[l],
+								vertical ? d.height : d.width);
+					}
+				}
+			}
+			upper = new int[n][];
+			lower = new int[n][];
+			for (int l = 0; l < layers.size(); l++) {
+				for (int v : order[l]) {
+					upper[v] = getNeighbors(nodes[v].pred, ids, l - 1);
+					lower[v] = getNeighbors(nodes[v].succ, ids, l + 1);
+				}
+			}
+			markConflicts(nodes);
+
+			// compute the four alignments and compact them
+			double[][] xs = new double[4][];
+			double[] min = new double[4];
+			double[] max = new double[4];
+			int smallest = 0;
+			for (int a = 0; a < 4; a++) {
+				boolean down = a < 2;
+				boolean left = (a & 1) == 0;
+				int[] root = new int[n];
+				int[] align = new int[n];
+				alignVertically(root, align, down, left);
+				xs[a] = compactHorizontally(root, align, left);
+				min[a] = Double.POSITIVE_INFINITY;
+				max[a] = Double.NEGATIVE_INFINITY;
+				for (int v = 0; v < n; v++) {
+					min[a] = Math.min(min[a], xs[a][v] - size[v] / 2);
+					max[a] = Math.max(max[a], xs[a][v] + size[v] / 2);
+				}
+				if (max[a] - min[a] < max[smallest] - min[smallest])
+					smallest = a;
+			}
+
+			// align the layouts to the one of smallest width, and use the
+			// average median coordinates
+			double[] candidates = new double[4];
+			double[] x = new double[n];
+			for (int v = 0; v < n; v++) {
+				for (int a = 0; a < 4; a++) {
+					double shift = (a & 1) == 0 ? min[smallest] - min[a]
+							: max[smallest] - max[a];
+					candidates[a] = xs[a][v] + shift;
+				}
+				Arrays.sort(candidates);
+				x[v] = (candidates[1] + candidates[2]) / 2;
+			}
+
+			// compute the layer coordinates and translate the layout to the
+			// top-left corner of the bounds
+			double[] y = new double[layers.size()];
+			for (int l = 1; l < layers.size(); l++)
+				y[l] = y[l - 1] + (thickness[l - 1] + thickness[l]) / 2
+						+ layerSpacing;
+			double minX = Double.POSITIVE_INFINITY;
+			for (int v = 0; v < n; v++)
+				if (!nodes[v].isDummy())
+					minX = Math.min(minX, x[v] - size[v] / 2);
+			double dx = -minX;
+			double dy = layers.isEmpty() ? 0 : thickness[0] / 2;
+			Map<Node, Point> locations = new IdentityHashMap<>();
+			for (int l = 0; l < layers.size(); l++) {
+				for (int v : order[l]) {
+					if (nodes[v].isDummy())
+						continue;
+					locations.put(nodes[v].node,
+							direction == Direction.VERTICAL
+									? new Point(bounds.getX() + x[v] + dx,
+											bounds.getY() + y[l] + dy)
+									: new Point(bounds.getX() + y[l] + dy,
+											bounds.getY() + x[v] + dx));
+				}
+			}
+			order = null;
+			pos = null;
+			size = null;
+			upper = null;
+			lower = null;
+			conflicts = null;
+			return locations;
+		}
+
+		/**
+		 * Returns the ids of the given neighbors that are placed on the given
+		 * layer, sorted by increasing position.
+		 */
+		private int[] getNeighbors(List<NodeWrapper> neighbors,
+				Map<NodeWrapper, Integer> ids, int layer) {
+			if (layer < 0 || layer >= order.length)
+				return new int[0];
+			int[] positions = new int[neighbors.size()];
+			int count = 0;
+			for (NodeWrapper neighbor : neighbors) {
+				Integer id = ids.get(neighbor);
+				if (id != null && order[layer].length > pos[id]
+						&& order[layer][pos[id]] == id)
+					positions[count++] = pos[id];
+			}
+			positions = Arrays.copyOf(positions, count);
+			Arrays.sort(positions);
+			for (int i = 0; i < count; i++)
+				positions[i] = order[layer][positions[i]];
+			return positions;
+		}
+
+		private long key(int upperNode, int lowerNode) {
+			return ((long) upperNode << 32) | lowerNode;
+		}
+
+		/**
+		 * Marks the type 1 conflicts, i.e. non-inner segments that cross an
+		 * inner segment (between two dummy nodes), so that inner segments are
+		 * preferably aligned.
+		 */
+		private void markConflicts(NodeWrapper[] nodes) {
+			conflicts = new HashSet<>();
+			for (int l = 0; l < order.length - 1; l++) {
+				int[] layer = order[l + 1];
+				int k0 = 0;
+				int i = 0;
+				for (int l1 = 0; l1 < layer.length; l1++) {
+					int v = layer[l1];
+					int inner = -1;
+					if (nodes[v].isDummy())
+						for (int u : upper[v])
+							if (nodes[u].isDummy())
+								inner = u;
+					if (l1 == layer.length - 1 || inner >= 0) {
+						int k1 = inner >= 0 ? pos[inner]
+								: order[l].length - 1;
+						for (; i <= l1; i++)
+							for (int u : upper[layer[i]])
+								if (pos[u] < k0 || pos[u] > k1)
+									conflicts.add(key(u, layer[i]));
+						k0 = k1;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Aligns each node with one of its median neighbors on the previous
+		 * layer (above or below), forming blocks of nodes that are
+		 * represented as cyclic lists by <i>align</i>, where <i>root</i> is
+		 * the first node of each block.
+		 */
+		private void alignVertically(int[] root, int[] align, boolean down,
+				boolean left) {
+			for (int v = 0; v < root.length; v++) {
+				root[v] = v;
+				align[v] = v;
+			}
+			for (int j = 1; j < order.length; j++) {
+				int[] layer = order[down ? j : order.length - 1 - j];
+				int r = left ? -1 : Integer.MAX_VALUE;
+				for (int k = 0; k < layer.length; k++) {
+					int v = layer[left ? k : layer.length - 1 - k];
+					int[] neighbors = down ? upper[v] : lower[v];
+					int d = neighbors.length;
+					if (d == 0)
+						continue;
+					int[] medians = left ? new int[] { (d - 1) / 2, d / 2 }
+							: new int[] { d / 2, (d - 1) / 2 };
+					for (int m : medians) {
+						if (align[v] != v)
+							break;
+						int u = neighbors[m];
+						if (!conflicts
+								.contains(down ? key(u, v) : key(v, u))
+								&& (left ? r < pos[u] : r > pos[u])) {
+							align[u] = v;
+							root[v] = root[u];
+							align[v] = root[v];
+							r = pos[u];
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Places each block as close as possible to the preceding blocks (in
+		 * horizontal direction), by computing the longest paths within the
+		 * (acyclic) graph of blocks, whose edges connect adjacent nodes of a
+		 * layer and are weighted by their minimum distance. Returns the
+		 * resulting coordinates of the nodes.
+		 */
+		private double[] compactHorizontally(int[] root, int[] align,
+				boolean left) {
+			int n = root.length;
+			// the next node within the layer (in horizontal direction)
+			int[] next = new int[n];
+			int[] degree = new int[n];
+			for (int[] layer : order) {
+				for (int k = 0; k < layer.length; k++) {
+					int v = layer[left ? k : layer.length - 1 - k];
+					if (k < layer.length - 1) {
+						int w = layer[left ? k + 1 : layer.length - 2 - k];
+						next[v] = w;
+						degree[root[w]]++;
+					} else {
+						next[v] = -1;
+					}
+				}
+			}
+			double[] x = new double[n];
+			int[] queue = new int[n];
+			int head = 0;
+			int tail = 0;
+			for (int v = 0; v < n; v++)
+				if (root[v] == v && degree[v] == 0)
+					queue[tail++] = v;
+			while (head < tail) {
+				int r = queue[head++];
+				int w = r;
+				do {
+					int u = next[w];
+					if (u >= 0) {
+						int s = root[u];
+						x[s] = Math.max(x[s],
+								x[r] + (size[w] + size[u]) / 2 + nodeSpacing);
+						if (--degree[s] == 0)
+							queue[tail++] = s;
+					}
+					w = align[w];
+				} while (w != r);
+			}
+			double[] coordinates = new double[n];
+			for (int v = 0; v < n; v++)
+				coordinates[v] = left ? x[root[v]] : -x[root[v]];
+			return coordinates;
+		}
+	}
+
 	/**
 	 * Structure to store nodes and their positions in the layers. Furthermore
 	 * predecessors and successors can be assigned to the nodes.
@@ -663,8 +903,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 */
 		final List<NodeWrapper> succ = new LinkedList<>();
 
-		private static final int PADDING = -1;
-
 		/**
 		 * Constructs a new {@link NodeWrapper} to wrap the given {@link Node}.
 		 * 
@@ -690,13 +928,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			this(null, l);
 		} // Dummy to connect two NodeLayout objects
 
-		/**
-		 * Constructs a new padding {@link NodeWrapper} (layer -1).
-		 */
-		NodeWrapper() {
-			this(null, PADDING);
-		} // Padding for final refinement phase
-
 		/**
 		 * Adds the given {@link NodeWrapper} to the list of predecessors that
 		 * is managed by this {@link NodeWrapper}.
@@ -729,18 +960,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 *         otherwise <code>false</code>.
 		 */
 		boolean isDummy() {
-			return ((node == null) && (layer != PADDING));
-		}
-
-		/**
-		 * Returns <code>true</code> if this {@link NodeWrapper} is a padding
-		 * node. Otherwise returns <code>false</code>.
-		 * 
-		 * @return <code>true</code> if this {@link NodeWrapper} is a padding
-		 *         node, otherwise <code>false</code>.
-		 */
-		boolean isPadding() {
-			return ((node == null) && (layer == PADDING));
+			return (node == null);
 		}
 
 		/**
@@ -766,7 +986,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		/**
 		 * Returns the down priority for this {@link NodeWrapper}:
 		 * <ol>
-		 * <li>Padding nodes: <code>0</code>
 		 * <li>Dummy nodes: <code>Integer.MAX_VALUE >> 1</code>
 		 * <li>Dummy nodes with dummy successor: <code>Integer.MAX_VALUE</code>
 		 * <li>Otherwise: Number of predecessors.
@@ -775,8 +994,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 * @return The down priority for this {@link NodeWrapper}.
 		 */
 		int getPriorityDown() {
-			if (isPadding())
-				return (0);
 			if (isDummy()) {
 				if (succ != null && succ.size() > 0) {
 					if (succ.get(0).isDummy())
@@ -793,7 +1010,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		/**
 		 * Returns the up priority for this {@link NodeWrapper}:
 		 * <ol>
-		 * <li>Padding nodes: <code>0</code>
 		 * <li>Dummy nodes: <code>Integer.MAX_VALUE >> 1</code>
 		 * <li>Dummy nodes with dummy predecessor:
 		 * <code>Integer.MAX_VALUE</code>
@@ -803,8 +1019,6 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 * @return The up priority for this {@link NodeWrapper}.
 		 */
 		int getPriorityUp() {
-			if (isPadding())
-				return (0);
 			if (isDummy()) {
 				if (pred != null && pred.size() > 0) {
 					if (pred.get(0).isDummy())
@@ -892,18 +1106,20 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 
 			for (Node node : nodes) {
 				// directed edges
-				if (node.getIncomingEdges().size() == 0)
+				if (node.getIncomingEdgesUnmodifiable().size() == 0)
 					res.add(node);
 				else {
 					int sizeOfIntersect = intersectOfConnections(
-							node.getIncomingEdges(), node.getOutgoingEdges())
-									.size();
+							node.getIncomingEdgesUnmodifiable(),
+							node.getOutgoingEdgesUnmodifiable()).size();
 					// there are more outgoing edges, besides the bidirectionals
-					if (node.getOutgoingEdges().size() > sizeOfIntersect)
+					if (node.getOutgoingEdgesUnmodifiable()
+							.size() > sizeOfIntersect)
 						res.add(node);
 					// only bidirectional edges, no incoming directed edges
-					if (node.getIncomingEdges().size() == sizeOfIntersect
-							&& node.getOutgoingEdges()
+					if (node.getIncomingEdgesUnmodifiable()
+							.size() == sizeOfIntersect
+							&& node.getOutgoingEdgesUnmodifiable()
 									.size() == sizeOfIntersect)
 						res.add(node);
 				}
@@ -980,7 +1196,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				Set<Node> closedList) {
 			ArrayList<Node> res = new ArrayList<>();
 
-			for (Edge e : toUnfold.getOutgoingEdges()) {
+			for (Edge e : toUnfold.getOutgoingEdgesUnmodifiable()) {
 				Node endPoint = e.getTarget();
 				if (endPoint.equals(toUnfold))
 					endPoint = e.getSource();
@@ -989,7 +1205,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 						&& !res.contains(endPoint))
 					res.add(endPoint);
 			}
-			for (Edge e : toUnfold.getIncomingEdges()) {
+			for (Edge e : toUnfold.getIncomingEdgesUnmodifiable()) {
 				Node endPoint = e.getTarget();
 				if (endPoint.equals(toUnfold))
 					endPoint = e.getSource();
@@ -1123,7 +1339,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			List<Node> roots = new ArrayList<>();
 			for (Node iter : list) {
 				// no predecessors means: this is a root, add it to list
-				if (iter.getPredecessorNodes().size() == 0)
+				if (iter.getPredecessorNodesUnmodifiable().size() == 0)
 					roots.add(iter);
 			}
 			return (roots);
@@ -1151,7 +1367,8 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				layer.add(nw);
 				// insert dummy nodes if the adjacent layer does not contain the
 				// predecessor
-				for (Node node_predecessor : node.getPredecessorNodes()) {
+				for (Node node_predecessor : node
+						.getPredecessorNodesUnmodifiable()) {
 					NodeWrapper nw_predecessor = map.get(node_predecessor);
 					if (nw_predecessor != null) {
 						for (int level = nw_predecessor.layer
@@ -1195,7 +1412,8 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 									+ "! (Graph not directed? Cycles?)");
 				List<Node> layer = new ArrayList<>();
 				for (Node item : nodes) {
-					if (predecessors.containsAll(item.getPredecessorNodes()))
+					if (predecessors
+							.containsAll(item.getPredecessorNodesUnmodifiable()))
 						layer.add(item);
 				}
 				if (layer.size() == 0)
@@ -1210,16 +1428,648 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
+	/**
+	 * The directed graph of the nodes that are to be layered, represented by
+	 * indexed adjacency lists (compressed sparse rows), in which cycles are
+	 * broken by reversing the back edges of a depth first search. Self loops
+	 * and edges to nodes that are not to be layered are ignored.
+	 */
+	private static class LayeringGraph {
+
+		final List<Node> nodes;
+		// the (acyclic) source and target node of each edge
+		final int[] source;
+		final int[] target;
+		// the outgoing and incoming edges of each node, i.e. the edges
+		// out[outStart[v]] to out[outStart[v + 1] - 1] leave node v
+		final int[] outStart;
+		final int[] out;
+		final int[] inStart;
+		final int[] in;
+
+		LayeringGraph(List<Node> nodes) {
+			this.nodes = nodes;
+			int n = nodes.size();
+			Map<Node, Integer> ids = new IdentityHashMap<>();
+			for (int v = 0; v < n; v++)
+				ids.put(nodes.get(v), v);
+			int m = 0;
+			int[] s = new int[16];
+			int[] t = new int[16];
+			for (int v = 0; v < n; v++) {
+				for (Edge edge : nodes.get(v).getOutgoingEdgesUnmodifiable()) {
+					Integer w = ids.get(edge.getTarget());
+					if (w == null || w == v)
+						continue;
+					if (m == s.length) {
+						s = Arrays.copyOf(s, 2 * m);
+						t = Arrays.copyOf(t, 2 * m);
+					}
+					s[m] = v;
+					t[m++] = w;
+				}
+			}
+			source = Arrays.copyOf(s, m);
+			target = Arrays.copyOf(t, m);
+			outStart = new int[n + 1];
+			breakCycles(index(source, outStart));
+			out = index(source, outStart);
+			inStart = new int[n + 1];
+			in = index(target, inStart);
+		}
+
+		/**
+		 * Returns the edges sorted by the given end points, and stores the
+		 * start offsets of the nodes in the given array.
+		 */
+		private int[] index(int[] endPoints, int[] start) {
+			Arrays.fill(start, 0);
+			for (int v : endPoints)
+				start[v + 1]++;
+			for (int v = 1; v < start.length; v++)
+				start[v] += start[v - 1];
+			int[] next = Arrays.copyOf(start, start.length - 1);
+			int[] edges = new int[endPoints.length];
+			for (int e = 0; e < endPoints.length; e++)
+				edges[next[endPoints[e]]++] = e;
+			return edges;
+		}
+
+		/**
+		 * Reverses the edges that lead back to a node on the stack of an
+		 * (iterative) depth first search along the given outgoing edges.
+		 */
+		private void breakCycles(int[] out) {
+			int n = nodes.size();
+			// 0: not visited, 1: on stack, 2: finished
+			byte[] state = new byte[n];
+			int[] stack = new int[n];
+			int[] next = new int[n];
+			for (int root = 0; root < n; root++) {
+				if (state[root] != 0)
+					continue;
+				int size = 0;
+				stack[size++] = root;
+				state[root] = 1;
+				next[root] = outStart[root];
+				while (size > 0) {
+					int v = stack[size - 1];
+					if (next[v] < outStart[v + 1]) {
+						int e = out[next[v]++];
+						int w = target[e];
+						if (state[w] == 1) {
+							target[e] = source[e];
+							source[e] = w;
+						} else if (state[w] == 0) {
+							state[w] = 1;
+							next[w] = outStart[w];
+							stack[size++] = w;
+						}
+					} else {
+						state[v] = 2;
+						size--;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Computes the length of the longest path from a source to each node
+		 * in linear time, by processing the nodes in topological order.
+		 */
+		int[] getLongestPathRanks() {
+			int n = nodes.size();
+			int[] rank = new int[n];
+			int[] degree = new int[n];
+			int[] queue = new int[n];
+			int head = 0;
+			int tail = 0;
+			for (int v = 0; v < n; v++) {
+				degree[v] = inStart[v + 1] - inStart[v];
+				if (degree[v] == 0)
+					queue[tail++] = v;
+			}
+			while (head < tail) {
+				int v = queue[head++];
+				for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+					int w = target[out[i]];
+					rank[w] = Math.max(rank[w], rank[v] + 1);
+					if (--degree[w] == 0)
+						queue[tail++] = w;
+				}
+			}
+			return rank;
+		}
+
+		/**
+		 * Creates the layers for the given ranks, inserting dummy nodes for
+		 * edges that span several layers, so that the hierarchy is proper.
+		 */
+		List<List<NodeWrapper>> createLayers(int[] rank) {
+			List<List<NodeWrapper>> layers = new ArrayList<>();
+			NodeWrapper[] wrappers = new NodeWrapper[nodes.size()];
+			for (int v = 0; v < nodes.size(); v++) {
+				while (layers.size() <= rank[v])
+					layers.add(new ArrayList<NodeWrapper>());
+				wrappers[v] = new NodeWrapper(nodes.get(v), rank[v]);
+				layers.get(rank[v]).add(wrappers[v]);
+			}
+			for (int e = 0; e < source.length; e++) {
+				NodeWrapper nw_predecessor = wrappers[source[e]];
+				NodeWrapper nw = wrappers[target[e]];
+				for (int level = nw_predecessor.layer
+						+ 1; level < nw.layer; level++) {
+					NodeWrapper nw_dummy = new NodeWrapper(level);
+					nw_dummy.addPredecessor(nw_predecessor);
+					nw_predecessor.addSuccessor(nw_dummy);
+					nw_predecessor = nw_dummy;
+					layers.get(level).add(nw_dummy);
+				}
+				nw.addPredecessor(nw_predecessor);
+				nw_predecessor.addSuccessor(nw);
+			}
+			for (List<NodeWrapper> layer : layers)
+				for (int index = 0; index < layer.size(); index++)
+					layer.get(index).index = index;
+			return layers;
+		}
+	}
+
+	/**
+	 * A {@link LayerProvider} that assigns each node to the layer that
+	 * corresponds to the length of the longest path from a source node to it,
+	 * in linear time. Cycles are broken by reversing edges. Edges that span
+	 * several layers are split by dummy nodes, so that the hierarchy is
+	 * proper.
+	 * 
+	 * @author agent
+	 * @since 5.1
+	 */
+	public static class LongestPathLayerProvider implements LayerProvider {
+
+		public List<List<NodeWrapper>> calculateLayers(List<Node> nodes) {
+			LayeringGraph graph = new LayeringGraph(nodes);
+			return graph.createLayers(graph.getLongestPathRanks());
+		}
+	}
+
+	/**
+	 * A {@link LayerProvider} that minimizes the total span of the edges
+	 * (i.e. the number of dummy nodes) by means of the network simplex
+	 * algorithm of Gansner et al. ("A Technique for Drawing Directed Graphs",
+	 * 1993), as used by Graphviz dot. Starting from a longest path layering, a
+	 * feasible spanning tree of tight edges is constructed, which is improved
+	 * by exchanging tree edges with negative cut values, until the layering
+	 * is optimal or the maximum number of iterations or the time limit is
+	 * exceeded. As every iteration results in a valid layering, the layering
+	 * is only less compact in the latter case.
+	 * 
+	 * @author agent
+	 * @since 5.1
+	 */
+	public static class NetworkSimplexLayerProvider implements LayerProvider {
+
+		// the number of tree edges with negative cut value among which the
+		// leaving edge with the minimum cut value is selected
+		private static final int SEARCH_SIZE = 30;
+
+		private final int maxIterations;
+		private final long timeLimit;
+
+		private LayeringGraph graph;
+		private int[] rank;
+		// the edges of the spanning tree, and the position of each edge
+		// within them (or -1 for non-tree edges)
+		private int[] treeEdges;
+		private int[] treeIndex;
+		private int treeSize;
+		// the tree edges that are incident to each node
+		private int[][] incidentTreeEdges;
+		private int[] incidentTreeEdgesCount;
+		// the parent edge of each node (or -1 for the roots), and the range of
+		// the postorder numbers within the subtree of each node
+		private int[] parent;
+		private int[] low;
+		private int[] lim;
+		private int[] nodeAtLim;
+		private int[] cutValue;
+		private int searchStart;
+		// the stack of the (iterative) depth first search, and the position
+		// of the next incident tree edge to visit for each node
+		private int[] stack;
+		private int[] position;
+
+		/**
+		 * Constructs a new {@link NetworkSimplexLayerProvider} that computes an
+		 * optimal layering, without limiting the number of iterations or the
+		 * time.
+		 */
+		public NetworkSimplexLayerProvider() {
+			this(Integer.MAX_VALUE, 0);
+		}
+
+		/**
+		 * Constructs a new {@link NetworkSimplexLayerProvider} that stops
+		 * improving the layering after the given number of iterations, or
+		 * after the given time.
+		 * 
+		 * @param maxIterations
+		 *            The maximum number of network simplex iterations.
+		 * @param timeLimit
+		 *            The maximum time (in milliseconds) to spend on improving
+		 *            the layering, or <code>0</code> for no time limit.
+		 */
+		public NetworkSimplexLayerProvider(int maxIterations, long timeLimit) {
+			if (maxIterations < 0 || timeLimit < 0) {
+				throw new IllegalArgumentException(
+						"The limits may not be negative.");
+			}
+			this.maxIterations = maxIterations;
+			this.timeLimit = timeLimit;
+		}
+
+		public List<List<NodeWrapper>> calculateLayers(List<Node> nodes) {
+			long deadline = System.nanoTime() + timeLimit * 1000000;
+			graph = new LayeringGraph(nodes);
+			rank = graph.getLongestPathRanks();
+			try {
+				int[] roots = createFeasibleTree();
+				int n = nodes.size();
+				parent = new int[n];
+				low = new int[n];
+				lim = new int[n];
+				nodeAtLim = new int[n];
+				stack = new int[n];
+				position = new int[n];
+				cutValue = new int[graph.source.length];
+				int next = 0;
+				for (int root : roots)
+					next = computeRanges(root, -1, next);
+				// process the nodes in postorder, so that the cut values of
+				// the child edges are known
+				for (int l = 0; l < n; l++) {
+					int v = nodeAtLim[l];
+					if (parent[v] >= 0)
+						computeCutValue(parent[v]);
+				}
+				searchStart = 0;
+				for (int iterations = 0; iterations < maxIterations
+						&& (timeLimit == 0
+								|| System.nanoTime() - deadline < 0); iterations++) {
+					int e = getLeavingEdge();
+					if (e < 0)
+						break;
+					int f = getEnteringEdge(e);
+					if (f < 0)
+						break;
+					exchange(e, f);
+				}
+				// normalize the ranks of each connected component
+				for (int root : roots) {
+					int min = Integer.MAX_VALUE;
+					for (int l = low[root]; l <= lim[root]; l++)
+						min = Math.min(min, rank[nodeAtLim[l]]);
+					for (int l = low[root]; l <= lim[root]; l++)
+						rank[nodeAtLim[l]] -= min;
+				}
+				return graph.createLayers(rank);
+			} finally {
+				graph = null;
+				rank = null;
+				treeEdges = null;
+				treeIndex = null;
+				incidentTreeEdges = null;
+				incidentTreeEdgesCount = null;
+				parent = null;
+				low = null;
+				lim = null;
+				nodeAtLim = null;
+				stack = null;
+				position = null;
+				cutValue = null;
+			}
+		}
+
+		private int slack(int e) {
+			return rank[graph.target[e]] - rank[graph.source[e]] - 1;
+		}
+
+		private void addTreeEdge(int e) {
+			treeIndex[e] = treeSize;
+			treeEdges[treeSize++] = e;
+			int s = graph.source[e];
+			int t = graph.target[e];
+			incidentTreeEdges[s][incidentTreeEdgesCount[s]++] = e;
+			incidentTreeEdges[t][incidentTreeEdgesCount[t]++] = e;
+		}
+
+		private void removeTreeEdge(int e) {
+			int i = treeIndex[e];
+			treeEdges[i] = treeEdges[--treeSize];
+			treeIndex[treeEdges[i]] = i;
+			treeIndex[e] = -1;
+			removeIncidentTreeEdge(graph.source[e], e);
+			removeIncidentTreeEdge(graph.target[e], e);
+		}
+
+		private void removeIncidentTreeEdge(int v, int e) {
+			int[] incident = incidentTreeEdges[v];
+			for (int j = 0; j < incidentTreeEdgesCount[v]; j++) {
+				if (incident[j] == e) {
+					incident[j] = incident[--incidentTreeEdgesCount[v]];
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Adds the nodes that are reachable via tight edges from the given
+		 * members of a tree (starting at the given position) to the tree.
+		 * Returns the resulting number of members.
+		 */
+		private int growTightTree(int[] members, int from, int size,
+				boolean[] inTree) {
+			for (int i = from; i < size; i++) {
+				int v = members[i];
+				for (int j = graph.outStart[v]; j < graph.outStart[v
+						+ 1]; j++) {
+					int e = graph.out[j];
+					if (!inTree[graph.target[e]] && slack(e) == 0) {
+						inTree[graph.target[e]] = true;
+						addTreeEdge(e);
+						members[size++] = graph.target[e];
+					}
+				}
+				for (int j = graph.inStart[v]; j < graph.inStart[v + 1]; j++) {
+					int e = graph.in[j];
+					if (!inTree[graph.source[e]] && slack(e) == 0) {
+						inTree[graph.source[e]] = true;
+						addTreeEdge(e);
+						members[size++] = graph.source[e];
+					}
+				}
+			}
+			return size;
+		}
+
+		/**
+		 * Constructs a spanning tree of tight edges for each connected
+		 * component, shifting the ranks of the nodes as needed. Returns the
+		 * roots of the trees.
+		 */
+		private int[] createFeasibleTree() {
+			int n = graph.nodes.size();
+			int m = graph.source.length;
+			treeEdges = new int[Math.max(n - 1, 0)];
+			treeIndex = new int[m];
+			Arrays.fill(treeIndex, -1);
+			treeSize = 0;
+			incidentTreeEdges = new int[n][];
+			incidentTreeEdgesCount = new int[n];
+			for (int v = 0; v < n; v++)
+				incidentTreeEdges[v] = new int[graph.outStart[v + 1]
+						- graph.outStart[v] + graph.inStart[v + 1]
+						- graph.inStart[v]];
+			boolean[] inTree = new boolean[n];
+			int[] members = new int[n];
+			int[] roots = new int[n];
+			int components = 0;
+			for (int root = 0; root < n; root++) {
+				if (inTree[root])
+					continue;
+				roots[components++] = root;
+				inTree[root] = true;
+				members[0] = root;
+				int size = growTightTree(members, 0, 1, inTree);
+				while (true) {
+					// find an incident edge with minimum slack
+					int best = -1;
+					for (int i = 0; i < size; i++) {
+						int v = members[i];
+						for (int j = graph.outStart[v]; j < graph.outStart[v
+								+ 1]; j++) {
+							int e = graph.out[j];
+							if (!inTree[graph.target[e]]
+									&& (best < 0 || slack(e) < slack(best)))
+								best = e;
+						}
+						for (int j = graph.inStart[v]; j < graph.inStart[v
+								+ 1]; j++) {
+							int e = graph.in[j];
+							if (!inTree[graph.source[e]]
+									&& (best < 0 || slack(e) < slack(best)))
+								best = e;
+						}
+					}
+					if (best < 0)
+						break;
+					// make the edge tight by shifting the tree
+					int delta = inTree[graph.source[best]] ? slack(best)
+							: -slack(best);
+					for (int i = 0; i < size; i++)
+						rank[members[i]] += delta;
+					int w = inTree[graph.source[best]] ? graph.target[best]
+							: graph.source[best];
+					inTree[w] = true;
+					addTreeEdge(best);
+					members[size] = w;
+					size = growTightTree(members, size, size + 1, inTree);
+				}
+			}
+			return Arrays.copyOf(roots, components);
+		}
+
+		/**
+		 * Assigns the parent edges and the postorder numbers (starting with
+		 * the given one) within the subtree of the given node. Returns the
+		 * next postorder number.
+		 */
+		private int computeRanges(int root, int parentEdge, int next) {
+			int size = 0;
+			stack[size++] = root;
+			parent[root] = parentEdge;
+			low[root] = next;
+			position[root] = 0;
+			while (size > 0) {
+				int v = stack[size - 1];
+				if (position[v] < incidentTreeEdgesCount[v]) {
+					int e = incidentTreeEdges[v][position[v]++];
+					if (e == parent[v])
+						continue;
+					int w = graph.source[e] == v ? graph.target[e]
+							: graph.source[e];
+					parent[w] = e;
+					low[w] = next;
+					position[w] = 0;
+					stack[size++] = w;
+				} else {
+					lim[v] = next;
+					nodeAtLim[next++] = v;
+					size--;
+				}
+			}
+			return next;
+		}
+
+		private boolean isInSubtree(int v, int w) {
+			return low[v] <= lim[w] && lim[w] <= lim[v];
+		}
+
+		/**
+		 * Computes the cut value of the given tree edge from the cut values of
+		 * the tree edges below it.
+		 */
+		private void computeCutValue(int f) {
+			int v;
+			int dir;
+			if (parent[graph.source[f]] == f) {
+				v = graph.source[f];
+				dir = 1;
+			} else {
+				v = graph.target[f];
+				dir = -1;
+			}
+			int sum = 0;
+			for (int j = graph.outStart[v]; j < graph.outStart[v + 1]; j++)
+				sum += getCutValueContribution(graph.out[j], v, dir);
+			for (int j = graph.inStart[v]; j < graph.inStart[v + 1]; j++)
+				sum += getCutValueContribution(graph.in[j], v, dir);
+			cutValue[f] = sum;
+		}
+
+		private int getCutValueContribution(int e, int v, int dir) {
+			int other = graph.source[e] == v ? graph.target[e]
+					: graph.source[e];
+			boolean outside = !isInSubtree(v, other);
+			int value;
+			if (outside) {
+				value = 1;
+			} else {
+				value = (treeIndex[e] >= 0 ? cutValue[e] : 0) - 1;
+			}
+			int d;
+			if (dir > 0)
+				d = graph.target[e] == v ? 1 : -1;
+			else
+				d = graph.source[e] == v ? 1 : -1;
+			if (outside)
+				d = -d;
+			return d < 0 ? -value : value;
+		}
+
+		/**
+		 * Returns a tree edge with negative cut value (the minimum among the
+		 * next few ones), or -1 if the layering is optimal.
+		 */
+		private int getLeavingEdge() {
+			int best = -1;
+			int count = 0;
+			for (int k = 0; k < treeSize; k++) {
+				int i = (searchStart + k) % treeSize;
+				int e = treeEdges[i];
+				if (cutValue[e] < 0) {
+					if (best < 0 || cutValue[e] < cutValue[best])
+						best = e;
+					if (++count >= SEARCH_SIZE) {
+						searchStart = i;
+						return best;
+					}
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Returns a non-tree edge with minimum slack that reconnects the
+		 * components that result from removing the given tree edge, i.e.
+		 * which leads from its head to its tail component.
+		 */
+		private int getEnteringEdge(int e) {
+			int v;
+			boolean outSearch;
+			// search the component that corresponds to the subtree below e
+			if (lim[graph.source[e]] < lim[graph.target[e]]) {
+				v = graph.source[e];
+				outSearch = false;
+			} else {
+				v = graph.target[e];
+				outSearch = true;
+			}
+			int best = -1;
+			for (int l = low[v]; l <= lim[v]; l++) {
+				int w = nodeAtLim[l];
+				int[] edges = outSearch ? graph.out : graph.in;
+				int[] start = outSearch ? graph.outStart : graph.inStart;
+				for (int j = start[w]; j < start[w + 1]; j++) {
+					int f = edges[j];
+					int other = outSearch ? graph.target[f] : graph.source[f];
+					if (treeIndex[f] < 0 && !isInSubtree(v, other)
+							&& (best < 0 || slack(f) < slack(best)))
+						best = f;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Updates the cut values along the tree path from the given node to
+		 * the least common ancestor with the other given node, which is
+		 * returned.
+		 */
+		private int updateCutValues(int v, int w, int value, boolean dir) {
+			while (!isInSubtree(v, w)) {
+				int e = parent[v];
+				boolean d = v == graph.source[e] ? dir : !dir;
+				cutValue[e] += d ? value : -value;
+				v = lim[graph.source[e]] > lim[graph.target[e]]
+						? graph.source[e] : graph.target[e];
+			}
+			return v;
+		}
+
+		/**
+		 * Replaces the tree edge e by the non-tree edge f, updating the ranks,
+		 * cut values, and postorder numbers.
+		 */
+		private void exchange(int e, int f) {
+			int delta = slack(f);
+			if (delta > 0) {
+				// shift the component below e, so that f becomes tight
+				int v = lim[graph.source[e]] < lim[graph.target[e]]
+						? graph.source[e] : graph.target[e];
+				int shift = v == graph.source[e] ? -delta : delta;
+				for (int l = low[v]; l <= lim[v]; l++)
+					rank[nodeAtLim[l]] += shift;
+			}
+			int value = cutValue[e];
+			int lca = updateCutValues(graph.source[f], graph.target[f], value,
+					true);
+			updateCutValues(graph.target[f], graph.source[f], value, false);
+			cutValue[f] = -value;
+			cutValue[e] = 0;
+			removeTreeEdge(e);
+			addTreeEdge(f);
+			computeRanges(lca, parent[lca], low[lca]);
+		}
+	}
+
 	private List<List<NodeWrapper>> layers = new ArrayList<>();
 	private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 	private final Direction direction;
 	private final Dimension dimension;
 
-	// index of the last element in a layer after padding process
+	// greatest index of an element in a layer after crossing reduction
 	private int last;
 
 	private LayerProvider layerProvider;
 	private CrossingReducer crossingReducer;
+	private CoordinateAssigner coordinateAssigner;
+
+	// the coordinates of the layers (along the direction of the layout), so
+	// that incremental layout passes can place nodes on them (null if no
+	// layout pass was applied)
+	private double[] layerCoordinates;
+	private double layerSpacing;
 
 	/**
 	 * Constructs a tree-like, layered layout of a directed graph.
@@ -1240,6 +2090,34 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	public SugiyamaLayoutAlgorithm(Direction dir, Dimension dim,
 			LayerProvider layering, CrossingReducer crossing) {
+		this(dir, dim, layering, crossing, null);
+	}
+
+	/**
+	 * Constructs a tree-like, layered layout of a directed graph.
+	 * 
+	 * @param dir
+	 *            {@link Direction#HORIZONTAL}: left to right -
+	 *            {@link Direction#VERTICAL} : top to bottom
+	 * 
+	 * @param dim
+	 *            - desired size of the layout area. Uses the BOUNDS_PROPERTY of
+	 *            the LayoutContext if not set
+	 * 
+	 * @param layering
+	 *            - implementation of LayerProvider interface
+	 * 
+	 * @param crossing
+	 *            - implementation of CrossingReducer interface
+	 * 
+	 * @param coordinates
+	 *            - implementation of CoordinateAssigner interface. Places the
+	 *            nodes on a uniform grid within the layout area if not set
+	 * @since 5.1
+	 */
+	public SugiyamaLayoutAlgorithm(Direction dir, Dimension dim,
+			LayerProvider layering, CrossingReducer crossing,
+			CoordinateAssigner coordinates) {
 		direction = dir;
 		dimension = dim;
 
@@ -1247,6 +2125,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				: layering;
 		crossingReducer = (crossing == null) ? new BarycentricCrossingReducer()
 				: crossing;
+		coordinateAssigner = coordinates;
 	}
 
 	/**
@@ -1345,14 +2224,273 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		layers = layerProvider.calculateLayers(nodes);
 		crossingReducer.crossReduction(layers);
 
+		updateMap();
+		calculatePositions(layoutContext);
+		recordLayerCoordinates(layoutContext);
+	}
+
+	@Override
+	public void applyIncrementalLayout(LayoutContext layoutContext) {
+		if (layerCoordinates == null) {
+			applyLayout(layoutContext, true);
+			return;
+		}
+		for (Node removed : layoutContext.getRemovedNodes()) {
+			map.remove(removed);
+		}
+
+		// the added nodes, and the targets of added edges that do not point
+		// downwards (unless they are pinned), are (re-)assigned to a layer
+		Set<Node> pending = new LinkedHashSet<>();
+		for (Node node : layoutContext.getNodes()) {
+			if (layoutContext.getAddedNodes().contains(node)) {
+				pending.add(node);
+			}
+		}
+		for (Edge edge : layoutContext.getAddedEdges()) {
+			NodeWrapper source = map.get(edge.getSource());
+			NodeWrapper target = map.get(edge.getTarget());
+			if (source != null && target != null && source != target
+					&& target.layer <= source.layer
+					&& LayoutProperties.isMovable(target.node)
+					&& !layoutContext.getMovedNodes().contains(target.node)) {
+				pending.add(target.node);
+			}
+		}
+		List<Node> inserted = new ArrayList<>();
+		while (!pending.isEmpty()) {
+			// prefer nodes whose predecessors are all assigned (falling back
+			// to an arbitrary node in case of cycles)
+			Node next = pending.iterator().next();
+			for (Node node : pending) {
+				if (!hasPendingPredecessor(node, pending)) {
+					next = node;
+					break;
+				}
+			}
+			pending.remove(next);
+			map.put(next, new NodeWrapper(next, assignLayer(next)));
+			inserted.add(next);
+		}
+
+		// index the other nodes by layer, and insert the nodes one after the
+		// other, so that they are considered by the subsequent ones
+		Set<Node> unplaced = new HashSet<>(inserted);
+		Map<Integer, List<Node>> nodesByLayer = new HashMap<>();
+		for (Node node : layoutContext.getNodes()) {
+			if (!unplaced.contains(node)) {
+				getLayer(nodesByLayer, map.get(node).layer).add(node);
+			}
+		}
+		for (Node node : inserted) {
+			int layer = map.get(node).layer;
+			unplaced.remove(node);
+			if (LayoutProperties.isMovable(node)) {
+				insertIntoLayer(node, layer, getLayer(nodesByLayer, layer),
+						unplaced, layoutContext);
+			}
+			getLayer(nodesByLayer, layer).add(node);
+		}
+	}
+
+	private static List<Node> getLayer(Map<Integer, List<Node>> nodesByLayer,
+			int layer) {
+		List<Node> nodes = nodesByLayer.get(layer);
+		if (nodes == null) {
+			nodes = new ArrayList<>();
+			nodesByLayer.put(layer, nodes);
+		}
+		return nodes;
+	}
+
+	private boolean hasPendingPredecessor(Node node, Set<Node> pending) {
+		for (Edge edge : node.getIncomingEdgesUnmodifiable()) {
+			if (edge.getSource() != node
+					&& pending.contains(edge.getSource())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines the layer of the given {@link Node} during an incremental
+	 * layout pass, i.e. the layer below its lowest predecessor that is
+	 * assigned to a layer, or (if there is none) the layer above its highest
+	 * successor.
+	 */
+	private int assignLayer(Node node) {
+		int predecessorLayer = -1;
+		for (Edge edge : node.getIncomingEdgesUnmodifiable()) {
+			NodeWrapper predecessor = map.get(edge.getSource());
+			if (predecessor != null && edge.getSource() != node)
+				predecessorLayer = Math.max(predecessorLayer,
+						predecessor.layer);
+		}
+		if (predecessorLayer >= 0)
+			return predecessorLayer + 1;
+		int successorLayer = Integer.MAX_VALUE;
+		for (Edge edge : node.getOutgoingEdgesUnmodifiable()) {
+			NodeWrapper successor = map.get(edge.getTarget());
+			if (successor != null && edge.getTarget() != node)
+				successorLayer = Math.min(successorLayer, successor.layer);
+		}
+		return successorLayer == Integer.MAX_VALUE ? 0
+				: Math.max(0, successorLayer - 1);
+	}
+
+	/**
+	 * Places the given {@link Node} on the given layer during an incremental
+	 * layout pass. It is placed at the barycenter of its neighbors (that are
+	 * already placed), or behind the other nodes of the layer if it has no
+	 * such neighbors, and is then moved to the closest position where it
+	 * keeps a minimum distance to the other nodes of the layer.
+	 */
+	private void insertIntoLayer(Node node, int layer, List<Node> layerNodes,
+			Set<Node> unplaced, LayoutContext context) {
+		boolean vertical = direction == Direction.VERTICAL;
+		double barycenter = 0;
+		int neighbors = 0;
+		List<Edge> edges = new ArrayList<>(
+				node.getIncomingEdgesUnmodifiable());
+		edges.addAll(node.getOutgoingEdgesUnmodifiable());
+		for (Edge edge : edges) {
+			Node neighbor = edge.getSource() == node ? edge.getTarget()
+					: edge.getSource();
+			if (neighbor != node && map.containsKey(neighbor)
+					&& !unplaced.contains(neighbor)) {
+				Point location = LayoutProperties.getLocation(neighbor);
+				barycenter += vertical ? location.x : location.y;
+				neighbors++;
+			}
+		}
+
+		// the (merged) intervals in which the center of the node may not be
+		// placed
+		double size = getBreadth(node);
+		double[][] occupied = new double[layerNodes.size()][];
+		for (int i = 0; i < occupied.length; i++) {
+			Node other = layerNodes.get(i);
+			Point location = LayoutProperties.getLocation(other);
+			double center = vertical ? location.x : location.y;
+			double extent = (size + getBreadth(other)) / 2
+					+ BrandesKoepfCoordinateAssigner.NODE_SPACING;
+			occupied[i] = new double[] { center - extent, center + extent };
+		}
+		Arrays.sort(occupied, new Comparator<double[]>() {
+			@Override
+			public int compare(double[] interval1, double[] interval2) {
+				return Double.compare(interval1[0], interval2[0]);
+			}
+		});
+		List<double[]> intervals = new ArrayList<>();
+		for (double[] interval : occupied) {
+			double[] previous = intervals.isEmpty() ? null
+					: intervals.get(intervals.size() - 1);
+			if (previous != null && interval[0] <= previous[1])
+				previous[1] = Math.max(previous[1], interval[1]);
+			else
+				intervals.add(interval);
+		}
+
+		double breadth;
+		if (neighbors > 0) {
+			breadth = barycenter / neighbors;
+			for (double[] interval : intervals) {
+				if (interval[0] < breadth && breadth < interval[1]) {
+					// move to the closer end
+					breadth = breadth - interval[0] < interval[1] - breadth
+							? interval[0] : interval[1];
+					break;
+				}
+			}
+		} else if (!intervals.isEmpty()) {
+			breadth = intervals.get(intervals.size() - 1)[1];
+		} else {
+			Rectangle bounds = getBoundary(context);
+			breadth = (vertical ? bounds.getX() : bounds.getY()) + size / 2;
+		}
+		double depth = getLayerCoordinate(layer);
+		LayoutProperties.setLocation(node, vertical
+				? new Point(breadth, depth) : new Point(depth, breadth));
+	}
+
+	private double getBreadth(Node node) {
+		Dimension size = LayoutProperties.getSize(node);
+		return direction == Direction.VERTICAL ? size.width : size.height;
+	}
+
+	private Rectangle getBoundary(LayoutContext context) {
+		if (dimension != null)
+			return new Rectangle(0, 0, dimension.getWidth(),
+					dimension.getHeight());
+		return LayoutProperties.getBounds(context.getGraph());
+	}
+
+	/**
+	 * Records the coordinate of each layer (along the direction of the layout)
+	 * after a complete layout pass, so that incremental layout passes can
+	 * place nodes on them. Layers that only contain dummy nodes (which are
+	 * always enclosed by layers with non-dummy nodes) are interpolated.
+	 */
+	private void recordLayerCoordinates(LayoutContext context) {
+		boolean vertical = direction == Direction.VERTICAL;
+		layerCoordinates = new double[layers.size()];
+		Arrays.fill(layerCoordinates, Double.NaN);
+		double thickness = 0;
+		for (Node node : context.getNodes()) {
+			Point location = LayoutProperties.getLocation(node);
+			int layer = map.get(node).layer;
+			if (location != null && Double.isNaN(layerCoordinates[layer]))
+				layerCoordinates[layer] = vertical ? location.y : location.x;
+			Dimension size = LayoutProperties.getSize(node);
+			thickness = Math.max(thickness,
+					vertical ? size.height : size.width);
+		}
+		int previous = -1;
+		for (int l = 0; l < layerCoordinates.length; l++) {
+			if (Double.isNaN(layerCoordinates[l]))
+				continue;
+			for (int k = previous + 1; k < l; k++)
+				layerCoordinates[k] = layerCoordinates[previous]
+						+ (layerCoordinates[l] - layerCoordinates[previous])
+								* (k - previous) / (l - previous);
+			previous = l;
+		}
+		if (previous < 0) {
+			layerCoordinates = null;
+			return;
+		}
+		layerSpacing = previous > 0
+				? (layerCoordinates[previous] - layerCoordinates[0]) / previous
+				: thickness + BrandesKoepfCoordinateAssigner.LAYER_SPACING;
+	}
+
+	/**
+	 * Returns the coordinate of the given layer (along the direction of the
+	 * layout), extending the layers of the previous layout pass by the
+	 * average distance between them, if necessary.
+	 */
+	private double getLayerCoordinate(int layer) {
+		if (layer >= layerCoordinates.length) {
+			int length = layerCoordinates.length;
+			layerCoordinates = Arrays.copyOf(layerCoordinates, layer + 1);
+			for (int l = length; l <= layer; l++)
+				layerCoordinates[l] = layerCoordinates[l - 1] + layerSpacing;
+		}
+		return layerCoordinates[layer];
+	}
+
+	private void updateMap() {
 		for (List<NodeWrapper> layer : layers) {
 			if (layer.size() > last)
 				last = layer.size();
 			for (NodeWrapper nw : layer) {
+				if (nw.index >= last)
+					last = nw.index + 1;
 				map.put(nw.node, nw);
 			}
 		}
-		calculatePositions(layoutContext);
 	}
 
 	private void calculatePositions(LayoutContext context) {
@@ -1360,6 +2498,13 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		if (dimension != null)
 			boundary = new Rectangle(0, 0, dimension.getWidth(),
 					dimension.getHeight());
+		if (coordinateAssigner != null) {
+			Map<Node, Point> locations = coordinateAssigner
+					.assignCoordinates(layers, direction, boundary);
+			for (Node node : context.getNodes())
+				LayoutProperties.setLocation(node, locations.get(node));
+			return;
+		}
 		double dx = boundary.getWidth() / layers.size();
 		double dy = boundary.getHeight() / (last + 1);
 		if (direction == Direction.HORIZONTAL)
@@ -1376,4 +2521,141 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 	}
 
+
+	/**
+	 * Counts the crossings between the edges that connect the nodes of
+	 * adjacent layers (as provided by the {@link NodeWrapper#succ successors}
+	 * of the nodes), based on the {@link NodeWrapper#index indices} of the
+	 * nodes. Uses the accumulator tree of Barth, Jünger, and Mutzel ("Simple
+	 * and Efficient Bilayer Cross Counting", 2002), so that the crossings of
+	 * <i>E</i> edges between two layers with a width of <i>W</i> are counted
+	 * in <i>O(E log W)</i> time.
+	 * 
+	 * @param layers
+	 *            The layers, in which the nodes are sorted by increasing
+	 *            index.
+	 * @return The number of edge crossings.
+	 * @since 5.1
+	 */
+	public static long countCrossings(List<List<NodeWrapper>> layers) {
+		int width = 0;
+		for (List<NodeWrapper> layer : layers)
+			for (NodeWrapper node : layer)
+				if (node.index >= width)
+					width = node.index + 1;
+		if (width == 0)
+			return 0;
+		// the accumulator tree is allocated once (for the widest layer), and
+		// only its nodes on the paths of the inserted edges are reset, so
+		// that each layer pair is counted independently of the total width
+		int[] tree = new int[2 * Integer.highestOneBit(2 * width - 1) - 1];
+		int[] positions = new int[8];
+		long crossings = 0;
+		for (int l = 0; l < layers.size() - 1; l++) {
+			// the leaves of the accumulator tree correspond to the indices
+			// within the lower layer
+			int lowerWidth = 0;
+			for (NodeWrapper node : layers.get(l + 1))
+				if (node.index >= lowerWidth)
+					lowerWidth = node.index + 1;
+			if (lowerWidth == 0)
+				continue;
+			int firstIndex = Integer.highestOneBit(2 * lowerWidth - 1) - 1;
+			// insert the edges, sorted lexicographically by the indices of
+			// their upper and lower nodes, and accumulate the number of
+			// previously inserted edges that end right of the current one
+			for (NodeWrapper node : layers.get(l)) {
+				int count = 0;
+				for (NodeWrapper succ : node.succ) {
+					if (succ.layer != node.layer + 1 || succ.index < 0)
+						continue;
+					if (count == positions.length)
+						positions = Arrays.copyOf(positions, 2 * count);
+					positions[count++] = succ.index;
+				}
+				Arrays.sort(positions, 0, count);
+				for (int i = 0; i < count; i++) {
+					int index = positions[i] + firstIndex;
+					tree[index]++;
+					while (index > 0) {
+						if ((index & 1) == 1)
+							crossings += tree[index + 1];
+						index = (index - 1) >> 1;
+						tree[index]++;
+					}
+				}
+			}
+			// reset the paths of the inserted edges
+			for (NodeWrapper node : layers.get(l)) {
+				for (NodeWrapper succ : node.succ) {
+					if (succ.layer != node.layer + 1 || succ.index < 0)
+						continue;
+					int index = succ.index + firstIndex;
+					while (tree[index] != 0) {
+						tree[index] = 0;
+						if (index == 0)
+							break;
+						index = (index - 1) >> 1;
+					}
+				}
+			}
+		}
+		return crossings;
+	}
+
+	/**
+	 * Returns the sorted indices of the nodes that are adjacent to the given
+	 * node and are placed on layers above (or below) the node's layer.
+	 */
+	private static int[] getAdjacentIndices(NodeWrapper node,
+			Map<Node, NodeWrapper> map, boolean above) {
+		// filter nodes connected with bidirectional edges
+		Set<Node> adjacentNodes = new HashSet<>(
+				node.node.getPredecessorNodesUnmodifiable());
+		adjacentNodes.addAll(node.node.getSuccessorNodesUnmodifiable());
+		int[] indices = new int[adjacentNodes.size()];
+		int count = 0;
+		for (Node adjacentNode : adjacentNodes) {
+			NodeWrapper nw = map.get(adjacentNode);
+			if (nw != null
+					&& (above ? nw.layer < node.layer : nw.layer > node.layer))
+				indices[count++] = nw.index;
+		}
+		indices = Arrays.copyOf(indices, count);
+		Arrays.sort(indices);
+		return indices;
+	}
+
+	/**
+	 * Returns the number of pairs (a, b) of the given sorted indices, for
+	 * which a is greater than b.
+	 */
+	private static int numberOfInversions(int[] a, int[] b) {
+		int inversions = 0;
+		int j = 0;
+		for (int i = 0; i < a.length; i++) {
+			while (j < b.length && b[j] < a[i])
+				j++;
+			inversions += j;
+		}
+		return inversions;
+	}
+
+	/**
+	 * Returns the number of crossings between the edges of the two given
+	 * nodes (of the same layer) in case the left node is placed left of the
+	 * right node. Only edges to adjacent nodes on the same side of the layer
+	 * are considered. As the indices of the adjacent nodes are sorted, this
+	 * takes <i>O(d log d)</i> time for <i>d</i> adjacent nodes.
+	 */
+	private static int numberOfCrosses(NodeWrapper left, NodeWrapper right,
+			Map<Node, NodeWrapper> map) {
+		if (left == right)
+			return 0;
+		return numberOfInversions(getAdjacentIndices(left, map, true),
+				getAdjacentIndices(right, map, true))
+				+ numberOfInversions(getAdjacentIndices(left, map, false),
+						getAdjacentIndices(right, map, false));
+	}
+
 }
\ No newline at end of file
@@ -14,13 +14,18 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.IIncrementalLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 import org.eclipse.gef.layout.algorithms.TreeLayoutHelper.TreeNode;
@@ -28,6 +33,20 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutHelper.TreeNode;
 /**
  * The TreeLayoutAlgorithm class implements a simple algorithm to arrange graph
  * nodes in a layered tree-like layout.
+ * <p>
+ * An incremental layout pass only re-places the descendants of the nodes
+ * whose children changed since the previous layout pass (i.e. the parents of
+ * added nodes, and the nodes from or to which edges were added or removed).
+ * The subtree of such a node is re-placed below its current location, within
+ * the breadth that was available to it before (so that it does not overlap
+ * adjacent subtrees), while all other nodes, as well as moved nodes and nodes
+ * that are not movable, keep their current locations. If the roots of the
+ * trees change, the layout is completely re-computed.
+ * <p>
+ * By default, the nodes are placed on a uniform grid, where each leaf and
+ * each layer occupy the same amount of space. If a {@link WalkerTreeLayout} is
+ * set (see {@link #setWalkerTreeLayout(WalkerTreeLayout)}), it is used to
+ * compute a compact layout that respects the sizes of the nodes instead.
  * 
  * @author Casey Best
  * @author Ian Bull
@@ -37,7 +56,7 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutHelper.TreeNode;
  * @author Miles Parker
  * @author mwienand
  */
-public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
+public class TreeLayoutAlgorithm implements IIncrementalLayoutAlgorithm {
 
 	/**
 	 * Tree direction constant for which root is placed at the top and branches
@@ -75,6 +94,15 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private Dimension nodeSpace;
 
+	private WalkerTreeLayout walkerTreeLayout;
+
+	// the breadth that is available to the subtree of each node placed by the
+	// previous layout pass, and the (effective) distance between the layers,
+	// so that incremental layout passes can re-place subtrees within their
+	// previous breadth (null if no layout pass was applied)
+	private Map<Node, Double> slots;
+	private double leafBreadth, layerDepth;
+
 	/**
 	 * Create a default Tree Layout.
 	 */
@@ -121,6 +149,33 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 		this.nodeSpace = nodeSpace;
 	}
 
+	/**
+	 * Returns the {@link WalkerTreeLayout} that is used to place the nodes, or
+	 * <code>null</code> if the nodes are placed on a uniform grid.
+	 * 
+	 * @return The {@link WalkerTreeLayout} that is used to place the nodes.
+	 * @since 5.1
+	 */
+	public WalkerTreeLayout getWalkerTreeLayout() {
+		return walkerTreeLayout;
+	}
+
+	/**
+	 * Sets the {@link WalkerTreeLayout} that is used to place the nodes. If
+	 * set, the nodes are placed according to their sizes (starting at the
+	 * top-left corner of the layout bounds), and they are neither scaled to
+	 * fit the layout bounds, nor is the node space (see
+	 * {@link #setNodeSpace(Dimension)}) taken into account. If
+	 * <code>null</code> (the default), the nodes are placed on a uniform grid.
+	 * 
+	 * @param walkerTreeLayout
+	 *            The {@link WalkerTreeLayout} to use, or <code>null</code>.
+	 * @since 5.1
+	 */
+	public void setWalkerTreeLayout(WalkerTreeLayout walkerTreeLayout) {
+		this.walkerTreeLayout = walkerTreeLayout;
+	}
+
 	/**
 	 * Returns the direction of this {@link TreeLayoutAlgorithm}.
 	 * 
@@ -175,11 +230,177 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 		if (resize) {
 			AlgorithmHelper.maximizeSizes(entities);
 		}
+		Rectangle computedBounds = AlgorithmHelper.getLayoutBounds(entities,
+				false);
 		scaleEntities(entities);
+		recordSlots(entities, computedBounds);
+	}
+
+	@Override
+	public void applyIncrementalLayout(LayoutContext layoutContext) {
+		// XXX: Resizing affects all nodes, so that the layout has to be
+		// completely re-applied in this case.
+		if (slots == null || resize) {
+			applyLayout(layoutContext, true);
+			return;
+		}
+		for (Node removed : layoutContext.getRemovedNodes()) {
+			slots.remove(removed);
+		}
+
+		treeObserver = new TreeLayoutHelper(null);
+		treeObserver.computeTree(layoutContext.getNodes());
+		Set<TreeNode> changed = new HashSet<>();
+		for (Node added : layoutContext.getAddedNodes()) {
+			changed.add(treeObserver.getTreeNode(added).parent);
+		}
+		Set<Edge> edges = new HashSet<>(layoutContext.getAddedEdges());
+		edges.addAll(layoutContext.getRemovedEdges());
+		Set<Node> nodes = new HashSet<>();
+		for (Node node : layoutContext.getNodes()) {
+			nodes.add(node);
+		}
+		for (Edge edge : edges) {
+			if (nodes.contains(edge.getSource())) {
+				changed.add(treeObserver.getTreeNode(edge.getSource()));
+			}
+			if (nodes.contains(edge.getTarget())) {
+				changed.add(treeObserver.getTreeNode(edge.getTarget()).parent);
+			}
+		}
+
+		// the subtrees are re-placed below the closest ancestors that were
+		// placed before, unless these are roots of a tree
+		Set<TreeNode> roots = new HashSet<>();
+		for (TreeNode node : changed) {
+			while (node != treeObserver.getSuperRoot()
+					&& (!slots.containsKey(node.getNode()) || layoutContext
+							.getAddedNodes().contains(node.getNode()))) {
+				node = node.parent;
+			}
+			if (node == treeObserver.getSuperRoot()) {
+				applyLayout(layoutContext, true);
+				return;
+			}
+			roots.add(node);
+		}
+		for (TreeNode root : roots) {
+			if (!hasAncestorIn(root, roots)) {
+				replaceSubtree(root, layoutContext.getMovedNodes());
+			}
+		}
+	}
+
+	private boolean hasAncestorIn(TreeNode node, Set<TreeNode> nodes) {
+		TreeNode ancestor = node.parent;
+		while (ancestor != null) {
+			if (nodes.contains(ancestor)) {
+				return true;
+			}
+			ancestor = ancestor.parent;
+		}
+		return false;
+	}
+
+	/**
+	 * Records the breadth that is available to the subtree of each node, as
+	 * well as the distance between the layers, after a complete layout pass.
+	 * As the computed locations may have been scaled to fit the layout
+	 * bounds, the leaf and layer size are scaled by the ratio of the bounds of
+	 * the node centers after and before scaling.
+	 */
+	private void recordSlots(Node[] entities, Rectangle computedBounds) {
+		Rectangle scaledBounds = AlgorithmHelper.getLayoutBounds(entities,
+				false);
+		boolean vertical = direction == TOP_DOWN || direction == BOTTOM_UP;
+		double breadthScale = getScale(
+				vertical ? computedBounds.getWidth()
+						: computedBounds.getHeight(),
+				vertical ? scaledBounds.getWidth() : scaledBounds.getHeight());
+		double depthScale = getScale(
+				vertical ? computedBounds.getHeight()
+						: computedBounds.getWidth(),
+				vertical ? scaledBounds.getHeight() : scaledBounds.getWidth());
+		if (walkerTreeLayout != null) {
+			// XXX: The Walker layout is not based on a uniform grid, so that
+			// the slots are only used to determine which nodes were placed.
+			leafBreadth = Double.NaN;
+			layerDepth = Double.NaN;
+		} else {
+			leafBreadth = leafSize * breadthScale;
+			layerDepth = layerSize * depthScale;
+		}
+		slots = new HashMap<>();
+		for (Node entity : entities) {
+			slots.put(entity, treeObserver.getTreeNode(entity).numOfLeaves
+					* leafBreadth);
+		}
+	}
+
+	private static double getScale(double computedSize, double scaledSize) {
+		return computedSize > 0 && scaledSize > 0 ? scaledSize / computedSize
+				: 1;
+	}
+
+	/**
+	 * Re-places the descendants of the given {@link TreeNode} during an
+	 * incremental layout pass, keeping the current location of the given
+	 * {@link TreeNode}. On the uniform grid, the subtree is placed within the
+	 * breadth that was available to it before (reducing the leaf size if the
+	 * number of leaves increased). When using a {@link WalkerTreeLayout}, the
+	 * subtree is laid out on its own and translated to the current location
+	 * of its root. The given moved nodes, as well as nodes that are not
+	 * movable, are not re-placed.
+	 */
+	private void replaceSubtree(TreeNode root, Set<Node> movedNodes) {
+		Point rootLocation = LayoutProperties.getLocation(root.getNode());
+		Map<Node, Point> locations = null;
+		double leaf = 0;
+		if (walkerTreeLayout != null) {
+			locations = walkerTreeLayout.computeLocations(root, direction);
+			Point computedRootLocation = locations.get(root.getNode());
+			double dx = rootLocation.x - computedRootLocation.x;
+			double dy = rootLocation.y - computedRootLocation.y;
+			for (Point location : locations.values()) {
+				location.translate(dx, dy);
+			}
+		} else {
+			leaf = Math.min(leafBreadth,
+					slots.get(root.getNode()) / root.numOfLeaves);
+		}
+		boolean vertical = direction == TOP_DOWN || direction == BOTTOM_UP;
+		double depthSign = direction == BOTTOM_UP || direction == RIGHT_LEFT
+				? -1 : 1;
+		LinkedList<TreeNode> stack = new LinkedList<>(root.children);
+		while (!stack.isEmpty()) {
+			TreeNode entityInfo = stack.pop();
+			Node node = entityInfo.getNode();
+			stack.addAll(0, entityInfo.children);
+			slots.put(node, entityInfo.numOfLeaves * leaf);
+			if (!LayoutProperties.isMovable(node)
+					|| movedNodes.contains(node)) {
+				continue;
+			}
+			if (locations != null) {
+				LayoutProperties.setLocation(node, locations.get(node));
+				continue;
+			}
+			double breadth = (entityInfo.order - root.order
+					+ (entityInfo.numOfLeaves - root.numOfLeaves) / 2.0)
+					* leaf;
+			double depth = (entityInfo.depth - root.depth) * layerDepth
+					* depthSign;
+			LayoutProperties.setLocation(node,
+					vertical
+							? new Point(rootLocation.x + breadth,
+									rootLocation.y + depth)
+							: new Point(rootLocation.x + depth,
+									rootLocation.y + breadth));
+		}
 	}
 
 	private void scaleEntities(Node[] entities) {
-		if (nodeSpace == null) {
+		if (nodeSpace == null && walkerTreeLayout == null) {
 			Rectangle resizedBounds = new Rectangle(bounds);
 			int insets = 4;
 			resizedBounds.setX(resizedBounds.getX() + insets);
@@ -203,13 +424,16 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 		TreeNode superRoot = treeObserver.getSuperRoot();
 		bounds = LayoutProperties.getBounds(context.getGraph());
-		updateLeafAndLayerSizes();
-		int leafCountSoFar = 0;
-		for (Iterator<TreeNode> iterator = superRoot.getChildren()
-				.iterator(); iterator.hasNext();) {
-			TreeNode rootInfo = iterator.next();
-			computePositionRecursively(rootInfo, leafCountSoFar);
-			leafCountSoFar = leafCountSoFar + rootInfo.numOfLeaves;
+		if (walkerTreeLayout != null) {
+			Map<Node, Point> locations = walkerTreeLayout
+					.computeLocations(superRoot, direction);
+			for (Map.Entry<Node, Point> entry : locations.entrySet()) {
+				LayoutProperties.setLocation(entry.getKey(), entry.getValue()
+						.getTranslated(bounds.getX(), bounds.getY()));
+			}
+		} else {
+			updateLeafAndLayerSizes();
+			computePositions(superRoot);
 		}
 	}
 
@@ -235,40 +459,45 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 	}
 
 	/**
-	 * Computes positions recursively until the leaf nodes are reached.
+	 * Computes the positions of all descendants of the given {@link TreeNode}
+	 * on a uniform grid. As the order of a node corresponds to the number of
+	 * leaves that precede it, the nodes can be placed independently of each
+	 * other (and the tree is traversed iteratively, so that deep trees do not
+	 * cause a {@link StackOverflowError}).
 	 */
-	private void computePositionRecursively(TreeNode entityInfo,
-			int relativePosition) {
-		double breadthPosition = relativePosition
-				+ entityInfo.numOfLeaves / 2.0;
-		double depthPosition = (entityInfo.depth + 0.5);
-
-		switch (direction) {
-		case TOP_DOWN:
-			LayoutProperties.setLocation(entityInfo.getNode(), new Point(
-					breadthPosition * leafSize, depthPosition * layerSize));
-			break;
-		case BOTTOM_UP:
-			LayoutProperties.setLocation(entityInfo.getNode(),
-					new Point(breadthPosition * leafSize,
-							bounds.getHeight() - depthPosition * layerSize));
-			break;
-		case LEFT_RIGHT:
-			LayoutProperties.setLocation(entityInfo.getNode(), new Point(
-					depthPosition * layerSize, breadthPosition * leafSize));
-			break;
-		case RIGHT_LEFT:
-			LayoutProperties.setLocation(entityInfo.getNode(),
-					new Point(bounds.getWidth() - depthPosition * layerSize,
-							breadthPosition * leafSize));
-			break;
-		}
-
-		for (Iterator<TreeNode> iterator = entityInfo.children
-				.iterator(); iterator.hasNext();) {
-			TreeNode childInfo = iterator.next();
-			computePositionRecursively(childInfo, relativePosition);
-			relativePosition += childInfo.numOfLeaves;
+	private void computePositions(TreeNode superRoot) {
+		LinkedList<TreeNode> stack = new LinkedList<>(superRoot.children);
+		while (!stack.isEmpty()) {
+			TreeNode entityInfo = stack.pop();
+			double breadthPosition = entityInfo.order
+					+ entityInfo.numOfLeaves / 2.0;
+			double depthPosition = (entityInfo.depth + 0.5);
+
+			switch (direction) {
+			case TOP_DOWN:
+				LayoutProperties.setLocation(entityInfo.getNode(),
+						new Point(breadthPosition * leafSize,
+								depthPosition * layerSize));
+				break;
+			case BOTTOM_UP:
+				LayoutProperties.setLocation(entityInfo.getNode(),
+						new Point(breadthPosition * leafSize,
+								bounds.getHeight()
+										- depthPosition * layerSize));
+				break;
+			case LEFT_RIGHT:
+				LayoutProperties.setLocation(entityInfo.getNode(),
+						new Point(depthPosition * layerSize,
+								breadthPosition * leafSize));
+				break;
+			case RIGHT_LEFT:
+				LayoutProperties.setLocation(entityInfo.getNode(),
+						new Point(
+								bounds.getWidth() - depthPosition * layerSize,
+								breadthPosition * leafSize));
+				break;
+			}
+			stack.addAll(0, entityInfo.children);
 		}
 	}
 
@@ -63,6 +63,14 @@ public class TreeLayoutHelper {
 	/**
 	 * Represents a node in a tree structure and stores all information related
 	 * to it. May be subclassed if additional data and behavior is necessary.
+	 * Additional parameters that depend on the structure of the tree may be
+	 * computed by overriding {@link #precomputeNode()}.
+	 * <p>
+	 * Note that since 5.1, {@link #precomputeTree()} traverses the tree
+	 * iteratively and is thus only invoked on the super root, not recursively
+	 * on each node. Subclasses that used to override {@link #precomputeTree()}
+	 * to compute per-node data have to override {@link #precomputeNode()}
+	 * instead.
 	 */
 	public static class TreeNode {
 		/**
@@ -245,31 +253,77 @@ public class TreeLayoutHelper {
 		/**
 		 * Performs a DFS on the tree structure and calculates all parameters of
 		 * its nodes. Should be called on {@link TreeLayoutHelper#getSuperRoot()
-		 * Super Root}. Uses recurrence to go through all the nodes.
+		 * Super Root}. The nodes are traversed iteratively (so that deep trees
+		 * do not cause a {@link StackOverflowError}), i.e. this method is not
+		 * invoked on the descendants of this node. Instead,
+		 * {@link #precomputeNode()} is invoked for this node and each of its
+		 * descendants.
+		 * <p>
+		 * Before 5.1, this method was invoked recursively on each node of the
+		 * tree. Subclasses that computed additional per-node data by overriding
+		 * it have to override {@link #precomputeNode()} instead.
 		 */
 		protected void precomputeTree() {
-			if (children.isEmpty()) {
-				height = 0;
-				numOfLeaves = 1;
-				numOfDescendants = 0;
-			} else {
-				height = 0;
-				numOfLeaves = 0;
-				numOfDescendants = 0;
-				for (ListIterator<TreeNode> iterator = children
-						.listIterator(); iterator.hasNext();) {
-					TreeNode child = iterator.next();
-					child.depth = this.depth + 1;
-					child.order = this.order + this.numOfLeaves;
-					child.precomputeTree();
-					child.firstChild = (this.numOfLeaves == 0);
-					child.lastChild = !iterator.hasNext();
-
-					this.height = Math.max(this.height, child.height + 1);
-					this.numOfLeaves += child.numOfLeaves;
-					this.numOfDescendants += child.numOfDescendants + 1;
+			// collect the nodes in preorder (all descendants of a node succeed
+			// it) and compute their depth
+			List<TreeNode> preorder = new ArrayList<>();
+			LinkedList<TreeNode> stack = new LinkedList<>();
+			stack.push(this);
+			while (!stack.isEmpty()) {
+				TreeNode node = stack.pop();
+				preorder.add(node);
+				for (ListIterator<TreeNode> iterator = node.children
+						.listIterator(node.children.size()); iterator
+								.hasPrevious();) {
+					TreeNode child = iterator.previous();
+					child.depth = node.depth + 1;
+					stack.push(child);
 				}
 			}
+
+			// compute height, number of leaves, and number of descendants
+			// bottom-up
+			for (ListIterator<TreeNode> iterator = preorder
+					.listIterator(preorder.size()); iterator.hasPrevious();) {
+				TreeNode node = iterator.previous();
+				node.height = 0;
+				node.numOfLeaves = node.children.isEmpty() ? 1 : 0;
+				node.numOfDescendants = 0;
+				for (ListIterator<TreeNode> childIterator = node.children
+						.listIterator(); childIterator.hasNext();) {
+					TreeNode child = childIterator.next();
+					child.firstChild = childIterator.previousIndex() == 0;
+					child.lastChild = !childIterator.hasNext();
+					node.height = Math.max(node.height, child.height + 1);
+					node.numOfLeaves += child.numOfLeaves;
+					node.numOfDescendants += child.numOfDescendants + 1;
+				}
+			}
+
+			// compute the order top-down
+			for (TreeNode node : preorder) {
+				int order = node.order;
+				for (TreeNode child : node.children) {
+					child.order = order;
+					order += child.numOfLeaves;
+				}
+			}
+
+			for (ListIterator<TreeNode> iterator = preorder
+					.listIterator(preorder.size()); iterator.hasPrevious();) {
+				iterator.previous().precomputeNode();
+			}
+		}
+
+		/**
+		 * Called by {@link #precomputeTree()} for each node of the traversed
+		 * tree (descendants before their ancestors), after all parameters of
+		 * the nodes have been computed. Does nothing by default, but may be
+		 * overridden by subclasses to compute additional parameters.
+		 *
+		 * @since 5.1
+		 */
+		protected void precomputeNode() {
 		}
 
 		/**
@@ -458,9 +512,10 @@ public class TreeLayoutHelper {
 	 */
 	private void createTrees(Node[] nodes) {
 		HashSet<Node> alreadyVisited = new HashSet<>();
+		HashSet<Node> alreadyResolved = new HashSet<>();
 		LinkedList<Object[]> nodesToAdd = new LinkedList<>();
 		for (int i = 0; i < nodes.length; i++) {
-			Node root = findRoot(nodes[i], alreadyVisited);
+			Node root = findRoot(nodes[i], alreadyVisited, alreadyResolved);
 			if (root != null) {
 				alreadyVisited.add(root);
 				nodesToAdd.addLast(new Object[] { root, superRoot });
@@ -499,23 +554,35 @@ public class TreeLayoutHelper {
 	 * @param alreadyVisited
 	 *            set of nodes that can't lay on path to the root (if one does,
 	 *            method stops and returns null).
+	 * @param alreadyResolved
+	 *            set of nodes whose path to the root was already searched (if
+	 *            one lays on the path, method stops and returns null, as the
+	 *            root was already found). Is extended by the nodes on the
+	 *            searched path, so that (for deep trees) each path is only
+	 *            searched once.
 	 * @return
 	 */
-	private Node findRoot(Node nodeLayout, Set<Node> alreadyVisited) {
+	private Node findRoot(Node nodeLayout, Set<Node> alreadyVisited,
+			Set<Node> alreadyResolved) {
 		HashSet<Node> alreadyVisitedRoot = new HashSet<>();
-		while (true) {
-			if (alreadyVisited.contains(nodeLayout))
-				return null;
-			if (alreadyVisitedRoot.contains(nodeLayout))
-				return nodeLayout;
-			alreadyVisitedRoot.add(nodeLayout);
-			Node[] predecessingNodes = nodeLayout.getAllPredecessorNodes()
-					.toArray(new Node[] {});
-			if (predecessingNodes.length > 0) {
-				nodeLayout = predecessingNodes[0];
-			} else {
-				return nodeLayout;
+		try {
+			while (true) {
+				if (alreadyVisited.contains(nodeLayout)
+						|| alreadyResolved.contains(nodeLayout))
+					return null;
+				if (alreadyVisitedRoot.contains(nodeLayout))
+					return nodeLayout;
+				alreadyVisitedRoot.add(nodeLayout);
+				Node[] predecessingNodes = nodeLayout.getAllPredecessorNodes()
+						.toArray(new Node[] {});
+				if (predecessingNodes.length > 0) {
+					nodeLayout = predecessingNodes[0];
+				} else {
+					return nodeLayout;
+				}
 			}
+		} finally {
+			alreadyResolved.addAll(alreadyVisitedRoot);
 		}
 	}
 }
@@ -0,0 +1,457 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.algorithms.TreeLayoutHelper.TreeNode;
+
+/**
+ * Computes a layered tree layout using Walker's algorithm in the linear-time
+ * formulation of Buchheim, Jünger, and Leipert ("Improving Walker's Algorithm
+ * to Run in Linear Time", 2002). It can be used as the placement backend of
+ * the {@link TreeLayoutAlgorithm}, the {@link RadialLayoutAlgorithm}, and the
+ * {@link SpaceTreeLayoutAlgorithm}.
+ * <p>
+ * In contrast to the uniform leaf grid these algorithms use by default, the
+ * size of each node (see {@link LayoutProperties#getSize(Node)}) is respected:
+ * Adjacent nodes of a layer are separated by the sum of their half extents and
+ * the sibling or subtree spacing, and each layer is as thick as its thickest
+ * node, with consecutive layers being separated by the layer spacing. Each
+ * parent is centered above its first and last child, and subtrees are placed
+ * as close to each other as possible.
+ * <p>
+ * All passes are implemented iteratively on arrays that are indexed in
+ * preorder, so that arbitrarily deep trees can be laid out without running
+ * into a {@link StackOverflowError}.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class WalkerTreeLayout {
+
+	private final double siblingSpacing;
+	private final double subtreeSpacing;
+	private final double layerSpacing;
+
+	// the tree, with nodes being indexed in preorder
+	private Node[] nodes;
+	private int[] parent;
+	private int[] number;
+	private int[] childStart;
+	private int[] children;
+	private int[] level;
+	private double[] breadth;
+	private double[] thickness;
+
+	// the state of Walker's algorithm
+	private double[] prelim;
+	private double[] mod;
+	private double[] shift;
+	private double[] change;
+	private int[] thread;
+	private int[] ancestor;
+
+	/**
+	 * Creates a new {@link WalkerTreeLayout} that separates adjacent nodes by
+	 * 15 (20 if they have different parents) and layers by 20.
+	 */
+	public WalkerTreeLayout() {
+		this(15, 20, 20);
+	}
+
+	/**
+	 * Creates a new {@link WalkerTreeLayout} with the given spacing.
+	 *
+	 * @param nodeSpacing
+	 *            The distance between adjacent nodes of a layer.
+	 * @param layerSpacing
+	 *            The distance between adjacent layers.
+	 */
+	public WalkerTreeLayout(double nodeSpacing, double layerSpacing) {
+		this(nodeSpacing, nodeSpacing, layerSpacing);
+	}
+
+	/**
+	 * Creates a new {@link WalkerTreeLayout} with the given spacing.
+	 *
+	 * @param siblingSpacing
+	 *            The distance between adjacent nodes of a layer that have the
+	 *            same parent.
+	 * @param subtreeSpacing
+	 *            The distance between adjacent nodes of a layer that have
+	 *            different parents.
+	 * @param layerSpacing
+	 *            The distance between adjacent layers.
+	 */
+	public WalkerTreeLayout(double siblingSpacing, double subtreeSpacing,
+			double layerSpacing) {
+		if (siblingSpacing < 0 || subtreeSpacing < 0 || layerSpacing < 0) {
+			throw new IllegalArgumentException(
+					"The spacing may not be negative.");
+		}
+		this.siblingSpacing = siblingSpacing;
+		this.subtreeSpacing = subtreeSpacing;
+		this.layerSpacing = layerSpacing;
+	}
+
+	/**
+	 * Computes the locations of all nodes of the tree rooted at the given
+	 * {@link TreeNode}. See
+	 * {@link #computeLocations(TreeNode, int, Predicate)} for details.
+	 *
+	 * @param root
+	 *            The root of the tree to lay out.
+	 * @param direction
+	 *            The direction of the tree, one of
+	 *            {@link TreeLayoutAlgorithm#TOP_DOWN},
+	 *            {@link TreeLayoutAlgorithm#BOTTOM_UP},
+	 *            {@link TreeLayoutAlgorithm#LEFT_RIGHT}, or
+	 *            {@link TreeLayoutAlgorithm#RIGHT_LEFT}.
+	 * @return A {@link Map} from the laid out {@link Node}s to their (center)
+	 *         locations.
+	 */
+	public Map<Node, Point> computeLocations(TreeNode root, int direction) {
+		return computeLocations(root, direction, null);
+	}
+
+	/**
+	 * Computes the locations of the nodes of the tree rooted at the given
+	 * {@link TreeNode}. If the root does not wrap a {@link Node} (i.e. it is
+	 * the {@link TreeLayoutHelper#getSuperRoot() super root}), it is not
+	 * placed itself, so that its children are laid out as a forest of trees in
+	 * the first layer. The returned locations denote the centers of the nodes,
+	 * and the top-left corner of the layout is located at the origin.
+	 *
+	 * @param root
+	 *            The root of the tree to lay out.
+	 * @param direction
+	 *            The direction of the tree, one of
+	 *            {@link TreeLayoutAlgorithm#TOP_DOWN},
+	 *            {@link TreeLayoutAlgorithm#BOTTOM_UP},
+	 *            {@link TreeLayoutAlgorithm#LEFT_RIGHT}, or
+	 *            {@link TreeLayoutAlgorithm#RIGHT_LEFT}.
+	 * @param expanded
+	 *            A {@link Predicate} that determines if the children of a
+	 *            {@link TreeNode} are laid out, or <code>null</code> to lay
+	 *            out the complete tree.
+	 * @return A {@link Map} from the laid out {@link Node}s to their (center)
+	 *         locations.
+	 */
+	public Map<Node, Point> computeLocations(TreeNode root, int direction,
+			Predicate<TreeNode> expanded) {
+		if (direction != TreeLayoutAlgorithm.TOP_DOWN
+				&& direction != TreeLayoutAlgorithm.BOTTOM_UP
+				&& direction != TreeLayoutAlgorithm.LEFT_RIGHT
+				&& direction != TreeLayoutAlgorithm.RIGHT_LEFT) {
+			throw new IllegalArgumentException(
+					"Invalid direction: " + direction);
+		}
+		boolean vertical = direction == TreeLayoutAlgorithm.TOP_DOWN
+				|| direction == TreeLayoutAlgorithm.BOTTOM_UP;
+		int numberOfLevels = createTree(root, vertical, expanded);
+		int size = nodes.length;
+
+		prelim = new double[size];
+		mod = new double[size];
+		shift = new double[size];
+		change = new double[size];
+		thread = new int[size];
+		ancestor = new int[size];
+		Arrays.fill(thread, -1);
+		for (int v = 0; v < size; v++) {
+			ancestor[v] = v;
+		}
+
+		// first walk (bottom-up, i.e. in reverse preorder); the preliminary
+		// coordinate of a node is computed when its parent is visited, as it
+		// depends on the preliminary coordinate of its left sibling
+		for (int v = size - 1; v >= 0; v--) {
+			if (childStart[v] == childStart[v + 1]) {
+				continue;
+			}
+			int defaultAncestor = children[childStart[v]];
+			for (int i = childStart[v]; i < childStart[v + 1]; i++) {
+				int w = children[i];
+				placeRelativeToLeftSibling(w);
+				defaultAncestor = apportion(w, defaultAncestor);
+			}
+			executeShifts(v);
+		}
+		if (childStart[0] != childStart[1]) {
+			prelim[0] = getMidpoint(0);
+		}
+
+		// second walk (top-down, i.e. in preorder); sums up the modifiers of
+		// all ancestors
+		double[] x = new double[size];
+		double[] modSum = new double[size];
+		double minX = Double.POSITIVE_INFINITY;
+		for (int v = 0; v < size; v++) {
+			x[v] = prelim[v] + modSum[v];
+			for (int i = childStart[v]; i < childStart[v + 1]; i++) {
+				modSum[children[i]] = modSum[v] + mod[v];
+			}
+			if (nodes[v] != null) {
+				minX = Math.min(minX, x[v] - breadth[v] / 2);
+			}
+		}
+
+		// layers are as thick as their thickest node
+		double[] levelThickness = new double[numberOfLevels];
+		for (int v = 0; v < size; v++) {
+			if (level[v] >= 0) {
+				levelThickness[level[v]] = Math.max(levelThickness[level[v]],
+						thickness[v]);
+			}
+		}
+		double[] levelCenter = new double[numberOfLevels];
+		double depth = 0;
+		for (int l = 0; l < numberOfLevels; l++) {
+			levelCenter[l] = depth + levelThickness[l] / 2;
+			depth += levelThickness[l] + layerSpacing;
+		}
+		depth -= layerSpacing;
+
+		Map<Node, Point> locations = new HashMap<>();
+		for (int v = 0; v < size; v++) {
+			if (nodes[v] == null) {
+				continue;
+			}
+			double b = x[v] - minX;
+			double d = levelCenter[level[v]];
+			if (direction == TreeLayoutAlgorithm.BOTTOM_UP
+					|| direction == TreeLayoutAlgorithm.RIGHT_LEFT) {
+				d = depth - d;
+			}
+			locations.put(nodes[v],
+					vertical ? new Point(b, d) : new Point(d, b));
+		}
+		clear();
+		return locations;
+	}
+
+	// release the arrays, which are only needed during a single computation
+	private void clear() {
+		nodes = null;
+		parent = null;
+		number = null;
+		childStart = null;
+		children = null;
+		level = null;
+		breadth = null;
+		thickness = null;
+		prelim = null;
+		mod = null;
+		shift = null;
+		change = null;
+		thread = null;
+		ancestor = null;
+	}
+
+	/**
+	 * Flattens the tree into arrays that are indexed in preorder, where the
+	 * children of each node are stored in compressed form (the children of
+	 * node <i>v</i> are stored at indices <code>childStart[v]</code> to
+	 * <code>childStart[v + 1] - 1</code> of <code>children</code>).
+	 *
+	 * @return The number of levels.
+	 */
+	private int createTree(TreeNode root, boolean vertical,
+			Predicate<TreeNode> expanded) {
+		List<TreeNode> preorder = new ArrayList<>();
+		List<Integer> parents = new ArrayList<>();
+		List<Integer> numbers = new ArrayList<>();
+		ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+		ArrayDeque<int[]> stackInfo = new ArrayDeque<>();
+		stack.push(root);
+		stackInfo.push(new int[] { -1, 0 });
+		while (!stack.isEmpty()) {
+			TreeNode treeNode = stack.pop();
+			int[] info = stackInfo.pop();
+			int index = preorder.size();
+			preorder.add(treeNode);
+			parents.add(info[0]);
+			numbers.add(info[1]);
+			if (expanded == null || expanded.test(treeNode)) {
+				// push in reverse order, so that children are popped in order
+				for (int i = treeNode.children.size() - 1; i >= 0; i--) {
+					stack.push(treeNode.children.get(i));
+					stackInfo.push(new int[] { index, i + 1 });
+				}
+			}
+		}
+
+		int size = preorder.size();
+		nodes = new Node[size];
+		parent = new int[size];
+		number = new int[size];
+		level = new int[size];
+		breadth = new double[size];
+		thickness = new double[size];
+		childStart = new int[size + 1];
+		children = new int[Math.max(0, size - 1)];
+		int numberOfLevels = 0;
+		for (int v = 0; v < size; v++) {
+			nodes[v] = preorder.get(v).getNode();
+			parent[v] = parents.get(v);
+			number[v] = numbers.get(v);
+			if (parent[v] < 0) {
+				// a super root does not occupy a level
+				level[v] = nodes[v] == null ? -1 : 0;
+			} else {
+				level[v] = level[parent[v]] + 1;
+				childStart[parent[v] + 1]++;
+			}
+			numberOfLevels = Math.max(numberOfLevels, level[v] + 1);
+			if (nodes[v] != null) {
+				Dimension nodeSize = LayoutProperties.getSize(nodes[v]);
+				breadth[v] = vertical ? nodeSize.width : nodeSize.height;
+				thickness[v] = vertical ? nodeSize.height : nodeSize.width;
+			}
+		}
+		for (int v = 0; v < size; v++) {
+			childStart[v + 1] += childStart[v];
+		}
+		for (int v = 1; v < size; v++) {
+			children[childStart[parent[v]] + number[v] - 1] = v;
+		}
+		return numberOfLevels;
+	}
+
+	private double getDistance(int v, int w) {
+		return (breadth[v] + breadth[w]) / 2
+				+ (parent[v] == parent[w] ? siblingSpacing : subtreeSpacing);
+	}
+
+	private int getLeftSibling(int v) {
+		return number[v] > 1 ? children[childStart[parent[v]] + number[v] - 2]
+				: -1;
+	}
+
+	private double getMidpoint(int v) {
+		return (prelim[children[childStart[v]]]
+				+ prelim[children[childStart[v + 1] - 1]]) / 2;
+	}
+
+	private int getNextLeft(int v) {
+		return childStart[v] < childStart[v + 1] ? children[childStart[v]]
+				: thread[v];
+	}
+
+	private int getNextRight(int v) {
+		return childStart[v] < childStart[v + 1]
+				? children[childStart[v + 1] - 1] : thread[v];
+	}
+
+	private void placeRelativeToLeftSibling(int v) {
+		int leftSibling = getLeftSibling(v);
+		boolean leaf = childStart[v] == childStart[v + 1];
+		if (leftSibling < 0) {
+			prelim[v] = leaf ? 0 : getMidpoint(v);
+		} else {
+			prelim[v] = prelim[leftSibling] + getDistance(leftSibling, v);
+			if (!leaf) {
+				mod[v] = prelim[v] - getMidpoint(v);
+			}
+		}
+	}
+
+	/**
+	 * Places the subtree rooted at the given node next to the subtrees of its
+	 * left siblings, traversing their contours level by level.
+	 */
+	private int apportion(int v, int defaultAncestor) {
+		int w = getLeftSibling(v);
+		if (w < 0) {
+			return defaultAncestor;
+		}
+		int vInnerRight = v;
+		int vOuterRight = v;
+		int vInnerLeft = w;
+		int vOuterLeft = children[childStart[parent[v]]];
+		double sInnerRight = mod[vInnerRight];
+		double sOuterRight = mod[vOuterRight];
+		double sInnerLeft = mod[vInnerLeft];
+		double sOuterLeft = mod[vOuterLeft];
+		while (getNextRight(vInnerLeft) >= 0
+				&& getNextLeft(vInnerRight) >= 0) {
+			vInnerLeft = getNextRight(vInnerLeft);
+			vInnerRight = getNextLeft(vInnerRight);
+			vOuterLeft = getNextLeft(vOuterLeft);
+			vOuterRight = getNextRight(vOuterRight);
+			ancestor[vOuterRight] = v;
+			double s = (prelim[vInnerLeft] + sInnerLeft)
+					- (prelim[vInnerRight] + sInnerRight)
+					+ getDistance(vInnerLeft, vInnerRight);
+			if (s > 0) {
+				int a = parent[ancestor[vInnerLeft]] == parent[v]
+						? ancestor[vInnerLeft] : defaultAncestor;
+				moveSubtree(a, v, s);
+				sInnerRight += s;
+				sOuterRight += s;
+			}
+			sInnerLeft += mod[vInnerLeft];
+			sInnerRight += mod[vInnerRight];
+			sOuterLeft += mod[vOuterLeft];
+			sOuterRight += mod[vOuterRight];
+		}
+		if (getNextRight(vInnerLeft) >= 0 && getNextRight(vOuterRight) < 0) {
+			thread[vOuterRight] = getNextRight(vInnerLeft);
+			mod[vOuterRight] += sInnerLeft - sOuterRight;
+		}
+		if (getNextLeft(vInnerRight) >= 0 && getNextLeft(vOuterLeft) < 0) {
+			thread[vOuterLeft] = getNextLeft(vInnerRight);
+			mod[vOuterLeft] += sInnerRight - sOuterLeft;
+			defaultAncestor = v;
+		}
+		return defaultAncestor;
+	}
+
+	private void moveSubtree(int wLeft, int wRight, double s) {
+		int subtrees = number[wRight] - number[wLeft];
+		change[wRight] -= s / subtrees;
+		shift[wRight] += s;
+		change[wLeft] += s / subtrees;
+		prelim[wRight] += s;
+		mod[wRight] += s;
+	}
+
+	/**
+	 * Distributes the shifts that were recorded for the children of the given
+	 * node (by {@link #moveSubtree(int, int, double)}) among the subtrees
+	 * between them.
+	 */
+	private void executeShifts(int v) {
+		double s = 0;
+		double c = 0;
+		for (int i = childStart[v + 1] - 1; i >= childStart[v]; i--) {
+			int w = children[i];
+			prelim[w] += s;
+			mod[w] += s;
+			c += change[w];
+			s += shift[w] + c;
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.eclipse.gef.mvc.fx.providers.ISnappingLocationProvider;
 import org.eclipse.gef.mvc.fx.viewer.IViewer;
 
 import javafx.scene.Node;
+import javafx.scene.Parent;
 
 /**
  * The {@link AbstractSnapTo} class provides basic functionality for an
@@ -138,7 +139,9 @@ public abstract class AbstractSnapTo implements ISnapToStrategy {
 	 * Determines if the given {@link IContentPart} should participate in
 	 * snapping. This callback method is called for all parts implementing
 	 * {@link IContentPart} within the {@link IViewer} of the currently snapped
-	 * part, except for the currently snapped part.
+	 * part, except for the currently snapped part. If
+	 * {@link #isRestrictedToViewport()} returns <code>true</code>, it is only
+	 * called for those parts whose visuals intersect the viewport.
 	 *
 	 * By default, all {@link IContentPart}s are considered for snapping, i.e.
 	 * this method returns <code>true</code> regardless of its input.
@@ -153,16 +156,42 @@ public abstract class AbstractSnapTo implements ISnapToStrategy {
 		return true;
 	}
 
+	/**
+	 * Determines if only those {@link IContentPart}s whose visuals intersect
+	 * the viewport of the {@link IViewer} of the currently snapped part are
+	 * considered for snapping. In this case, the candidates are queried using
+	 * {@link IViewer#findContentParts(javafx.geometry.Bounds)}, so that not all
+	 * {@link IContentPart}s need to be tested for relevance.
+	 *
+	 * By default, all {@link IContentPart}s are considered for snapping, i.e.
+	 * this method returns <code>false</code>.
+	 *
+	 * @return <code>true</code> to indicate that only the {@link IContentPart}s
+	 *         within the viewport should participate in snapping,
+	 *         <code>false</code> otherwise.
+	 * @since 5.1
+	 */
+	protected boolean isRestrictedToViewport() {
+		return false;
+	}
+
 	@Override
 	public void setSnappedPart(IContentPart<? extends Node> snappedPart) {
 		this.snappedPart = snappedPart;
 		xLocations.clear();
 		yLocations.clear();
 		if (snappedPart != null) {
+			IViewer viewer = snappedPart.getViewer();
+			Collection<IContentPart<? extends Node>> candidates;
+			if (isRestrictedToViewport()) {
+				Parent canvas = viewer.getCanvas();
+				candidates = viewer.findContentParts(
+						canvas.localToScene(canvas.getLayoutBounds()));
+			} else {
+				candidates = viewer.getContentPartMap().values();
+			}
 			List<IContentPart<? extends Node>> relevantParts = PartUtils
-					.filterParts(
-							snappedPart.getViewer().getContentPartMap()
-									.values(),
+					.filterParts(candidates,
 							(p) -> p != snappedPart && p instanceof IContentPart
 									&& isRelevant(
 											(IContentPart<? extends Node>) p));
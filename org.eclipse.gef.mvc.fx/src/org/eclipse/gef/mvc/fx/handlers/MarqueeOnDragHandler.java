@@ -35,6 +35,7 @@ import org.eclipse.gef.mvc.fx.viewer.IViewer;
 import com.google.common.reflect.TypeToken;
 import com.google.inject.Provider;
 
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
@@ -218,9 +219,16 @@ public class MarqueeOnDragHandler extends AbstractHandler
 		Point2D end = rootVisual.localToScene(endPosInRoot);
 		double[] bbox = bbox(start, end);
 
-		// find nodes contained in bbox
-		List<Node> nodes = findContainedNodes(rootVisual.getScene().getRoot(),
-				bbox[0], bbox[1], bbox[2], bbox[3]);
+		// find nodes contained in bbox (restricting the search to the visuals
+		// of those content parts whose bounds intersect the bbox, as
+		// determined by the viewer)
+		List<Node> nodes = new ArrayList<>();
+		for (IContentPart<? extends Node> candidate : root.getViewer()
+				.findContentParts(new BoundingBox(bbox[0], bbox[1],
+						bbox[2] - bbox[0], bbox[3] - bbox[1]))) {
+			nodes.addAll(findContainedNodes(candidate.getVisual(), bbox[0],
+					bbox[1], bbox[2], bbox[3]));
+		}
 
 		// find content parts for contained nodes
 		List<IContentPart<? extends Node>> parts = getParts(nodes);
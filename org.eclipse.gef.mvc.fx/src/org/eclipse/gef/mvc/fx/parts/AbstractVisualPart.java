@@ -735,6 +735,25 @@ public abstract class AbstractVisualPart<V extends Node>
 		addChild(child, index);
 	}
 
+	/**
+	 * Schedules a refresh of this {@link IVisualPart}'s <i>visuals</i> at its
+	 * {@link IViewer} (see {@link IViewer#scheduleRefreshVisual(IVisualPart)}
+	 * ), so that multiple refresh requests may be coalesced into a single call
+	 * to {@link #refreshVisual()}. In case this {@link IVisualPart} is not
+	 * bound to an {@link IViewer}, {@link #refreshVisual()} is called
+	 * immediately.
+	 *
+	 * @since 5.1
+	 */
+	protected void scheduleRefreshVisual() {
+		IViewer viewer = getViewer();
+		if (viewer == null) {
+			refreshVisual();
+		} else {
+			viewer.scheduleRefreshVisual(this);
+		}
+	}
+
 	@Override
 	public void setAdaptable(IViewer viewer) {
 		IViewer oldViewer = viewerProperty.get();
@@ -42,6 +42,7 @@ import org.eclipse.gef.mvc.fx.viewer.IViewer;
 import com.google.inject.Provider;
 
 import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
 import javafx.scene.Node;
 
 /**
@@ -259,10 +260,20 @@ public class BendConnectionPolicy extends AbstractPolicy {
 			Point selectedPointCurrentPositionInScene = FX2Geometry
 					.toPoint(getConnection().localToScene(
 							Geometry2FX.toFXPoint(positionInLocal)));
+			// restrict picking to the visuals of those content parts whose
+			// bounds contain the position (as determined by the viewer)
+			List<Node> candidates = new ArrayList<>();
+			for (IContentPart<? extends Node> candidate : getHost().getRoot()
+					.getViewer()
+					.findContentParts(new BoundingBox(
+							selectedPointCurrentPositionInScene.x,
+							selectedPointCurrentPositionInScene.y, 0, 0))) {
+				candidates.add(candidate.getVisual());
+			}
 			List<Node> pickedNodes = NodeUtils.getNodesAt(
 					getHost().getRoot().getVisual(),
 					selectedPointCurrentPositionInScene.x,
-					selectedPointCurrentPositionInScene.y);
+					selectedPointCurrentPositionInScene.y, candidates);
 			anchor = getCompatibleAnchor(explicitAnchorIndex,
 					getParts(pickedNodes), selectedPointCurrentPositionInScene);
 		}
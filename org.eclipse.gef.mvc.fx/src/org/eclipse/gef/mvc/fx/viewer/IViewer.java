@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.gef.mvc.fx.viewer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.gef.common.activate.IActivatable;
@@ -29,6 +31,7 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 
@@ -78,6 +81,43 @@ public interface IViewer extends IAdaptable, IActivatable, IDisposable,
 	 */
 	public ReadOnlyListProperty<Object> contentsProperty();
 
+	/**
+	 * Returns the {@link IContentPart}s whose visuals' bounds intersect the
+	 * given bounds. As the result is based on the (transformed) bounds of the
+	 * visuals, it may contain parts whose visuals do not precisely intersect
+	 * the given bounds, so that clients that need precise results have to
+	 * filter the returned parts.
+	 * <p>
+	 * The default implementation tests the bounds of the visuals of all
+	 * {@link IContentPart}s that are contained in the
+	 * {@link #getContentPartMap() content part map}. Implementations may
+	 * maintain a spatial index to answer such queries more efficiently.
+	 *
+	 * @param sceneBounds
+	 *            The {@link Bounds} (in scene coordinates) for which to
+	 *            determine the intersecting {@link IContentPart}s. Zero-sized
+	 *            bounds may be used to determine the {@link IContentPart}s at
+	 *            a given position.
+	 * @return A new {@link List} containing the {@link IContentPart}s whose
+	 *         visuals' bounds intersect the given bounds, in the order in
+	 *         which they have been registered at this {@link IViewer}.
+	 * @since 5.1
+	 */
+	public default List<IContentPart<? extends Node>> findContentParts(
+			Bounds sceneBounds) {
+		List<IContentPart<? extends Node>> parts = new ArrayList<>();
+		for (IContentPart<? extends Node> part : getContentPartMap()
+				.values()) {
+			Node visual = part.getVisual();
+			if (visual != null && visual.getScene() != null
+					&& visual.localToScene(visual.getBoundsInLocal())
+							.intersects(sceneBounds)) {
+				parts.add(part);
+			}
+		}
+		return parts;
+	}
+
 	/**
 	 * Returns the {@link Parent} that displays the visuals of this
 	 * {@link IViewer viewer's} {@link IVisualPart parts}
@@ -153,6 +193,48 @@ public interface IViewer extends IAdaptable, IActivatable, IDisposable,
 	 */
 	public void reveal(IVisualPart<? extends Node> visualPart);
 
+	/**
+	 * Executes the given {@link Runnable}, batching all visual refreshes that
+	 * are scheduled (see {@link #scheduleRefreshVisual(IVisualPart)}) while
+	 * it is executed. After the {@link Runnable} has been executed, each
+	 * {@link IVisualPart} for which a visual refresh was scheduled is
+	 * refreshed exactly once. Calls may be nested, in which case the visual
+	 * refreshes are performed when the outermost call returns.
+	 *
+	 * <p>
+	 * The default implementation does not batch visual refreshes, but only
+	 * executes the given {@link Runnable}.
+	 *
+	 * @param runnable
+	 *            The {@link Runnable} to execute, e.g. to perform bulk content
+	 *            updates.
+	 * @since 5.1
+	 */
+	public default void runBatched(Runnable runnable) {
+		runnable.run();
+	}
+
+	/**
+	 * Schedules a visual refresh (see {@link IVisualPart#refreshVisual()}) for
+	 * the given {@link IVisualPart}. The visual refresh is performed
+	 * immediately, unless refreshes are currently batched (see
+	 * {@link #runBatched(Runnable)}) or deferred by the viewer (e.g. to the
+	 * next pulse), in which case subsequent requests for the same
+	 * {@link IVisualPart} are coalesced into a single refresh.
+	 *
+	 * <p>
+	 * The default implementation refreshes the visual of the given
+	 * {@link IVisualPart} immediately.
+	 *
+	 * @param visualPart
+	 *            The {@link IVisualPart} whose visual is to be refreshed.
+	 * @since 5.1
+	 */
+	public default void scheduleRefreshVisual(
+			IVisualPart<? extends Node> visualPart) {
+		visualPart.refreshVisual();
+	}
+
 	/**
 	 * Returns a {@link ReadOnlyBooleanProperty} that represents the "focused"
 	 * state of this {@link IViewer}. An {@link IViewer} is focused when its
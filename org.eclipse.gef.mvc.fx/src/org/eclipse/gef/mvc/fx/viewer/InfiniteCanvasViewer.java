@@ -11,9 +11,15 @@
  *******************************************************************************/
 package org.eclipse.gef.mvc.fx.viewer;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.gef.common.activate.ActivatableSupport;
@@ -24,6 +30,7 @@ import org.eclipse.gef.common.adapt.inject.InjectAdapters;
 import org.eclipse.gef.common.beans.property.ReadOnlyListWrapperEx;
 import org.eclipse.gef.common.beans.property.ReadOnlyMapWrapperEx;
 import org.eclipse.gef.common.collections.CollectionUtils;
+import org.eclipse.gef.fx.listeners.VisualChangeListener;
 import org.eclipse.gef.fx.nodes.InfiniteCanvas;
 import org.eclipse.gef.fx.utils.NodeUtils;
 import org.eclipse.gef.mvc.fx.domain.IDomain;
@@ -33,6 +40,9 @@ import org.eclipse.gef.mvc.fx.parts.IVisualPart;
 
 import com.google.common.reflect.TypeToken;
 
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
@@ -44,11 +54,17 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.transform.Transform;
 import javafx.stage.Window;
 
 /**
@@ -59,7 +75,164 @@ import javafx.stage.Window;
  */
 public class InfiniteCanvasViewer implements IViewer {
 
-	private InfiniteCanvas infiniteCanvas;
+	/**
+	 * Observes the visual of an {@link IContentPart} to invalidate its entry
+	 * within the spatial index whenever its bounds (relative to the content
+	 * group of the {@link InfiniteCanvas}) or its position within the scene
+	 * graph change.
+	 */
+	private class ContentPartIndexObserver extends VisualChangeListener
+			implements InvalidationListener {
+
+		private IContentPart<? extends Node> part;
+		private Node visual;
+
+		public ContentPartIndexObserver(IContentPart<? extends Node> part) {
+			this.part = part;
+			this.visual = part.getVisual();
+			visual.parentProperty().addListener(this);
+			visual.sceneProperty().addListener(this);
+		}
+
+		@Override
+		protected void boundsInLocalChanged(Bounds oldBounds,
+				Bounds newBounds) {
+			// handled within onBoundsChanged()
+		}
+
+		public void dispose() {
+			unregister();
+			visual.parentProperty().removeListener(this);
+			visual.sceneProperty().removeListener(this);
+		}
+
+		@Override
+		public void invalidated(Observable observable) {
+			// the visual was (re-)attached, so we need to register again
+			unregister();
+			invalidateContentPartIndexEntry(part);
+		}
+
+		@Override
+		protected void localToParentTransformChanged(Node observed,
+				Transform oldTransform, Transform newTransform) {
+			invalidateContentPartIndexEntry(part);
+		}
+
+		@Override
+		protected void onBoundsChanged() {
+			invalidateContentPartIndexEntry(part);
+			super.onBoundsChanged();
+		}
+
+		public void update(Group contentGroup) {
+			if (!NodeUtils.isNested(contentGroup, visual)) {
+				unregister();
+				contentPartIndex.remove(part);
+				return;
+			}
+			if (!isRegistered()) {
+				register(visual, contentGroup);
+			}
+			// transform bounds into the coordinate system of the content group
+			Bounds bounds = visual.getBoundsInLocal();
+			Node current = visual;
+			while (current != contentGroup) {
+				bounds = current.localToParent(bounds);
+				current = current.getParent();
+			}
+			contentPartIndex.put(part, bounds.getMinX(), bounds.getMinY(),
+					bounds.getMaxX(), bounds.getMaxY());
+		}
+	}
+
+	/**
+	 * Stores the visibility and managed state of a culled content part visual,
+	 * so that it can be restored when the visual is revealed again.
+	 */
+	private static class CulledVisualState {
+		private boolean visible;
+		private boolean managed;
+	}
+
+	/**
+	 * An {@link InfiniteCanvas} that takes the bounds of culled content part
+	 * visuals into account when computing its content bounds, so that the
+	 * scrollable area is not affected by virtualization.
+	 */
+	private class VirtualizingInfiniteCanvas extends InfiniteCanvas {
+
+		@Override
+		protected double[] computeContentBoundsInLocal() {
+			if (culledContentParts.isEmpty()) {
+				return super.computeContentBoundsInLocal();
+			}
+			// culled visuals are invisible and thus do not contribute to the
+			// bounds of the content group, so we have to add them here
+			validateContentPartIndex();
+			double minX = Double.POSITIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			for (IContentPart<? extends Node> part : culledContentParts
+					.keySet()) {
+				double[] bounds = contentPartIndex.getBounds(part);
+				if (bounds != null && isFinite(bounds)) {
+					minX = Math.min(minX, bounds[0]);
+					minY = Math.min(minY, bounds[1]);
+					maxX = Math.max(maxX, bounds[2]);
+					maxY = Math.max(maxY, bounds[3]);
+				}
+			}
+			Bounds contentBounds = getContentGroup().getBoundsInParent();
+			if (minX <= maxX && minY <= maxY) {
+				Bounds culledBounds = getContentGroup().localToParent(
+						new BoundingBox(minX, minY, maxX - minX, maxY - minY));
+				if (contentBounds.isEmpty()) {
+					contentBounds = culledBounds;
+				} else {
+					contentBounds = new BoundingBox(
+							Math.min(contentBounds.getMinX(),
+									culledBounds.getMinX()),
+							Math.min(contentBounds.getMinY(),
+									culledBounds.getMinY()),
+							Math.max(contentBounds.getMaxX(),
+									culledBounds.getMaxX())
+									- Math.min(contentBounds.getMinX(),
+											culledBounds.getMinX()),
+							Math.max(contentBounds.getMaxY(),
+									culledBounds.getMaxY())
+									- Math.min(contentBounds.getMinY(),
+											culledBounds.getMinY()));
+				}
+			}
+			// transform into the coordinate system of this canvas (see
+			// super implementation)
+			Point2D min = getScrolledPane().localToParent(
+					contentBounds.getMinX(), contentBounds.getMinY());
+			return new double[] { min.getX(), min.getY(),
+					min.getX() + contentBounds.getWidth(),
+					min.getY() + contentBounds.getHeight() };
+		}
+
+		private boolean isFinite(double[] bounds) {
+			for (double b : bounds) {
+				if (Double.isNaN(b) || Double.isInfinite(b)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void updateContentBounds() {
+			updateScrollBars();
+		}
+	}
+
+	// cell size of the spatial index of content part visuals
+	private static final double CONTENT_PART_INDEX_CELL_SIZE = 128;
+
+	private VirtualizingInfiniteCanvas infiniteCanvas;
 
 	private boolean isInitialized = false;
 	private boolean isWindowFocused = false;
@@ -152,6 +325,79 @@ public class InfiniteCanvasViewer implements IViewer {
 
 	private ReadOnlyObjectWrapper<IDomain> domainProperty = new ReadOnlyObjectWrapper<>();
 
+	// spatial index of the bounds of the visuals of all content parts
+	// (relative to the content group), which is built when it is first
+	// queried and updated lazily afterwards, i.e. only invalidated entries
+	// are updated when the index is queried
+	private boolean contentPartIndexed = false;
+	private SpatialIndex<IContentPart<? extends Node>> contentPartIndex = new SpatialIndex<>(
+			CONTENT_PART_INDEX_CELL_SIZE);
+	private Map<IContentPart<? extends Node>, ContentPartIndexObserver> contentPartIndexObservers = new IdentityHashMap<>();
+	private Set<IContentPart<? extends Node>> invalidContentPartIndexEntries = Collections
+			.newSetFromMap(new IdentityHashMap<>());
+	private MapChangeListener<Object, IContentPart<? extends Node>> contentPartMapObserver = new MapChangeListener<Object, IContentPart<? extends Node>>() {
+		@Override
+		public void onChanged(
+				MapChangeListener.Change<? extends Object, ? extends IContentPart<? extends Node>> change) {
+			if (change.wasRemoved()) {
+				ContentPartIndexObserver observer = contentPartIndexObservers
+						.remove(change.getValueRemoved());
+				if (observer != null) {
+					observer.dispose();
+				}
+				contentPartIndex.remove(change.getValueRemoved());
+				invalidContentPartIndexEntries
+						.remove(change.getValueRemoved());
+				// restore the visual before the part is disposed or pooled
+				revealContentPartVisual(change.getValueRemoved());
+				shownContentParts.remove(change.getValueRemoved());
+			}
+			if (change.wasAdded()) {
+				IContentPart<? extends Node> part = change.getValueAdded();
+				shownContentParts.add(part);
+				if (contentPartIndexed) {
+					indexContentPart(part);
+				}
+			}
+		}
+	};
+
+	// viewport virtualization, i.e. the visuals of top-level content parts
+	// that are outside of the viewport (plus a margin) are culled (made
+	// invisible and unmanaged)
+	private boolean virtualized = false;
+	private double virtualizationMargin = 256;
+	private Set<IContentPart<? extends Node>> shownContentParts = Collections
+			.newSetFromMap(new IdentityHashMap<>());
+	private Map<IContentPart<? extends Node>, CulledVisualState> culledContentParts = new IdentityHashMap<>();
+	private boolean culledContentBoundsChanged = false;
+	private InvalidationListener viewportObserver = new InvalidationListener() {
+		@Override
+		public void invalidated(Observable observable) {
+			scheduleVirtualizationUpdate();
+		}
+	};
+	private AnimationTimer virtualizationTimer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			stop();
+			updateVirtualization();
+		}
+	};
+
+	// parts whose visual refresh has been scheduled (but not yet performed)
+	private Set<IVisualPart<? extends Node>> refreshVisualParts = new LinkedHashSet<>();
+	private int refreshVisualBatchDepth = 0;
+	private boolean refreshVisualDeferred = false;
+	private AnimationTimer refreshVisualTimer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			// performed once per pulse (before CSS and layout are applied)
+			stop();
+			flushRefreshVisual();
+		}
+	};
+
 	/**
 	 * Creates a new {@link InfiniteCanvasViewer}.
 	 */
@@ -163,6 +409,8 @@ public class InfiniteCanvasViewer implements IViewer {
 		// - focusOwner
 		// - focusOwner focused
 		viewerFocusedProperty.bind(viewerFocusedPropertyBinding);
+		// maintain spatial index of content part visuals
+		contentPartMap.addListener(contentPartMapObserver);
 	}
 
 	@Override
@@ -212,6 +460,20 @@ public class InfiniteCanvasViewer implements IViewer {
 		return contentsProperty.getReadOnlyProperty();
 	}
 
+	private void cullContentPartVisual(IContentPart<? extends Node> part) {
+		if (culledContentParts.containsKey(part)) {
+			return;
+		}
+		Node visual = part.getVisual();
+		CulledVisualState state = new CulledVisualState();
+		state.visible = visual.isVisible();
+		state.managed = visual.isManaged();
+		culledContentParts.put(part, state);
+		visual.setVisible(false);
+		visual.setManaged(false);
+		culledContentBoundsChanged = true;
+	}
+
 	@Override
 	public final void deactivate() {
 		acs.deactivate(this::doDeactivate, null);
@@ -233,7 +495,11 @@ public class InfiniteCanvasViewer implements IViewer {
 	@Override
 	public void dispose() {
 		// ensure all listeners are properly unregistered
+		virtualizationTimer.stop();
 		if (infiniteCanvas != null) {
+			if (virtualized) {
+				unhookViewportObserver();
+			}
 			if (infiniteCanvas.getScene() != null) {
 				onSceneChanged(infiniteCanvas.getScene(), null);
 			}
@@ -249,6 +515,19 @@ public class InfiniteCanvasViewer implements IViewer {
 		ads.dispose();
 		ads = null;
 
+		// clear spatial index
+		contentPartMap.removeListener(contentPartMapObserver);
+		for (ContentPartIndexObserver observer : contentPartIndexObservers
+				.values()) {
+			observer.dispose();
+		}
+		contentPartIndexObservers.clear();
+		invalidContentPartIndexEntries.clear();
+		contentPartIndex.clear();
+		contentPartIndexed = false;
+		shownContentParts.clear();
+		culledContentParts.clear();
+
 		// clear content part map
 		if (!contentPartMap.isEmpty()) {
 			throw new IllegalStateException(
@@ -293,6 +572,53 @@ public class InfiniteCanvasViewer implements IViewer {
 	 */
 	protected void doDeactivate() {
 		deactivateAdapters();
+		// drop pending visual refreshes
+		refreshVisualTimer.stop();
+		refreshVisualParts.clear();
+	}
+
+	/**
+	 * Refreshes the visuals of all {@link IVisualPart}s for which a visual
+	 * refresh has been scheduled (see
+	 * {@link #scheduleRefreshVisual(IVisualPart)}), but not yet performed.
+	 *
+	 * @since 5.1
+	 */
+	protected void flushRefreshVisual() {
+		if (refreshVisualParts.isEmpty()) {
+			return;
+		}
+		List<IVisualPart<? extends Node>> parts = new ArrayList<>(
+				refreshVisualParts);
+		refreshVisualParts.clear();
+		for (IVisualPart<? extends Node> part : parts) {
+			// skip parts that have been removed in the meantime
+			if (part.getViewer() == this) {
+				part.refreshVisual();
+			}
+		}
+	}
+
+	@Override
+	public List<IContentPart<? extends Node>> findContentParts(
+			Bounds sceneBounds) {
+		if (infiniteCanvas == null) {
+			return Collections.emptyList();
+		}
+		if (!contentPartIndexed) {
+			// build the index on demand, so that it does not need to be
+			// maintained for viewers that are never queried
+			contentPartIndexed = true;
+			for (IContentPart<? extends Node> part : contentPartMap
+					.values()) {
+				indexContentPart(part);
+			}
+		}
+		validateContentPartIndex();
+		Bounds bounds = infiniteCanvas.getContentGroup()
+				.sceneToLocal(sceneBounds);
+		return contentPartIndex.query(bounds.getMinX(), bounds.getMinY(),
+				bounds.getMaxX(), bounds.getMaxY());
 	}
 
 	@Override
@@ -347,8 +673,11 @@ public class InfiniteCanvasViewer implements IViewer {
 	@Override
 	public InfiniteCanvas getCanvas() {
 		if (infiniteCanvas == null) {
-			infiniteCanvas = new InfiniteCanvas();
+			infiniteCanvas = new VirtualizingInfiniteCanvas();
 			infiniteCanvas.sceneProperty().addListener(sceneListener);
+			if (virtualized) {
+				hookViewportObserver();
+			}
 
 			// hook root visual
 			IRootPart<? extends Node> rootPart = getRootPart();
@@ -402,16 +731,81 @@ public class InfiniteCanvasViewer implements IViewer {
 		return visualPartMap;
 	}
 
+	/**
+	 * Returns the margin (in the coordinate system of the
+	 * {@link InfiniteCanvas}) by which the viewport is extended when
+	 * determining the content parts that are culled during virtualization
+	 * (see {@link #setVirtualized(boolean)}).
+	 *
+	 * @return The virtualization margin.
+	 * @since 5.1
+	 */
+	public double getVirtualizationMargin() {
+		return virtualizationMargin;
+	}
+
+	private void hookViewportObserver() {
+		infiniteCanvas.widthProperty().addListener(viewportObserver);
+		infiniteCanvas.heightProperty().addListener(viewportObserver);
+		// covers scrolling and zooming (see ChangeViewportOperation)
+		infiniteCanvas.getContentGroup().localToSceneTransformProperty()
+				.addListener(viewportObserver);
+	}
+
+	private void indexContentPart(IContentPart<? extends Node> part) {
+		if (!contentPartIndexObservers.containsKey(part)) {
+			contentPartIndexObservers.put(part,
+					new ContentPartIndexObserver(part));
+			invalidateContentPartIndexEntry(part);
+		}
+	}
+
+	private void invalidateContentPartIndexEntry(
+			IContentPart<? extends Node> part) {
+		invalidContentPartIndexEntries.add(part);
+		if (culledContentParts.containsKey(part)) {
+			culledContentBoundsChanged = true;
+		}
+		scheduleVirtualizationUpdate();
+	}
+
 	@Override
 	public final boolean isActive() {
 		return acs.isActive();
 	}
 
+	/**
+	 * Returns whether visual refreshes, which are scheduled (see
+	 * {@link #scheduleRefreshVisual(IVisualPart)}) outside of
+	 * {@link #runBatched(Runnable)}, are deferred to the next JavaFX pulse.
+	 *
+	 * @return <code>true</code> if visual refreshes are deferred to the next
+	 *         pulse, <code>false</code> if they are performed immediately.
+	 * @since 5.1
+	 */
+	public boolean isRefreshVisualDeferred() {
+		return refreshVisualDeferred;
+	}
+
 	@Override
 	public boolean isViewerFocused() {
 		return viewerFocusedProperty.get();
 	}
 
+	/**
+	 * Returns whether this {@link InfiniteCanvasViewer} is virtualized, i.e.
+	 * whether the visuals of content parts that are outside of the viewport
+	 * are culled.
+	 *
+	 * @return <code>true</code> if the viewer is virtualized,
+	 *         <code>false</code> otherwise.
+	 * @see #setVirtualized(boolean)
+	 * @since 5.1
+	 */
+	public boolean isVirtualized() {
+		return virtualized;
+	}
+
 	private void onFocusOwnerChanged(Node oldFocusOwner, Node newFocusOwner) {
 		if (oldFocusOwner != null
 				&& NodeUtils.isNested(getCanvas(), oldFocusOwner)) {
@@ -504,6 +898,48 @@ public class InfiniteCanvasViewer implements IViewer {
 		}
 	}
 
+	private void revealContentPartVisual(IContentPart<? extends Node> part) {
+		CulledVisualState state = culledContentParts.remove(part);
+		if (state != null) {
+			Node visual = part.getVisual();
+			visual.setManaged(state.managed);
+			visual.setVisible(state.visible);
+			culledContentBoundsChanged = true;
+		}
+	}
+
+	@Override
+	public void runBatched(Runnable runnable) {
+		refreshVisualBatchDepth++;
+		try {
+			runnable.run();
+		} finally {
+			refreshVisualBatchDepth--;
+			if (refreshVisualBatchDepth == 0) {
+				flushRefreshVisual();
+			}
+		}
+	}
+
+	@Override
+	public void scheduleRefreshVisual(IVisualPart<? extends Node> visualPart) {
+		if (refreshVisualBatchDepth > 0) {
+			refreshVisualParts.add(visualPart);
+		} else if (refreshVisualDeferred) {
+			if (refreshVisualParts.add(visualPart)) {
+				refreshVisualTimer.start();
+			}
+		} else {
+			visualPart.refreshVisual();
+		}
+	}
+
+	private void scheduleVirtualizationUpdate() {
+		if (virtualized) {
+			virtualizationTimer.start();
+		}
+	}
+
 	@Override
 	public void setAdaptable(IDomain domain) {
 		domainProperty.set(domain);
@@ -531,11 +967,166 @@ public class InfiniteCanvasViewer implements IViewer {
 		ads.setAdapter(adapterType, adapter, role);
 	}
 
+	/**
+	 * Specifies whether visual refreshes, which are scheduled (see
+	 * {@link #scheduleRefreshVisual(IVisualPart)}) outside of
+	 * {@link #runBatched(Runnable)}, are to be deferred to the next JavaFX
+	 * pulse, so that the visual of each {@link IVisualPart} is refreshed at
+	 * most once per pulse. By default, visual refreshes are performed
+	 * immediately.
+	 *
+	 * @param refreshVisualDeferred
+	 *            <code>true</code> to defer visual refreshes to the next pulse,
+	 *            <code>false</code> to perform them immediately.
+	 * @since 5.1
+	 */
+	public void setRefreshVisualDeferred(boolean refreshVisualDeferred) {
+		this.refreshVisualDeferred = refreshVisualDeferred;
+		if (!refreshVisualDeferred) {
+			refreshVisualTimer.stop();
+			if (refreshVisualBatchDepth == 0) {
+				flushRefreshVisual();
+			}
+		}
+	}
+
+	/**
+	 * Sets the margin (in the coordinate system of the {@link InfiniteCanvas})
+	 * by which the viewport is extended when determining the content parts
+	 * that are culled during virtualization (see
+	 * {@link #setVirtualized(boolean)}). A greater margin avoids that visuals
+	 * are revealed only after they became visible when scrolling.
+	 *
+	 * @param virtualizationMargin
+	 *            The virtualization margin.
+	 * @since 5.1
+	 */
+	public void setVirtualizationMargin(double virtualizationMargin) {
+		if (virtualizationMargin < 0) {
+			throw new IllegalArgumentException(
+					"virtualizationMargin may not be negative.");
+		}
+		this.virtualizationMargin = virtualizationMargin;
+		scheduleVirtualizationUpdate();
+	}
+
+	/**
+	 * Specifies whether this {@link InfiniteCanvasViewer} is to be
+	 * virtualized. If virtualized, the visuals of top-level content parts
+	 * (i.e. content parts that are direct children of the root part) that do
+	 * not intersect the viewport (extended by the
+	 * {@link #getVirtualizationMargin() virtualization margin}) are culled,
+	 * i.e. they are made invisible and unmanaged, so that they are skipped
+	 * when rendering and laying out the scene graph. Culled visuals are
+	 * revealed again as soon as they intersect the (extended) viewport, e.g.
+	 * after scrolling or zooming. Content parts are not removed from the
+	 * viewer when their visuals are culled. By default, the viewer is not
+	 * virtualized.
+	 *
+	 * @param virtualized
+	 *            <code>true</code> to virtualize this viewer,
+	 *            <code>false</code> to reveal all culled visuals.
+	 * @since 5.1
+	 */
+	public void setVirtualized(boolean virtualized) {
+		if (this.virtualized == virtualized) {
+			return;
+		}
+		this.virtualized = virtualized;
+		if (virtualized) {
+			if (infiniteCanvas != null) {
+				hookViewportObserver();
+			}
+			scheduleVirtualizationUpdate();
+		} else {
+			virtualizationTimer.stop();
+			if (infiniteCanvas != null) {
+				unhookViewportObserver();
+			}
+			for (IContentPart<? extends Node> part : new ArrayList<>(
+					culledContentParts.keySet())) {
+				revealContentPartVisual(part);
+				shownContentParts.add(part);
+			}
+			updateCulledContentBounds();
+		}
+	}
+
+	private void unhookViewportObserver() {
+		infiniteCanvas.widthProperty().removeListener(viewportObserver);
+		infiniteCanvas.heightProperty().removeListener(viewportObserver);
+		infiniteCanvas.getContentGroup().localToSceneTransformProperty()
+				.removeListener(viewportObserver);
+	}
+
 	@Override
 	public <T> void unsetAdapter(T adapter) {
 		ads.unsetAdapter(adapter);
 	}
 
+	private void updateCulledContentBounds() {
+		if (culledContentBoundsChanged && infiniteCanvas != null) {
+			culledContentBoundsChanged = false;
+			infiniteCanvas.updateContentBounds();
+		}
+	}
+
+	/**
+	 * Culls the visuals of all top-level content parts that do not intersect
+	 * the viewport (extended by the {@link #getVirtualizationMargin()
+	 * virtualization margin}), and reveals the visuals of all culled content
+	 * parts that intersect it.
+	 *
+	 * @since 5.1
+	 */
+	protected void updateVirtualization() {
+		if (!virtualized || infiniteCanvas == null) {
+			return;
+		}
+		// XXX: Read the transform so that the viewport observer is notified
+		// about subsequent changes again.
+		infiniteCanvas.getContentGroup().getLocalToSceneTransform();
+		Bounds viewportBounds = infiniteCanvas.localToScene(new BoundingBox(
+				-virtualizationMargin, -virtualizationMargin,
+				infiniteCanvas.getWidth() + 2 * virtualizationMargin,
+				infiniteCanvas.getHeight() + 2 * virtualizationMargin));
+		Set<IContentPart<? extends Node>> visibleParts = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+		visibleParts.addAll(findContentParts(viewportBounds));
+		// cull shown parts that left the viewport
+		for (Iterator<IContentPart<? extends Node>> it = shownContentParts
+				.iterator(); it.hasNext();) {
+			IContentPart<? extends Node> part = it.next();
+			if (!visibleParts.contains(part)
+					&& part.getParent() instanceof IRootPart
+					&& contentPartIndex.contains(part)) {
+				cullContentPartVisual(part);
+				it.remove();
+			}
+		}
+		// reveal culled parts that entered the viewport
+		for (IContentPart<? extends Node> part : visibleParts) {
+			if (culledContentParts.containsKey(part)) {
+				revealContentPartVisual(part);
+				shownContentParts.add(part);
+			}
+		}
+		updateCulledContentBounds();
+	}
+
+	private void validateContentPartIndex() {
+		// update invalidated index entries
+		if (!invalidContentPartIndexEntries.isEmpty()) {
+			Group contentGroup = infiniteCanvas.getContentGroup();
+			List<IContentPart<? extends Node>> parts = new ArrayList<>(
+					invalidContentPartIndexEntries);
+			invalidContentPartIndexEntries.clear();
+			for (IContentPart<? extends Node> part : parts) {
+				contentPartIndexObservers.get(part).update(contentGroup);
+			}
+		}
+	}
+
 	@Override
 	public ReadOnlyBooleanProperty viewerFocusedProperty() {
 		return viewerFocusedProperty.getReadOnlyProperty();
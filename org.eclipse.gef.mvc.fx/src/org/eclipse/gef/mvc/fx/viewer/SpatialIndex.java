@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.fx.viewer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid that indexes elements by their (axis-aligned) bounds, so that
+ * the elements intersecting a given region can be determined without having to
+ * test all elements. Elements are compared by identity. Elements with
+ * non-finite bounds, or bounds that span a large number of cells, are not
+ * stored in the grid, but are tested for each query. The {@link SpatialIndex}
+ * is used by the {@link InfiniteCanvasViewer} to index the visuals of its
+ * content parts (see
+ * {@link IViewer#findContentParts(javafx.geometry.Bounds)}).
+ *
+ * @param <T>
+ *            The type of the indexed elements.
+ *
+ * @author agent
+ *
+ * @since 5.1
+ */
+public class SpatialIndex<T> {
+
+	private static class Entry<T> {
+		private T element;
+		private long sequence;
+		private double minX, minY, maxX, maxY;
+		private int minCellX, minCellY, maxCellX, maxCellY;
+		private boolean unbounded;
+		private long stamp;
+
+		private boolean intersects(double minX, double minY, double maxX,
+				double maxY) {
+			return !(this.maxX < minX || this.minX > maxX || this.maxY < minY
+					|| this.minY > maxY);
+		}
+	}
+
+	// elements spanning more cells are not stored in the grid
+	private static final int MAX_CELLS_PER_ENTRY = 256;
+
+	private static final Comparator<Entry<?>> SEQUENCE_COMPARATOR = new Comparator<Entry<?>>() {
+		@Override
+		public int compare(Entry<?> e1, Entry<?> e2) {
+			return Long.compare(e1.sequence, e2.sequence);
+		}
+	};
+
+	private static long getCellKey(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+
+	private double cellSize;
+	private Map<T, Entry<T>> entries = new IdentityHashMap<>();
+	private Map<Long, List<Entry<T>>> cells = new HashMap<>();
+	private List<Entry<T>> unboundedEntries = new ArrayList<>();
+	private long sequence = 0;
+	private long stamp = 0;
+
+	/**
+	 * Creates a new {@link SpatialIndex} using the given cell size.
+	 *
+	 * @param cellSize
+	 *            The width and height of the grid cells.
+	 */
+	public SpatialIndex(double cellSize) {
+		if (!(cellSize > 0)) {
+			throw new IllegalArgumentException(
+					"cellSize has to be greater than 0.");
+		}
+		this.cellSize = cellSize;
+	}
+
+	private void addToCells(Entry<T> entry) {
+		int cellCount = -1;
+		if (isFinite(entry.minX) && isFinite(entry.minY)
+				&& isFinite(entry.maxX) && isFinite(entry.maxY)) {
+			entry.minCellX = toCell(entry.minX);
+			entry.minCellY = toCell(entry.minY);
+			entry.maxCellX = toCell(entry.maxX);
+			entry.maxCellY = toCell(entry.maxY);
+			long cellCountX = (long) entry.maxCellX - entry.minCellX + 1;
+			long cellCountY = (long) entry.maxCellY - entry.minCellY + 1;
+			if (cellCountX * cellCountY <= MAX_CELLS_PER_ENTRY) {
+				cellCount = (int) (cellCountX * cellCountY);
+			}
+		}
+		if (cellCount < 0) {
+			entry.unbounded = true;
+			unboundedEntries.add(entry);
+			return;
+		}
+		entry.unbounded = false;
+		for (int x = entry.minCellX; x <= entry.maxCellX; x++) {
+			for (int y = entry.minCellY; y <= entry.maxCellY; y++) {
+				Long key = getCellKey(x, y);
+				List<Entry<T>> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes all elements from this {@link SpatialIndex}.
+	 */
+	public void clear() {
+		entries.clear();
+		cells.clear();
+		unboundedEntries.clear();
+	}
+
+	/**
+	 * Returns whether the given element is indexed.
+	 *
+	 * @param element
+	 *            The element to test.
+	 * @return <code>true</code> if the element is indexed, <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean contains(T element) {
+		return entries.containsKey(element);
+	}
+
+	/**
+	 * Returns the bounds of the given element, as specified when indexing it.
+	 *
+	 * @param element
+	 *            The element whose bounds to return.
+	 * @return The bounds <code>[min-x, min-y, max-x, max-y]</code> of the
+	 *         given element, or <code>null</code> if the element is not
+	 *         indexed.
+	 */
+	public double[] getBounds(T element) {
+		Entry<T> entry = entries.get(element);
+		if (entry == null) {
+			return null;
+		}
+		return new double[] { entry.minX, entry.minY, entry.maxX,
+				entry.maxY };
+	}
+
+	private boolean isFinite(double value) {
+		return !Double.isNaN(value) && !Double.isInfinite(value);
+	}
+
+	/**
+	 * Indexes the given element with the given bounds. If the element is
+	 * already indexed, its bounds are updated.
+	 *
+	 * @param element
+	 *            The element to index.
+	 * @param minX
+	 *            The minimum x-coordinate of the element's bounds.
+	 * @param minY
+	 *            The minimum y-coordinate of the element's bounds.
+	 * @param maxX
+	 *            The maximum x-coordinate of the element's bounds.
+	 * @param maxY
+	 *            The maximum y-coordinate of the element's bounds.
+	 */
+	public void put(T element, double minX, double minY, double maxX,
+			double maxY) {
+		Entry<T> entry = entries.get(element);
+		if (entry == null) {
+			entry = new Entry<>();
+			entry.element = element;
+			entry.sequence = sequence++;
+			entries.put(element, entry);
+		} else {
+			removeFromCells(entry);
+		}
+		entry.minX = minX;
+		entry.minY = minY;
+		entry.maxX = maxX;
+		entry.maxY = maxY;
+		addToCells(entry);
+	}
+
+	/**
+	 * Returns all indexed elements whose bounds intersect the given region,
+	 * in the order in which they have been indexed initially.
+	 *
+	 * @param minX
+	 *            The minimum x-coordinate of the region.
+	 * @param minY
+	 *            The minimum y-coordinate of the region.
+	 * @param maxX
+	 *            The maximum x-coordinate of the region.
+	 * @param maxY
+	 *            The maximum y-coordinate of the region.
+	 * @return A new {@link List} containing the elements whose bounds
+	 *         intersect the given region.
+	 */
+	public List<T> query(double minX, double minY, double maxX,
+			double maxY) {
+		List<Entry<T>> result = new ArrayList<>();
+		long queryCellCount = Long.MAX_VALUE;
+		if (isFinite(minX) && isFinite(minY) && isFinite(maxX)
+				&& isFinite(maxY)) {
+			queryCellCount = ((long) toCell(maxX) - toCell(minX) + 1)
+					* ((long) toCell(maxY) - toCell(minY) + 1);
+		}
+		if (queryCellCount > entries.size()) {
+			// visiting the cells is more expensive than testing all entries
+			for (Entry<T> entry : entries.values()) {
+				if (entry.intersects(minX, minY, maxX, maxY)) {
+					result.add(entry);
+				}
+			}
+		} else {
+			// visit the overlapped cells, ensuring each entry is only
+			// reported once
+			stamp++;
+			for (int x = toCell(minX); x <= toCell(maxX); x++) {
+				for (int y = toCell(minY); y <= toCell(maxY); y++) {
+					List<Entry<T>> cell = cells.get(getCellKey(x, y));
+					if (cell != null) {
+						for (Entry<T> entry : cell) {
+							if (entry.stamp != stamp && entry.intersects(minX,
+									minY, maxX, maxY)) {
+								entry.stamp = stamp;
+								result.add(entry);
+							}
+						}
+					}
+				}
+			}
+			for (Entry<T> entry : unboundedEntries) {
+				if (entry.intersects(minX, minY, maxX, maxY)) {
+					result.add(entry);
+				}
+			}
+		}
+		Collections.sort(result, SEQUENCE_COMPARATOR);
+		List<T> elements = new ArrayList<>(result.size());
+		for (Entry<T> entry : result) {
+			elements.add(entry.element);
+		}
+		return elements;
+	}
+
+	/**
+	 * Removes the given element from this {@link SpatialIndex}.
+	 *
+	 * @param element
+	 *            The element to remove.
+	 */
+	public void remove(T element) {
+		Entry<T> entry = entries.remove(element);
+		if (entry != null) {
+			removeFromCells(entry);
+		}
+	}
+
+	private void removeFromCells(Entry<T> entry) {
+		if (entry.unbounded) {
+			unboundedEntries.remove(entry);
+			return;
+		}
+		for (int x = entry.minCellX; x <= entry.maxCellX; x++) {
+			for (int y = entry.minCellY; y <= entry.maxCellY; y++) {
+				Long key = getCellKey(x, y);
+				List<Entry<T>> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of indexed elements.
+	 *
+	 * @return The number of indexed elements.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private int toCell(double coordinate) {
+		double cell = Math.floor(coordinate / cellSize);
+		// clamp to int range (ensuring cell ranges can be iterated)
+		if (cell >= Integer.MAX_VALUE) {
+			return Integer.MAX_VALUE - 1;
+		} else if (cell <= Integer.MIN_VALUE) {
+			return Integer.MIN_VALUE + 1;
+		}
+		return (int) cell;
+	}
+}
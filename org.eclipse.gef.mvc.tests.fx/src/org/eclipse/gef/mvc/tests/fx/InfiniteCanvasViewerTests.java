@@ -0,0 +1,487 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.gef.common.adapt.AdapterKey;
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.mvc.fx.MvcFxModule;
+import org.eclipse.gef.mvc.fx.domain.IDomain;
+import org.eclipse.gef.mvc.fx.handlers.MarqueeOnDragHandler;
+import org.eclipse.gef.mvc.fx.handlers.SnapToGeometry;
+import org.eclipse.gef.mvc.fx.models.SelectionModel;
+import org.eclipse.gef.mvc.fx.parts.AbstractContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPartFactory;
+import org.eclipse.gef.mvc.fx.parts.IVisualPart;
+import org.eclipse.gef.mvc.fx.parts.PartUtils;
+import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.fx.viewer.InfiniteCanvasViewer;
+import org.eclipse.gef.mvc.tests.fx.rules.FXApplicationThreadRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.shape.Rectangle;
+
+public class InfiniteCanvasViewerTests {
+
+	static class BoxPart extends AbstractContentPart<Rectangle> {
+		private int refreshVisualCount = 0;
+
+		@Override
+		protected Rectangle doCreateVisual() {
+			return new Rectangle();
+		}
+
+		@Override
+		protected SetMultimap<? extends Object, String> doGetContentAnchorages() {
+			return HashMultimap.create();
+		}
+
+		@Override
+		protected List<? extends Object> doGetContentChildren() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		protected void doRefreshVisual(Rectangle visual) {
+			refreshVisualCount++;
+			org.eclipse.gef.geometry.planar.Rectangle box = getContent();
+			visual.setX(box.getX());
+			visual.setY(box.getY());
+			visual.setWidth(box.getWidth());
+			visual.setHeight(box.getHeight());
+		}
+
+		@Override
+		public org.eclipse.gef.geometry.planar.Rectangle getContent() {
+			return (org.eclipse.gef.geometry.planar.Rectangle) super.getContent();
+		}
+	}
+
+	static class BoxPartFactory implements IContentPartFactory {
+		@Inject
+		private Injector injector;
+
+		@Override
+		public IContentPart<? extends Node> createContentPart(Object content,
+				Map<Object, Object> contextMap) {
+			return injector.getInstance(BoxPart.class);
+		}
+	}
+
+	/**
+	 * Records the parts that are determined to be relevant for snapping, and
+	 * allows to determine them by testing all content parts instead.
+	 */
+	static class RecordingSnapToGeometry extends SnapToGeometry {
+		private Set<IContentPart<? extends Node>> relevantParts = new HashSet<>();
+		private boolean restrictedToViewport;
+
+		public Set<IContentPart<? extends Node>> getRelevantParts(
+				IContentPart<? extends Node> snappedPart) {
+			relevantParts.clear();
+			setSnappedPart(snappedPart);
+			return relevantParts;
+		}
+
+		public Set<IContentPart<? extends Node>> getRelevantPartsByLinearScan(
+				IContentPart<? extends Node> snappedPart) {
+			setSnappedPart(snappedPart);
+			Set<IContentPart<? extends Node>> parts = new HashSet<>();
+			Parent canvas = snappedPart.getViewer().getCanvas();
+			Bounds viewport = canvas.localToScene(canvas.getLayoutBounds());
+			for (IContentPart<? extends Node> part : snappedPart.getViewer()
+					.getContentPartMap().values()) {
+				Node visual = part.getVisual();
+				if (part != snappedPart && super.isRelevant(part)
+						&& (!restrictedToViewport || viewport.intersects(visual
+								.localToScene(visual.getLayoutBounds())))) {
+					parts.add(part);
+				}
+			}
+			return parts;
+		}
+
+		@Override
+		protected boolean isRelevant(IContentPart<? extends Node> part) {
+			boolean relevant = super.isRelevant(part);
+			if (relevant) {
+				relevantParts.add(part);
+			}
+			return relevant;
+		}
+
+		@Override
+		protected boolean isRestrictedToViewport() {
+			return restrictedToViewport;
+		}
+
+		public void setRestrictedToViewport(boolean restrictedToViewport) {
+			this.restrictedToViewport = restrictedToViewport;
+		}
+	}
+
+	/**
+	 * Allows to update the virtualization without waiting for the next pulse.
+	 */
+	static class VirtualizationTestViewer extends InfiniteCanvasViewer {
+		@Override
+		public void updateVirtualization() {
+			super.updateVirtualization();
+		}
+	}
+
+	private static MouseEvent createMouseEvent(double sceneX, double sceneY) {
+		return new MouseEvent(MouseEvent.MOUSE_DRAGGED, sceneX, sceneY, sceneX,
+				sceneY, MouseButton.PRIMARY, 1, false, false, false, false,
+				true, false, false, false, false, false, null);
+	}
+
+	/**
+	 * Ensure all tests are executed on the JavaFX application thread (and the
+	 * JavaFX toolkit is properly initialized).
+	 */
+	@Rule
+	public FXApplicationThreadRule fxApplicationThreadRule = new FXApplicationThreadRule();
+
+	@Inject
+	private IDomain domain;
+
+	private VirtualizationTestViewer viewer;
+
+	private void assertCulled(boolean culled, double x, double y) {
+		Node visual = getContentPart(x, y).getVisual();
+		assertEquals(!culled, visual.isVisible());
+		assertEquals(!culled, visual.isManaged());
+	}
+
+	private void assertMarqueeSelection(double x0, double y0, double x1,
+			double y1) {
+		// determine the parts by scanning the whole scene graph
+		Set<IContentPart<? extends Node>> expected = new HashSet<>();
+		for (Node node : MarqueeOnDragHandler.findContainedNodes(
+				viewer.getCanvas().getScene().getRoot(), x0, y0, x1, y1)) {
+			IVisualPart<? extends Node> part = PartUtils
+					.retrieveVisualPart(viewer, node);
+			if (part instanceof IContentPart
+					&& ((IContentPart<? extends Node>) part).isSelectable()) {
+				expected.add((IContentPart<? extends Node>) part);
+			}
+		}
+
+		// marquee selection extends the current selection
+		SelectionModel selectionModel = viewer.getAdapter(SelectionModel.class);
+		selectionModel.clearSelection();
+		MarqueeOnDragHandler handler = viewer.getRootPart()
+				.getAdapter(MarqueeOnDragHandler.class);
+		handler.startDrag(createMouseEvent(x0, y0));
+		handler.endDrag(createMouseEvent(x1, y1), new Dimension());
+		assertEquals(expected,
+				new HashSet<>(selectionModel.getSelectionUnmodifiable()));
+	}
+
+	private List<Object> createContents() {
+		List<Object> contents = new ArrayList<>();
+		// a grid of boxes that exceeds the viewport
+		for (int x = 0; x < 20; x++) {
+			for (int y = 0; y < 20; y++) {
+				contents.add(new org.eclipse.gef.geometry.planar.Rectangle(
+						x * 50, y * 40, 30, 20));
+			}
+		}
+		// a box that is not stored within the grid cells of the index
+		contents.add(new org.eclipse.gef.geometry.planar.Rectangle(-50, -50,
+				5000, 4000));
+		return contents;
+	}
+
+	private IContentPart<? extends Node> getContentPart(double x, double y) {
+		for (IContentPart<? extends Node> part : viewer.getContentPartMap()
+				.values()) {
+			org.eclipse.gef.geometry.planar.Rectangle box = (org.eclipse.gef.geometry.planar.Rectangle) part
+					.getContent();
+			if (box.getX() == x && box.getY() == y) {
+				return part;
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
+	@Before
+	public void setUp() {
+		Injector injector = Guice.createInjector(new MvcFxModule() {
+			@Override
+			protected void configure() {
+				super.configure();
+				binder().bind(IContentPartFactory.class)
+						.to(BoxPartFactory.class);
+			}
+
+			@Override
+			protected void bindIViewer() {
+				binder().bind(IViewer.class)
+						.to(VirtualizationTestViewer.class);
+			}
+		});
+		injector.injectMembers(this);
+		viewer = (VirtualizationTestViewer) domain.getAdapter(
+				AdapterKey.get(IViewer.class, IDomain.CONTENT_VIEWER_ROLE));
+		Scene scene = new Scene(viewer.getCanvas(), 400, 300);
+		JFXPanel panel = new JFXPanel();
+		panel.setScene(scene);
+		// XXX: The scene is not rendered, so that the canvas has to be sized
+		// explicitly.
+		viewer.getCanvas().resize(400, 300);
+		viewer.getCanvas().applyCss();
+		viewer.getCanvas().layout();
+		domain.activate();
+		viewer.getContents().setAll(createContents());
+	}
+
+	@Test
+	public void findContentParts() {
+		assertEquals(401, viewer.getContentPartMap().size());
+		Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			if (i == 25) {
+				// scrolling affects the scene bounds of the visuals
+				viewer.getCanvas().setHorizontalScrollOffset(-170);
+				viewer.getCanvas().setVerticalScrollOffset(-90);
+			}
+			Bounds bounds = new BoundingBox(random.nextDouble() * 400 - 50,
+					random.nextDouble() * 300 - 50, random.nextDouble() * 200,
+					random.nextDouble() * 150);
+			Set<IContentPart<? extends Node>> expected = new HashSet<>();
+			for (IContentPart<? extends Node> part : viewer
+					.getContentPartMap().values()) {
+				Node visual = part.getVisual();
+				if (visual.localToScene(visual.getBoundsInLocal())
+						.intersects(bounds)) {
+					expected.add(part);
+				}
+			}
+			assertEquals(expected,
+					new HashSet<>(viewer.findContentParts(bounds)));
+		}
+
+		// the index is updated when visuals are changed
+		IContentPart<? extends Node> part = getContentPart(0, 0);
+		((Rectangle) part.getVisual()).setX(-500);
+		assertFalse(viewer
+				.findContentParts(part.getVisual().getParent()
+						.localToScene(new BoundingBox(0, 0, 10, 10)))
+				.contains(part));
+		assertTrue(viewer.findContentParts(part.getVisual().getParent()
+				.localToScene(new BoundingBox(-495, 5, 0, 0))).contains(part));
+
+		// and when parts are removed
+		viewer.getContents().clear();
+		assertEquals(Collections.emptyList(),
+				viewer.findContentParts(new BoundingBox(-1e6, -1e6, 2e6, 2e6)));
+	}
+
+	@Test
+	public void marqueeSelection() {
+		assertMarqueeSelection(5, 5, 205, 105);
+		assertMarqueeSelection(0, 0, 400, 300);
+		assertMarqueeSelection(120, 60, 121, 61);
+		assertMarqueeSelection(-100, -100, 1100, 900);
+		viewer.getCanvas().setHorizontalScrollOffset(-230);
+		viewer.getCanvas().setVerticalScrollOffset(-110);
+		assertMarqueeSelection(5, 5, 205, 105);
+		assertMarqueeSelection(-300, -300, 5000, 5000);
+	}
+
+	@Test
+	public void runBatched() {
+		BoxPart part0 = (BoxPart) getContentPart(0, 0);
+		BoxPart part1 = (BoxPart) getContentPart(50, 0);
+		int count0 = part0.refreshVisualCount;
+		int count1 = part1.refreshVisualCount;
+
+		// refreshes are performed immediately outside of a batch
+		viewer.scheduleRefreshVisual(part0);
+		assertEquals(count0 + 1, part0.refreshVisualCount);
+
+		// deferred until the batch is finished, and merged per part
+		viewer.runBatched(() -> {
+			viewer.scheduleRefreshVisual(part0);
+			viewer.scheduleRefreshVisual(part1);
+			viewer.scheduleRefreshVisual(part0);
+			assertEquals(count0 + 1, part0.refreshVisualCount);
+			assertEquals(count1, part1.refreshVisualCount);
+		});
+		assertEquals(count0 + 2, part0.refreshVisualCount);
+		assertEquals(count1 + 1, part1.refreshVisualCount);
+
+		// nested batches are flushed exactly once, when the outermost batch
+		// is finished
+		viewer.runBatched(() -> {
+			viewer.scheduleRefreshVisual(part0);
+			viewer.runBatched(() -> {
+				viewer.scheduleRefreshVisual(part0);
+				viewer.scheduleRefreshVisual(part1);
+			});
+			assertEquals(count0 + 2, part0.refreshVisualCount);
+			assertEquals(count1 + 1, part1.refreshVisualCount);
+			viewer.runBatched(() -> viewer.scheduleRefreshVisual(part1));
+		});
+		assertEquals(count0 + 3, part0.refreshVisualCount);
+		assertEquals(count1 + 2, part1.refreshVisualCount);
+	}
+
+	@Test
+	public void scheduleRefreshVisualDeferred() {
+		BoxPart part = (BoxPart) getContentPart(0, 0);
+		int count = part.refreshVisualCount;
+		viewer.setRefreshVisualDeferred(true);
+		viewer.scheduleRefreshVisual(part);
+		viewer.scheduleRefreshVisual(part);
+		assertEquals(count, part.refreshVisualCount);
+		// pending refreshes are flushed when deferral is disabled
+		viewer.setRefreshVisualDeferred(false);
+		assertEquals(count + 1, part.refreshVisualCount);
+		viewer.scheduleRefreshVisual(part);
+		assertEquals(count + 2, part.refreshVisualCount);
+	}
+
+	@Test
+	public void snapping() {
+		RecordingSnapToGeometry snapTo = new RecordingSnapToGeometry();
+		IContentPart<? extends Node> snappedPart = getContentPart(100, 80);
+		// by default, all content parts are considered
+		Set<IContentPart<? extends Node>> all = snapTo
+				.getRelevantPartsByLinearScan(snappedPart);
+		assertEquals(viewer.getContentPartMap().size() - 1, all.size());
+		assertEquals(all, snapTo.getRelevantParts(snappedPart));
+
+		// only the parts within the viewport are considered on request
+		snapTo.setRestrictedToViewport(true);
+		Set<IContentPart<? extends Node>> expected = snapTo
+				.getRelevantPartsByLinearScan(snappedPart);
+		assertFalse(expected.isEmpty());
+		assertTrue(expected.size() < all.size());
+		assertEquals(expected, snapTo.getRelevantParts(snappedPart));
+
+		viewer.getCanvas().setHorizontalScrollOffset(-330);
+		viewer.getCanvas().setVerticalScrollOffset(-250);
+		expected = snapTo.getRelevantPartsByLinearScan(snappedPart);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, snapTo.getRelevantParts(snappedPart));
+
+		// scrolling does not affect the default
+		snapTo.setRestrictedToViewport(false);
+		assertEquals(all, snapTo.getRelevantParts(snappedPart));
+	}
+
+	@Test
+	public void virtualization() {
+		assertFalse(viewer.isVirtualized());
+		viewer.setVirtualized(true);
+		viewer.updateVirtualization();
+		// the viewport (400x300) is extended by the default margin (256)
+		assertCulled(false, 0, 0);
+		assertCulled(false, 600, 520);
+		assertCulled(true, 700, 0);
+		assertCulled(true, 0, 560);
+		assertCulled(true, 950, 760);
+		// intersects the viewport, although it is not contained in it
+		assertCulled(false, -50, -50);
+
+		// hidden when scrolled out of the viewport
+		viewer.getCanvas().setHorizontalScrollOffset(-500);
+		viewer.getCanvas().setVerticalScrollOffset(-400);
+		viewer.updateVirtualization();
+		assertCulled(true, 0, 0);
+		assertCulled(true, 200, 120);
+		assertCulled(false, 250, 160);
+		assertCulled(false, 700, 200);
+		assertCulled(false, 950, 760);
+		assertCulled(false, -50, -50);
+
+		// shown again when scrolled back
+		viewer.getCanvas().setHorizontalScrollOffset(0);
+		viewer.getCanvas().setVerticalScrollOffset(0);
+		viewer.updateVirtualization();
+		assertCulled(false, 0, 0);
+		assertCulled(false, 200, 120);
+		assertCulled(true, 950, 760);
+
+		// culled parts can still be found
+		assertTrue(viewer
+				.findContentParts(viewer.getCanvas()
+						.localToScene(new BoundingBox(900, 700, 100, 100)))
+				.contains(getContentPart(950, 760)));
+
+		// all visuals are shown when virtualization is disabled
+		viewer.setVirtualized(false);
+		for (IContentPart<? extends Node> part : viewer.getContentPartMap()
+				.values()) {
+			assertTrue(part.getVisual().isVisible());
+			assertTrue(part.getVisual().isManaged());
+		}
+	}
+
+	@Test
+	public void virtualizationMargin() {
+		viewer.setVirtualized(true);
+		viewer.setVirtualizationMargin(0);
+		viewer.updateVirtualization();
+		assertCulled(false, 350, 280);
+		assertCulled(true, 450, 0);
+		assertCulled(true, 0, 320);
+		assertCulled(true, 600, 520);
+
+		// a greater margin reveals more visuals
+		viewer.setVirtualizationMargin(400);
+		viewer.updateVirtualization();
+		assertCulled(false, 450, 0);
+		assertCulled(false, 750, 640);
+		assertCulled(true, 850, 0);
+		assertCulled(true, 0, 720);
+
+		// a smaller margin culls them again
+		viewer.setVirtualizationMargin(100);
+		viewer.updateVirtualization();
+		assertCulled(false, 450, 360);
+		assertCulled(true, 550, 0);
+		assertCulled(true, 750, 640);
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.tests.fx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.mvc.fx.viewer.SpatialIndex;
+import org.junit.Test;
+
+public class SpatialIndexTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidCellSize() {
+		new SpatialIndex<String>(0);
+	}
+
+	@Test
+	public void put() {
+		SpatialIndex<String> index = new SpatialIndex<>(50);
+		assertTrue(index.query(0, 0, 100, 100).isEmpty());
+
+		index.put("a", 0, 0, 10, 10);
+		index.put("b", 100, 100, 110, 110);
+		// spans four cells
+		index.put("c", 40, 40, 60, 60);
+		assertEquals(3, index.size());
+		assertTrue(index.contains("c"));
+		assertArrayEquals(new double[] { 40, 40, 60, 60 },
+				index.getBounds("c"), 0);
+
+		assertEquals(Arrays.asList("a"), index.query(0, 0, 20, 20));
+		assertEquals(Arrays.asList("b", "c"), index.query(50, 50, 105, 105));
+		// in the order in which the elements were put
+		assertEquals(Arrays.asList("a", "b", "c"),
+				index.query(-10, -10, 200, 200));
+		assertTrue(index.query(15, 15, 35, 35).isEmpty());
+	}
+
+	@Test
+	public void query() {
+		SpatialIndex<String> index = new SpatialIndex<>(50);
+		index.put("a", 0, 0, 10, 10);
+		index.put("b", 40, 40, 60, 60);
+		// bounds are closed
+		assertEquals(Arrays.asList("a"), index.query(10, 10, 20, 20));
+		assertEquals(Arrays.asList("a"), index.query(-20, -20, 0, 0));
+		// zero-sized regions determine the elements at a position
+		assertEquals(Arrays.asList("b"), index.query(50, 50, 50, 50));
+		assertEquals(Arrays.asList("a", "b"), index.query(10, 10, 40, 40));
+		assertTrue(index.query(11, 11, 11, 11).isEmpty());
+		// negative coordinates
+		index.put("c", -120, -80, -110, -70);
+		assertEquals(Arrays.asList("c"), index.query(-115, -75, -100, -60));
+		// regions spanning more cells than there are elements
+		assertEquals(Arrays.asList("a", "b", "c"),
+				index.query(-1000, -1000, 1000, 1000));
+	}
+
+	@Test
+	public void queryMatchesLinearScan() {
+		Random random = new Random(0);
+		SpatialIndex<Object> index = new SpatialIndex<>(32);
+		Object[] elements = new Object[500];
+		double[][] bounds = new double[elements.length][];
+		for (int i = 0; i < elements.length; i++) {
+			double x = random.nextDouble() * 2000 - 1000;
+			double y = random.nextDouble() * 2000 - 1000;
+			// some elements exceed the cell limit
+			double size = i % 50 == 0 ? 1000 : random.nextDouble() * 100;
+			elements[i] = new Object();
+			bounds[i] = new double[] { x, y, x + size, y + size / 2 };
+			index.put(elements[i], bounds[i][0], bounds[i][1], bounds[i][2],
+					bounds[i][3]);
+		}
+		// move and remove some elements
+		for (int i = 0; i < elements.length; i += 7) {
+			bounds[i][0] += 50;
+			bounds[i][2] += 50;
+			index.put(elements[i], bounds[i][0], bounds[i][1], bounds[i][2],
+					bounds[i][3]);
+		}
+		for (int i = 3; i < elements.length; i += 11) {
+			bounds[i] = null;
+			index.remove(elements[i]);
+		}
+		for (int q = 0; q < 200; q++) {
+			double x = random.nextDouble() * 2400 - 1200;
+			double y = random.nextDouble() * 2400 - 1200;
+			double w = q % 20 == 0 ? 3000 : random.nextDouble() * 300;
+			double h = random.nextDouble() * 300;
+			List<Object> expected = new ArrayList<>();
+			for (int i = 0; i < elements.length; i++) {
+				if (bounds[i] != null && !(bounds[i][2] < x
+						|| bounds[i][0] > x + w || bounds[i][3] < y
+						|| bounds[i][1] > y + h)) {
+					expected.add(elements[i]);
+				}
+			}
+			assertEquals(expected, index.query(x, y, x + w, y + h));
+		}
+	}
+
+	@Test
+	public void remove() {
+		SpatialIndex<String> index = new SpatialIndex<>(50);
+		index.put("a", 0, 0, 10, 10);
+		index.put("b", 40, 40, 160, 60);
+		index.remove("b");
+		assertEquals(1, index.size());
+		assertFalse(index.contains("b"));
+		assertNull(index.getBounds("b"));
+		// removed from all cells
+		for (int x = 40; x <= 160; x += 10) {
+			assertTrue(index.query(x, 50, x, 50).isEmpty());
+		}
+		assertEquals(Arrays.asList("a"), index.query(-100, -100, 200, 200));
+		// removing an element that is not indexed has no effect
+		index.remove("b");
+		assertEquals(1, index.size());
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.query(-100, -100, 200, 200).isEmpty());
+	}
+
+	@Test
+	public void unboundedBounds() {
+		SpatialIndex<String> index = new SpatialIndex<>(10);
+		index.put("a", 0, 0, 5, 5);
+		// spans more cells than are stored per element
+		index.put("large", -5000, -5000, 5000, 5000);
+		// non-finite bounds
+		index.put("infinite", Double.NEGATIVE_INFINITY, 100,
+				Double.POSITIVE_INFINITY, 110);
+		assertEquals(Arrays.asList("a", "large"), index.query(1, 1, 2, 2));
+		assertEquals(Collections.singletonList("infinite"),
+				index.query(1e6, 105, 1e6, 105));
+		assertEquals(Arrays.asList("large", "infinite"),
+				index.query(4000, 105, 4000, 105));
+		assertEquals(Collections.singletonList("infinite"),
+				index.query(-1e9, 100, -1e9, 100));
+		assertTrue(index.query(1e6, 0, 1e6, 0).isEmpty());
+
+		// unbounded regions
+		assertEquals(Arrays.asList("a", "large", "infinite"),
+				index.query(Double.NEGATIVE_INFINITY,
+						Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+						Double.POSITIVE_INFINITY));
+		assertEquals(Arrays.asList("large", "infinite"),
+				index.query(Double.NEGATIVE_INFINITY, 50,
+						Double.POSITIVE_INFINITY, 200));
+
+		// unbounded elements may be updated to finite bounds and vice versa
+		index.put("large", 20, 20, 30, 30);
+		index.put("a", Double.NEGATIVE_INFINITY, 0, 5, 5);
+		assertEquals(Collections.singletonList("large"),
+				index.query(25, 25, 25, 25));
+		assertEquals(Collections.singletonList("a"),
+				index.query(-1e9, 1, -1e9, 1));
+		index.remove("infinite");
+		assertTrue(index.query(0, 105, 0, 105).isEmpty());
+	}
+
+	@Test
+	public void update() {
+		SpatialIndex<String> index = new SpatialIndex<>(50);
+		index.put("a", 0, 0, 10, 10);
+		index.put("b", 100, 100, 110, 110);
+		index.put("a", 200, 200, 260, 210);
+		assertEquals(2, index.size());
+		assertArrayEquals(new double[] { 200, 200, 260, 210 },
+				index.getBounds("a"), 0);
+		assertTrue(index.query(0, 0, 20, 20).isEmpty());
+		assertEquals(Arrays.asList("a"), index.query(255, 205, 255, 205));
+		// updating does not change the order of the elements
+		assertEquals(Arrays.asList("a", "b"), index.query(0, 0, 300, 300));
+		// empty bounds
+		index.put("b", 5, 5, 5, 5);
+		assertEquals(Arrays.asList("b"), index.query(0, 0, 10, 10));
+		assertEquals(Arrays.asList("b"), index.query(5, 5, 5, 5));
+		assertTrue(index.query(6, 6, 10, 10).isEmpty());
+	}
+}
@@ -77,7 +77,8 @@ public abstract class AbstractLayoutBehavior extends AbstractBehavior {
 	protected abstract LayoutContext getLayoutContext();
 
 	/**
-	 * Called after a layout pass to adjust label positions.
+	 * Called after a layout pass (after the visuals have been refreshed) to
+	 * adjust label positions.
 	 */
 	protected void layoutLabels() {
 		// iterate anchoreds
@@ -42,11 +42,10 @@ public class EdgeLayoutBehavior extends AbstractLayoutBehavior {
 
 	@Override
 	protected void postLayout() {
-		// refresh visual
-		getHost().refreshVisual();
-
-		// update label positions, which are not computed by layout itself
-		layoutLabels();
+		// refresh visual (label positions are updated by the
+		// GraphLayoutBehavior afterwards, as they are computed from the
+		// refreshed visual)
+		getHost().getViewer().scheduleRefreshVisual(getHost());
 	}
 
 	@Override
@@ -12,13 +12,23 @@
  *******************************************************************************/
 package org.eclipse.gef.zest.fx.behaviors;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.gef.fx.nodes.InfiniteCanvas;
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.layout.IIncrementalLayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutFilter;
 import org.eclipse.gef.layout.LayoutContext;
@@ -35,10 +45,16 @@ import org.eclipse.gef.zest.fx.models.NavigationModel.ViewportState;
 import org.eclipse.gef.zest.fx.parts.GraphPart;
 import org.eclipse.gef.zest.fx.parts.NodePart;
 
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
 import javafx.collections.SetChangeListener;
+import javafx.concurrent.Task;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
@@ -53,6 +69,82 @@ import javafx.scene.Parent;
 // only applicable for GraphPart (see #getHost())
 public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 
+	/**
+	 * A {@link Task} that applies the {@link ILayoutAlgorithm} of a
+	 * {@link LayoutContext} for a snapshot of the layout-relevant nodes and
+	 * edges of a {@link Graph}, so that it can be executed off the JavaFX
+	 * application thread.
+	 */
+	private static class LayoutTask extends Task<Void> {
+
+		private final LayoutContext snapshotContext;
+		private final Map<org.eclipse.gef.graph.Node, org.eclipse.gef.graph.Node> snapshotNodes;
+
+		public LayoutTask(LayoutContext snapshotContext,
+				Map<org.eclipse.gef.graph.Node, org.eclipse.gef.graph.Node> snapshotNodes) {
+			this.snapshotContext = snapshotContext;
+			this.snapshotNodes = snapshotNodes;
+		}
+
+		/**
+		 * Transfers the computed locations and sizes from the snapshot to the
+		 * original nodes. Has to be called on the JavaFX application thread.
+		 */
+		public void applyResults() {
+			for (Map.Entry<org.eclipse.gef.graph.Node, org.eclipse.gef.graph.Node> e : snapshotNodes.entrySet()) {
+				Point location = LayoutProperties.getLocation(e.getValue());
+				if (location != null) {
+					LayoutProperties.setLocation(e.getKey(), location);
+				}
+				Dimension size = LayoutProperties.getSize(e.getValue());
+				if (size != null) {
+					LayoutProperties.setSize(e.getKey(), size);
+				}
+			}
+		}
+
+		@Override
+		protected Void call() throws Exception {
+			// XXX: Layout algorithms are stateful, so that an algorithm may not
+			// be applied concurrently, e.g. by a cancelled layout pass that is
+			// still running and a subsequent one (in case the layout executor
+			// uses multiple threads). Synchronous layout passes are deferred
+			// instead (see applyLayout(boolean, Object)), so that the JavaFX
+			// application thread is never blocked.
+			synchronized (snapshotContext.getLayoutAlgorithm()) {
+				if (isCancelled()) {
+					return null;
+				}
+				snapshotContext.setProgressListener((progress) -> {
+					// abort the computation (if the algorithm reports progress)
+					// as the results of a cancelled layout pass are discarded
+					if (isCancelled()) {
+						throw new CancellationException();
+					}
+					updateProgress(Math.max(0, Math.min(1, progress)), 1);
+				});
+				snapshotContext.applyLayout(true);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The name of the {@link #layoutExceptionProperty() layout exception
+	 * property}.
+	 *
+	 * @since 5.1
+	 */
+	public static final String LAYOUT_EXCEPTION_PROPERTY = "layoutException";
+
+	/**
+	 * The name of the {@link #layoutProgressProperty() layout progress
+	 * property}.
+	 *
+	 * @since 5.1
+	 */
+	public static final String LAYOUT_PROGRESS_PROPERTY = "layoutProgress";
+
 	private Runnable postLayout = new Runnable() {
 		@Override
 		public void run() {
@@ -88,22 +180,46 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 	private ListChangeListener<IVisualPart<? extends Node>> childrenObserver = new ListChangeListener<IVisualPart<? extends Node>>() {
 		@Override
 		public void onChanged(ListChangeListener.Change<? extends IVisualPart<? extends Node>> c) {
-			applyLayout(true, null);
+			// structural changes may be applied incrementally
+			applyLayout(false, null);
 		}
 	};
 
 	private SetChangeListener<org.eclipse.gef.graph.Node> hidingModelObserver = new SetChangeListener<org.eclipse.gef.graph.Node>() {
 		@Override
 		public void onChanged(SetChangeListener.Change<? extends org.eclipse.gef.graph.Node> change) {
-			applyLayout(true, null);
+			// structural changes may be applied incrementally
+			applyLayout(false, null);
 		}
 	};
 
 	private boolean skipNextLayout;
+	private boolean childLabelsInvalid;
+	private boolean incrementalLayoutInvalid;
+
+	private boolean asynchronous = false;
+	private ExecutorService layoutExecutor;
+	private LayoutTask layoutTask;
+	// number of asynchronous layout passes (including cancelled ones) that
+	// were submitted to the layout executor and did not finish yet
+	private int runningLayoutPasses;
+	private boolean deferredLayout;
+	private boolean deferredLayoutClean;
+	private ReadOnlyDoubleWrapper layoutProgressProperty = new ReadOnlyDoubleWrapper(this, LAYOUT_PROGRESS_PROPERTY, 1);
+	private ReadOnlyObjectWrapper<Throwable> layoutExceptionProperty = new ReadOnlyObjectWrapper<>(this, LAYOUT_EXCEPTION_PROPERTY);
 
 	/**
 	 * Performs one layout pass using the static layout algorithm that is
-	 * configured for the layout context.
+	 * configured for the layout context. In case the algorithm is an
+	 * {@link IIncrementalLayoutAlgorithm}, a layout pass that is not clean only
+	 * updates the layout according to the changes since the last layout pass
+	 * (unless it is performed {@link #setAsynchronous(boolean)
+	 * asynchronously}). Otherwise, the layout is always fully re-computed.
+	 * <p>
+	 * In case a synchronous layout pass is requested while an asynchronous
+	 * layout pass (which may already be cancelled) is still applying the
+	 * layout algorithm, it is deferred until the asynchronous layout pass is
+	 * finished, so that the JavaFX application thread is not blocked.
 	 *
 	 * @param clean
 	 *            Whether to fully re-compute the layout or not.
@@ -152,7 +268,196 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		}
 
 		// apply layout (if no algorithm is set, will be a no-op)
-		layoutContext.applyLayout(true);
+		if (layoutAlgorithm == null) {
+			cancelLayout();
+		} else if (asynchronous) {
+			applyLayoutAsynchronously(layoutContext);
+		} else {
+			cancelLayout();
+			if (runningLayoutPasses > 0) {
+				// XXX: The algorithm may not be applied concurrently, so we
+				// defer the layout pass until the asynchronous layout passes
+				// (whose computation cannot be aborted in general) are
+				// finished (see layoutPassFinished()).
+				deferredLayout = true;
+				deferredLayoutClean |= clean;
+				return;
+			}
+			// the incremental state of the algorithm is outdated after an
+			// asynchronous layout pass (which is applied to a snapshot)
+			boolean incremental = !clean && !incrementalLayoutInvalid
+					&& layoutAlgorithm instanceof IIncrementalLayoutAlgorithm;
+			incrementalLayoutInvalid = false;
+			// coalesce the visual refreshes caused by the layout pass
+			getHost().getViewer()
+					.runBatched(() -> layoutContext.applyLayout(!incremental));
+			layoutChildLabels();
+		}
+	}
+
+	/**
+	 * Performs one layout pass off the JavaFX application thread. The
+	 * layout-relevant sizes and locations of nodes, as well as the edges
+	 * between them, are copied into a snapshot (after the pre-layout pass was
+	 * executed), the layout algorithm is applied to the snapshot using the
+	 * {@link #createLayoutExecutor() layout executor}, and the results are
+	 * transferred back and post-processed in a single batch on the JavaFX
+	 * application thread. A layout pass that is still in progress is
+	 * superseded, i.e. its results are discarded. In case the layout pass
+	 * fails, the layout is left unchanged and the failure is logged. The
+	 * post-layout pass is executed in any case, so that each pre-layout pass
+	 * is balanced by a post-layout pass.
+	 *
+	 * @param layoutContext
+	 *            The {@link LayoutContext} for which to perform the layout
+	 *            pass.
+	 * @since 5.1
+	 */
+	protected void applyLayoutAsynchronously(final LayoutContext layoutContext) {
+		// supersede a layout pass that is still in progress
+		cancelLayout();
+		deferredLayout = false;
+		deferredLayoutClean = false;
+		layoutExceptionProperty.set(null);
+
+		layoutContext.preLayout();
+
+		// create snapshot of layout-relevant nodes and edges
+		Map<org.eclipse.gef.graph.Node, org.eclipse.gef.graph.Node> snapshotNodes = new IdentityHashMap<>();
+		List<org.eclipse.gef.graph.Node> nodes = new ArrayList<>();
+		for (org.eclipse.gef.graph.Node node : layoutContext.getNodes()) {
+			org.eclipse.gef.graph.Node copy = new org.eclipse.gef.graph.Node(copyLayoutAttributes(node.getAttributes()));
+			snapshotNodes.put(node, copy);
+			nodes.add(copy);
+		}
+		List<Edge> edges = new ArrayList<>();
+		for (Edge edge : layoutContext.getEdges()) {
+			org.eclipse.gef.graph.Node source = snapshotNodes.get(edge.getSource());
+			org.eclipse.gef.graph.Node target = snapshotNodes.get(edge.getTarget());
+			if (source != null && target != null) {
+				edges.add(new Edge(copyLayoutAttributes(edge.getAttributes()), source, target));
+			}
+		}
+		LayoutContext snapshotContext = new LayoutContext();
+		snapshotContext.setGraph(new Graph(copyLayoutAttributes(layoutContext.getGraph().getAttributes()), nodes, edges));
+		snapshotContext.setLayoutAlgorithm(layoutContext.getLayoutAlgorithm());
+		incrementalLayoutInvalid = true;
+
+		final LayoutTask task = new LayoutTask(snapshotContext, snapshotNodes);
+		task.setOnSucceeded((e) -> {
+			// ignore results of superseded layout passes
+			if (task != layoutTask) {
+				return;
+			}
+			layoutTask = null;
+			layoutProgressProperty.unbind();
+			// coalesce the visual refreshes caused by transferring the results
+			getHost().getViewer().runBatched(() -> {
+				task.applyResults();
+				layoutContext.postLayout();
+			});
+			layoutChildLabels();
+			layoutProgressProperty.set(1);
+		});
+		task.setOnFailed((e) -> {
+			// ignore failures of superseded layout passes
+			if (task != layoutTask) {
+				return;
+			}
+			layoutTask = null;
+			layoutProgressProperty.unbind();
+			layoutProgressProperty.set(1);
+			getHost().getViewer().runBatched(() -> layoutContext.postLayout());
+			layoutChildLabels();
+			// XXX: Exceptions thrown from within event handlers are not
+			// propagated to the caller of applyLayout(boolean, Object), so we
+			// publish the failure and leave the layout unchanged.
+			layoutExceptionProperty.set(task.getException());
+		});
+		layoutTask = task;
+		// indeterminate until progress is reported by the algorithm
+		layoutProgressProperty.bind(task.progressProperty());
+		if (layoutExecutor == null) {
+			layoutExecutor = createLayoutExecutor();
+		}
+		runningLayoutPasses++;
+		layoutExecutor.execute(() -> {
+			try {
+				task.run();
+			} finally {
+				Platform.runLater(() -> layoutPassFinished());
+			}
+		});
+	}
+
+	/**
+	 * Cancels the layout pass that is currently performed off the JavaFX
+	 * application thread (if any), and executes the post-layout pass, leaving
+	 * the layout unchanged. The computation is aborted as soon as the
+	 * {@link ILayoutAlgorithm} reports progress (see
+	 * {@link LayoutContext#reportProgress(double)}). Otherwise, it may
+	 * continue in the background, but its results will be discarded, and
+	 * subsequent layout passes using the same algorithm will be performed
+	 * after it is finished.
+	 *
+	 * @since 5.1
+	 */
+	public void cancelLayout() {
+		if (layoutTask != null) {
+			LayoutTask task = layoutTask;
+			layoutTask = null;
+			layoutProgressProperty.unbind();
+			layoutProgressProperty.set(1);
+			task.cancel(true);
+			LayoutContext layoutContext = getLayoutContext();
+			getHost().getViewer().runBatched(() -> layoutContext.postLayout());
+			layoutChildLabels();
+		}
+	}
+
+	/**
+	 * Copies the given attributes for a layout snapshot. The (mutable)
+	 * geometric layout attributes are deeply copied, so that the snapshot can
+	 * be modified independently.
+	 *
+	 * @param attributes
+	 *            The attributes to copy.
+	 * @return A copy of the given attributes.
+	 */
+	private Map<String, Object> copyLayoutAttributes(Map<String, Object> attributes) {
+		Map<String, Object> copy = new HashMap<>(attributes);
+		for (Map.Entry<String, Object> e : copy.entrySet()) {
+			Object value = e.getValue();
+			if (value instanceof Point) {
+				e.setValue(((Point) value).getCopy());
+			} else if (value instanceof Dimension) {
+				e.setValue(((Dimension) value).getCopy());
+			} else if (value instanceof Rectangle) {
+				e.setValue(((Rectangle) value).getCopy());
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates the {@link ExecutorService} that is used to perform
+	 * {@link #setAsynchronous(boolean) asynchronous} layout passes. By
+	 * default, a single daemon thread is used, so that layout passes are
+	 * executed one after the other.
+	 *
+	 * @return The {@link ExecutorService} that is used to perform
+	 *         asynchronous layout passes.
+	 * @since 5.1
+	 */
+	protected ExecutorService createLayoutExecutor() {
+		return Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Zest layout");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 	}
 
 	/**
@@ -264,6 +569,14 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 
 	@Override
 	protected void doDeactivate() {
+		cancelLayout();
+		deferredLayout = false;
+		deferredLayoutClean = false;
+		if (layoutExecutor != null) {
+			// layout passes that were not started will never finish
+			runningLayoutPasses -= layoutExecutor.shutdownNow().size();
+			layoutExecutor = null;
+		}
 		getHost().getChildrenUnmodifiable().removeListener(childrenObserver);
 
 		final HidingModel hidingModel = getHost().getRoot().getViewer().getAdapter(HidingModel.class);
@@ -305,6 +618,93 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		return getHost().getAdapter(LayoutContext.class);
 	}
 
+	/**
+	 * Returns whether layout passes are performed off the JavaFX application
+	 * thread.
+	 *
+	 * @return <code>true</code> if layout passes are performed
+	 *         asynchronously, otherwise <code>false</code>.
+	 * @see #setAsynchronous(boolean)
+	 * @since 5.1
+	 */
+	public boolean isAsynchronous() {
+		return asynchronous;
+	}
+
+	/**
+	 * Adjusts the label positions of all nodes and edges in case a post-layout
+	 * pass was executed. As label positions are computed from the visuals of
+	 * the nodes and edges, this has to be done after the visual refreshes
+	 * that were batched during the layout pass have been performed.
+	 */
+	private void layoutChildLabels() {
+		if (!childLabelsInvalid) {
+			return;
+		}
+		childLabelsInvalid = false;
+		getHost().getViewer().runBatched(() -> {
+			for (IVisualPart<? extends Node> child : getHost().getChildrenUnmodifiable()) {
+				if (child.getViewer() == null) {
+					continue;
+				}
+				AbstractLayoutBehavior childLayoutBehavior = child.getAdapter(AbstractLayoutBehavior.class);
+				if (childLayoutBehavior != null) {
+					childLayoutBehavior.layoutLabels();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Called on the JavaFX application thread when an asynchronous layout pass
+	 * (which may have been cancelled) has finished applying the layout
+	 * algorithm. Performs a deferred synchronous layout pass, in case no other
+	 * asynchronous layout pass is still running.
+	 */
+	private void layoutPassFinished() {
+		runningLayoutPasses--;
+		if (runningLayoutPasses == 0 && deferredLayout) {
+			boolean clean = deferredLayoutClean;
+			deferredLayout = false;
+			deferredLayoutClean = false;
+			applyLayout(clean, null);
+		}
+	}
+
+	/**
+	 * Returns a read-only property that provides the exception that caused the
+	 * last {@link #setAsynchronous(boolean) asynchronous} layout pass to fail.
+	 * In this case, the layout is left unchanged. The value is reset to
+	 * <code>null</code> when the next asynchronous layout pass is started, so
+	 * that it is <code>null</code> unless the last such pass failed. Layout
+	 * passes that are performed on the JavaFX application thread do not
+	 * change it, because their exceptions are propagated to the caller.
+	 *
+	 * @return A read-only property providing the exception of the last
+	 *         failed layout pass.
+	 * @since 5.1
+	 */
+	public ReadOnlyObjectProperty<Throwable> layoutExceptionProperty() {
+		return layoutExceptionProperty.getReadOnlyProperty();
+	}
+
+	/**
+	 * Returns a read-only property that reflects the progress of the current
+	 * layout pass. While an {@link #setAsynchronous(boolean) asynchronous}
+	 * layout pass is in progress, its value is the progress that is reported
+	 * by the {@link ILayoutAlgorithm} (see
+	 * {@link LayoutContext#reportProgress(double)}), ranging from
+	 * <code>0</code> to <code>1</code>, or <code>-1</code> (indeterminate) if
+	 * no progress was reported yet. It is <code>1</code> when the layout has
+	 * been applied, or the layout pass was cancelled or failed.
+	 *
+	 * @return A read-only property reflecting the layout progress.
+	 * @since 5.1
+	 */
+	public ReadOnlyDoubleProperty layoutProgressProperty() {
+		return layoutProgressProperty.getReadOnlyProperty();
+	}
+
 	/**
 	 * Returns the {@link NodePart} that contains the nested graph to which the
 	 * behavior corresponds, if this behavior is related to a nested graph.
@@ -333,6 +733,8 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 				childLayoutBehavior.postLayout();
 			}
 		}
+		// label positions are adjusted after the visuals have been refreshed
+		childLabelsInvalid = true;
 	}
 
 	@Override
@@ -351,6 +753,25 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		}
 	}
 
+	/**
+	 * Specifies whether layout passes are performed off the JavaFX
+	 * application thread, so that the UI does not freeze while computing the
+	 * layout of large graphs (see
+	 * {@link #applyLayoutAsynchronously(LayoutContext)}). By default, layout
+	 * passes are performed synchronously.
+	 *
+	 * @param asynchronous
+	 *            <code>true</code> to perform layout passes asynchronously,
+	 *            <code>false</code> to perform them synchronously.
+	 * @since 5.1
+	 */
+	public void setAsynchronous(boolean asynchronous) {
+		if (!asynchronous) {
+			cancelLayout();
+		}
+		this.asynchronous = asynchronous;
+	}
+
 	/**
 	 * Updates the bounds property from the visual (viewport or nesting node)
 	 */
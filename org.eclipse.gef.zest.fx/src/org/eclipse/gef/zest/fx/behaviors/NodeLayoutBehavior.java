@@ -67,12 +67,11 @@ public class NodeLayoutBehavior extends AbstractLayoutBehavior {
 					(postLayoutSize == null ? preLayoutSize : postLayoutSize).getScaled(0.5).getNegated()));
 		}
 
-		// refresh our visual
-		getHost().refreshVisual();
-
-		// update label positions (from visual locations) as they are not
-		// provided by layout
-		layoutLabels();
+		// refresh our visual (coalesced with the refreshes caused by the
+		// attribute changes above, in case the layout pass is batched); label
+		// positions are updated by the GraphLayoutBehavior afterwards, as they
+		// are computed from the refreshed visuals
+		getHost().getViewer().scheduleRefreshVisual(getHost());
 	}
 
 	@Override
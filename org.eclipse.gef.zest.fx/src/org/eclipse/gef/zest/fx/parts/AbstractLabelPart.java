@@ -69,7 +69,7 @@ public abstract class AbstractLabelPart extends AbstractContentPart<Group> imple
 	private MapChangeListener<String, Object> elementAttributesObserver = new MapChangeListener<String, Object>() {
 		@Override
 		public void onChanged(MapChangeListener.Change<? extends String, ? extends Object> change) {
-			refreshVisual();
+			scheduleRefreshVisual();
 		}
 	};
 
@@ -74,7 +74,7 @@ public class EdgePart extends AbstractContentPart<Connection> implements IBendab
 					doAttachToAnchorageVisual(anchoragesByRole.getKey(), anchoragesByRole.getValue());
 				}
 			}
-			refreshVisual();
+			scheduleRefreshVisual();
 		}
 
 	};
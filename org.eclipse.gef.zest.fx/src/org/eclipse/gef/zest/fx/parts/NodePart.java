@@ -171,7 +171,7 @@ public class NodePart extends AbstractContentPart<Group>
 	private MapChangeListener<String, Object> nodeAttributesObserver = new MapChangeListener<String, Object>() {
 		@Override
 		public void onChanged(MapChangeListener.Change<? extends String, ? extends Object> change) {
-			refreshVisual();
+			scheduleRefreshVisual();
 		}
 	};
 
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     agent <agent@local> - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.zest.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.mvc.fx.parts.LayeredRootPart;
+import org.eclipse.gef.mvc.fx.viewer.InfiniteCanvasViewer;
+import org.eclipse.gef.mvc.tests.fx.rules.FXNonApplicationThreadRule;
+import org.eclipse.gef.zest.fx.ZestProperties;
+import org.eclipse.gef.zest.fx.behaviors.GraphLayoutBehavior;
+import org.eclipse.gef.zest.fx.parts.GraphPart;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javafx.application.Platform;
+
+public class GraphLayoutBehaviorTests {
+
+	/**
+	 * An {@link ILayoutAlgorithm} that places the nodes in a row. It can be
+	 * blocked (to simulate a long-running computation that cannot be
+	 * interrupted) and can be made to fail.
+	 */
+	private static class TestLayoutAlgorithm implements ILayoutAlgorithm {
+
+		private volatile double offset = 0;
+		private volatile CountDownLatch block;
+		private volatile RuntimeException failure;
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final AtomicInteger active = new AtomicInteger();
+		private volatile boolean appliedConcurrently = false;
+		private volatile LayoutContext lastLayoutContext;
+		private volatile boolean lastAppliedOnFxThread;
+
+		@Override
+		public void applyLayout(LayoutContext layoutContext, boolean clean) {
+			if (active.incrementAndGet() > 1) {
+				appliedConcurrently = true;
+			}
+			try {
+				double offset = this.offset;
+				lastLayoutContext = layoutContext;
+				lastAppliedOnFxThread = Platform.isFxApplicationThread();
+				layoutContext.reportProgress(0.5);
+				started.countDown();
+				CountDownLatch block = this.block;
+				if (block != null) {
+					// not interruptible
+					while (true) {
+						try {
+							block.await();
+							break;
+						} catch (InterruptedException e) {
+							continue;
+						}
+					}
+				}
+				if (failure != null) {
+					throw failure;
+				}
+				Node[] nodes = layoutContext.getNodes();
+				for (int i = 0; i < nodes.length; i++) {
+					LayoutProperties.setLocation(nodes[i], new Point(offset + 100 * i, 50));
+				}
+			} finally {
+				active.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Ensure the JavaFX toolkit is properly initialized.
+	 */
+	@Rule
+	public FXNonApplicationThreadRule ctx = new FXNonApplicationThreadRule();
+
+	private Graph graph;
+	private TestLayoutAlgorithm layoutAlgorithm;
+	private GraphLayoutBehavior behavior;
+	private ExecutorService layoutExecutor;
+	private AtomicInteger preLayoutCount = new AtomicInteger();
+	private AtomicInteger postLayoutCount = new AtomicInteger();
+
+	private void assertLayoutPassesBalanced() {
+		assertTrue(preLayoutCount.get() > 0);
+		assertEquals(preLayoutCount.get(), postLayoutCount.get());
+	}
+
+	private void assertLocations(double offset) {
+		for (int i = 0; i < graph.getNodes().size(); i++) {
+			assertEquals(new Point(offset + 100 * i, 50), LayoutProperties.getLocation(graph.getNodes().get(i)));
+		}
+	}
+
+	private GraphLayoutBehavior createGraphLayoutBehavior() {
+		return new GraphLayoutBehavior() {
+			private GraphPart host;
+
+			@Override
+			protected ExecutorService createLayoutExecutor() {
+				layoutExecutor = super.createLayoutExecutor();
+				return layoutExecutor;
+			}
+
+			@Override
+			public GraphPart getHost() {
+				if (host == null) {
+					host = new GraphPart() {
+						@Override
+						public Graph getContent() {
+							return graph;
+						}
+					};
+					host.setAdapter(new LayoutContext());
+					// TODO: use injection
+					LayeredRootPart rootPart = new LayeredRootPart();
+					InfiniteCanvasViewer viewer = new InfiniteCanvasViewer();
+					viewer.setAdapter(rootPart);
+					host.setParent(rootPart);
+				}
+				return host;
+			}
+		};
+	}
+
+	private Throwable getLayoutException() throws Throwable {
+		return ctx.runAndWait(() -> behavior.layoutExceptionProperty().get());
+	}
+
+	private double getLayoutProgress() throws Throwable {
+		return ctx.runAndWait(() -> behavior.layoutProgressProperty().get());
+	}
+
+	@Before
+	public void setUp() throws Throwable {
+		graph = new Graph.Builder().nodes(new Node(), new Node(), new Node()).build();
+		for (Node node : graph.getNodes()) {
+			LayoutProperties.setLocation(node, new Point(-1, -1));
+			LayoutProperties.setSize(node, new Dimension(10, 10));
+		}
+		layoutAlgorithm = new TestLayoutAlgorithm();
+		ZestProperties.setLayoutAlgorithm(graph, layoutAlgorithm);
+		ctx.runAndWait(() -> {
+			behavior = createGraphLayoutBehavior();
+			behavior.setAsynchronous(true);
+			LayoutContext layoutContext = behavior.getHost().getAdapter(LayoutContext.class);
+			layoutContext.schedulePreLayoutPass(() -> preLayoutCount.incrementAndGet());
+			layoutContext.schedulePostLayoutPass(() -> postLayoutCount.incrementAndGet());
+		});
+	}
+
+	/**
+	 * Waits until all layout passes that were started are finished, and the
+	 * events fired by them are processed.
+	 */
+	private void waitForLayoutPasses() throws Throwable {
+		// the layout executor uses a single thread
+		layoutExecutor.submit(() -> {
+		}).get(5, TimeUnit.SECONDS);
+		ctx.runAndWait(() -> {
+		});
+	}
+
+	@Test
+	public void asynchronousLayoutApplied() throws Throwable {
+		ctx.runAndWait(() -> {
+			behavior.applyLayout(true, null);
+			// not yet applied
+			assertEquals(new Point(-1, -1), LayoutProperties.getLocation(graph.getNodes().get(0)));
+		});
+		waitForLayoutPasses();
+		assertLocations(0);
+		assertEquals(1, getLayoutProgress(), 0);
+		assertNull(getLayoutException());
+		assertLayoutPassesBalanced();
+
+		// the algorithm is applied via a snapshot context off the JavaFX
+		// application thread
+		assertFalse(layoutAlgorithm.lastAppliedOnFxThread);
+		assertNotSame(behavior.getHost().getAdapter(LayoutContext.class), layoutAlgorithm.lastLayoutContext);
+		assertSame(layoutAlgorithm, layoutAlgorithm.lastLayoutContext.getLayoutAlgorithm());
+		assertFalse(layoutAlgorithm.appliedConcurrently);
+	}
+
+	@Test
+	public void cancelDiscardsResults() throws Throwable {
+		layoutAlgorithm.block = new CountDownLatch(1);
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+		assertTrue(layoutAlgorithm.started.await(5, TimeUnit.SECONDS));
+		ctx.runAndWait(() -> behavior.cancelLayout());
+		assertEquals(1, getLayoutProgress(), 0);
+
+		// the post-layout pass is executed when cancelling
+		assertLayoutPassesBalanced();
+
+		layoutAlgorithm.block.countDown();
+		waitForLayoutPasses();
+		for (Node node : graph.getNodes()) {
+			assertEquals(new Point(-1, -1), LayoutProperties.getLocation(node));
+		}
+		assertLayoutPassesBalanced();
+	}
+
+	@Test
+	public void failedLayoutReported() throws Throwable {
+		IllegalStateException failure = new IllegalStateException("Expected failure.");
+		layoutAlgorithm.failure = failure;
+		AtomicReference<Throwable> uncaught = new AtomicReference<>();
+		ctx.runAndWait(() -> {
+			Thread.currentThread().setUncaughtExceptionHandler((t, e) -> uncaught.set(e));
+			behavior.applyLayout(true, null);
+		});
+		try {
+			waitForLayoutPasses();
+		} finally {
+			ctx.runAndWait(() -> Thread.currentThread().setUncaughtExceptionHandler(null));
+		}
+		assertNull(uncaught.get());
+		assertSame(failure, getLayoutException());
+		assertEquals(1, getLayoutProgress(), 0);
+		for (Node node : graph.getNodes()) {
+			assertEquals(new Point(-1, -1), LayoutProperties.getLocation(node));
+		}
+		assertLayoutPassesBalanced();
+
+		// subsequent layout passes are not affected
+		layoutAlgorithm.failure = null;
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+		waitForLayoutPasses();
+		assertLocations(0);
+		assertNull(getLayoutException());
+	}
+
+	@Test
+	public void progressReported() throws Throwable {
+		layoutAlgorithm.block = new CountDownLatch(1);
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+		assertTrue(layoutAlgorithm.started.await(5, TimeUnit.SECONDS));
+		// progress updates are transferred to the JavaFX application thread
+		long start = System.currentTimeMillis();
+		while (getLayoutProgress() != 0.5 && System.currentTimeMillis() - start < 5000) {
+			Thread.sleep(10);
+		}
+		assertEquals(0.5, getLayoutProgress(), 0);
+
+		layoutAlgorithm.block.countDown();
+		waitForLayoutPasses();
+		assertEquals(1, getLayoutProgress(), 0);
+		assertLocations(0);
+	}
+
+	@Test
+	public void supersededLayoutDiscarded() throws Throwable {
+		layoutAlgorithm.block = new CountDownLatch(1);
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+		assertTrue(layoutAlgorithm.started.await(5, TimeUnit.SECONDS));
+		layoutAlgorithm.offset = 1000;
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+
+		layoutAlgorithm.block.countDown();
+		waitForLayoutPasses();
+		assertLocations(1000);
+		assertFalse(layoutAlgorithm.appliedConcurrently);
+		assertLayoutPassesBalanced();
+	}
+
+	@Test
+	public void synchronousLayoutDeferred() throws Throwable {
+		layoutAlgorithm.block = new CountDownLatch(1);
+		ctx.runAndWait(() -> behavior.applyLayout(true, null));
+		assertTrue(layoutAlgorithm.started.await(5, TimeUnit.SECONDS));
+
+		// switch to synchronous layout while the cancelled layout pass is
+		// still running, which does not block the JavaFX application thread
+		layoutAlgorithm.offset = 2000;
+		ctx.runAndWait(() -> {
+			behavior.setAsynchronous(false);
+			behavior.applyLayout(true, null);
+			assertEquals(new Point(-1, -1), LayoutProperties.getLocation(graph.getNodes().get(0)));
+		});
+
+		// the deferred layout pass is performed when the cancelled one is
+		// finished
+		layoutAlgorithm.block.countDown();
+		waitForLayoutPasses();
+		assertFalse(layoutAlgorithm.appliedConcurrently);
+		assertTrue(layoutAlgorithm.lastAppliedOnFxThread);
+		assertSame(behavior.getHost().getAdapter(LayoutContext.class), layoutAlgorithm.lastLayoutContext);
+		assertLocations(2000);
+		assertLayoutPassesBalanced();
+
+		// subsequent synchronous layout passes are performed immediately
+		layoutAlgorithm.offset = 3000;
+		ctx.runAndWait(() -> {
+			behavior.applyLayout(true, null);
+			assertLocations(3000);
+		});
+	}
+}
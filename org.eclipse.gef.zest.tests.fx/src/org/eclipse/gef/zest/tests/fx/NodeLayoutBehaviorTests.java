@@ -124,6 +124,37 @@ public class NodeLayoutBehaviorTests {
 		assertEquals(location.getTranslated(size.getScaled(-0.5)), new Point(affine.getTx(), affine.getTy()));
 	}
 
+	@Test
+	public void test_adaptBatched() throws Exception {
+		Node nodeLayout = createNode();
+		final NodeLayoutBehavior behavior = createNodeLayoutBehavior(new Point(), null, nodeLayout);
+
+		final Point location = new Point(1, 5);
+		final Dimension size = new Dimension(100, 200);
+		LayoutProperties.setLocation(nodeLayout, location);
+		LayoutProperties.setSize(nodeLayout, size);
+
+		final Method method = NodeLayoutBehavior.class.getDeclaredMethod("postLayout", new Class<?>[] {});
+		method.setAccessible(true);
+		final TransformPolicy transformPolicy = behavior.getHost().getAdapter(TransformPolicy.class);
+		behavior.getHost().getViewer().runBatched(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					method.invoke(behavior, new Object[] {});
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				// the visual is not refreshed before the batch is finished
+				Affine affine = Geometry2FX.toFXAffine(transformPolicy.getCurrentTransform());
+				assertEquals(new Point(), new Point(affine.getTx(), affine.getTy()));
+			}
+		});
+
+		Affine affine = Geometry2FX.toFXAffine(transformPolicy.getCurrentTransform());
+		assertEquals(location.getTranslated(size.getScaled(-0.5)), new Point(affine.getTx(), affine.getTy()));
+	}
+
 	@Test
 	public void test_provide() throws Exception {
 		final Point location = new Point(10, 20);